@@ -0,0 +1,68 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authorization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Benchmarks for {@link AuthorityAuthorizationManager} checking ten rules against a
+ * service account with 300 authorities and a {@link RoleHierarchyImpl}.
+ */
+@State(Scope.Benchmark)
+public class AuthorityAuthorizationManagerBenchmarks {
+
+	private final List<AuthorityAuthorizationManager<Object>> managers = new ArrayList<>();
+
+	private Authentication authentication;
+
+	@Setup
+	public void setup() {
+		RoleHierarchyImpl roleHierarchy = RoleHierarchyImpl
+			.fromHierarchy("ROLE_ADMIN > ROLE_STAFF\nROLE_STAFF > ROLE_USER\nROLE_USER > ROLE_GUEST");
+		for (int i = 0; i < 10; i++) {
+			AuthorityAuthorizationManager<Object> manager = AuthorityAuthorizationManager
+				.hasAnyAuthority("SCOPE_missing:" + i, "ROLE_GUEST");
+			manager.setRoleHierarchy(roleHierarchy);
+			this.managers.add(manager);
+		}
+		String[] authorities = new String[300];
+		for (int i = 0; i < authorities.length - 1; i++) {
+			authorities[i] = "SCOPE_resource:" + i;
+		}
+		authorities[authorities.length - 1] = "ROLE_USER";
+		this.authentication = new TestingAuthenticationToken("service", "password", authorities);
+	}
+
+	@Benchmark
+	public void checkRules(Blackhole blackhole) {
+		for (AuthorityAuthorizationManager<Object> manager : this.managers) {
+			blackhole.consume(manager.authorize(() -> this.authentication, this));
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Benchmarks for writing and reading a {@link SecurityContext} with
+ * {@link BinarySecurityCodec}, compared to Jackson with {@link SecurityJackson2Modules}
+ * and JDK serialization.
+ */
+@State(Scope.Benchmark)
+public class BinarySecurityCodecBenchmarks {
+
+	private final BinarySecurityCodec codec = new BinarySecurityCodec();
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private SecurityContext context;
+
+	private byte[] binary;
+
+	private byte[] json;
+
+	private byte[] jdk;
+
+	@Setup
+	public void setup() throws IOException {
+		this.mapper.registerModules(SecurityJackson2Modules.getModules(getClass().getClassLoader()));
+		User user = new User("user", "password",
+				AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN", "SCOPE_profile"));
+		user.eraseCredentials();
+		UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(user,
+				null, user.getAuthorities());
+		authentication.setDetails(new WebAuthenticationDetails("127.0.0.1", "5B7D1C0F2E8A4C3B9D6E1F0A2B3C4D5E"));
+		this.context = new SecurityContextImpl(authentication);
+		this.binary = this.codec.serializeToByteArray(this.context);
+		this.json = this.mapper.writeValueAsBytes(this.context);
+		this.jdk = jdkSerialize(this.context);
+		System.out.println("\nbinary: " + this.binary.length + " bytes, json: " + this.json.length + " bytes, jdk: "
+				+ this.jdk.length + " bytes");
+	}
+
+	@Benchmark
+	public byte[] binarySerialize() {
+		return this.codec.serializeToByteArray(this.context);
+	}
+
+	@Benchmark
+	public Object binaryDeserialize() throws IOException {
+		return this.codec.deserializeFromByteArray(this.binary);
+	}
+
+	@Benchmark
+	public byte[] jacksonSerialize() throws IOException {
+		return this.mapper.writeValueAsBytes(this.context);
+	}
+
+	@Benchmark
+	public Object jacksonDeserialize() throws IOException {
+		return this.mapper.readValue(this.json, SecurityContext.class);
+	}
+
+	@Benchmark
+	public byte[] jdkSerialize() throws IOException {
+		return jdkSerialize(this.context);
+	}
+
+	@Benchmark
+	public Object jdkDeserialize() throws IOException, ClassNotFoundException {
+		try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(this.jdk))) {
+			return input.readObject();
+		}
+	}
+
+	private static byte[] jdkSerialize(Object value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(value);
+		}
+		return bytes.toByteArray();
+	}
+
+}
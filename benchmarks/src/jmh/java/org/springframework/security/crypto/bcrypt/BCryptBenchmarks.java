@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.bcrypt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link BCrypt} verifying a password hashed with the given strength.
+ */
+@State(Scope.Benchmark)
+public class BCryptBenchmarks {
+
+	@Param({ "4", "10" })
+	int strength;
+
+	private String hashed;
+
+	@Setup
+	public void setup() {
+		this.hashed = BCrypt.hashpw("password", BCrypt.gensalt(this.strength));
+	}
+
+	@Benchmark
+	public boolean checkpw() {
+		return BCrypt.checkpw("password", this.hashed);
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.security.crypto.encrypt.AesBytesEncryptor.CipherAlgorithm;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+
+/**
+ * Benchmarks for encrypting and decrypting a short token, from several threads sharing
+ * the same encryptor.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+public class EncryptorBenchmarks {
+
+	private final byte[] token = "a-per-request-token-of-moderate-length".getBytes();
+
+	private AesBytesEncryptor aes;
+
+	private BouncyCastleAesGcmBytesEncryptor bouncyCastleAes;
+
+	private RsaSecretEncryptor rsa;
+
+	private byte[] aesEncrypted;
+
+	private byte[] rsaEncrypted;
+
+	@Setup
+	public void setup() {
+		this.aes = new AesBytesEncryptor("password", "5c0744940b5c369b", KeyGenerators.secureRandom(16),
+				CipherAlgorithm.GCM);
+		this.bouncyCastleAes = new BouncyCastleAesGcmBytesEncryptor("password", "5c0744940b5c369b");
+		this.rsa = new RsaSecretEncryptor(RsaAlgorithm.OAEP, true);
+		this.aesEncrypted = this.aes.encrypt(this.token);
+		this.rsaEncrypted = this.rsa.encrypt(this.token);
+	}
+
+	@Benchmark
+	public byte[] aesEncrypt() {
+		return this.aes.encrypt(this.token);
+	}
+
+	@Benchmark
+	public byte[] aesDecrypt() {
+		return this.aes.decrypt(this.aesEncrypted);
+	}
+
+	@Benchmark
+	public byte[] bouncyCastleAesEncrypt() {
+		return this.bouncyCastleAes.encrypt(this.token);
+	}
+
+	@Benchmark
+	public byte[] rsaEncrypt() {
+		return this.rsa.encrypt(this.token);
+	}
+
+	@Benchmark
+	public byte[] rsaDecrypt() {
+		return this.rsa.decrypt(this.rsaEncrypted);
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.password;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+
+/**
+ * Benchmarks for the dispatch of {@link DelegatingPasswordEncoder} to the encoder of the
+ * id, using the "noop" encoder so that the dispatch dominates.
+ */
+@State(Scope.Benchmark)
+public class DelegatingPasswordEncoderBenchmarks {
+
+	private DelegatingPasswordEncoder encoder;
+
+	@Setup
+	public void setup() {
+		this.encoder = (DelegatingPasswordEncoder) PasswordEncoderFactories.createDelegatingPasswordEncoder();
+	}
+
+	@Benchmark
+	@SuppressWarnings("deprecation")
+	public boolean matches() {
+		return this.encoder.matches("password", "{noop}password");
+	}
+
+	@Benchmark
+	public boolean upgradeEncoding() {
+		return this.encoder.upgradeEncoding("{noop}password");
+	}
+
+}
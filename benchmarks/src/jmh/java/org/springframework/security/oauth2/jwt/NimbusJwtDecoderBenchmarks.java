@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link NimbusJwtDecoder} decoding the same RS256 token repeatedly, with
+ * and without the decoded JWT cache.
+ */
+@State(Scope.Benchmark)
+public class NimbusJwtDecoderBenchmarks {
+
+	@Param({ "false", "true" })
+	boolean cached;
+
+	private NimbusJwtDecoder jwtDecoder;
+
+	private String token;
+
+	@Setup
+	public void setup() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+		JWTClaimsSet claims = new JWTClaimsSet.Builder().subject("user")
+			.issueTime(new Date())
+			.expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+			.claim("scope", "message:read message:write")
+			.build();
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims);
+		jwt.sign(new RSASSASigner(keyPair.getPrivate()));
+		this.token = jwt.serialize();
+		NimbusJwtDecoder.PublicKeyJwtDecoderBuilder builder = NimbusJwtDecoder
+			.withPublicKey((RSAPublicKey) keyPair.getPublic());
+		if (this.cached) {
+			builder.jwtCache(10000, Duration.ofMinutes(5));
+		}
+		this.jwtDecoder = builder.build();
+	}
+
+	@Benchmark
+	public Jwt decode() {
+		return this.jwtDecoder.decode(this.token);
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+/**
+ * Benchmarks for selecting the {@link SecurityFilterChain} in {@link FilterChainProxy}.
+ * The request targets the last chain, which is the worst case for a linear scan.
+ */
+@State(Scope.Benchmark)
+public class FilterChainProxyBenchmarks {
+
+	@Param({ "1", "10", "50" })
+	int chains;
+
+	@Param({ "false", "true" })
+	boolean indexed;
+
+	private FilterChainProxy filterChainProxy;
+
+	private String servletPath;
+
+	@Setup
+	public void setup() {
+		List<SecurityFilterChain> filterChains = new ArrayList<>();
+		for (int i = 0; i < this.chains; i++) {
+			filterChains.add(new DefaultSecurityFilterChain(new AntPathRequestMatcher("/api/product" + i + "/**"),
+					new ArrayList<Filter>()));
+		}
+		this.filterChainProxy = new FilterChainProxy(filterChains);
+		this.filterChainProxy.setIndexFilterChains(this.indexed);
+		this.servletPath = "/api/product" + (this.chains - 1) + "/orders/1";
+	}
+
+	@Benchmark
+	public MockHttpServletResponse doFilter() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", this.servletPath);
+		request.setServletPath(this.servletPath);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filterChainProxy.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	@Benchmark
+	public List<Filter> getFilters() {
+		return this.filterChainProxy.getFilters(this.servletPath);
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.access.intercept;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+/**
+ * Benchmarks for {@link AuthorizationFilter} with a small set of typical rules.
+ */
+@State(Scope.Thread)
+public class AuthorizationFilterBenchmarks {
+
+	private AuthorizationFilter filter;
+
+	@Setup
+	public void setup() {
+		RequestMatcherDelegatingAuthorizationManager manager = RequestMatcherDelegatingAuthorizationManager.builder()
+			.requestMatchers(new AntPathRequestMatcher("/admin/**"))
+			.hasRole("ADMIN")
+			.requestMatchers(new AntPathRequestMatcher("/public/**"))
+			.permitAll()
+			.requestMatchers(new AntPathRequestMatcher("/api/**"))
+			.hasRole("USER")
+			.anyRequest()
+			.authenticated()
+			.build();
+		this.filter = new AuthorizationFilter(manager);
+		SecurityContextHolder.getContext()
+			.setAuthentication(new TestingAuthenticationToken("user", "password", "ROLE_USER"));
+	}
+
+	@TearDown
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Benchmark
+	public MockHttpServletResponse doFilter() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+		request.setServletPath("/api/orders");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+}
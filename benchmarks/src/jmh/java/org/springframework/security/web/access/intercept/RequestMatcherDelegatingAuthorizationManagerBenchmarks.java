@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.access.intercept;
+
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+/**
+ * Compares the linear and the indexed
+ * {@link RequestMatcherDelegatingAuthorizationManager} for rule sets shaped like those
+ * generated from OpenAPI specifications.
+ */
+@State(Scope.Benchmark)
+public class RequestMatcherDelegatingAuthorizationManagerBenchmarks {
+
+	private static final HttpMethod[] METHODS = { HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.DELETE };
+
+	@Param({ "10", "100", "1000" })
+	int rules;
+
+	@Param({ "false", "true" })
+	boolean indexed;
+
+	private RequestMatcherDelegatingAuthorizationManager manager;
+
+	private final Supplier<Authentication> authentication = () -> new TestingAuthenticationToken("user", "password",
+			"ROLE_USER");
+
+	private MockHttpServletRequest first;
+
+	private MockHttpServletRequest last;
+
+	@Setup
+	public void setup() {
+		RequestMatcherDelegatingAuthorizationManager.Builder builder = RequestMatcherDelegatingAuthorizationManager
+			.builder()
+			.indexRequestMatchers(this.indexed);
+		int resources = this.rules / METHODS.length;
+		for (int i = 0; i < resources; i++) {
+			for (HttpMethod method : METHODS) {
+				builder.add(new AntPathRequestMatcher("/api/resource" + i + "/{id}", method.name()),
+						AuthorityAuthorizationManager.hasRole("USER"));
+			}
+		}
+		builder.add(new AntPathRequestMatcher("/**"), (a, o) -> new AuthorizationDecision(false));
+		this.manager = builder.build();
+		this.first = request("/api/resource0/1");
+		this.last = request("/api/resource" + (resources - 1) + "/1");
+	}
+
+	@Benchmark
+	public AuthorizationDecision checkFirstRule() {
+		return this.manager.check(this.authentication, this.first);
+	}
+
+	@Benchmark
+	public AuthorizationDecision checkLastRule() {
+		return this.manager.check(this.authentication, this.last);
+	}
+
+	private static MockHttpServletRequest request(String servletPath) {
+		MockHttpServletRequest request = new MockHttpServletRequest("DELETE", servletPath);
+		request.setServletPath(servletPath);
+		return request;
+	}
+
+}
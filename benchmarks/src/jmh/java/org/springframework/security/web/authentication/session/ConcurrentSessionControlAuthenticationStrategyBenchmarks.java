@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication.session;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
+import org.springframework.security.core.session.ShardedSessionRegistry;
+
+/**
+ * Benchmarks for a login by a principal at its maximum number of sessions with
+ * {@link ConcurrentSessionControlAuthenticationStrategy}, which expires the least
+ * recently used session, with {@link SessionRegistryImpl} and
+ * {@link ShardedSessionRegistry}.
+ */
+@State(Scope.Benchmark)
+public class ConcurrentSessionControlAuthenticationStrategyBenchmarks {
+
+	@Param({ "10", "1000" })
+	private int maximumSessions;
+
+	@Param({ "default", "sharded" })
+	private String registryType;
+
+	private final Authentication authentication = new TestingAuthenticationToken("kiosk", "password", "ROLE_USER");
+
+	private final Deque<String> sessionIds = new ArrayDeque<>();
+
+	private SessionRegistry registry;
+
+	private ConcurrentSessionControlAuthenticationStrategy strategy;
+
+	private long nextSessionId;
+
+	@Setup
+	public void setup() {
+		this.registry = "sharded".equals(this.registryType) ? new ShardedSessionRegistry() : new SessionRegistryImpl();
+		this.strategy = new ConcurrentSessionControlAuthenticationStrategy(this.registry);
+		this.strategy.setMaximumSessions(this.maximumSessions);
+		for (int i = 0; i < this.maximumSessions; i++) {
+			registerNewSession();
+		}
+	}
+
+	@Benchmark
+	public void login() {
+		this.strategy.onAuthentication(this.authentication, new MockHttpServletRequest(),
+				new MockHttpServletResponse());
+		// the expired session is destroyed when next used
+		this.registry.removeSessionInformation(this.sessionIds.removeFirst());
+		registerNewSession();
+	}
+
+	private void registerNewSession() {
+		String sessionId = Long.toString(this.nextSessionId++);
+		this.registry.registerNewSession(sessionId, this.authentication.getPrincipal());
+		this.sessionIds.addLast(sessionId);
+	}
+
+}
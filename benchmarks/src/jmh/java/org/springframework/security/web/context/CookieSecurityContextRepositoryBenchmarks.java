@@ -0,0 +1,71 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+
+/**
+ * Benchmarks for loading and saving the {@link SecurityContext} with
+ * {@link CookieSecurityContextRepository}.
+ */
+@State(Scope.Benchmark)
+public class CookieSecurityContextRepositoryBenchmarks {
+
+	private final CookieSecurityContextRepository repository = new CookieSecurityContextRepository(
+			new AuthenticationCookieSerializer(new SecretKeySpec(KeyGenerators.secureRandom(32).generateKey(), "AES")));
+
+	private SecurityContext context;
+
+	private Cookie[] cookies;
+
+	@Setup
+	public void setup() {
+		this.context = new SecurityContextImpl(
+				new TestingAuthenticationToken("user", "password", "ROLE_USER", "ROLE_ADMIN"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.repository.saveContext(this.context, new MockHttpServletRequest("GET", "/"), response);
+		this.cookies = response.getCookies();
+	}
+
+	@Benchmark
+	public SecurityContext loadExistingContext() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setCookies(this.cookies);
+		return this.repository.loadDeferredContext(request).get();
+	}
+
+	@Benchmark
+	public MockHttpServletResponse saveContext() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.repository.saveContext(this.context, new MockHttpServletRequest("GET", "/"), response);
+		return response;
+	}
+
+}
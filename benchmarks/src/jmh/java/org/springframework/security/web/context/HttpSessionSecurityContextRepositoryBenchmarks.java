@@ -0,0 +1,69 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+/**
+ * Benchmarks for loading and saving the {@link SecurityContext} with
+ * {@link HttpSessionSecurityContextRepository}.
+ */
+@State(Scope.Benchmark)
+public class HttpSessionSecurityContextRepositoryBenchmarks {
+
+	private final HttpSessionSecurityContextRepository repository = new HttpSessionSecurityContextRepository();
+
+	private SecurityContext context;
+
+	@Setup
+	public void setup() {
+		this.context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_USER"));
+	}
+
+	@Benchmark
+	public SecurityContext loadExistingContext() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, this.context);
+		request.setSession(session);
+		return this.repository.loadDeferredContext(request).get();
+	}
+
+	@Benchmark
+	public SecurityContext loadMissingContext() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		return this.repository.loadDeferredContext(request).get();
+	}
+
+	@Benchmark
+	public MockHttpServletRequest saveContext() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		this.repository.saveContext(this.context, request, new MockHttpServletResponse());
+		return request;
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.csrf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+/**
+ * Benchmarks for {@link CsrfFilter} with the default
+ * {@link HttpSessionCsrfTokenRepository} and {@link XorCsrfTokenRequestAttributeHandler}.
+ */
+@State(Scope.Benchmark)
+public class CsrfFilterBenchmarks {
+
+	private CsrfFilter filter;
+
+	private CsrfToken token;
+
+	private String maskedToken;
+
+	@Setup
+	public void setup() {
+		HttpSessionCsrfTokenRepository repository = new HttpSessionCsrfTokenRepository();
+		this.filter = new CsrfFilter(repository);
+		this.token = repository.generateToken(new MockHttpServletRequest());
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		new XorCsrfTokenRequestAttributeHandler().handle(request, new MockHttpServletResponse(), () -> this.token);
+		this.maskedToken = ((CsrfToken) request.getAttribute(CsrfToken.class.getName())).getToken();
+	}
+
+	@Benchmark
+	public MockHttpServletResponse safeMethod() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setSession(session());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	@Benchmark
+	public MockHttpServletResponse unsafeMethodWithValidToken() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/");
+		request.setSession(session());
+		request.addHeader(this.token.getHeaderName(), this.maskedToken);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private MockHttpSession session() {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute(HttpSessionCsrfTokenRepository.class.getName().concat(".CSRF_TOKEN"), this.token);
+		return session;
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.firewall;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The multi-pass URL and header validation performed by {@link StrictHttpFirewall} prior
+ * to 6.5, with its default configuration, kept as a baseline for
+ * {@link StrictHttpFirewallBenchmarks}.
+ */
+final class LegacyStrictHttpFirewall {
+
+	private static final List<String> DEFAULT_BLOCKLIST = Arrays.asList(";", "%3b", "%3B", "%2f", "%2F", "//", "%2f%2f",
+			"%2f%2F", "%2F%2f", "%2F%2F", "\\", "%5c", "%5C", "\0", "%00", "\n", "%0a", "%0A", "\r", "%0d", "%0D");
+
+	private static final Pattern ASSIGNED_AND_NOT_ISO_CONTROL_PATTERN = Pattern
+		.compile("[\\p{IsAssigned}&&[^\\p{IsControl}]]*");
+
+	private static final Pattern HEADER_VALUE_PATTERN = Pattern.compile("[\\p{IsAssigned}&&[[^\\p{IsControl}]||\\t]]*");
+
+	static final Predicate<String> ALLOWED_HEADER_NAMES = (s) -> ASSIGNED_AND_NOT_ISO_CONTROL_PATTERN.matcher(s)
+		.matches();
+
+	static final Predicate<String> ALLOWED_HEADER_VALUES = (s) -> HEADER_VALUE_PATTERN.matcher(s).matches();
+
+	private final Set<String> encodedUrlBlocklist = new HashSet<>(DEFAULT_BLOCKLIST);
+
+	private final Set<String> decodedUrlBlocklist = new HashSet<>(DEFAULT_BLOCKLIST);
+
+	LegacyStrictHttpFirewall() {
+		this.encodedUrlBlocklist.addAll(Arrays.asList("%25", "%2e", "%2E"));
+		this.decodedUrlBlocklist.addAll(Arrays.asList("%", "\u2028", "\u2029"));
+	}
+
+	void validate(HttpServletRequest request) {
+		for (String forbidden : this.encodedUrlBlocklist) {
+			if (valueContains(request.getContextPath(), forbidden)
+					|| valueContains(request.getRequestURI(), forbidden)) {
+				throw new RequestRejectedException(forbidden);
+			}
+		}
+		for (String forbidden : this.decodedUrlBlocklist) {
+			if (valueContains(request.getServletPath(), forbidden) || valueContains(request.getPathInfo(), forbidden)) {
+				throw new RequestRejectedException(forbidden);
+			}
+		}
+		if (!isNormalized(request.getRequestURI()) || !isNormalized(request.getContextPath())
+				|| !isNormalized(request.getServletPath()) || !isNormalized(request.getPathInfo())) {
+			throw new RequestRejectedException("The request was rejected because the URL was not normalized.");
+		}
+		String uri = request.getRequestURI();
+		for (int i = 0; i < uri.length(); i++) {
+			char ch = uri.charAt(i);
+			if (ch < ' ' || ch > '~') {
+				throw new RequestRejectedException("requestURI");
+			}
+		}
+	}
+
+	private static boolean valueContains(String value, String contains) {
+		return value != null && value.contains(contains);
+	}
+
+	private static boolean isNormalized(String path) {
+		if (path == null) {
+			return true;
+		}
+		for (int i = path.length(); i > 0;) {
+			int slashIndex = path.lastIndexOf('/', i - 1);
+			int gap = i - slashIndex;
+			if (gap == 2 && path.charAt(slashIndex + 1) == '.') {
+				return false;
+			}
+			if (gap == 3 && path.charAt(slashIndex + 1) == '.' && path.charAt(slashIndex + 2) == '.') {
+				return false;
+			}
+			i = slashIndex;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.firewall;
+
+import java.util.Enumeration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Benchmarks for {@link StrictHttpFirewall} with a request carrying typical browser
+ * headers and query parameters, compared to the {@link LegacyStrictHttpFirewall}
+ * baseline.
+ */
+@State(Scope.Benchmark)
+public class StrictHttpFirewallBenchmarks {
+
+	private final StrictHttpFirewall firewall = new StrictHttpFirewall();
+
+	private final LegacyStrictHttpFirewall legacy = new LegacyStrictHttpFirewall();
+
+	private MockHttpServletRequest request;
+
+	@Setup
+	public void setup() {
+		this.request = new MockHttpServletRequest("GET", "/app/api/orders/12345/items");
+		this.request.setContextPath("/app");
+		this.request.setServletPath("/api/orders/12345/items");
+		this.request.setQueryString("page=2&size=50&sort=createdDate,desc");
+		this.request.addParameter("page", "2");
+		this.request.addParameter("size", "50");
+		this.request.addParameter("sort", "createdDate,desc");
+		this.request.addHeader("Host", "www.example.com");
+		this.request.addHeader("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+		this.request.addHeader("Accept-Language", "en-US,en;q=0.5");
+		this.request.addHeader("Accept-Encoding", "gzip, deflate, br");
+		this.request.addHeader("User-Agent", "Mozilla/5.0 (X11; Linux x86_64; rv:120.0) Gecko/20100101 Firefox/120.0");
+		this.request.addHeader("Cookie", "JSESSIONID=6A1B2C3D4E5F60718293A4B5C6D7E8F9; theme=dark");
+		this.request.addHeader("X-Requested-With", "XMLHttpRequest");
+	}
+
+	@Benchmark
+	public FirewalledRequest getFirewalledRequest() {
+		return this.firewall.getFirewalledRequest(this.request);
+	}
+
+	@Benchmark
+	public void getFirewalledRequestAndReadHeaders(Blackhole blackhole) {
+		FirewalledRequest firewalled = this.firewall.getFirewalledRequest(this.request);
+		Enumeration<String> names = firewalled.getHeaderNames();
+		while (names.hasMoreElements()) {
+			blackhole.consume(firewalled.getHeader(names.nextElement()));
+		}
+		blackhole.consume(firewalled.getParameterMap());
+	}
+
+	@Benchmark
+	public void validateUrl() {
+		this.firewall.getFirewalledRequest(this.request);
+	}
+
+	@Benchmark
+	public void legacyValidateUrl() {
+		this.legacy.validate(this.request);
+	}
+
+	@Benchmark
+	public void validateHeaders(Blackhole blackhole) {
+		Enumeration<String> names = this.request.getHeaderNames();
+		while (names.hasMoreElements()) {
+			String name = names.nextElement();
+			blackhole.consume(StrictHttpFirewall.ALLOWED_HEADER_NAMES.test(name));
+			blackhole.consume(StrictHttpFirewall.ALLOWED_HEADER_VALUES.test(this.request.getHeader(name)));
+		}
+	}
+
+	@Benchmark
+	public void legacyValidateHeaders(Blackhole blackhole) {
+		Enumeration<String> names = this.request.getHeaderNames();
+		while (names.hasMoreElements()) {
+			String name = names.nextElement();
+			blackhole.consume(LegacyStrictHttpFirewall.ALLOWED_HEADER_NAMES.test(name));
+			blackhole.consume(LegacyStrictHttpFirewall.ALLOWED_HEADER_VALUES.test(this.request.getHeader(name)));
+		}
+	}
+
+}
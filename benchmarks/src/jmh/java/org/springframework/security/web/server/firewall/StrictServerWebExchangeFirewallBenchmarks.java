@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.firewall;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+
+/**
+ * Benchmarks for {@link StrictServerWebExchangeFirewall} with a request carrying typical
+ * browser headers and query parameters.
+ */
+@State(Scope.Benchmark)
+public class StrictServerWebExchangeFirewallBenchmarks {
+
+	private final StrictServerWebExchangeFirewall firewall = new StrictServerWebExchangeFirewall();
+
+	private final ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+
+	private final DefaultWebSessionManager sessionManager = new DefaultWebSessionManager();
+
+	private final AcceptHeaderLocaleContextResolver localeContextResolver = new AcceptHeaderLocaleContextResolver();
+
+	private MockServerHttpRequest request;
+
+	@Setup
+	public void setup() {
+		// @formatter:off
+		this.request = MockServerHttpRequest.get("https://www.example.com/app/api/orders/12345/items")
+			.queryParam("page", "2")
+			.queryParam("size", "50")
+			.header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+			.header("Accept-Language", "en-US,en;q=0.5")
+			.header("User-Agent", "Mozilla/5.0 (X11; Linux x86_64; rv:120.0) Gecko/20100101 Firefox/120.0")
+			.header("Cookie", "SESSION=6A1B2C3D4E5F60718293A4B5C6D7E8F9; theme=dark")
+			.build();
+		// @formatter:on
+	}
+
+	@Benchmark
+	public ServerWebExchange getFirewalledExchange() {
+		return this.firewall.getFirewalledExchange(exchange()).block();
+	}
+
+	@Benchmark
+	public String getFirewalledExchangeAndReadHeaders() {
+		ServerWebExchange exchange = this.firewall.getFirewalledExchange(exchange()).block();
+		exchange.getRequest().getHeaders().keySet();
+		exchange.getRequest().getQueryParams();
+		return exchange.getRequest().getHeaders().getFirst("User-Agent");
+	}
+
+	private ServerWebExchange exchange() {
+		return new DefaultServerWebExchange(this.request, new MockServerHttpResponse(), this.sessionManager,
+				this.codecConfigurer, this.localeContextResolver);
+	}
+
+}
@@ -107,6 +107,8 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 
 	private boolean debugEnabled;
 
+	private boolean indexFilterChains;
+
 	private WebInvocationPrivilegeEvaluator privilegeEvaluator;
 
 	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
@@ -209,6 +211,20 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 		return this;
 	}
 
+	/**
+	 * Controls whether the {@link SecurityFilterChain}s are compiled into an index that
+	 * is used to select the chain for each request. This is useful with many filter
+	 * chains whose request matchers are path-based.
+	 * @param indexFilterChains if true, indexes the filter chains. Default is false.
+	 * @return the {@link WebSecurity} for further customization.
+	 * @since 6.5
+	 * @see FilterChainProxy#setIndexFilterChains(boolean)
+	 */
+	public WebSecurity indexFilterChains(boolean indexFilterChains) {
+		this.indexFilterChains = indexFilterChains;
+		return this;
+	}
+
 	/**
 	 * <p>
 	 * Adds builders to create {@link SecurityFilterChain} instances.
@@ -334,6 +350,7 @@ public final class WebSecurity extends AbstractConfiguredSecurityBuilder<Filter,
 		}
 		filterChainProxy.setFilterChainValidator(new WebSecurityFilterChainValidator());
 		filterChainProxy.setFilterChainDecorator(getFilterChainDecorator());
+		filterChainProxy.setIndexFilterChains(this.indexFilterChains);
 		filterChainProxy.afterPropertiesSet();
 
 		Filter result = filterChainProxy;
@@ -203,6 +203,22 @@ public final class AuthorizeHttpRequestsConfigurer<H extends HttpSecurityBuilder
 			return this;
 		}
 
+		/**
+		 * Sets whether the mappings should be compiled into an index that narrows down
+		 * which {@link RequestMatcher}s are evaluated for each request. This is useful
+		 * when there are many path-based mappings.
+		 * @param indexRequestMatchers whether to index the mappings. Default is
+		 * {@code false}
+		 * @return the {@link AuthorizationManagerRequestMatcherRegistry} for further
+		 * customizations
+		 * @since 6.5
+		 * @see RequestMatcherDelegatingAuthorizationManager.Builder#indexRequestMatchers(boolean)
+		 */
+		public AuthorizationManagerRequestMatcherRegistry indexRequestMatchers(boolean indexRequestMatchers) {
+			this.managerBuilder.indexRequestMatchers(indexRequestMatchers);
+			return this;
+		}
+
 		/**
 		 * Sets whether all dispatcher types should be filtered.
 		 * @param shouldFilter should filter all dispatcher types. Default is {@code true}
@@ -20,7 +20,10 @@ import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.core.AuthenticatedPrincipal;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.CredentialsContainer;
@@ -45,6 +48,8 @@ public abstract class AbstractAuthenticationToken implements Authentication, Cre
 
 	private boolean authenticated = false;
 
+	private transient volatile ReachableAuthorities reachableAuthorities;
+
 	/**
 	 * Creates a token with the supplied array of authorities.
 	 * @param authorities the collection of <tt>GrantedAuthority</tt>s for the principal
@@ -66,6 +71,27 @@ public abstract class AbstractAuthenticationToken implements Authentication, Cre
 		return this.authorities;
 	}
 
+	/**
+	 * Returns the authorities reachable from the authorities of this token through the
+	 * {@link RoleHierarchy}, as an immutable set of authority strings. The set is
+	 * computed on first use and kept for as long as the same {@link RoleHierarchy}
+	 * instance is passed, so that repeated authorization checks of this token need
+	 * neither expand the authorities again nor scan them.
+	 * @param roleHierarchy the {@link RoleHierarchy} to expand the authorities with
+	 * @return the reachable authorities
+	 * @since 6.5
+	 */
+	public Set<String> getReachableAuthorities(RoleHierarchy roleHierarchy) {
+		Assert.notNull(roleHierarchy, "roleHierarchy cannot be null");
+		ReachableAuthorities reachable = this.reachableAuthorities;
+		if (reachable == null || reachable.roleHierarchy != roleHierarchy) {
+			reachable = new ReachableAuthorities(roleHierarchy,
+					roleHierarchy.getReachableGrantedAuthorities(getAuthorities()));
+			this.reachableAuthorities = reachable;
+		}
+		return reachable.authorities;
+	}
+
 	@Override
 	public String getName() {
 		if (this.getPrincipal() instanceof UserDetails userDetails) {
@@ -183,4 +209,22 @@ public abstract class AbstractAuthenticationToken implements Authentication, Cre
 		return sb.toString();
 	}
 
+	private static final class ReachableAuthorities {
+
+		private final RoleHierarchy roleHierarchy;
+
+		private final Set<String> authorities;
+
+		private ReachableAuthorities(RoleHierarchy roleHierarchy,
+				Collection<? extends GrantedAuthority> reachableAuthorities) {
+			Set<String> authorities = new HashSet<>(reachableAuthorities.size() * 4 / 3 + 1);
+			for (GrantedAuthority authority : reachableAuthorities) {
+				authorities.add(authority.getAuthority());
+			}
+			this.roleHierarchy = roleHierarchy;
+			this.authorities = Collections.unmodifiableSet(authorities);
+		}
+
+	}
+
 }
@@ -28,6 +28,7 @@ import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.security.authentication.password.CompromisedPasswordChecker;
 import org.springframework.security.authentication.password.CompromisedPasswordDecision;
 import org.springframework.security.authentication.password.CompromisedPasswordException;
+import org.springframework.security.authentication.password.PasswordHashingExecutor;
 import org.springframework.security.authentication.password.ReactiveCompromisedPasswordChecker;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.SpringSecurityMessageSource;
@@ -70,6 +71,8 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 
 	private ReactiveCompromisedPasswordChecker compromisedPasswordChecker;
 
+	private PasswordHashingExecutor passwordHashingExecutor;
+
 	private void defaultPreAuthenticationChecks(UserDetails user) {
 		if (!user.isAccountNonLocked()) {
 			this.logger.debug("User account is locked");
@@ -103,8 +106,7 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 		// @formatter:off
 		return retrieveUser(username)
 				.doOnNext(this.preAuthenticationChecks::check)
-				.publishOn(this.scheduler)
-				.filter((userDetails) -> this.passwordEncoder.matches(presentedPassword, userDetails.getPassword()))
+				.filterWhen((userDetails) -> matches(username, presentedPassword, userDetails.getPassword()))
 				.switchIfEmpty(Mono.defer(() -> Mono.error(new BadCredentialsException("Invalid Credentials"))))
 				.flatMap((userDetails) -> checkCompromisedPassword(presentedPassword).thenReturn(userDetails))
 				.flatMap((userDetails) -> upgradeEncodingIfNecessary(userDetails, presentedPassword))
@@ -113,6 +115,17 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 		// @formatter:on
 	}
 
+	private Mono<Boolean> matches(String username, String presentedPassword, String encodedPassword) {
+		if (this.passwordHashingExecutor == null) {
+			return Mono.fromCallable(() -> this.passwordEncoder.matches(presentedPassword, encodedPassword))
+				.subscribeOn(this.scheduler);
+		}
+		return Mono
+			.fromFuture(() -> this.passwordHashingExecutor.submit(username,
+					() -> this.passwordEncoder.matches(presentedPassword, encodedPassword)))
+			.publishOn(this.scheduler);
+	}
+
 	private Mono<Void> checkCompromisedPassword(String password) {
 		if (this.compromisedPasswordChecker == null) {
 			return Mono.empty();
@@ -203,6 +216,20 @@ public abstract class AbstractUserDetailsReactiveAuthenticationManager
 		this.compromisedPasswordChecker = compromisedPasswordChecker;
 	}
 
+	/**
+	 * Sets the {@link PasswordHashingExecutor} used to verify passwords, for example a
+	 * {@link org.springframework.security.authentication.password.BoundedPasswordHashingExecutor}
+	 * to bound the number of passwords verified at once. When set, passwords are verified
+	 * on it instead of on the {@link #setScheduler(Scheduler) Scheduler}, and the rest of
+	 * the authentication continues on the {@link Scheduler} so that it does not occupy
+	 * the executor. Defaults to {@code null}.
+	 * @param passwordHashingExecutor the {@link PasswordHashingExecutor} to use
+	 * @since 6.5
+	 */
+	public void setPasswordHashingExecutor(PasswordHashingExecutor passwordHashingExecutor) {
+		this.passwordHashingExecutor = passwordHashingExecutor;
+	}
+
 	/**
 	 * Allows subclasses to retrieve the <code>UserDetails</code> from an
 	 * implementation-specific location.
@@ -16,14 +16,18 @@
 
 package org.springframework.security.authentication.dao;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.password.CompromisedPasswordChecker;
 import org.springframework.security.authentication.password.CompromisedPasswordException;
+import org.springframework.security.authentication.password.PasswordHashingExecutor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -68,6 +72,8 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 
 	private CompromisedPasswordChecker compromisedPasswordChecker;
 
+	private PasswordHashingExecutor passwordHashingExecutor;
+
 	/**
 	 * @deprecated Please provide the {@link UserDetailsService} in the constructor
 	 */
@@ -101,7 +107,7 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 				.getMessage("AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
 		}
 		String presentedPassword = authentication.getCredentials().toString();
-		if (!this.passwordEncoder.get().matches(presentedPassword, userDetails.getPassword())) {
+		if (!matches(authentication.getName(), presentedPassword, userDetails.getPassword())) {
 			this.logger.debug("Failed to authenticate since password does not match stored value");
 			throw new BadCredentialsException(this.messages
 				.getMessage("AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
@@ -164,7 +170,29 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 	private void mitigateAgainstTimingAttack(UsernamePasswordAuthenticationToken authentication) {
 		if (authentication.getCredentials() != null) {
 			String presentedPassword = authentication.getCredentials().toString();
-			this.passwordEncoder.get().matches(presentedPassword, this.userNotFoundEncodedPassword);
+			matches(authentication.getName(), presentedPassword, this.userNotFoundEncodedPassword);
+		}
+	}
+
+	private boolean matches(String username, String presentedPassword, String encodedPassword) {
+		if (this.passwordHashingExecutor == null) {
+			return this.passwordEncoder.get().matches(presentedPassword, encodedPassword);
+		}
+		CompletableFuture<Boolean> matches = this.passwordHashingExecutor.submit(username,
+				() -> this.passwordEncoder.get().matches(presentedPassword, encodedPassword));
+		try {
+			return matches.get();
+		}
+		catch (InterruptedException ex) {
+			matches.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new AuthenticationServiceException("Interrupted while verifying the password", ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new InternalAuthenticationServiceException(ex.getCause().getMessage(), ex.getCause());
 		}
 	}
 
@@ -212,4 +240,16 @@ public class DaoAuthenticationProvider extends AbstractUserDetailsAuthentication
 		this.compromisedPasswordChecker = compromisedPasswordChecker;
 	}
 
+	/**
+	 * Sets the {@link PasswordHashingExecutor} used to verify passwords, for example a
+	 * {@link org.springframework.security.authentication.password.BoundedPasswordHashingExecutor}
+	 * to bound the number of passwords verified at once. Defaults to {@code null}, which
+	 * verifies passwords on the calling thread.
+	 * @param passwordHashingExecutor the {@link PasswordHashingExecutor} to use
+	 * @since 6.5
+	 */
+	public void setPasswordHashingExecutor(PasswordHashingExecutor passwordHashingExecutor) {
+		this.passwordHashingExecutor = passwordHashingExecutor;
+	}
+
 }
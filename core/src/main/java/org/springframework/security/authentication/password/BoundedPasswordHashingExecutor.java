@@ -0,0 +1,178 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link PasswordHashingExecutor} that hashes on a fixed number of threads with a
+ * bounded queue, so that a burst of login attempts cannot occupy every request thread
+ * with hashing.
+ *
+ * <p>
+ * Hashing is rejected with an {@link AuthenticationServiceException}, rather than queued,
+ * when the queue is full or when the same user already has the maximum number of pending
+ * hashes, so that a single user cannot fill the queue.
+ *
+ * <p>
+ * Each hash is recorded as a {@code spring.security.password.hashing} {@link Observation}
+ * whose duration is the hash time, with a {@code password.hashing.result} key of
+ * {@code completed} or {@code rejected}. The current queue depth is available from
+ * {@link #getQueueSize()}.
+ *
+ * @since 6.5
+ */
+public final class BoundedPasswordHashingExecutor implements PasswordHashingExecutor, DisposableBean {
+
+	static final String OBSERVATION_NAME = "spring.security.password.hashing";
+
+	static final String RESULT_KEY = "password.hashing.result";
+
+	private final ThreadPoolExecutor executor;
+
+	private final Map<String, Integer> pendingByUsername = new ConcurrentHashMap<>();
+
+	private int maxPendingPerUsername = 2;
+
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	/**
+	 * Creates a {@code BoundedPasswordHashingExecutor} with a thread per available
+	 * processor and a queue of four times that many hashes.
+	 */
+	public BoundedPasswordHashingExecutor() {
+		this(Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * Creates a {@code BoundedPasswordHashingExecutor} using the provided parameters.
+	 * @param threads the number of threads to hash on
+	 * @param queueCapacity the maximum number of hashes waiting for a thread
+	 */
+	public BoundedPasswordHashingExecutor(int threads, int queueCapacity) {
+		Assert.isTrue(threads > 0, "threads must be greater than 0");
+		Assert.isTrue(queueCapacity >= 0, "queueCapacity cannot be negative");
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+		threadFactory.setDaemon(true);
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				(queueCapacity > 0) ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+				threadFactory);
+	}
+
+	@Override
+	public <T> CompletableFuture<T> submit(String username, Supplier<T> hashing) {
+		String key = (username != null) ? username : "";
+		if (this.pendingByUsername.merge(key, 1, Integer::sum) > this.maxPendingPerUsername) {
+			release(key);
+			throw rejected("Too many pending password hashes for this user");
+		}
+		CompletableFuture<T> result = new CompletableFuture<>();
+		try {
+			this.executor.execute(() -> {
+				try {
+					result.complete(hash(hashing));
+				}
+				catch (Throwable ex) {
+					result.completeExceptionally(ex);
+				}
+				finally {
+					release(key);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			release(key);
+			throw rejected("Password hashing capacity exceeded");
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of hashes waiting for a thread.
+	 * @return the number of hashes waiting for a thread
+	 */
+	public int getQueueSize() {
+		return this.executor.getQueue().size();
+	}
+
+	/**
+	 * Returns the number of threads currently hashing.
+	 * @return the number of threads currently hashing
+	 */
+	public int getActiveCount() {
+		return this.executor.getActiveCount();
+	}
+
+	/**
+	 * Sets the maximum number of pending hashes for the same user. Defaults to 2.
+	 * @param maxPendingPerUsername the maximum number of pending hashes for the same user
+	 */
+	public void setMaxPendingPerUsername(int maxPendingPerUsername) {
+		Assert.isTrue(maxPendingPerUsername > 0, "maxPendingPerUsername must be greater than 0");
+		this.maxPendingPerUsername = maxPendingPerUsername;
+	}
+
+	/**
+	 * Sets the {@link ObservationRegistry} used to record hashes. Defaults to
+	 * {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the {@link ObservationRegistry} to use
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+	private <T> T hash(Supplier<T> hashing) {
+		return Observation.createNotStarted(OBSERVATION_NAME, this.observationRegistry)
+			.lowCardinalityKeyValue(RESULT_KEY, "completed")
+			.observe(hashing);
+	}
+
+	private AuthenticationServiceException rejected(String message) {
+		Observation.createNotStarted(OBSERVATION_NAME, this.observationRegistry)
+			.lowCardinalityKeyValue(RESULT_KEY, "rejected")
+			.start()
+			.stop();
+		return new AuthenticationServiceException(message);
+	}
+
+	private void release(String key) {
+		this.pendingByUsername.computeIfPresent(key, (k, pending) -> (pending > 1) ? pending - 1 : null);
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.springframework.util.Assert;
+
+/**
+ * A read-only, memory-mapped index of breached password SHA-1 hashes, as written by
+ * {@link HaveIBeenPwnedIndexWriter}.
+ *
+ * <p>
+ * The index starts with a header holding a magic number, the format version and the
+ * number of hashes, followed by a fan-out table of {@value #FANOUT_SIZE} offsets that
+ * gives, for each value of the first two bytes of a hash, the position of the first hash
+ * starting with them. The hashes follow in ascending unsigned order, {@value #HASH_SIZE}
+ * bytes each. A lookup reads the fan-out table and binary searches the hashes sharing the
+ * same first two bytes. Only the fan-out table is copied to the heap; the hashes are read
+ * from the mapped file.
+ *
+ * @since 6.5
+ */
+final class HaveIBeenPwnedIndex {
+
+	static final int MAGIC = 0x48494250;
+
+	static final int VERSION = 1;
+
+	static final int HASH_SIZE = 20;
+
+	static final int FANOUT_SIZE = 65536;
+
+	static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+	static final int FANOUT_BYTES = (FANOUT_SIZE + 1) * Long.BYTES;
+
+	private static final int HASHES_PER_SEGMENT = Integer.MAX_VALUE / HASH_SIZE;
+
+	private final long[] fanout;
+
+	private final MappedByteBuffer[] segments;
+
+	private final long count;
+
+	private HaveIBeenPwnedIndex(long[] fanout, MappedByteBuffer[] segments, long count) {
+		this.fanout = fanout;
+		this.segments = segments;
+		this.count = count;
+	}
+
+	/**
+	 * Maps the index file.
+	 * @param index the index file
+	 * @return the mapped index
+	 * @throws UncheckedIOException if the index cannot be read
+	 * @throws IllegalArgumentException if the file is not a valid index
+	 */
+	static HaveIBeenPwnedIndex map(Path index) {
+		Assert.notNull(index, "index cannot be null");
+		try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+			Assert.isTrue(channel.size() >= HEADER_SIZE + FANOUT_BYTES, () -> index + " is not a password index");
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + FANOUT_BYTES);
+			Assert.isTrue(header.getInt() == MAGIC, () -> index + " is not a password index");
+			int version = header.getInt();
+			Assert.isTrue(version == VERSION, () -> "Unsupported password index version " + version);
+			long count = header.getLong();
+			Assert.isTrue(channel.size() == HEADER_SIZE + FANOUT_BYTES + count * HASH_SIZE,
+					() -> index + " has an unexpected size");
+			long[] fanout = new long[FANOUT_SIZE + 1];
+			LongBuffer offsets = header.asLongBuffer();
+			offsets.get(fanout);
+			Assert.isTrue(fanout[FANOUT_SIZE] == count, () -> index + " is corrupted");
+			int segmentCount = (int) ((count + HASHES_PER_SEGMENT - 1) / HASHES_PER_SEGMENT);
+			MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+			for (int i = 0; i < segmentCount; i++) {
+				long first = (long) i * HASHES_PER_SEGMENT;
+				long hashes = Math.min(HASHES_PER_SEGMENT, count - first);
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + FANOUT_BYTES + first * HASH_SIZE,
+						hashes * HASH_SIZE);
+			}
+			return new HaveIBeenPwnedIndex(fanout, segments, count);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Unable to read password index " + index, ex);
+		}
+	}
+
+	/**
+	 * Whether the SHA-1 hash of the password is in the index.
+	 * @param password the password
+	 * @return {@code true} if the password is in the index
+	 */
+	boolean contains(String password) {
+		return contains(sha1(password));
+	}
+
+	/**
+	 * Whether the SHA-1 hash is in the index.
+	 * @param hash the SHA-1 hash
+	 * @return {@code true} if the hash is in the index
+	 */
+	boolean contains(byte[] hash) {
+		int bucket = ((hash[0] & 0xff) << 8) | (hash[1] & 0xff);
+		long low = this.fanout[bucket];
+		long high = this.fanout[bucket + 1] - 1;
+		while (low <= high) {
+			long middle = (low + high) >>> 1;
+			int comparison = compare(middle, hash);
+			if (comparison < 0) {
+				low = middle + 1;
+			}
+			else if (comparison > 0) {
+				high = middle - 1;
+			}
+			else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	long size() {
+		return this.count;
+	}
+
+	private int compare(long position, byte[] hash) {
+		ByteBuffer segment = this.segments[(int) (position / HASHES_PER_SEGMENT)];
+		int offset = (int) (position % HASHES_PER_SEGMENT) * HASH_SIZE;
+		// the first two bytes are equal within a bucket
+		for (int i = 2; i < HASH_SIZE; i++) {
+			int comparison = Byte.compareUnsigned(segment.get(offset + i), hash[i]);
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+		return 0;
+	}
+
+	static byte[] sha1(String password) {
+		try {
+			return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex.getMessage(), ex);
+		}
+	}
+
+}
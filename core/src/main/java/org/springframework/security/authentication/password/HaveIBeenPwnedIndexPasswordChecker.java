@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.nio.file.Path;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Checks if the provided password was leaked by looking up its SHA-1 hash in a local copy
+ * of the <a href="https://haveibeenpwned.com/Passwords">Pwned Passwords</a> data set,
+ * without any network call. The index file is written from the downloaded data set by
+ * {@link HaveIBeenPwnedIndexWriter} and memory-mapped rather than loaded on the heap, so
+ * that a lookup is a binary search over the pages of the file that it touches.
+ *
+ * @since 6.5
+ * @see HaveIBeenPwnedIndexReactivePasswordChecker
+ */
+public final class HaveIBeenPwnedIndexPasswordChecker implements CompromisedPasswordChecker {
+
+	private final HaveIBeenPwnedIndex index;
+
+	/**
+	 * Constructs a {@code HaveIBeenPwnedIndexPasswordChecker} using the provided
+	 * parameters.
+	 * @param index the index file written by {@link HaveIBeenPwnedIndexWriter}
+	 * @throws java.io.UncheckedIOException if the index cannot be read
+	 * @throws IllegalArgumentException if the file is not a valid index
+	 */
+	public HaveIBeenPwnedIndexPasswordChecker(Path index) {
+		this.index = HaveIBeenPwnedIndex.map(index);
+	}
+
+	@Override
+	@NonNull
+	public CompromisedPasswordDecision check(String password) {
+		return new CompromisedPasswordDecision(this.index.contains(password));
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.nio.file.Path;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.util.Assert;
+
+/**
+ * Checks if the provided password was leaked by looking up its SHA-1 hash in a local copy
+ * of the <a href="https://haveibeenpwned.com/Passwords">Pwned Passwords</a> data set,
+ * without any network call. The index file is written from the downloaded data set by
+ * {@link HaveIBeenPwnedIndexWriter} and memory-mapped rather than loaded on the heap.
+ *
+ * <p>
+ * Since reading a page of the index that is not yet in memory blocks, lookups are
+ * performed on {@link Schedulers#boundedElastic()} by default.
+ *
+ * @since 6.5
+ * @see HaveIBeenPwnedIndexPasswordChecker
+ */
+public final class HaveIBeenPwnedIndexReactivePasswordChecker implements ReactiveCompromisedPasswordChecker {
+
+	private final HaveIBeenPwnedIndex index;
+
+	private Scheduler scheduler = Schedulers.boundedElastic();
+
+	/**
+	 * Constructs a {@code HaveIBeenPwnedIndexReactivePasswordChecker} using the provided
+	 * parameters.
+	 * @param index the index file written by {@link HaveIBeenPwnedIndexWriter}
+	 * @throws java.io.UncheckedIOException if the index cannot be read
+	 * @throws IllegalArgumentException if the file is not a valid index
+	 */
+	public HaveIBeenPwnedIndexReactivePasswordChecker(Path index) {
+		this.index = HaveIBeenPwnedIndex.map(index);
+	}
+
+	@Override
+	public Mono<CompromisedPasswordDecision> check(String password) {
+		return Mono.fromSupplier(() -> new CompromisedPasswordDecision(this.index.contains(password)))
+			.subscribeOn(this.scheduler);
+	}
+
+	/**
+	 * Sets the {@link Scheduler} used to look up passwords. Defaults to
+	 * {@link Schedulers#boundedElastic()}.
+	 * @param scheduler the {@link Scheduler} to use
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.util.Assert;
+
+/**
+ * Writes the password index read by {@link HaveIBeenPwnedIndexPasswordChecker} and
+ * {@link HaveIBeenPwnedIndexReactivePasswordChecker} from the
+ * <a href="https://github.com/HaveIBeenPwned/PwnedPasswordsDownloader">Pwned Passwords
+ * downloads</a>.
+ *
+ * <p>
+ * The source is either a single file of {@code HASH:COUNT} lines, or a directory of range
+ * files named by their five character hash prefix, such as {@code 21BD1.txt}, of
+ * {@code SUFFIX:COUNT} lines. The hashes must be SHA-1 hashes in ascending order, as they
+ * are downloaded. Both are streamed, so the index can be written from the full data set
+ * without holding it in memory. The index is typically written once, for example from a
+ * build step or a small application, after downloading the hashes:
+ *
+ * <pre>
+ * long count = HaveIBeenPwnedIndexWriter.write(Path.of("pwnedpasswords"), Path.of("pwnedpasswords.idx"));
+ * </pre>
+ *
+ * @since 6.5
+ */
+public final class HaveIBeenPwnedIndexWriter {
+
+	private static final int SHA1_HEX_LENGTH = HaveIBeenPwnedIndex.HASH_SIZE * 2;
+
+	private static final int PREFIX_LENGTH = 5;
+
+	private static final int BUFFER_HASHES = 8192;
+
+	private HaveIBeenPwnedIndexWriter() {
+	}
+
+	/**
+	 * Writes the index of the hashes in the source.
+	 * @param source a file of {@code HASH:COUNT} lines or a directory of range files
+	 * @param index the index file to write, replaced if it exists
+	 * @return the number of hashes written
+	 * @throws IOException if the source cannot be read or the index cannot be written
+	 * @throws IllegalArgumentException if the source is not in the expected format
+	 */
+	public static long write(Path source, Path index) throws IOException {
+		Assert.notNull(source, "source cannot be null");
+		Assert.notNull(index, "index cannot be null");
+		long[] fanout = new long[HaveIBeenPwnedIndex.FANOUT_SIZE + 1];
+		try (FileChannel channel = FileChannel.open(index, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel.position(HaveIBeenPwnedIndex.HEADER_SIZE + HaveIBeenPwnedIndex.FANOUT_BYTES);
+			HashWriter hashes = new HashWriter(channel, fanout);
+			for (Path range : ranges(source)) {
+				hashes.write(range, prefix(source, range));
+			}
+			hashes.flush();
+			for (int i = 0; i < HaveIBeenPwnedIndex.FANOUT_SIZE; i++) {
+				fanout[i + 1] += fanout[i];
+			}
+			ByteBuffer header = ByteBuffer.allocate(HaveIBeenPwnedIndex.HEADER_SIZE + HaveIBeenPwnedIndex.FANOUT_BYTES);
+			header.putInt(HaveIBeenPwnedIndex.MAGIC);
+			header.putInt(HaveIBeenPwnedIndex.VERSION);
+			header.putLong(hashes.count);
+			header.asLongBuffer().put(fanout);
+			header.rewind();
+			channel.position(0);
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+			return hashes.count;
+		}
+	}
+
+	private static List<Path> ranges(Path source) throws IOException {
+		if (!Files.isDirectory(source)) {
+			return List.of(source);
+		}
+		List<Path> ranges = new ArrayList<>();
+		try (Stream<Path> files = Files.list(source)) {
+			files.filter((file) -> rangePrefix(file) != null).forEach(ranges::add);
+		}
+		ranges.sort(Comparator.comparing(HaveIBeenPwnedIndexWriter::rangePrefix));
+		return ranges;
+	}
+
+	private static String prefix(Path source, Path range) {
+		return source.equals(range) ? "" : rangePrefix(range);
+	}
+
+	private static String rangePrefix(Path file) {
+		String name = file.getFileName().toString();
+		int extension = name.indexOf('.');
+		String prefix = (extension != -1) ? name.substring(0, extension) : name;
+		if (prefix.length() != PREFIX_LENGTH || !Files.isRegularFile(file)) {
+			return null;
+		}
+		for (int i = 0; i < PREFIX_LENGTH; i++) {
+			if (Character.digit(prefix.charAt(i), 16) == -1) {
+				return null;
+			}
+		}
+		return prefix.toUpperCase(Locale.ROOT);
+	}
+
+	private static final class HashWriter {
+
+		private final FileChannel channel;
+
+		private final long[] bucketCounts;
+
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_HASHES * HaveIBeenPwnedIndex.HASH_SIZE);
+
+		private byte[] previous;
+
+		private long count;
+
+		private HashWriter(FileChannel channel, long[] bucketCounts) {
+			this.channel = channel;
+			this.bucketCounts = bucketCounts;
+		}
+
+		private void write(Path range, String prefix) throws IOException {
+			try (BufferedReader reader = Files.newBufferedReader(range, StandardCharsets.US_ASCII)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					int separator = line.indexOf(':');
+					String hex = prefix + ((separator != -1) ? line.substring(0, separator) : line).strip();
+					if (hex.length() == prefix.length()) {
+						continue;
+					}
+					Assert.isTrue(hex.length() == SHA1_HEX_LENGTH,
+							() -> "Expected a SHA-1 hash in " + range + " but found " + hex);
+					write(Hex.decode(hex), range);
+				}
+			}
+		}
+
+		private void write(byte[] hash, Path range) throws IOException {
+			if (this.previous != null) {
+				int comparison = Arrays.compareUnsigned(this.previous, hash);
+				if (comparison == 0) {
+					return;
+				}
+				Assert.isTrue(comparison < 0,
+						() -> "Hashes must be in ascending order but found " + new String(Hex.encode(hash)) + " after "
+								+ new String(Hex.encode(this.previous)) + " in " + range);
+			}
+			if (!this.buffer.hasRemaining()) {
+				flush();
+			}
+			this.buffer.put(hash);
+			this.bucketCounts[((hash[0] & 0xff) << 8 | (hash[1] & 0xff)) + 1]++;
+			this.previous = hash;
+			this.count++;
+		}
+
+		private void flush() throws IOException {
+			this.buffer.flip();
+			while (this.buffer.hasRemaining()) {
+				this.channel.write(this.buffer);
+			}
+			this.buffer.clear();
+		}
+
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Runs CPU intensive password hashing, such as
+ * {@link org.springframework.security.crypto.password.PasswordEncoder#matches(CharSequence, String)},
+ * on behalf of an authentication mechanism, so that the amount of hashing performed at
+ * once can be bounded.
+ *
+ * @since 6.5
+ * @see BoundedPasswordHashingExecutor
+ */
+public interface PasswordHashingExecutor {
+
+	/**
+	 * Submits password hashing for the given user.
+	 * @param username the user whose password is being hashed, may be {@code null}
+	 * @param hashing the hashing to perform
+	 * @param <T> the type of the hashing result
+	 * @return a {@link CompletableFuture} completed with the result of the hashing
+	 * @throws AuthenticationServiceException if the hashing cannot be accepted
+	 */
+	<T> CompletableFuture<T> submit(String username, Supplier<T> hashing) throws AuthenticationServiceException;
+
+}
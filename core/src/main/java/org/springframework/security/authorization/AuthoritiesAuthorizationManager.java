@@ -17,10 +17,12 @@
 package org.springframework.security.authorization;
 
 import java.util.Collection;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.springframework.security.access.hierarchicalroles.NullRoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
@@ -30,6 +32,11 @@ import org.springframework.util.Assert;
  * An {@link AuthorizationManager} that determines if the current user is authorized by
  * evaluating if the {@link Authentication} contains any of the specified authorities.
  *
+ * <p>
+ * The authorities of an {@link AbstractAuthenticationToken} are expanded through the
+ * {@link RoleHierarchy} once and kept by the token, see
+ * {@link AbstractAuthenticationToken#getReachableAuthorities(RoleHierarchy)}.
+ *
  * @author Evgeniy Cheban
  * @since 6.1
  */
@@ -66,6 +73,15 @@ public final class AuthoritiesAuthorizationManager implements AuthorizationManag
 	}
 
 	private boolean isAuthorized(Authentication authentication, Collection<String> authorities) {
+		if (authentication instanceof AbstractAuthenticationToken token) {
+			Set<String> reachableAuthorities = token.getReachableAuthorities(this.roleHierarchy);
+			for (String authority : authorities) {
+				if (reachableAuthorities.contains(authority)) {
+					return true;
+				}
+			}
+			return false;
+		}
 		for (GrantedAuthority grantedAuthority : getGrantedAuthorities(authentication)) {
 			if (authorities.contains(grantedAuthority.getAuthority())) {
 				return true;
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.util.List;
+
+/**
+ * A set of {@link BinaryTypeCodec}s registered with a {@link BinarySecurityCodec},
+ * usually one per Spring Security module.
+ *
+ * @since 6.5
+ * @see SecurityBinaryCodecModules
+ */
+public interface BinaryCodecModule {
+
+	/**
+	 * Returns the {@link BinaryTypeCodec}s of this module.
+	 * @return the {@link BinaryTypeCodec}s
+	 */
+	List<BinaryTypeCodec<?>> getTypeCodecs();
+
+}
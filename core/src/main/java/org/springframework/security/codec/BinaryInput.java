@@ -0,0 +1,326 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The input a {@link BinaryTypeCodec} reads a value from, as written to a
+ * {@link BinaryOutput}.
+ *
+ * <p>
+ * Every read is bounds checked, so that a truncated or corrupted encoding fails with an
+ * {@link IllegalArgumentException} rather than an arbitrary exception or an unreasonably
+ * large allocation.
+ *
+ * @since 6.5
+ * @see BinaryOutput
+ */
+public final class BinaryInput {
+
+	private static final int MAX_DEPTH = 64;
+
+	private final BinarySecurityCodec codec;
+
+	private final byte[] buffer;
+
+	private int position;
+
+	private List<String> strings;
+
+	private int dictionarySize;
+
+	private int depth;
+
+	BinaryInput(BinarySecurityCodec codec, byte[] buffer, int position) {
+		this.codec = codec;
+		this.buffer = buffer;
+		this.position = position;
+		this.dictionarySize = codec.dictionarySize();
+	}
+
+	/**
+	 * Reads a byte.
+	 * @return the byte, between 0 and 255
+	 */
+	public int readByte() {
+		require(1);
+		return this.buffer[this.position++] & 0xff;
+	}
+
+	/**
+	 * Reads a boolean.
+	 * @return the boolean
+	 */
+	public boolean readBoolean() {
+		return readByte() != 0;
+	}
+
+	/**
+	 * Reads an unsigned integer written by {@link BinaryOutput#writeVarInt(int)}.
+	 * @return the integer
+	 */
+	public int readVarInt() {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = readByte();
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed variable-length integer");
+	}
+
+	/**
+	 * Reads an unsigned long written by {@link BinaryOutput#writeVarLong(long)}.
+	 * @return the long
+	 */
+	public long readVarLong() {
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			int b = readByte();
+			value |= (long) (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed variable-length long");
+	}
+
+	/**
+	 * Reads a signed long written by {@link BinaryOutput#writeSignedVarLong(long)}.
+	 * @return the long
+	 */
+	public long readSignedVarLong() {
+		long value = readVarLong();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads a double written by {@link BinaryOutput#writeDouble(double)}.
+	 * @return the double
+	 */
+	public double readDouble() {
+		require(8);
+		long bits = 0;
+		for (int i = 0; i < 8; i++) {
+			bits = (bits << 8) | (this.buffer[this.position++] & 0xff);
+		}
+		return Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * Reads a byte array written by {@link BinaryOutput#writeBytes(byte[])}.
+	 * @return the bytes
+	 */
+	public byte[] readBytes() {
+		int length = readLength();
+		byte[] bytes = new byte[length];
+		System.arraycopy(this.buffer, this.position, bytes, 0, length);
+		this.position += length;
+		return bytes;
+	}
+
+	/**
+	 * Reads a string written by {@link BinaryOutput#writeString(String)}.
+	 * @return the string, which may be {@code null}
+	 */
+	public String readString() {
+		int tag = readVarInt();
+		if (tag == 0) {
+			return null;
+		}
+		if ((tag & 1) == 1) {
+			int index = tag >>> 1;
+			if (index < this.dictionarySize) {
+				return this.codec.dictionaryEntry(index);
+			}
+			if (this.strings == null || index - this.dictionarySize >= this.strings.size()) {
+				throw new IllegalArgumentException("Invalid string reference " + index);
+			}
+			return this.strings.get(index - this.dictionarySize);
+		}
+		int length = (tag >>> 1) - 1;
+		require(length);
+		String value = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+		this.position += length;
+		if (this.strings == null) {
+			this.strings = new ArrayList<>();
+		}
+		this.strings.add(value);
+		return value;
+	}
+
+	/**
+	 * Reads an instant written by {@link BinaryOutput#writeInstant(Instant)}.
+	 * @return the instant
+	 */
+	public Instant readInstant() {
+		return Instant.ofEpochSecond(readSignedVarLong(), readVarInt());
+	}
+
+	/**
+	 * Reads authorities written by
+	 * {@link BinaryOutput#writeAuthorities(java.util.Collection)}.
+	 * @return the authorities
+	 */
+	public List<GrantedAuthority> readAuthorities() {
+		int size = readLength();
+		List<GrantedAuthority> authorities = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			authorities.add(readObject(GrantedAuthority.class));
+		}
+		return authorities;
+	}
+
+	/**
+	 * Reads an object written by {@link BinaryOutput#writeObject(Object)}. Lists, sets
+	 * and maps are read as unmodifiable collections that keep the order they were written
+	 * in.
+	 * @return the object, which may be {@code null}
+	 */
+	public Object readObject() {
+		int typeId = readVarInt();
+		if (typeId == BinarySecurityCodec.NULL_TYPE_ID) {
+			return null;
+		}
+		if (++this.depth > MAX_DEPTH) {
+			throw new IllegalArgumentException("Maximum nesting depth of " + MAX_DEPTH + " exceeded");
+		}
+		try {
+			return readObject(typeId);
+		}
+		finally {
+			this.depth--;
+		}
+	}
+
+	/**
+	 * Reads an object written by {@link BinaryOutput#writeObject(Object)} that must be of
+	 * the provided type.
+	 * @param type the expected type
+	 * @param <T> the expected type
+	 * @return the object, which may be {@code null}
+	 * @throws IllegalArgumentException if the object is not of the expected type
+	 */
+	public <T> T readObject(Class<T> type) {
+		Object value = readObject();
+		if (value != null && !type.isInstance(value)) {
+			throw new IllegalArgumentException(
+					"Expected " + type.getName() + " but found " + value.getClass().getName());
+		}
+		return type.cast(value);
+	}
+
+	/**
+	 * Sets the size of the dictionary the input was encoded with, which may be smaller
+	 * than the current one, to tell dictionary references from references to strings
+	 * written earlier.
+	 */
+	void setDictionarySize(int dictionarySize) {
+		this.dictionarySize = dictionarySize;
+	}
+
+	/**
+	 * Reads a map of attributes, such as claims, written by
+	 * {@link BinaryOutput#writeObject(Object)}.
+	 * @return the attributes, which may be {@code null}
+	 * @throws IllegalArgumentException if the object is not a map
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> readAttributes() {
+		return readObject(Map.class);
+	}
+
+	boolean hasRemaining() {
+		return this.position < this.buffer.length;
+	}
+
+	private Object readObject(int typeId) {
+		switch (typeId) {
+			case BinarySecurityCodec.FALLBACK_TYPE_ID:
+				return this.codec.fallbackDeserialize(readBytes());
+			case BinarySecurityCodec.LIST_TYPE_ID:
+				return readList();
+			case BinarySecurityCodec.SET_TYPE_ID:
+				return readSet();
+			case BinarySecurityCodec.MAP_TYPE_ID:
+				return readMap();
+			default:
+				BinaryTypeCodec<?> typeCodec = this.codec.typeCodec(typeId);
+				if (typeCodec == null) {
+					throw new IllegalArgumentException("Unknown type id " + typeId);
+				}
+				return typeCodec.read(this);
+		}
+	}
+
+	private List<Object> readList() {
+		int size = readLength();
+		List<Object> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(readObject());
+		}
+		return Collections.unmodifiableList(list);
+	}
+
+	private Set<Object> readSet() {
+		int size = readLength();
+		Set<Object> set = new LinkedHashSet<>(size * 4 / 3 + 1);
+		for (int i = 0; i < size; i++) {
+			set.add(readObject());
+		}
+		return Collections.unmodifiableSet(set);
+	}
+
+	private Map<Object, Object> readMap() {
+		int size = readLength();
+		Map<Object, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+		for (int i = 0; i < size; i++) {
+			map.put(readObject(), readObject());
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Reads a length or count, which cannot exceed the remaining bytes since every
+	 * element takes at least one byte.
+	 */
+	private int readLength() {
+		int length = readVarInt();
+		require(length);
+		return length;
+	}
+
+	private void require(int length) {
+		if (length < 0 || length > this.buffer.length - this.position) {
+			throw new IllegalArgumentException("Unexpected end of input");
+		}
+	}
+
+}
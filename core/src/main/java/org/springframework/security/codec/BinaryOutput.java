@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The output a {@link BinaryTypeCodec} writes a value to.
+ *
+ * <p>
+ * Integers are written as variable-length quantities, so small values take a single byte.
+ * Strings are written once per encoding: later occurrences, and strings in the dictionary
+ * of the {@link BinarySecurityCodec}, such as common authority names, are written as a
+ * reference to the first occurrence.
+ *
+ * @since 6.5
+ * @see BinaryInput
+ */
+public final class BinaryOutput {
+
+	private final BinarySecurityCodec codec;
+
+	private byte[] buffer;
+
+	private int position;
+
+	private Map<String, Integer> strings;
+
+	BinaryOutput(BinarySecurityCodec codec, int capacity) {
+		this.codec = codec;
+		this.buffer = new byte[capacity];
+	}
+
+	/**
+	 * Writes a byte.
+	 * @param value the byte to write
+	 */
+	public void writeByte(int value) {
+		ensureCapacity(1);
+		this.buffer[this.position++] = (byte) value;
+	}
+
+	/**
+	 * Writes a boolean as a byte.
+	 * @param value the boolean to write
+	 */
+	public void writeBoolean(boolean value) {
+		writeByte(value ? 1 : 0);
+	}
+
+	/**
+	 * Writes an unsigned integer in one to five bytes.
+	 * @param value the integer to write, treated as unsigned
+	 */
+	public void writeVarInt(int value) {
+		ensureCapacity(5);
+		while ((value & ~0x7f) != 0) {
+			this.buffer[this.position++] = (byte) ((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		this.buffer[this.position++] = (byte) value;
+	}
+
+	/**
+	 * Writes an unsigned long in one to ten bytes.
+	 * @param value the long to write, treated as unsigned
+	 */
+	public void writeVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7fL) != 0) {
+			this.buffer[this.position++] = (byte) ((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		this.buffer[this.position++] = (byte) value;
+	}
+
+	/**
+	 * Writes a signed long, zigzag encoded so that small negative values are short too.
+	 * @param value the long to write
+	 */
+	public void writeSignedVarLong(long value) {
+		writeVarLong((value << 1) ^ (value >> 63));
+	}
+
+	/**
+	 * Writes a double in eight bytes.
+	 * @param value the double to write
+	 */
+	public void writeDouble(double value) {
+		long bits = Double.doubleToLongBits(value);
+		ensureCapacity(8);
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			this.buffer[this.position++] = (byte) (bits >>> shift);
+		}
+	}
+
+	/**
+	 * Writes a byte array, preceded by its length.
+	 * @param bytes the bytes to write
+	 */
+	public void writeBytes(byte[] bytes) {
+		writeVarInt(bytes.length);
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+		this.position += bytes.length;
+	}
+
+	/**
+	 * Writes a string, which may be {@code null}.
+	 * @param value the string to write
+	 */
+	public void writeString(String value) {
+		if (value == null) {
+			writeVarInt(0);
+			return;
+		}
+		Integer index = this.codec.dictionaryIndex(value);
+		if (index == null && this.strings != null) {
+			index = this.strings.get(value);
+		}
+		if (index != null) {
+			writeVarInt((index << 1) | 1);
+			return;
+		}
+		if (this.strings == null) {
+			this.strings = new HashMap<>();
+		}
+		this.strings.put(value, this.codec.dictionarySize() + this.strings.size());
+		writeUtf8(value);
+	}
+
+	/**
+	 * Writes an instant as its epoch second and nanosecond adjustment.
+	 * @param value the instant to write
+	 */
+	public void writeInstant(Instant value) {
+		writeSignedVarLong(value.getEpochSecond());
+		writeVarInt(value.getNano());
+	}
+
+	/**
+	 * Writes the authorities, each with its {@link BinaryTypeCodec}.
+	 * @param authorities the authorities to write
+	 */
+	public void writeAuthorities(Collection<? extends GrantedAuthority> authorities) {
+		writeVarInt(authorities.size());
+		for (GrantedAuthority authority : authorities) {
+			writeObject(authority);
+		}
+	}
+
+	/**
+	 * Writes an object, which may be {@code null}, preceded by its type id. Objects with
+	 * a {@link BinaryTypeCodec} registered for their class are written with it, other
+	 * lists, sets and maps are written element by element, and any other object is
+	 * written with the fallback serializer of the {@link BinarySecurityCodec}.
+	 * @param value the object to write
+	 */
+	@SuppressWarnings("unchecked")
+	public void writeObject(Object value) {
+		if (value == null) {
+			writeVarInt(BinarySecurityCodec.NULL_TYPE_ID);
+			return;
+		}
+		BinaryTypeCodec<Object> typeCodec = (BinaryTypeCodec<Object>) this.codec.typeCodec(value.getClass());
+		if (typeCodec != null) {
+			writeVarInt(typeCodec.getTypeId());
+			typeCodec.write(value, this);
+		}
+		else if (value instanceof Map<?, ?> map) {
+			writeVarInt(BinarySecurityCodec.MAP_TYPE_ID);
+			writeVarInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeObject(entry.getKey());
+				writeObject(entry.getValue());
+			}
+		}
+		else if (value instanceof Set<?> set) {
+			writeVarInt(BinarySecurityCodec.SET_TYPE_ID);
+			writeElements(set);
+		}
+		else if (value instanceof List<?> list) {
+			writeVarInt(BinarySecurityCodec.LIST_TYPE_ID);
+			writeElements(list);
+		}
+		else {
+			writeVarInt(BinarySecurityCodec.FALLBACK_TYPE_ID);
+			writeBytes(this.codec.fallbackSerialize(value));
+		}
+	}
+
+	byte[] toByteArray() {
+		return Arrays.copyOf(this.buffer, this.position);
+	}
+
+	private void writeElements(Collection<?> elements) {
+		writeVarInt(elements.size());
+		for (Object element : elements) {
+			writeObject(element);
+		}
+	}
+
+	private void writeUtf8(String value) {
+		int length = value.length();
+		ensureCapacity(5 + length);
+		int start = this.position;
+		this.position += varIntSize((length + 1) << 1);
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x80) {
+				this.position = start;
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				writeVarInt((bytes.length + 1) << 1);
+				ensureCapacity(bytes.length);
+				System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+				this.position += bytes.length;
+				return;
+			}
+			this.buffer[this.position++] = (byte) c;
+		}
+		int end = this.position;
+		this.position = start;
+		writeVarInt((length + 1) << 1);
+		this.position = end;
+	}
+
+	private void ensureCapacity(int length) {
+		if (this.position + length > this.buffer.length) {
+			this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.position + length));
+		}
+	}
+
+	private static int varIntSize(int value) {
+		int size = 1;
+		while ((value & ~0x7f) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+}
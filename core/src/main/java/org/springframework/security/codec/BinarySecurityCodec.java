@@ -0,0 +1,262 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+/**
+ * A compact binary {@link Serializer} and {@link Deserializer} for
+ * {@link SecurityContext} and {@link org.springframework.security.core.Authentication
+ * Authentication} types, for example to store the {@link SecurityContext} in a session
+ * store such as Spring Session Redis or JDBC instead of JDK serialization.
+ *
+ * <p>
+ * Each type with a {@link BinaryTypeCodec} is written as its type id followed by its
+ * fields, without class names or field names. Strings are written once per value, and
+ * strings in the {@link #setDictionary(List) dictionary}, such as common authority names
+ * and claim names, are not written at all. The encoding of a typical
+ * {@link SecurityContext} is several times smaller than its JDK serialization, and faster
+ * to write and read.
+ *
+ * <p>
+ * Objects of other types, such as custom principals or details, are written with the
+ * {@link #setFallbackSerializer(Serializer) fallback serializer}, JDK serialization by
+ * default, and embedded in the encoding. Values written with JDK serialization, such as
+ * sessions stored before switching to this codec, are read with the
+ * {@link #setFallbackDeserializer(Deserializer) fallback deserializer}, so that existing
+ * sessions remain readable.
+ *
+ * <pre>
+ * BinarySecurityCodec codec = new BinarySecurityCodec();
+ * byte[] bytes = codec.serializeToByteArray(securityContext);
+ * SecurityContext context = (SecurityContext) codec.deserializeFromByteArray(bytes);
+ * </pre>
+ *
+ * @since 6.5
+ * @see SecurityBinaryCodecModules
+ */
+public final class BinarySecurityCodec implements Serializer<Object>, Deserializer<Object> {
+
+	/**
+	 * Common authority and claim names that are written as a reference rather than
+	 * inline. Entries may only be appended, since data encoded with a dictionary is read
+	 * with the same indexes.
+	 */
+	public static final List<String> DEFAULT_DICTIONARY = List.of("ROLE_USER", "ROLE_ADMIN", "ROLE_ANONYMOUS",
+			"SCOPE_openid", "SCOPE_profile", "SCOPE_email", "SCOPE_address", "SCOPE_phone", "SCOPE_offline_access",
+			"OAUTH2_USER", "OIDC_USER", "sub", "iss", "aud", "exp", "iat", "nbf", "jti", "auth_time", "nonce", "azp",
+			"at_hash", "c_hash", "sid", "scope", "scp", "name", "given_name", "family_name", "preferred_username",
+			"email", "email_verified", "picture", "locale", "zoneinfo", "updated_at", "login", "id", "alg", "typ",
+			"kid", "RS256", "ES256", "JWT", "Bearer", "client_id", "token_type", "active", "username");
+
+	static final int NULL_TYPE_ID = 0;
+
+	static final int FALLBACK_TYPE_ID = 1;
+
+	static final int LIST_TYPE_ID = 2;
+
+	static final int SET_TYPE_ID = 3;
+
+	static final int MAP_TYPE_ID = 4;
+
+	private static final int MAGIC = 0x53;
+
+	private static final int VERSION = 1;
+
+	private static final int JDK_SERIALIZATION_MAGIC = 0xACED;
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final Map<Class<?>, BinaryTypeCodec<?>> codecsByType = new HashMap<>();
+
+	private final Map<Integer, BinaryTypeCodec<?>> codecsById = new HashMap<>();
+
+	private List<String> dictionary = DEFAULT_DICTIONARY;
+
+	private Map<String, Integer> dictionaryIndexes = indexes(DEFAULT_DICTIONARY);
+
+	private Serializer<Object> fallbackSerializer = new DefaultSerializer();
+
+	private Deserializer<Object> fallbackDeserializer;
+
+	/**
+	 * Constructs a {@code BinarySecurityCodec} with the {@link BinaryCodecModule}s of the
+	 * Spring Security modules on the classpath.
+	 */
+	public BinarySecurityCodec() {
+		this(SecurityBinaryCodecModules.getModules(BinarySecurityCodec.class.getClassLoader()));
+	}
+
+	/**
+	 * Constructs a {@code BinarySecurityCodec} with the provided
+	 * {@link BinaryCodecModule}s.
+	 * @param modules the {@link BinaryCodecModule}s
+	 */
+	public BinarySecurityCodec(List<? extends BinaryCodecModule> modules) {
+		Assert.notNull(modules, "modules cannot be null");
+		for (BinaryCodecModule module : modules) {
+			for (BinaryTypeCodec<?> typeCodec : module.getTypeCodecs()) {
+				register(typeCodec);
+			}
+		}
+		this.fallbackDeserializer = new DefaultDeserializer(BinarySecurityCodec.class.getClassLoader());
+	}
+
+	/**
+	 * Sets the strings that are written as a reference rather than inline. Defaults to
+	 * {@link #DEFAULT_DICTIONARY}. Data encoded with a dictionary can only be read with
+	 * the same dictionary or one that has more entries appended to it.
+	 * @param dictionary the dictionary
+	 */
+	public void setDictionary(List<String> dictionary) {
+		Assert.notNull(dictionary, "dictionary cannot be null");
+		Assert.noNullElements(dictionary, "dictionary cannot contain null entries");
+		this.dictionary = List.copyOf(dictionary);
+		this.dictionaryIndexes = indexes(this.dictionary);
+	}
+
+	/**
+	 * Sets the {@link Serializer} used for objects without a {@link BinaryTypeCodec}.
+	 * Defaults to JDK serialization.
+	 * @param fallbackSerializer the {@link Serializer}
+	 */
+	public void setFallbackSerializer(Serializer<Object> fallbackSerializer) {
+		Assert.notNull(fallbackSerializer, "fallbackSerializer cannot be null");
+		this.fallbackSerializer = fallbackSerializer;
+	}
+
+	/**
+	 * Sets the {@link Deserializer} used for objects written with the fallback
+	 * {@link Serializer} and for values written with JDK serialization. Defaults to JDK
+	 * serialization.
+	 * @param fallbackDeserializer the {@link Deserializer}
+	 */
+	public void setFallbackDeserializer(Deserializer<Object> fallbackDeserializer) {
+		Assert.notNull(fallbackDeserializer, "fallbackDeserializer cannot be null");
+		this.fallbackDeserializer = fallbackDeserializer;
+	}
+
+	@Override
+	public void serialize(Object object, OutputStream outputStream) throws IOException {
+		outputStream.write(serializeToByteArray(object));
+	}
+
+	@Override
+	public byte[] serializeToByteArray(Object object) {
+		BinaryOutput output = new BinaryOutput(this, INITIAL_CAPACITY);
+		output.writeByte(MAGIC);
+		output.writeByte(VERSION);
+		output.writeVarInt(this.dictionary.size());
+		output.writeObject(object);
+		return output.toByteArray();
+	}
+
+	@Override
+	public Object deserialize(InputStream inputStream) throws IOException {
+		return deserializeFromByteArray(StreamUtils.copyToByteArray(inputStream));
+	}
+
+	@Override
+	public Object deserializeFromByteArray(byte[] serialized) throws IOException {
+		Assert.notNull(serialized, "serialized cannot be null");
+		if (serialized.length >= 2
+				&& ((serialized[0] & 0xff) << 8 | (serialized[1] & 0xff)) == JDK_SERIALIZATION_MAGIC) {
+			return this.fallbackDeserializer.deserializeFromByteArray(serialized);
+		}
+		BinaryInput input = new BinaryInput(this, serialized, 0);
+		Assert.isTrue(input.readByte() == MAGIC, "Not a binary security encoding");
+		int version = input.readByte();
+		Assert.isTrue(version == VERSION, () -> "Unsupported binary security encoding version " + version);
+		int dictionarySize = input.readVarInt();
+		Assert.isTrue(dictionarySize <= this.dictionary.size(), () -> "Encoded with a dictionary of " + dictionarySize
+				+ " entries but only " + this.dictionary.size() + " are configured");
+		input.setDictionarySize(dictionarySize);
+		Object object = input.readObject();
+		Assert.isTrue(!input.hasRemaining(), "Unexpected trailing bytes");
+		return object;
+	}
+
+	BinaryTypeCodec<?> typeCodec(Class<?> type) {
+		return this.codecsByType.get(type);
+	}
+
+	BinaryTypeCodec<?> typeCodec(int typeId) {
+		return this.codecsById.get(typeId);
+	}
+
+	Integer dictionaryIndex(String value) {
+		return this.dictionaryIndexes.get(value);
+	}
+
+	String dictionaryEntry(int index) {
+		return this.dictionary.get(index);
+	}
+
+	int dictionarySize() {
+		return this.dictionary.size();
+	}
+
+	byte[] fallbackSerialize(Object value) {
+		try {
+			return this.fallbackSerializer.serializeToByteArray(value);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Unable to serialize " + value.getClass().getName(), ex);
+		}
+	}
+
+	Object fallbackDeserialize(byte[] bytes) {
+		try {
+			return this.fallbackDeserializer.deserializeFromByteArray(bytes);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Unable to deserialize a value written by the fallback serializer", ex);
+		}
+	}
+
+	private void register(BinaryTypeCodec<?> typeCodec) {
+		Assert.isTrue(typeCodec.getTypeId() > MAP_TYPE_ID,
+				() -> "Type id " + typeCodec.getTypeId() + " of " + typeCodec.getType().getName() + " is reserved");
+		BinaryTypeCodec<?> existing = this.codecsById.putIfAbsent(typeCodec.getTypeId(), typeCodec);
+		Assert.isNull(existing, () -> "Type id " + typeCodec.getTypeId() + " of " + typeCodec.getType().getName()
+				+ " is already used by " + existing.getType().getName());
+		this.codecsByType.put(typeCodec.getType(), typeCodec);
+	}
+
+	private static Map<String, Integer> indexes(List<String> dictionary) {
+		Map<String, Integer> indexes = new HashMap<>(dictionary.size() * 4 / 3 + 1);
+		for (int i = 0; i < dictionary.size(); i++) {
+			indexes.putIfAbsent(dictionary.get(i), i);
+		}
+		return Collections.unmodifiableMap(indexes);
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.util.Assert;
+
+/**
+ * Writes and reads instances of a type for {@link BinarySecurityCodec}.
+ *
+ * <p>
+ * Each type is identified in the encoding by its type id, which must not change once data
+ * has been encoded with it. Ids below 5 are reserved for {@code null}, collections and
+ * types that are delegated to the fallback serializer. The Spring Security modules use
+ * ids below 1024, so applications should use higher ids for their own types.
+ *
+ * @param <T> the type
+ * @since 6.5
+ * @see BinaryCodecModule
+ */
+public interface BinaryTypeCodec<T> {
+
+	/**
+	 * Returns the id that identifies the type in the encoding.
+	 * @return the type id
+	 */
+	int getTypeId();
+
+	/**
+	 * Returns the type, which is matched exactly, so subclasses need their own codec.
+	 * @return the type
+	 */
+	Class<T> getType();
+
+	/**
+	 * Writes the value.
+	 * @param value the value to write
+	 * @param output the {@link BinaryOutput} to write to
+	 */
+	void write(T value, BinaryOutput output);
+
+	/**
+	 * Reads a value written by {@link #write(Object, BinaryOutput)}.
+	 * @param input the {@link BinaryInput} to read from
+	 * @return the value
+	 * @throws IllegalArgumentException if the input is not a valid encoding
+	 */
+	T read(BinaryInput input);
+
+	/**
+	 * Creates a {@link BinaryTypeCodec} from the provided functions.
+	 * @param typeId the type id
+	 * @param type the type
+	 * @param writer writes a value
+	 * @param reader reads a value
+	 * @param <T> the type
+	 * @return the {@link BinaryTypeCodec}
+	 */
+	static <T> BinaryTypeCodec<T> of(int typeId, Class<T> type, BiConsumer<T, BinaryOutput> writer,
+			Function<BinaryInput, T> reader) {
+		Assert.notNull(type, "type cannot be null");
+		Assert.notNull(writer, "writer cannot be null");
+		Assert.notNull(reader, "reader cannot be null");
+		return new BinaryTypeCodec<>() {
+
+			@Override
+			public int getTypeId() {
+				return typeId;
+			}
+
+			@Override
+			public Class<T> getType() {
+				return type;
+			}
+
+			@Override
+			public void write(T value, BinaryOutput output) {
+				writer.accept(value, output);
+			}
+
+			@Override
+			public T read(BinaryInput input) {
+				return reader.apply(input);
+			}
+
+		};
+	}
+
+}
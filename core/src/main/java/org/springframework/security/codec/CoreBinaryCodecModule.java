@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * The {@link BinaryCodecModule} for the types of {@code spring-security-core}, and for
+ * the {@link String}, number, {@link Boolean}, {@link Instant} and {@link URL} values
+ * commonly found in their attributes.
+ *
+ * <p>
+ * A {@link User} is read with an empty password that is then erased if it was written
+ * without one, as its constructor does not accept {@code null}.
+ *
+ * @since 6.5
+ * @see SecurityBinaryCodecModules
+ */
+public final class CoreBinaryCodecModule implements BinaryCodecModule {
+
+	@Override
+	public List<BinaryTypeCodec<?>> getTypeCodecs() {
+		return List.of(
+				BinaryTypeCodec.of(5, String.class, (value, output) -> output.writeString(value),
+						BinaryInput::readString),
+				BinaryTypeCodec.of(6, Integer.class, (value, output) -> output.writeSignedVarLong(value),
+						(input) -> (int) input.readSignedVarLong()),
+				BinaryTypeCodec.of(7, Long.class, (value, output) -> output.writeSignedVarLong(value),
+						BinaryInput::readSignedVarLong),
+				BinaryTypeCodec.of(8, Boolean.class, (value, output) -> output.writeBoolean(value),
+						BinaryInput::readBoolean),
+				BinaryTypeCodec.of(9, Double.class, (value, output) -> output.writeDouble(value),
+						BinaryInput::readDouble),
+				BinaryTypeCodec.of(10, Instant.class, (value, output) -> output.writeInstant(value),
+						BinaryInput::readInstant),
+				BinaryTypeCodec.of(11, URL.class, (value, output) -> output.writeString(value.toExternalForm()),
+						CoreBinaryCodecModule::readUrl),
+				BinaryTypeCodec.of(16, SecurityContextImpl.class,
+						(context, output) -> output.writeObject(context.getAuthentication()),
+						(input) -> new SecurityContextImpl(input.readObject(Authentication.class))),
+				BinaryTypeCodec.of(17, SimpleGrantedAuthority.class,
+						(authority, output) -> output.writeString(authority.getAuthority()),
+						(input) -> new SimpleGrantedAuthority(input.readString())),
+				BinaryTypeCodec.of(18, UsernamePasswordAuthenticationToken.class,
+						CoreBinaryCodecModule::writeUsernamePasswordAuthenticationToken,
+						CoreBinaryCodecModule::readUsernamePasswordAuthenticationToken),
+				BinaryTypeCodec.of(19, User.class, CoreBinaryCodecModule::writeUser, CoreBinaryCodecModule::readUser));
+	}
+
+	private static URL readUrl(BinaryInput input) {
+		String url = input.readString();
+		try {
+			return URI.create(url).toURL();
+		}
+		catch (MalformedURLException ex) {
+			throw new IllegalArgumentException("Invalid URL " + url, ex);
+		}
+	}
+
+	private static void writeUsernamePasswordAuthenticationToken(UsernamePasswordAuthenticationToken token,
+			BinaryOutput output) {
+		output.writeBoolean(token.isAuthenticated());
+		output.writeObject(token.getPrincipal());
+		output.writeObject(token.getCredentials());
+		output.writeAuthorities(token.getAuthorities());
+		output.writeObject(token.getDetails());
+	}
+
+	private static UsernamePasswordAuthenticationToken readUsernamePasswordAuthenticationToken(BinaryInput input) {
+		boolean authenticated = input.readBoolean();
+		Object principal = input.readObject();
+		Object credentials = input.readObject();
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		UsernamePasswordAuthenticationToken token = authenticated
+				? UsernamePasswordAuthenticationToken.authenticated(principal, credentials, authorities)
+				: UsernamePasswordAuthenticationToken.unauthenticated(principal, credentials);
+		token.setDetails(input.readObject());
+		return token;
+	}
+
+	private static void writeUser(User user, BinaryOutput output) {
+		output.writeString(user.getUsername());
+		output.writeString(user.getPassword());
+		output.writeByte((user.isEnabled() ? 1 : 0) | (user.isAccountNonExpired() ? 2 : 0)
+				| (user.isCredentialsNonExpired() ? 4 : 0) | (user.isAccountNonLocked() ? 8 : 0));
+		output.writeAuthorities(user.getAuthorities());
+	}
+
+	private static User readUser(BinaryInput input) {
+		String username = input.readString();
+		String password = input.readString();
+		int flags = input.readByte();
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		User user = new User(username, (password != null) ? password : "", (flags & 1) != 0, (flags & 2) != 0,
+				(flags & 4) != 0, (flags & 8) != 0, authorities);
+		if (password == null) {
+			user.eraseCredentials();
+		}
+		return user;
+	}
+
+}
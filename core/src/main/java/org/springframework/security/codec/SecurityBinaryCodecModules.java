@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Provides the {@link BinaryCodecModule}s of the Spring Security modules on the
+ * classpath.
+ *
+ * <pre>
+ * BinarySecurityCodec codec = new BinarySecurityCodec(SecurityBinaryCodecModules.getModules(classLoader));
+ * </pre>
+ *
+ * @since 6.5
+ * @see BinarySecurityCodec
+ */
+public final class SecurityBinaryCodecModules {
+
+	private static final Log logger = LogFactory.getLog(SecurityBinaryCodecModules.class);
+
+	private static final List<String> securityBinaryCodecModuleClasses = List.of(
+			"org.springframework.security.codec.CoreBinaryCodecModule",
+			"org.springframework.security.web.codec.WebBinaryCodecModule",
+			"org.springframework.security.oauth2.core.codec.OAuth2CoreBinaryCodecModule",
+			"org.springframework.security.oauth2.client.codec.OAuth2ClientBinaryCodecModule",
+			"org.springframework.security.oauth2.server.resource.codec.OAuth2ResourceServerBinaryCodecModule",
+			"org.springframework.security.saml2.codec.Saml2BinaryCodecModule");
+
+	private SecurityBinaryCodecModules() {
+	}
+
+	/**
+	 * Returns the {@link BinaryCodecModule}s of the Spring Security modules that can be
+	 * loaded with the provided {@link ClassLoader}.
+	 * @param loader the {@link ClassLoader} to load the modules with
+	 * @return the {@link BinaryCodecModule}s
+	 */
+	public static List<BinaryCodecModule> getModules(ClassLoader loader) {
+		List<BinaryCodecModule> modules = new ArrayList<>();
+		for (String className : securityBinaryCodecModuleClasses) {
+			BinaryCodecModule module = loadAndGetInstance(className, loader);
+			if (module != null) {
+				modules.add(module);
+			}
+		}
+		return modules;
+	}
+
+	private static BinaryCodecModule loadAndGetInstance(String className, ClassLoader loader) {
+		if (!ClassUtils.isPresent(className, loader)) {
+			return null;
+		}
+		try {
+			Class<?> module = ClassUtils.forName(className, loader);
+			logger.debug(LogMessage.format("Loaded module %s, now registering", className));
+			return (BinaryCodecModule) module.getConstructor().newInstance();
+		}
+		catch (Exception ex) {
+			logger.debug(LogMessage.format("Cannot load module %s", className), ex);
+			return null;
+		}
+	}
+
+}
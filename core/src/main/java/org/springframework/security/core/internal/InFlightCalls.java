@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.internal;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent blocking calls for the same key so that one caller makes the call
+ * and the others wait for its result. The call is removed once it completes, so the
+ * result is only shared with callers that arrived while it was running.
+ *
+ * <p>
+ * If the call fails, the waiting callers fail with the same exception, including an
+ * {@link Error}.
+ *
+ * <p>
+ * For internal use only.
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the result
+ * @since 6.5
+ * @see InFlightRequests
+ */
+public final class InFlightCalls<K, V> {
+
+	private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+	/**
+	 * Joins the in-flight call for the key, or makes the call with the supplier if none
+	 * is in flight.
+	 * @param key the key identifying the call
+	 * @param call makes the call when none is in flight
+	 * @return the result of the call
+	 */
+	public V share(K key, Supplier<V> call) {
+		CompletableFuture<V> result = new CompletableFuture<>();
+		CompletableFuture<V> existing = this.calls.putIfAbsent(key, result);
+		if (existing != null) {
+			return join(existing);
+		}
+		try {
+			V value = call.get();
+			result.complete(value);
+			return value;
+		}
+		catch (Throwable ex) {
+			result.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.calls.remove(key, result);
+		}
+	}
+
+	/**
+	 * Returns the number of calls in flight.
+	 * @return the number of calls in flight
+	 */
+	public int size() {
+		return this.calls.size();
+	}
+
+	private V join(CompletableFuture<V> call) {
+		try {
+			return call.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (ex.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent requests for the same key so that they share one in-flight
+ * {@link Mono}. The request is removed before its result is emitted, so the result is
+ * only shared with subscribers that arrived while it was running and a subscriber
+ * reacting to the result starts a new request.
+ *
+ * <p>
+ * For internal use only.
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the result
+ * @since 6.5
+ * @see InFlightCalls
+ */
+public final class InFlightRequests<K, V> {
+
+	private final Map<K, Mono<V>> requests = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns a {@link Mono} that, when subscribed, joins the in-flight request for the
+	 * key or starts a new one from the supplier.
+	 * @param key the key identifying the request
+	 * @param request supplies the request when none is in flight
+	 * @return the shared {@link Mono}
+	 */
+	public Mono<V> share(K key, Supplier<Mono<V>> request) {
+		return Mono.defer(() -> this.requests.computeIfAbsent(key, (k) -> inFlight(k, request.get())));
+	}
+
+	/**
+	 * Returns the number of requests in flight.
+	 * @return the number of requests in flight
+	 */
+	public int size() {
+		return this.requests.size();
+	}
+
+	private Mono<V> inFlight(K key, Mono<V> request) {
+		AtomicReference<Mono<V>> inFlight = new AtomicReference<>();
+		Runnable remove = () -> this.requests.remove(key, inFlight.get());
+		inFlight.set(request.doOnTerminate(remove).doOnCancel(remove).cache());
+		return inFlight.get();
+	}
+
+}
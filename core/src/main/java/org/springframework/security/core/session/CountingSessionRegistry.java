@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.util.List;
+
+/**
+ * A {@link SessionRegistry} that maintains the number of non-expired sessions of each
+ * principal and the order in which they were last used, so that concurrent session
+ * control does not need to list and sort all the sessions of a principal on each login.
+ *
+ * @since 6.5
+ * @see ShardedSessionRegistry
+ */
+public interface CountingSessionRegistry extends SessionRegistry {
+
+	/**
+	 * Returns the number of non-expired sessions of the principal.
+	 * @param principal the principal
+	 * @return the number of non-expired sessions
+	 */
+	int getSessionCount(Object principal);
+
+	/**
+	 * Returns the least recently used non-expired sessions of the principal, from the
+	 * least recently used.
+	 * @param principal the principal
+	 * @param count the maximum number of sessions to return
+	 * @return the least recently used sessions, at most {@code count} of them
+	 */
+	List<SessionInformation> getLeastRecentlyUsedSessions(Object principal, int count);
+
+	/**
+	 * Returns whether the session is a non-expired session of the principal.
+	 * @param principal the principal
+	 * @param sessionId the session id
+	 * @return {@code true} if the session is registered for the principal and is not
+	 * expired
+	 */
+	boolean isRegistered(Object principal, String sessionId);
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.time.Instant;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+import org.springframework.util.Assert;
+
+/**
+ * A JDBC implementation of a {@link ReactiveSessionRegistry} that uses a
+ * {@link JdbcOperations} to share the sessions of each principal across the nodes of a
+ * cluster, so that concurrent session control applies to all of them. The blocking JDBC
+ * calls are published on a {@link Scheduler}, {@link Schedulers#boundedElastic()} by
+ * default.
+ *
+ * <p>
+ * Like {@link JdbcSessionRegistry}, principals are stored by name,
+ * {@link #updateLastAccessTime(String)} only records the last access time to be written
+ * in a single batch every {@link #setLastRequestFlushInterval(Duration) flush interval},
+ * and {@link #getSessionInformation(String)} and {@link #updateLastAccessTime(String)}
+ * read sessions through a cache with a {@link #setCacheTimeToLive(Duration) short time to
+ * live}.
+ *
+ * <p>
+ * <b>NOTE:</b> This {@code JdbcReactiveSessionRegistry} depends on the table definition
+ * described in
+ * "classpath:org/springframework/security/core/session/jdbc/session-registry-schema.sql"
+ * and therefore MUST be defined in the database schema.
+ *
+ * @since 6.5
+ * @see JdbcSessionRegistry
+ */
+public final class JdbcReactiveSessionRegistry implements ReactiveSessionRegistry, DisposableBean {
+
+	private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(10);
+
+	private final JdbcSessionTable sessions;
+
+	private Scheduler scheduler = Schedulers.boundedElastic();
+
+	/**
+	 * Constructs a {@code JdbcReactiveSessionRegistry} using the provided parameters.
+	 * @param jdbcOperations the JDBC operations
+	 */
+	public JdbcReactiveSessionRegistry(JdbcOperations jdbcOperations) {
+		this.sessions = new JdbcSessionTable(jdbcOperations, DEFAULT_FLUSH_INTERVAL);
+	}
+
+	/**
+	 * Sets how often the recorded last access times are written. The default is every 10
+	 * seconds.
+	 *
+	 * The interval may be set to null which will disable the scheduled writes. Users can
+	 * then invoke {@link #flushLastRequests()} using custom logic.
+	 * @param lastRequestFlushInterval the interval between two writes
+	 * @see #flushLastRequests()
+	 */
+	public void setLastRequestFlushInterval(Duration lastRequestFlushInterval) {
+		this.sessions.setFlushInterval(lastRequestFlushInterval);
+	}
+
+	/**
+	 * Sets how long a session read by {@link #getSessionInformation(String)} or
+	 * {@link #updateLastAccessTime(String)} is cached. The default is 1 second.
+	 * {@link Duration#ZERO} disables the cache.
+	 * @param cacheTimeToLive the time to live of cached sessions
+	 */
+	public void setCacheTimeToLive(Duration cacheTimeToLive) {
+		this.sessions.setCacheTimeToLive(cacheTimeToLive);
+	}
+
+	/**
+	 * Sets the maximum number of cached sessions. The default is 10000.
+	 * @param maximumCacheSize the maximum number of cached sessions
+	 */
+	public void setMaximumCacheSize(int maximumCacheSize) {
+		this.sessions.setMaximumCacheSize(maximumCacheSize);
+	}
+
+	/**
+	 * Sets the {@link Scheduler} the JDBC calls are published on.
+	 * @param scheduler a scheduler to be published on
+	 * @throws IllegalArgumentException if the scheduler is {@code null}
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public Flux<ReactiveSessionInformation> getAllSessions(Object principal) {
+		return Flux
+			.defer(() -> Flux
+				.fromIterable(this.sessions.selectByPrincipal(JdbcSessionTable.principalName(principal), true)))
+			.subscribeOn(this.scheduler)
+			.map((row) -> sessionInformation(principal, row));
+	}
+
+	/**
+	 * Returns the number of non-expired sessions of the principal.
+	 * @param principal the principal
+	 * @return the number of non-expired sessions
+	 */
+	public Mono<Integer> getSessionCount(Object principal) {
+		return Mono.fromCallable(() -> this.sessions.count(JdbcSessionTable.principalName(principal)))
+			.subscribeOn(this.scheduler);
+	}
+
+	/**
+	 * Returns the least recently used non-expired sessions of the principal, from the
+	 * least recently used.
+	 * @param principal the principal
+	 * @param count the maximum number of sessions to return
+	 * @return the least recently used sessions, at most {@code count} of them
+	 */
+	public Flux<ReactiveSessionInformation> getLeastRecentlyUsedSessions(Object principal, int count) {
+		return Flux
+			.defer(() -> Flux
+				.fromIterable(this.sessions.selectLeastRecentlyUsed(JdbcSessionTable.principalName(principal), count)))
+			.subscribeOn(this.scheduler)
+			.map((row) -> sessionInformation(principal, row));
+	}
+
+	@Override
+	public Mono<Void> saveSessionInformation(ReactiveSessionInformation information) {
+		return Mono.<Void>fromRunnable(() -> this.sessions.insert(information.getSessionId(),
+				JdbcSessionTable.principalName(information.getPrincipal()), information.getLastAccessTime(),
+				information.isExpired()))
+			.subscribeOn(this.scheduler);
+	}
+
+	@Override
+	public Mono<ReactiveSessionInformation> getSessionInformation(String sessionId) {
+		return Mono.fromCallable(() -> this.sessions.select(sessionId))
+			.subscribeOn(this.scheduler)
+			.map((row) -> sessionInformation(row.getPrincipalName(), row));
+	}
+
+	@Override
+	public Mono<ReactiveSessionInformation> removeSessionInformation(String sessionId) {
+		return Mono.fromCallable(() -> {
+			JdbcSessionTable.Row row = this.sessions.selectUncached(sessionId);
+			if (row != null) {
+				this.sessions.delete(sessionId);
+			}
+			return row;
+		}).subscribeOn(this.scheduler).map((row) -> sessionInformation(row.getPrincipalName(), row));
+	}
+
+	@Override
+	public Mono<ReactiveSessionInformation> updateLastAccessTime(String sessionId) {
+		return getSessionInformation(sessionId).flatMap((session) -> session.refreshLastRequest().thenReturn(session));
+	}
+
+	/**
+	 * Writes the recorded last access times in a single batch.
+	 */
+	public void flushLastRequests() {
+		this.sessions.flush();
+	}
+
+	@Override
+	public void destroy() {
+		this.sessions.shutdown();
+		flushLastRequests();
+	}
+
+	private ReactiveSessionInformation sessionInformation(Object principal, JdbcSessionTable.Row row) {
+		JdbcReactiveSessionInformation info = new JdbcReactiveSessionInformation(principal, row.getSessionId(),
+				row.getLastRequest(), this.sessions, this.scheduler);
+		if (row.isExpired()) {
+			info.markExpired();
+		}
+		return info;
+	}
+
+	/**
+	 * A {@link ReactiveSessionInformation} that writes its expiry to the database and
+	 * records its last access time to be written with the next flush.
+	 */
+	private static final class JdbcReactiveSessionInformation extends ReactiveSessionInformation {
+
+		@Serial
+		private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+		private final transient JdbcSessionTable sessions;
+
+		private final transient Scheduler scheduler;
+
+		private JdbcReactiveSessionInformation(Object principal, String sessionId, Instant lastAccessTime,
+				JdbcSessionTable sessions, Scheduler scheduler) {
+			super(principal, sessionId, lastAccessTime);
+			this.sessions = sessions;
+			this.scheduler = scheduler;
+		}
+
+		private void markExpired() {
+			super.invalidate().subscribe();
+		}
+
+		@Override
+		public Mono<Void> invalidate() {
+			if (this.sessions == null) {
+				return super.invalidate();
+			}
+			return super.invalidate()
+				.then(Mono.<Void>fromRunnable(() -> this.sessions.expire(getSessionId())).subscribeOn(this.scheduler));
+		}
+
+		@Override
+		public Mono<Void> refreshLastRequest() {
+			if (isExpired()) {
+				return Mono.empty();
+			}
+			return super.refreshLastRequest().then(Mono.fromRunnable(() -> {
+				if (this.sessions != null) {
+					this.sessions.refresh(getSessionId(), getLastAccessTime());
+				}
+			}));
+		}
+
+	}
+
+}
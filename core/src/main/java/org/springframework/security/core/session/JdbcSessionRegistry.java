@@ -0,0 +1,270 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.log.LogMessage;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+import org.springframework.util.Assert;
+
+/**
+ * A JDBC implementation of a {@link CountingSessionRegistry} that uses a
+ * {@link JdbcOperations} to share the sessions of each principal across the nodes of a
+ * cluster, so that concurrent session control applies to all of them.
+ *
+ * <p>
+ * Principals are stored by name: the username of a
+ * {@link org.springframework.security.core.userdetails.UserDetails}, the name of an
+ * {@link org.springframework.security.core.AuthenticatedPrincipal} or a
+ * {@link java.security.Principal}, or else their {@code toString()}. The
+ * {@link SessionInformation} returned by {@link #getAllSessions(Object, boolean)} holds
+ * the principal it was called with, while the one returned by
+ * {@link #getSessionInformation(String)} and {@link #getAllPrincipals()} hold the name.
+ *
+ * <p>
+ * To avoid writing to the database on each request, {@link #refreshLastRequest(String)}
+ * only records the last request time, and the recorded times are written in a single
+ * batch every {@link #setLastRequestFlushInterval(Duration) flush interval} and before
+ * listing the sessions of a principal. {@link #getSessionInformation(String)}, which
+ * {@code ConcurrentSessionFilter} calls on each request, is cached for the
+ * {@link #setCacheTimeToLive(Duration) cache time to live}, so a session expired on
+ * another node is seen as expired after at most that long.
+ *
+ * <p>
+ * <b>NOTE:</b> This {@code JdbcSessionRegistry} depends on the table definition described
+ * in
+ * "classpath:org/springframework/security/core/session/jdbc/session-registry-schema.sql"
+ * and therefore MUST be defined in the database schema. Like {@link SessionRegistryImpl},
+ * it must be notified of destroyed sessions, for example with an
+ * {@code HttpSessionEventPublisher}.
+ *
+ * @since 6.5
+ * @see JdbcReactiveSessionRegistry
+ */
+public final class JdbcSessionRegistry
+		implements CountingSessionRegistry, ApplicationListener<AbstractSessionEvent>, DisposableBean {
+
+	private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(10);
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final JdbcSessionTable sessions;
+
+	/**
+	 * Constructs a {@code JdbcSessionRegistry} using the provided parameters.
+	 * @param jdbcOperations the JDBC operations
+	 */
+	public JdbcSessionRegistry(JdbcOperations jdbcOperations) {
+		this.sessions = new JdbcSessionTable(jdbcOperations, DEFAULT_FLUSH_INTERVAL);
+	}
+
+	/**
+	 * Sets how often the recorded last request times are written. The default is every 10
+	 * seconds.
+	 *
+	 * The interval may be set to null which will disable the scheduled writes. Users can
+	 * then invoke {@link #flushLastRequests()} using custom logic.
+	 * @param lastRequestFlushInterval the interval between two writes
+	 * @see #flushLastRequests()
+	 */
+	public void setLastRequestFlushInterval(Duration lastRequestFlushInterval) {
+		this.sessions.setFlushInterval(lastRequestFlushInterval);
+	}
+
+	/**
+	 * Sets how long a session read by {@link #getSessionInformation(String)} is cached.
+	 * The default is 1 second. {@link Duration#ZERO} disables the cache.
+	 * @param cacheTimeToLive the time to live of cached sessions
+	 */
+	public void setCacheTimeToLive(Duration cacheTimeToLive) {
+		this.sessions.setCacheTimeToLive(cacheTimeToLive);
+	}
+
+	/**
+	 * Sets the maximum number of cached sessions. The default is 10000.
+	 * @param maximumCacheSize the maximum number of cached sessions
+	 */
+	public void setMaximumCacheSize(int maximumCacheSize) {
+		this.sessions.setMaximumCacheSize(maximumCacheSize);
+	}
+
+	@Override
+	public List<Object> getAllPrincipals() {
+		return new ArrayList<>(this.sessions.selectPrincipalNames());
+	}
+
+	@Override
+	public List<SessionInformation> getAllSessions(Object principal, boolean includeExpiredSessions) {
+		Assert.notNull(principal, "principal cannot be null");
+		return sessionInformation(principal,
+				this.sessions.selectByPrincipal(JdbcSessionTable.principalName(principal), includeExpiredSessions));
+	}
+
+	@Override
+	public int getSessionCount(Object principal) {
+		Assert.notNull(principal, "principal cannot be null");
+		return this.sessions.count(JdbcSessionTable.principalName(principal));
+	}
+
+	@Override
+	public List<SessionInformation> getLeastRecentlyUsedSessions(Object principal, int count) {
+		Assert.notNull(principal, "principal cannot be null");
+		return sessionInformation(principal,
+				this.sessions.selectLeastRecentlyUsed(JdbcSessionTable.principalName(principal), count));
+	}
+
+	@Override
+	public boolean isRegistered(Object principal, String sessionId) {
+		Assert.notNull(principal, "principal cannot be null");
+		Assert.hasText(sessionId, "sessionId cannot be empty");
+		JdbcSessionTable.Row row = this.sessions.select(sessionId);
+		return row != null && !row.isExpired()
+				&& JdbcSessionTable.principalName(principal).equals(row.getPrincipalName());
+	}
+
+	@Override
+	public SessionInformation getSessionInformation(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		JdbcSessionTable.Row row = this.sessions.select(sessionId);
+		return (row != null) ? sessionInformation(row.getPrincipalName(), row) : null;
+	}
+
+	@Override
+	public void onApplicationEvent(AbstractSessionEvent event) {
+		if (event instanceof SessionDestroyedEvent sessionDestroyedEvent) {
+			removeSessionInformation(sessionDestroyedEvent.getId());
+		}
+		else if (event instanceof SessionIdChangedEvent sessionIdChangedEvent) {
+			JdbcSessionTable.Row row = this.sessions.selectUncached(sessionIdChangedEvent.getOldSessionId());
+			if (row != null) {
+				removeSessionInformation(sessionIdChangedEvent.getOldSessionId());
+				this.sessions.insert(sessionIdChangedEvent.getNewSessionId(), row.getPrincipalName(),
+						row.getLastRequest(), row.isExpired());
+			}
+		}
+	}
+
+	@Override
+	public void refreshLastRequest(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		SessionInformation info = getSessionInformation(sessionId);
+		if (info != null) {
+			info.refreshLastRequest();
+		}
+	}
+
+	@Override
+	public void registerNewSession(String sessionId, Object principal) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		Assert.notNull(principal, "Principal required as per interface contract");
+		this.logger.debug(LogMessage.format("Registering session %s, for principal %s", sessionId, principal));
+		this.sessions.insert(sessionId, JdbcSessionTable.principalName(principal), Instant.now(), false);
+	}
+
+	@Override
+	public void removeSessionInformation(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		if (this.sessions.delete(sessionId)) {
+			this.logger.debug(LogMessage.format("Removed session %s from registered sessions", sessionId));
+		}
+	}
+
+	/**
+	 * Writes the recorded last request times in a single batch.
+	 */
+	public void flushLastRequests() {
+		this.sessions.flush();
+	}
+
+	@Override
+	public void destroy() {
+		this.sessions.shutdown();
+		flushLastRequests();
+	}
+
+	private List<SessionInformation> sessionInformation(Object principal, List<JdbcSessionTable.Row> rows) {
+		List<SessionInformation> sessions = new ArrayList<>(rows.size());
+		for (JdbcSessionTable.Row row : rows) {
+			sessions.add(sessionInformation(principal, row));
+		}
+		return sessions;
+	}
+
+	private SessionInformation sessionInformation(Object principal, JdbcSessionTable.Row row) {
+		JdbcSessionInformation info = new JdbcSessionInformation(principal, row.getSessionId(),
+				Date.from(row.getLastRequest()), this.sessions);
+		if (row.isExpired()) {
+			info.markExpired();
+		}
+		return info;
+	}
+
+	/**
+	 * A {@link SessionInformation} that writes its expiry to the database and records its
+	 * last request time to be written with the next flush.
+	 */
+	private static final class JdbcSessionInformation extends SessionInformation {
+
+		@Serial
+		private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+		private final transient JdbcSessionTable sessions;
+
+		private JdbcSessionInformation(Object principal, String sessionId, Date lastRequest,
+				JdbcSessionTable sessions) {
+			super(principal, sessionId, lastRequest);
+			this.sessions = sessions;
+		}
+
+		private void markExpired() {
+			super.expireNow();
+		}
+
+		@Override
+		public void expireNow() {
+			super.expireNow();
+			if (this.sessions != null) {
+				this.sessions.expire(getSessionId());
+			}
+		}
+
+		@Override
+		public void refreshLastRequest() {
+			if (isExpired()) {
+				return;
+			}
+			super.refreshLastRequest();
+			if (this.sessions != null) {
+				this.sessions.refresh(getSessionId(), getLastRequest().toInstant());
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.security.Principal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.Assert;
+
+/**
+ * The {@code session_registry} table shared by {@link JdbcSessionRegistry} and
+ * {@link JdbcReactiveSessionRegistry}.
+ *
+ * <p>
+ * Last request times are not written on each request. They are collected by session id,
+ * so that a session refreshed many times between two flushes is written once, and written
+ * in a single batch every flush interval. Sessions read by id are cached for the cache
+ * time to live, so that checking the session of each request does not query the database,
+ * and the cache is evicted when a session is expired or removed through this table.
+ * Sessions expired or removed by other nodes are therefore seen after at most the cache
+ * time to live.
+ *
+ * @since 6.5
+ */
+final class JdbcSessionTable {
+
+	private static final String TABLE_NAME = "session_registry";
+
+	// @formatter:off
+	private static final String COLUMN_NAMES = "session_id, "
+			+ "principal_name, "
+			+ "last_request, "
+			+ "expired";
+	// @formatter:on
+
+	// @formatter:off
+	private static final String INSERT_SESSION_SQL = "INSERT INTO " + TABLE_NAME
+			+ " (" + COLUMN_NAMES + ") VALUES (?, ?, ?, ?)";
+	// @formatter:on
+
+	// @formatter:off
+	private static final String UPDATE_SESSION_SQL = "UPDATE " + TABLE_NAME
+			+ " SET principal_name = ?, last_request = ?, expired = ?"
+			+ " WHERE session_id = ?";
+	// @formatter:on
+
+	private static final String DELETE_SESSION_SQL = "DELETE FROM " + TABLE_NAME + " WHERE session_id = ?";
+
+	// @formatter:off
+	private static final String SELECT_SESSION_SQL = "SELECT " + COLUMN_NAMES
+			+ " FROM " + TABLE_NAME
+			+ " WHERE session_id = ?";
+	// @formatter:on
+
+	// @formatter:off
+	private static final String SELECT_SESSIONS_BY_PRINCIPAL_SQL = "SELECT " + COLUMN_NAMES
+			+ " FROM " + TABLE_NAME
+			+ " WHERE principal_name = ?"
+			+ " ORDER BY last_request";
+	// @formatter:on
+
+	// @formatter:off
+	private static final String SELECT_ACTIVE_SESSIONS_BY_PRINCIPAL_SQL = "SELECT " + COLUMN_NAMES
+			+ " FROM " + TABLE_NAME
+			+ " WHERE principal_name = ? AND expired = ?"
+			+ " ORDER BY last_request";
+	// @formatter:on
+
+	// @formatter:off
+	private static final String COUNT_ACTIVE_SESSIONS_BY_PRINCIPAL_SQL = "SELECT COUNT(*)"
+			+ " FROM " + TABLE_NAME
+			+ " WHERE principal_name = ? AND expired = ?";
+	// @formatter:on
+
+	private static final String SELECT_PRINCIPAL_NAMES_SQL = "SELECT DISTINCT principal_name FROM " + TABLE_NAME;
+
+	// @formatter:off
+	private static final String EXPIRE_SESSION_SQL = "UPDATE " + TABLE_NAME
+			+ " SET expired = ?"
+			+ " WHERE session_id = ?";
+	// @formatter:on
+
+	// @formatter:off
+	private static final String UPDATE_LAST_REQUEST_SQL = "UPDATE " + TABLE_NAME
+			+ " SET last_request = ?"
+			+ " WHERE session_id = ? AND last_request < ?";
+	// @formatter:on
+
+	private static final int[] UPDATE_LAST_REQUEST_TYPES = { Types.TIMESTAMP, Types.VARCHAR, Types.TIMESTAMP };
+
+	private static final RowMapper<Row> ROW_MAPPER = new SessionRowMapper();
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final JdbcOperations jdbcOperations;
+
+	private final Map<String, Instant> pendingLastRequests = new ConcurrentHashMap<>();
+
+	private final Map<String, CachedRow> cache = new ConcurrentHashMap<>();
+
+	private long cacheTimeToLiveNanos = Duration.ofSeconds(1).toNanos();
+
+	private int maximumCacheSize = 10000;
+
+	private ThreadPoolTaskScheduler taskScheduler;
+
+	JdbcSessionTable(JdbcOperations jdbcOperations, Duration flushInterval) {
+		Assert.notNull(jdbcOperations, "jdbcOperations cannot be null");
+		this.jdbcOperations = jdbcOperations;
+		this.taskScheduler = createTaskScheduler(flushInterval);
+	}
+
+	void setFlushInterval(Duration flushInterval) {
+		Assert.isTrue(flushInterval == null || (!flushInterval.isNegative() && !flushInterval.isZero()),
+				"flushInterval must be positive");
+		shutdown();
+		this.taskScheduler = createTaskScheduler(flushInterval);
+	}
+
+	void setCacheTimeToLive(Duration cacheTimeToLive) {
+		Assert.notNull(cacheTimeToLive, "cacheTimeToLive cannot be null");
+		Assert.isTrue(!cacheTimeToLive.isNegative(), "cacheTimeToLive cannot be negative");
+		this.cacheTimeToLiveNanos = cacheTimeToLive.toNanos();
+		this.cache.clear();
+	}
+
+	void setMaximumCacheSize(int maximumCacheSize) {
+		Assert.isTrue(maximumCacheSize > 0, "maximumCacheSize must be greater than 0");
+		this.maximumCacheSize = maximumCacheSize;
+		this.cache.clear();
+	}
+
+	/**
+	 * Inserts the session, or replaces it if it exists. The session is updated first and
+	 * only inserted if it does not exist, falling back to an update if another node
+	 * inserted it concurrently, so that no transaction is needed.
+	 */
+	void insert(String sessionId, String principalName, Instant lastRequest, boolean expired) {
+		this.pendingLastRequests.remove(sessionId);
+		this.cache.remove(sessionId);
+		SqlParameterValue id = new SqlParameterValue(Types.VARCHAR, sessionId);
+		SqlParameterValue principal = new SqlParameterValue(Types.VARCHAR, principalName);
+		SqlParameterValue timestamp = new SqlParameterValue(Types.TIMESTAMP, Timestamp.from(lastRequest));
+		SqlParameterValue isExpired = new SqlParameterValue(Types.BOOLEAN, expired);
+		if (this.jdbcOperations.update(UPDATE_SESSION_SQL, principal, timestamp, isExpired, id) > 0) {
+			return;
+		}
+		try {
+			this.jdbcOperations.update(INSERT_SESSION_SQL,
+					new ArgumentPreparedStatementSetter(new Object[] { id, principal, timestamp, isExpired }));
+		}
+		catch (DuplicateKeyException ex) {
+			this.jdbcOperations.update(UPDATE_SESSION_SQL, principal, timestamp, isExpired, id);
+		}
+	}
+
+	/**
+	 * Returns the session, from the cache if it was read less than the cache time to live
+	 * ago.
+	 */
+	Row select(String sessionId) {
+		if (this.cacheTimeToLiveNanos == 0) {
+			return selectUncached(sessionId);
+		}
+		long now = System.nanoTime();
+		CachedRow cached = this.cache.get(sessionId);
+		if (cached != null && now - cached.readAt < this.cacheTimeToLiveNanos) {
+			return cached.row;
+		}
+		Row row = selectUncached(sessionId);
+		if (this.cache.size() >= this.maximumCacheSize) {
+			evictStale(now);
+		}
+		this.cache.put(sessionId, new CachedRow(row, now));
+		return row;
+	}
+
+	Row selectUncached(String sessionId) {
+		List<Row> rows = this.jdbcOperations.query(SELECT_SESSION_SQL, ROW_MAPPER,
+				new SqlParameterValue(Types.VARCHAR, sessionId));
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	/**
+	 * Returns the sessions of the principal from the least recently used, after writing
+	 * the pending last request times.
+	 */
+	List<Row> selectByPrincipal(String principalName, boolean includeExpired) {
+		flush();
+		if (includeExpired) {
+			return this.jdbcOperations.query(SELECT_SESSIONS_BY_PRINCIPAL_SQL, ROW_MAPPER,
+					new SqlParameterValue(Types.VARCHAR, principalName));
+		}
+		return this.jdbcOperations.query(SELECT_ACTIVE_SESSIONS_BY_PRINCIPAL_SQL, ROW_MAPPER,
+				new SqlParameterValue(Types.VARCHAR, principalName), new SqlParameterValue(Types.BOOLEAN, false));
+	}
+
+	/**
+	 * Returns at most {@code count} non-expired sessions of the principal from the least
+	 * recently used, after writing the pending last request times.
+	 */
+	List<Row> selectLeastRecentlyUsed(String principalName, int count) {
+		flush();
+		return this.jdbcOperations.query(SELECT_ACTIVE_SESSIONS_BY_PRINCIPAL_SQL, new FirstRowsExtractor(count),
+				new SqlParameterValue(Types.VARCHAR, principalName), new SqlParameterValue(Types.BOOLEAN, false));
+	}
+
+	int count(String principalName) {
+		Integer count = this.jdbcOperations.queryForObject(COUNT_ACTIVE_SESSIONS_BY_PRINCIPAL_SQL, Integer.class,
+				new SqlParameterValue(Types.VARCHAR, principalName), new SqlParameterValue(Types.BOOLEAN, false));
+		return (count != null) ? count : 0;
+	}
+
+	List<String> selectPrincipalNames() {
+		return this.jdbcOperations.queryForList(SELECT_PRINCIPAL_NAMES_SQL, String.class);
+	}
+
+	void expire(String sessionId) {
+		this.cache.remove(sessionId);
+		this.jdbcOperations.update(EXPIRE_SESSION_SQL, new SqlParameterValue(Types.BOOLEAN, true),
+				new SqlParameterValue(Types.VARCHAR, sessionId));
+	}
+
+	boolean delete(String sessionId) {
+		this.pendingLastRequests.remove(sessionId);
+		this.cache.remove(sessionId);
+		return this.jdbcOperations.update(DELETE_SESSION_SQL, new SqlParameterValue(Types.VARCHAR, sessionId)) > 0;
+	}
+
+	/**
+	 * Records the last request time of the session, to be written with the next flush.
+	 */
+	void refresh(String sessionId, Instant lastRequest) {
+		this.pendingLastRequests.merge(sessionId, lastRequest,
+				(pending, refreshed) -> pending.isAfter(refreshed) ? pending : refreshed);
+	}
+
+	/**
+	 * Writes the pending last request times in a single batch. A time is only written if
+	 * it is later than the one in the database, so that nodes flushing in a different
+	 * order do not move it back. The times are kept if the batch fails.
+	 * @return the number of sessions whose last request time was written
+	 */
+	int flush() {
+		if (this.pendingLastRequests.isEmpty()) {
+			return 0;
+		}
+		List<Map.Entry<String, Instant>> pending = new ArrayList<>(this.pendingLastRequests.entrySet());
+		List<Object[]> batch = new ArrayList<>(pending.size());
+		for (Map.Entry<String, Instant> entry : pending) {
+			Timestamp lastRequest = Timestamp.from(entry.getValue());
+			batch.add(new Object[] { lastRequest, entry.getKey(), lastRequest });
+		}
+		this.jdbcOperations.batchUpdate(UPDATE_LAST_REQUEST_SQL, batch, UPDATE_LAST_REQUEST_TYPES);
+		// only remove the times that were written and not refreshed since, so that a
+		// failed flush is retried by the next one
+		for (Map.Entry<String, Instant> entry : pending) {
+			this.pendingLastRequests.remove(entry.getKey(), entry.getValue());
+		}
+		this.logger.trace(LogMessage.format("Flushed the last request of %d sessions", batch.size()));
+		return batch.size();
+	}
+
+	void shutdown() {
+		if (this.taskScheduler != null) {
+			this.taskScheduler.shutdown();
+			this.taskScheduler = null;
+		}
+	}
+
+	private void evictStale(long now) {
+		this.cache.values().removeIf((cached) -> now - cached.readAt >= this.cacheTimeToLiveNanos);
+		if (this.cache.size() >= this.maximumCacheSize) {
+			this.cache.clear();
+		}
+	}
+
+	private ThreadPoolTaskScheduler createTaskScheduler(Duration flushInterval) {
+		if (flushInterval == null) {
+			return null;
+		}
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.setThreadNamePrefix("spring-session-registry-");
+		taskScheduler.initialize();
+		taskScheduler.scheduleWithFixedDelay(this::flush, flushInterval);
+		return taskScheduler;
+	}
+
+	/**
+	 * Returns the name the principal is stored with: the username of a
+	 * {@link UserDetails}, the name of an {@link AuthenticatedPrincipal} or a
+	 * {@link Principal}, or else its {@code toString()}.
+	 */
+	static String principalName(Object principal) {
+		if (principal instanceof UserDetails userDetails) {
+			return userDetails.getUsername();
+		}
+		if (principal instanceof AuthenticatedPrincipal authenticatedPrincipal) {
+			return authenticatedPrincipal.getName();
+		}
+		if (principal instanceof Principal namedPrincipal) {
+			return namedPrincipal.getName();
+		}
+		return principal.toString();
+	}
+
+	static final class Row {
+
+		private final String sessionId;
+
+		private final String principalName;
+
+		private final Instant lastRequest;
+
+		private final boolean expired;
+
+		private Row(String sessionId, String principalName, Instant lastRequest, boolean expired) {
+			this.sessionId = sessionId;
+			this.principalName = principalName;
+			this.lastRequest = lastRequest;
+			this.expired = expired;
+		}
+
+		String getSessionId() {
+			return this.sessionId;
+		}
+
+		String getPrincipalName() {
+			return this.principalName;
+		}
+
+		Instant getLastRequest() {
+			return this.lastRequest;
+		}
+
+		boolean isExpired() {
+			return this.expired;
+		}
+
+	}
+
+	private static final class CachedRow {
+
+		private final Row row;
+
+		private final long readAt;
+
+		private CachedRow(Row row, long readAt) {
+			this.row = row;
+			this.readAt = readAt;
+		}
+
+	}
+
+	private static final class SessionRowMapper implements RowMapper<Row> {
+
+		@Override
+		public Row mapRow(ResultSet rs, int rowNum) throws SQLException {
+			return new Row(rs.getString("session_id"), rs.getString("principal_name"),
+					rs.getTimestamp("last_request").toInstant(), rs.getBoolean("expired"));
+		}
+
+	}
+
+	private static final class FirstRowsExtractor implements ResultSetExtractor<List<Row>> {
+
+		private final int count;
+
+		private FirstRowsExtractor(int count) {
+			this.count = count;
+		}
+
+		@Override
+		public List<Row> extractData(ResultSet rs) throws SQLException {
+			List<Row> rows = new ArrayList<>(Math.min(this.count, 16));
+			while (rows.size() < this.count && rs.next()) {
+				rows.add(ROW_MAPPER.mapRow(rs, rows.size()));
+			}
+			return rows;
+		}
+
+	}
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.Assert;
+
+/**
+ * The sessions of each principal, split across shards by principal so that registering,
+ * refreshing and removing sessions of different principals seldom contend.
+ *
+ * <p>
+ * Sessions are looked up by id without locking. The sessions of a principal are kept in
+ * two maps guarded by the lock of their shard: the active sessions, in least recently
+ * used order, and the expired sessions. Counting the active sessions of a principal,
+ * moving a session to the most recently used position, and finding the least recently
+ * used sessions therefore take constant time, rather than listing and sorting all the
+ * sessions of the principal.
+ *
+ * @param <S> the type of the session information
+ * @since 6.5
+ */
+final class SessionShards<S> {
+
+	private final Map<String, Node<S>> sessions = new ConcurrentHashMap<>();
+
+	private final Shard<S>[] shards;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	SessionShards(int shardCount) {
+		Assert.isTrue(shardCount > 0, "shardCount must be greater than 0");
+		int size = Integer.highestOneBit(shardCount - 1) << 1;
+		this.shards = new Shard[Math.max(1, size)];
+		for (int i = 0; i < this.shards.length; i++) {
+			this.shards[i] = new Shard<>();
+		}
+	}
+
+	/**
+	 * Registers the session, replacing any session registered with the same id.
+	 */
+	void register(String sessionId, Object principal, S session) {
+		remove(sessionId);
+		Node<S> node = new Node<>(principal, session);
+		this.sessions.put(sessionId, node);
+		Shard<S> shard = shard(principal);
+		synchronized (shard) {
+			shard.principals.computeIfAbsent(principal, (key) -> new PrincipalSessions<>()).active.put(sessionId, node);
+		}
+	}
+
+	S get(String sessionId) {
+		Node<S> node = this.sessions.get(sessionId);
+		return (node != null) ? node.session : null;
+	}
+
+	/**
+	 * Removes the session.
+	 * @return the removed session or {@code null} if none was registered
+	 */
+	S remove(String sessionId) {
+		Node<S> node = this.sessions.remove(sessionId);
+		if (node == null) {
+			return null;
+		}
+		Shard<S> shard = shard(node.principal);
+		synchronized (shard) {
+			PrincipalSessions<S> principalSessions = shard.principals.get(node.principal);
+			if (principalSessions != null) {
+				principalSessions.active.remove(sessionId, node);
+				principalSessions.expired.remove(sessionId, node);
+				if (principalSessions.isEmpty()) {
+					shard.principals.remove(node.principal);
+				}
+			}
+		}
+		return node.session;
+	}
+
+	/**
+	 * Moves the session to the most recently used position of its principal, if it is
+	 * still registered and active.
+	 */
+	void touch(String sessionId, S session) {
+		Node<S> node = this.sessions.get(sessionId);
+		if (node == null || node.session != session) {
+			return;
+		}
+		Shard<S> shard = shard(node.principal);
+		synchronized (shard) {
+			PrincipalSessions<S> principalSessions = shard.principals.get(node.principal);
+			if (principalSessions != null) {
+				// an access ordered map moves the entry to the end
+				principalSessions.active.get(sessionId);
+			}
+		}
+	}
+
+	/**
+	 * Moves the session to the expired sessions of its principal, if it is still
+	 * registered and active.
+	 */
+	void expire(String sessionId, S session) {
+		Node<S> node = this.sessions.get(sessionId);
+		if (node == null || node.session != session) {
+			return;
+		}
+		Shard<S> shard = shard(node.principal);
+		synchronized (shard) {
+			PrincipalSessions<S> principalSessions = shard.principals.get(node.principal);
+			if (principalSessions != null && principalSessions.active.remove(sessionId, node)) {
+				principalSessions.expired.put(sessionId, node);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of active sessions of the principal.
+	 */
+	int count(Object principal) {
+		Shard<S> shard = shard(principal);
+		synchronized (shard) {
+			PrincipalSessions<S> principalSessions = shard.principals.get(principal);
+			return (principalSessions != null) ? principalSessions.active.size() : 0;
+		}
+	}
+
+	/**
+	 * Returns the sessions of the principal, the expired sessions first if included, then
+	 * the active sessions from the least to the most recently used.
+	 */
+	List<S> list(Object principal, boolean includeExpired) {
+		Shard<S> shard = shard(principal);
+		synchronized (shard) {
+			PrincipalSessions<S> principalSessions = shard.principals.get(principal);
+			if (principalSessions == null) {
+				return Collections.emptyList();
+			}
+			List<S> list = new ArrayList<>(
+					principalSessions.active.size() + (includeExpired ? principalSessions.expired.size() : 0));
+			if (includeExpired) {
+				addSessions(principalSessions.expired, list, Integer.MAX_VALUE);
+			}
+			addSessions(principalSessions.active, list, Integer.MAX_VALUE);
+			return list;
+		}
+	}
+
+	/**
+	 * Returns up to the provided number of the least recently used active sessions of the
+	 * principal, from the least recently used.
+	 */
+	List<S> leastRecentlyUsed(Object principal, int count) {
+		Shard<S> shard = shard(principal);
+		synchronized (shard) {
+			PrincipalSessions<S> principalSessions = shard.principals.get(principal);
+			if (principalSessions == null || count <= 0) {
+				return Collections.emptyList();
+			}
+			List<S> list = new ArrayList<>(Math.min(count, principalSessions.active.size()));
+			addSessions(principalSessions.active, list, count);
+			return list;
+		}
+	}
+
+	List<Object> principals() {
+		List<Object> principals = new ArrayList<>();
+		for (Shard<S> shard : this.shards) {
+			synchronized (shard) {
+				principals.addAll(shard.principals.keySet());
+			}
+		}
+		return principals;
+	}
+
+	private Shard<S> shard(Object principal) {
+		int hash = principal.hashCode();
+		return this.shards[(hash ^ (hash >>> 16)) & (this.shards.length - 1)];
+	}
+
+	private static <S> void addSessions(Map<String, Node<S>> nodes, List<S> sessions, int limit) {
+		// values() iterates without changing the access order
+		for (Node<S> node : nodes.values()) {
+			if (sessions.size() >= limit) {
+				return;
+			}
+			sessions.add(node.session);
+		}
+	}
+
+	private static final class Shard<S> {
+
+		private final Map<Object, PrincipalSessions<S>> principals = new HashMap<>();
+
+	}
+
+	private static final class PrincipalSessions<S> {
+
+		private final Map<String, Node<S>> active = new LinkedHashMap<>(4, 0.75f, true);
+
+		private final Map<String, Node<S>> expired = new LinkedHashMap<>(4);
+
+		private boolean isEmpty() {
+			return this.active.isEmpty() && this.expired.isEmpty();
+		}
+
+	}
+
+	private static final class Node<S> {
+
+		private final Object principal;
+
+		private final S session;
+
+		private Node(Object principal, S session) {
+			this.principal = principal;
+			this.session = session;
+		}
+
+	}
+
+}
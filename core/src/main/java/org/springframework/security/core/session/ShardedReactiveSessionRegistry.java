@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveSessionRegistry} for principals with many concurrent sessions, such as
+ * kiosk or service accounts, that can replace {@link InMemoryReactiveSessionRegistry}.
+ *
+ * <p>
+ * Unlike {@link InMemoryReactiveSessionRegistry}, which keeps the session ids of each
+ * principal in a copy-on-write set, the sessions are split across shards by principal,
+ * each guarded by its own lock, and the sessions of each principal are kept in least
+ * recently used order. {@link #getAllSessions(Object)} returns them from the least
+ * recently used, and {@link #getSessionCount(Object)} counts them without listing them.
+ *
+ * @since 6.5
+ * @see ShardedSessionRegistry
+ */
+public final class ShardedReactiveSessionRegistry implements ReactiveSessionRegistry {
+
+	private final SessionShards<ReactiveSessionInformation> sessions;
+
+	/**
+	 * Constructs a {@code ShardedReactiveSessionRegistry} with four shards per available
+	 * processor.
+	 */
+	public ShardedReactiveSessionRegistry() {
+		this(Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * Constructs a {@code ShardedReactiveSessionRegistry} with the provided number of
+	 * shards, rounded up to a power of two.
+	 * @param shards the number of shards
+	 */
+	public ShardedReactiveSessionRegistry(int shards) {
+		Assert.isTrue(shards > 0, "shards must be greater than 0");
+		this.sessions = new SessionShards<>(shards);
+	}
+
+	@Override
+	public Flux<ReactiveSessionInformation> getAllSessions(Object principal) {
+		return Flux.defer(() -> Flux.fromIterable(this.sessions.list(principal, true)));
+	}
+
+	/**
+	 * Returns the number of sessions of the principal.
+	 * @param principal the principal
+	 * @return the number of sessions
+	 */
+	public Mono<Integer> getSessionCount(Object principal) {
+		return Mono.fromSupplier(() -> this.sessions.count(principal));
+	}
+
+	/**
+	 * Returns the least recently used sessions of the principal, from the least recently
+	 * used.
+	 * @param principal the principal
+	 * @param count the maximum number of sessions to return
+	 * @return the least recently used sessions, at most {@code count} of them
+	 */
+	public Flux<ReactiveSessionInformation> getLeastRecentlyUsedSessions(Object principal, int count) {
+		return Flux.defer(() -> Flux.fromIterable(this.sessions.leastRecentlyUsed(principal, count)));
+	}
+
+	@Override
+	public Mono<Void> saveSessionInformation(ReactiveSessionInformation information) {
+		return Mono.fromRunnable(
+				() -> this.sessions.register(information.getSessionId(), information.getPrincipal(), information));
+	}
+
+	@Override
+	public Mono<ReactiveSessionInformation> getSessionInformation(String sessionId) {
+		return Mono.fromSupplier(() -> this.sessions.get(sessionId));
+	}
+
+	@Override
+	public Mono<ReactiveSessionInformation> removeSessionInformation(String sessionId) {
+		return Mono.fromSupplier(() -> this.sessions.remove(sessionId));
+	}
+
+	@Override
+	public Mono<ReactiveSessionInformation> updateLastAccessTime(String sessionId) {
+		return Mono.defer(() -> {
+			ReactiveSessionInformation session = this.sessions.get(sessionId);
+			if (session == null) {
+				return Mono.empty();
+			}
+			this.sessions.touch(sessionId, session);
+			return session.refreshLastRequest().thenReturn(session);
+		});
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.SpringSecurityCoreVersion;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link CountingSessionRegistry} for principals with many concurrent sessions, such as
+ * kiosk or service accounts.
+ *
+ * <p>
+ * Unlike {@link SessionRegistryImpl}, which keeps the session ids of each principal in a
+ * copy-on-write set, the sessions are split across shards by principal, each guarded by
+ * its own lock. The non-expired sessions of each principal are kept in least recently
+ * used order, and the {@link SessionInformation} instances it registers update that order
+ * when {@link SessionInformation#refreshLastRequest() refreshed} and move out of it when
+ * {@link SessionInformation#expireNow() expired}. Counting the sessions of a principal
+ * and finding the least recently used ones therefore do not depend on how many sessions
+ * the principal has, and {@link #getAllSessions(Object, boolean)} returns the non-expired
+ * sessions from the least recently used.
+ *
+ * <p>
+ * Like {@link SessionRegistryImpl}, it must be notified of destroyed sessions, for
+ * example with an {@code HttpSessionEventPublisher}.
+ *
+ * @since 6.5
+ */
+public final class ShardedSessionRegistry
+		implements CountingSessionRegistry, ApplicationListener<AbstractSessionEvent> {
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final SessionShards<SessionInformation> sessions;
+
+	/**
+	 * Constructs a {@code ShardedSessionRegistry} with four shards per available
+	 * processor.
+	 */
+	public ShardedSessionRegistry() {
+		this(Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * Constructs a {@code ShardedSessionRegistry} with the provided number of shards,
+	 * rounded up to a power of two.
+	 * @param shards the number of shards
+	 */
+	public ShardedSessionRegistry(int shards) {
+		Assert.isTrue(shards > 0, "shards must be greater than 0");
+		this.sessions = new SessionShards<>(shards);
+	}
+
+	@Override
+	public List<Object> getAllPrincipals() {
+		return this.sessions.principals();
+	}
+
+	@Override
+	public List<SessionInformation> getAllSessions(Object principal, boolean includeExpiredSessions) {
+		return new ArrayList<>(this.sessions.list(principal, includeExpiredSessions));
+	}
+
+	@Override
+	public int getSessionCount(Object principal) {
+		return this.sessions.count(principal);
+	}
+
+	@Override
+	public List<SessionInformation> getLeastRecentlyUsedSessions(Object principal, int count) {
+		return this.sessions.leastRecentlyUsed(principal, count);
+	}
+
+	@Override
+	public boolean isRegistered(Object principal, String sessionId) {
+		Assert.notNull(principal, "principal cannot be null");
+		Assert.hasText(sessionId, "sessionId cannot be empty");
+		SessionInformation info = this.sessions.get(sessionId);
+		return info != null && !info.isExpired() && principal.equals(info.getPrincipal());
+	}
+
+	@Override
+	public SessionInformation getSessionInformation(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		return this.sessions.get(sessionId);
+	}
+
+	@Override
+	public void onApplicationEvent(AbstractSessionEvent event) {
+		if (event instanceof SessionDestroyedEvent sessionDestroyedEvent) {
+			removeSessionInformation(sessionDestroyedEvent.getId());
+		}
+		else if (event instanceof SessionIdChangedEvent sessionIdChangedEvent) {
+			SessionInformation info = this.sessions.get(sessionIdChangedEvent.getOldSessionId());
+			if (info != null) {
+				removeSessionInformation(sessionIdChangedEvent.getOldSessionId());
+				registerNewSession(sessionIdChangedEvent.getNewSessionId(), info.getPrincipal());
+			}
+		}
+	}
+
+	@Override
+	public void refreshLastRequest(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		SessionInformation info = this.sessions.get(sessionId);
+		if (info != null) {
+			info.refreshLastRequest();
+		}
+	}
+
+	@Override
+	public void registerNewSession(String sessionId, Object principal) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		Assert.notNull(principal, "Principal required as per interface contract");
+		this.logger.debug(LogMessage.format("Registering session %s, for principal %s", sessionId, principal));
+		this.sessions.register(sessionId, principal,
+				new ShardedSessionInformation(principal, sessionId, new Date(), this.sessions));
+	}
+
+	@Override
+	public void removeSessionInformation(String sessionId) {
+		Assert.hasText(sessionId, "SessionId required as per interface contract");
+		if (this.sessions.remove(sessionId) != null) {
+			this.logger.debug(LogMessage.format("Removed session %s from registered sessions", sessionId));
+		}
+	}
+
+	/**
+	 * A {@link SessionInformation} that keeps the order and the count of the sessions of
+	 * its principal up to date when refreshed or expired.
+	 */
+	private static final class ShardedSessionInformation extends SessionInformation {
+
+		@Serial
+		private static final long serialVersionUID = SpringSecurityCoreVersion.SERIAL_VERSION_UID;
+
+		private final transient SessionShards<SessionInformation> sessions;
+
+		private ShardedSessionInformation(Object principal, String sessionId, Date lastRequest,
+				SessionShards<SessionInformation> sessions) {
+			super(principal, sessionId, lastRequest);
+			this.sessions = sessions;
+		}
+
+		@Override
+		public void expireNow() {
+			super.expireNow();
+			if (this.sessions != null) {
+				this.sessions.expire(getSessionId(), this);
+			}
+		}
+
+		@Override
+		public void refreshLastRequest() {
+			super.refreshLastRequest();
+			if (this.sessions != null) {
+				this.sessions.touch(getSessionId(), this);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link UserCache} that keeps a bounded, in-process copy of recently used users in
+ * front of a shared {@link UserCache}, such as a {@link SpringCacheBasedUserCache} backed
+ * by a distributed cache.
+ *
+ * <p>
+ * Users are read from the local tier first and from the shared tier on a miss. When a
+ * user is removed, for example by
+ * {@link org.springframework.security.provisioning.JdbcUserDetailsManager} after it is
+ * updated, it is removed from both tiers and a {@link UserCacheEvictionEvent} is
+ * published. Every {@code TwoLevelUserCache} listening to the event evicts the user from
+ * its local tier, so an application that relays the event to its other nodes, for example
+ * through a message broker, evicts the user across the cluster.
+ *
+ * <p>
+ * Local entries expire after the {@link #setTimeToLive(Duration) time to live}, which
+ * bounds how long a node may serve a user whose eviction event it did not receive, or
+ * that it loaded concurrently with the eviction.
+ *
+ * <p>
+ * The local tier keeps its own copy of each {@link User}, so erasing the credentials of
+ * an authenticated principal does not erase them from the cache. Other
+ * {@link UserDetails} implementations are kept as given; if they implement
+ * {@link org.springframework.security.core.CredentialsContainer}, configure the
+ * {@link org.springframework.security.authentication.ProviderManager} not to erase
+ * credentials after authentication.
+ *
+ * @since 6.5
+ * @see UserCacheEvictionEvent
+ */
+public final class TwoLevelUserCache
+		implements UserCache, ApplicationListener<UserCacheEvictionEvent>, ApplicationEventPublisherAware {
+
+	private static final Log logger = LogFactory.getLog(TwoLevelUserCache.class);
+
+	private final UserCache sharedCache;
+
+	private final Map<String, LocalEntry> localCache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private ApplicationEventPublisher eventPublisher;
+
+	private int maximumSize = 1024;
+
+	private Duration timeToLive = Duration.ofMinutes(1);
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Constructs a {@code TwoLevelUserCache} using the provided parameters.
+	 * @param sharedCache the {@link UserCache} shared by all nodes
+	 */
+	public TwoLevelUserCache(UserCache sharedCache) {
+		Assert.notNull(sharedCache, "sharedCache cannot be null");
+		this.sharedCache = sharedCache;
+	}
+
+	@Override
+	public UserDetails getUserFromCache(String username) {
+		if (username == null) {
+			return null;
+		}
+		UserDetails user = getLocalUser(username);
+		if (user != null) {
+			logger.trace(LogMessage.format("Local cache hit for username '%s'", username));
+			return copy(user);
+		}
+		user = this.sharedCache.getUserFromCache(username);
+		if (user != null) {
+			putLocalUser(user);
+		}
+		return user;
+	}
+
+	@Override
+	public void putUserInCache(UserDetails user) {
+		putLocalUser(user);
+		this.sharedCache.putUserInCache(user);
+	}
+
+	@Override
+	public void removeUserFromCache(String username) {
+		// evict the shared tier first so that a concurrent miss cannot reload the user
+		// from it into the local tier
+		this.sharedCache.removeUserFromCache(username);
+		removeLocalUser(username);
+		if (this.eventPublisher != null) {
+			this.eventPublisher.publishEvent(new UserCacheEvictionEvent(this, username));
+		}
+	}
+
+	@Override
+	public void onApplicationEvent(UserCacheEvictionEvent event) {
+		if (event.getSource() != this) {
+			logger.debug(LogMessage.format("Evicting username '%s' from the local cache", event.getUsername()));
+			removeLocalUser(event.getUsername());
+		}
+	}
+
+	/**
+	 * Sets the {@link ApplicationEventPublisher} used to publish a
+	 * {@link UserCacheEvictionEvent} when a user is removed.
+	 * @param eventPublisher the {@link ApplicationEventPublisher} to use
+	 */
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+		Assert.notNull(eventPublisher, "eventPublisher cannot be null");
+		this.eventPublisher = eventPublisher;
+	}
+
+	/**
+	 * Sets the maximum number of users in the local tier, beyond which the least recently
+	 * used user is evicted. Defaults to 1024.
+	 * @param maximumSize the maximum number of users
+	 */
+	public void setMaximumSize(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		synchronized (this.localCache) {
+			this.maximumSize = maximumSize;
+			evictLeastRecentlyUsed();
+		}
+	}
+
+	/**
+	 * Sets how long a user is kept in the local tier. Defaults to 1 minute.
+	 * @param timeToLive the time to live
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to expire users in the local tier.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	private UserDetails getLocalUser(String username) {
+		Instant now = this.clock.instant();
+		synchronized (this.localCache) {
+			LocalEntry entry = this.localCache.get(username);
+			if (entry == null) {
+				return null;
+			}
+			if (now.isAfter(entry.expiresAt)) {
+				this.localCache.remove(username);
+				return null;
+			}
+			return entry.user;
+		}
+	}
+
+	private void putLocalUser(UserDetails user) {
+		LocalEntry entry = new LocalEntry(copy(user), this.clock.instant().plus(this.timeToLive));
+		synchronized (this.localCache) {
+			this.localCache.put(user.getUsername(), entry);
+			evictLeastRecentlyUsed();
+		}
+	}
+
+	private void removeLocalUser(String username) {
+		synchronized (this.localCache) {
+			this.localCache.remove(username);
+		}
+	}
+
+	private void evictLeastRecentlyUsed() {
+		Iterator<LocalEntry> entries = this.localCache.values().iterator();
+		for (int size = this.localCache.size(); size > this.maximumSize; size--) {
+			entries.next();
+			entries.remove();
+		}
+	}
+
+	private static UserDetails copy(UserDetails user) {
+		if (user.getClass() != User.class || user.getPassword() == null) {
+			return user;
+		}
+		return User.withUserDetails(user).build();
+	}
+
+	private static final class LocalEntry {
+
+		private final UserDetails user;
+
+		private final Instant expiresAt;
+
+		private LocalEntry(UserDetails user, Instant expiresAt) {
+			this.user = user;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.util.Assert;
+
+/**
+ * Published when a user is removed from a {@link UserCache}, so that copies of the user
+ * cached elsewhere, such as in the local tier of a {@link TwoLevelUserCache} on another
+ * node, can be evicted too.
+ *
+ * @since 6.5
+ * @see TwoLevelUserCache
+ */
+public class UserCacheEvictionEvent extends ApplicationEvent {
+
+	private final String username;
+
+	/**
+	 * Constructs a {@code UserCacheEvictionEvent} using the provided parameters.
+	 * @param source the cache or relay publishing the event
+	 * @param username the username of the user to evict
+	 */
+	public UserCacheEvictionEvent(Object source, String username) {
+		super(source);
+		Assert.notNull(username, "username cannot be null");
+		this.username = username;
+	}
+
+	/**
+	 * Returns the username of the user to evict.
+	 * @return the username
+	 */
+	public String getUsername() {
+		return this.username;
+	}
+
+}
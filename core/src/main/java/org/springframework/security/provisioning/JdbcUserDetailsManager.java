@@ -19,6 +19,7 @@ package org.springframework.security.provisioning;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -342,10 +343,12 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 		this.logger.debug("Deleting group '" + groupName + "'");
 		Assert.hasText(groupName, "groupName should have text");
 		int id = findGroupId(groupName);
+		List<String> members = findCachedGroupMembers(groupName);
 		PreparedStatementSetter groupIdPSS = (ps) -> ps.setInt(1, id);
 		getJdbcTemplate().update(this.deleteGroupMembersSql, groupIdPSS);
 		getJdbcTemplate().update(this.deleteGroupAuthoritiesSql, groupIdPSS);
 		getJdbcTemplate().update(this.deleteGroupSql, groupIdPSS);
+		removeUsersFromCache(members);
 	}
 
 	@Override
@@ -405,6 +408,7 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 			ps.setInt(1, id);
 			ps.setString(2, authority.getAuthority());
 		});
+		removeUsersFromCache(findCachedGroupMembers(groupName));
 	}
 
 	@Override
@@ -417,12 +421,30 @@ public class JdbcUserDetailsManager extends JdbcDaoImpl implements UserDetailsMa
 			ps.setInt(1, id);
 			ps.setString(2, authority.getAuthority());
 		});
+		removeUsersFromCache(findCachedGroupMembers(groupName));
 	}
 
 	private int findGroupId(String group) {
 		return getJdbcTemplate().queryForObject(this.findGroupIdSql, Integer.class, group);
 	}
 
+	/**
+	 * Returns the members of the group whose cached authorities change with the group, or
+	 * an empty list if no {@link UserCache} is in use.
+	 */
+	private List<String> findCachedGroupMembers(String groupName) {
+		if (this.userCache instanceof NullUserCache) {
+			return Collections.emptyList();
+		}
+		return findUsersInGroup(groupName);
+	}
+
+	private void removeUsersFromCache(List<String> usernames) {
+		for (String username : usernames) {
+			this.userCache.removeUserFromCache(username);
+		}
+	}
+
 	/**
 	 * Sets the {@link SecurityContextHolderStrategy} to use. The default action is to use
 	 * the {@link SecurityContextHolderStrategy} stored in {@link SecurityContextHolder}.
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.provisioning;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+
+/**
+ * Re-encodes the passwords stored in the table structure of
+ * {@link JdbcUserDetailsManager} in a batch, rather than on each user's next login as
+ * {@link DaoAuthenticationProvider} does with
+ * {@link org.springframework.security.core.userdetails.UserDetailsPasswordService}.
+ *
+ * <p>
+ * The users are read in pages ordered by username, and a password is re-encoded when
+ * {@link PasswordEncoder#upgradeEncoding(String)} reports that it should be and the raw
+ * password can be recovered from it. By default, only passwords stored with the
+ * {@code {noop}} prefix can be recovered: a hashed password cannot be re-encoded without
+ * the raw password, so those are counted as {@link Progress#getUnrecoverable()
+ * unrecoverable} and left to be upgraded on login. Each page is encoded in parallel and
+ * written back in a single JDBC batch, which only updates a password that has not changed
+ * since it was read.
+ *
+ * <p>
+ * To avoid saturating the database, a pause can be set between pages, and the
+ * {@link Progress} is reported after each page.
+ *
+ * @since 6.5
+ */
+public final class JdbcUserDetailsPasswordMigrator {
+
+	public static final String DEF_USERS_PAGE_SQL = "select username, password from users where username > ? "
+			+ "order by username";
+
+	public static final String DEF_UPGRADE_PASSWORD_SQL = "update users set password = ? where username = ? "
+			+ "and password = ?";
+
+	private static final String NOOP_PREFIX = "{noop}";
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final JdbcOperations jdbcOperations;
+
+	private final PasswordEncoder passwordEncoder;
+
+	private String usersPageSql = DEF_USERS_PAGE_SQL;
+
+	private String upgradePasswordSql = DEF_UPGRADE_PASSWORD_SQL;
+
+	private int pageSize = 500;
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	private Duration pauseBetweenPages = Duration.ZERO;
+
+	private Function<String, String> rawPasswordResolver = JdbcUserDetailsPasswordMigrator::resolveNoOpPassword;
+
+	private Consumer<Progress> progressListener = (progress) -> {
+	};
+
+	/**
+	 * Constructs a {@code JdbcUserDetailsPasswordMigrator} using the provided parameters.
+	 * @param jdbcOperations the JDBC operations
+	 * @param passwordEncoder the {@link PasswordEncoder} that re-encodes the passwords,
+	 * typically the same as the one used to authenticate the users
+	 */
+	public JdbcUserDetailsPasswordMigrator(JdbcOperations jdbcOperations, PasswordEncoder passwordEncoder) {
+		Assert.notNull(jdbcOperations, "jdbcOperations cannot be null");
+		Assert.notNull(passwordEncoder, "passwordEncoder cannot be null");
+		this.jdbcOperations = jdbcOperations;
+		this.passwordEncoder = passwordEncoder;
+	}
+
+	/**
+	 * Sets the query of a page of users, which selects the username and password of the
+	 * users whose username is greater than the parameter, ordered by username. Defaults
+	 * to {@link #DEF_USERS_PAGE_SQL}.
+	 * @param usersPageSql the query
+	 */
+	public void setUsersPageSql(String usersPageSql) {
+		Assert.hasText(usersPageSql, "usersPageSql cannot be empty");
+		this.usersPageSql = usersPageSql;
+	}
+
+	/**
+	 * Sets the statement that updates a password, given the new password, the username
+	 * and the password that was read. Defaults to {@link #DEF_UPGRADE_PASSWORD_SQL}.
+	 * @param upgradePasswordSql the statement
+	 */
+	public void setUpgradePasswordSql(String upgradePasswordSql) {
+		Assert.hasText(upgradePasswordSql, "upgradePasswordSql cannot be empty");
+		this.upgradePasswordSql = upgradePasswordSql;
+	}
+
+	/**
+	 * Sets the number of users read, encoded and written at once. Defaults to 500.
+	 * @param pageSize the page size
+	 */
+	public void setPageSize(int pageSize) {
+		Assert.isTrue(pageSize > 0, "pageSize must be greater than 0");
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Sets the number of passwords encoded in parallel. Defaults to the number of
+	 * processors.
+	 * @param parallelism the number of threads encoding passwords
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "parallelism must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Sets the pause after each page, to throttle the load on the database. Defaults to
+	 * no pause.
+	 * @param pauseBetweenPages the pause
+	 */
+	public void setPauseBetweenPages(Duration pauseBetweenPages) {
+		Assert.notNull(pauseBetweenPages, "pauseBetweenPages cannot be null");
+		Assert.isTrue(!pauseBetweenPages.isNegative(), "pauseBetweenPages cannot be negative");
+		this.pauseBetweenPages = pauseBetweenPages;
+	}
+
+	/**
+	 * Sets the function recovering the raw password from a stored password, which returns
+	 * {@code null} if it cannot be recovered. Defaults to recovering the passwords stored
+	 * with the {@code {noop}} prefix.
+	 * @param rawPasswordResolver the function recovering the raw password
+	 */
+	public void setRawPasswordResolver(Function<String, String> rawPasswordResolver) {
+		Assert.notNull(rawPasswordResolver, "rawPasswordResolver cannot be null");
+		this.rawPasswordResolver = rawPasswordResolver;
+	}
+
+	/**
+	 * Sets the listener notified of the {@link Progress} after each page.
+	 * @param progressListener the listener
+	 */
+	public void setProgressListener(Consumer<Progress> progressListener) {
+		Assert.notNull(progressListener, "progressListener cannot be null");
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * Re-encodes the passwords of all users. If the thread is interrupted, the migration
+	 * stops after the current page and can be resumed by running it again.
+	 * @return the {@link Progress} of the migration
+	 */
+	public Progress migrate() {
+		Progress progress = new Progress();
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			String lastUsername = "";
+			List<StoredPassword> page = readPage(lastUsername);
+			while (!page.isEmpty()) {
+				lastUsername = page.get(page.size() - 1).username;
+				migrate(page, pool, progress);
+				this.progressListener.accept(progress);
+				this.logger.debug(LogMessage.of(progress::toString));
+				if (page.size() < this.pageSize || !pause()) {
+					break;
+				}
+				page = readPage(lastUsername);
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+		this.logger.info(LogMessage.format("Finished password migration with %s", progress));
+		return progress;
+	}
+
+	private List<StoredPassword> readPage(String lastUsername) {
+		return this.jdbcOperations.query((connection) -> {
+			PreparedStatement statement = connection.prepareStatement(this.usersPageSql);
+			statement.setMaxRows(this.pageSize);
+			statement.setFetchSize(this.pageSize);
+			statement.setString(1, lastUsername);
+			return statement;
+		}, (ResultSet rs) -> {
+			List<StoredPassword> page = new ArrayList<>();
+			while (page.size() < this.pageSize && rs.next()) {
+				page.add(new StoredPassword(rs.getString(1), rs.getString(2)));
+			}
+			return page;
+		});
+	}
+
+	private void migrate(List<StoredPassword> page, ForkJoinPool pool, Progress progress) {
+		progress.scanned += page.size();
+		List<StoredPassword> upgradable = new ArrayList<>();
+		for (StoredPassword stored : page) {
+			if (stored.password == null || !this.passwordEncoder.upgradeEncoding(stored.password)) {
+				continue;
+			}
+			stored.rawPassword = this.rawPasswordResolver.apply(stored.password);
+			if (stored.rawPassword != null) {
+				upgradable.add(stored);
+			}
+			else {
+				progress.unrecoverable++;
+			}
+		}
+		List<Object[]> updates = encode(upgradable, pool).stream()
+			.filter((stored) -> stored.encodedPassword != null)
+			.map((stored) -> new Object[] { stored.encodedPassword, stored.username, stored.password })
+			.collect(Collectors.toList());
+		progress.failed += upgradable.size() - updates.size();
+		if (updates.isEmpty()) {
+			return;
+		}
+		int[] counts = this.jdbcOperations.batchUpdate(this.upgradePasswordSql, updates);
+		for (int count : counts) {
+			if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+				progress.upgraded++;
+			}
+			else {
+				progress.failed++;
+			}
+		}
+	}
+
+	private List<StoredPassword> encode(List<StoredPassword> upgradable, ForkJoinPool pool) {
+		try {
+			return pool.submit(() -> upgradable.parallelStream().map(this::encode).collect(Collectors.toList())).get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return List.of();
+		}
+		catch (ExecutionException ex) {
+			throw new IllegalStateException("Unable to encode passwords", ex.getCause());
+		}
+	}
+
+	private StoredPassword encode(StoredPassword stored) {
+		try {
+			stored.encodedPassword = this.passwordEncoder.encode(stored.rawPassword);
+		}
+		catch (RuntimeException ex) {
+			this.logger.debug(LogMessage.format("Failed to encode the password of %s", stored.username), ex);
+		}
+		stored.rawPassword = null;
+		return stored;
+	}
+
+	private boolean pause() {
+		if (Thread.currentThread().isInterrupted()) {
+			return false;
+		}
+		if (this.pauseBetweenPages.isZero()) {
+			return true;
+		}
+		try {
+			Thread.sleep(this.pauseBetweenPages.toMillis());
+			return true;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static String resolveNoOpPassword(String password) {
+		return password.startsWith(NOOP_PREFIX) ? password.substring(NOOP_PREFIX.length()) : null;
+	}
+
+	/**
+	 * The progress of a password migration.
+	 */
+	public static final class Progress {
+
+		private volatile long scanned;
+
+		private volatile long upgraded;
+
+		private volatile long unrecoverable;
+
+		private volatile long failed;
+
+		private Progress() {
+		}
+
+		/**
+		 * Returns the number of users read so far.
+		 * @return the number of users read
+		 */
+		public long getScanned() {
+			return this.scanned;
+		}
+
+		/**
+		 * Returns the number of passwords re-encoded and written so far.
+		 * @return the number of passwords re-encoded
+		 */
+		public long getUpgraded() {
+			return this.upgraded;
+		}
+
+		/**
+		 * Returns the number of passwords that should be re-encoded but whose raw
+		 * password cannot be recovered, so they are left to be upgraded on login.
+		 * @return the number of unrecoverable passwords
+		 */
+		public long getUnrecoverable() {
+			return this.unrecoverable;
+		}
+
+		/**
+		 * Returns the number of passwords that failed to be encoded or changed while
+		 * being re-encoded, and so were not written.
+		 * @return the number of failed passwords
+		 */
+		public long getFailed() {
+			return this.failed;
+		}
+
+		@Override
+		public String toString() {
+			return "Progress [scanned=" + this.scanned + ", upgraded=" + this.upgraded + ", unrecoverable="
+					+ this.unrecoverable + ", failed=" + this.failed + "]";
+		}
+
+	}
+
+	private static final class StoredPassword {
+
+		private final String username;
+
+		private final String password;
+
+		private String rawPassword;
+
+		private String encodedPassword;
+
+		private StoredPassword(String username, String password) {
+			this.username = username;
+			this.password = password;
+		}
+
+	}
+
+}
@@ -21,6 +21,9 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.security.access.hierarchicalroles.NullRoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
 import org.springframework.security.core.AuthenticatedPrincipal;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
@@ -28,8 +31,10 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -126,6 +131,31 @@ public class AbstractAuthenticationTokenTests {
 		verify(principal, times(1)).getName();
 	}
 
+	@Test
+	public void getReachableAuthoritiesWhenSameRoleHierarchyThenExpandedOnce() {
+		MockAuthenticationImpl token = new MockAuthenticationImpl("Test", "Password", this.authorities);
+		RoleHierarchy roleHierarchy = spy(RoleHierarchyImpl.fromHierarchy("ROLE_ONE > ROLE_THREE"));
+		assertThat(token.getReachableAuthorities(roleHierarchy)).containsExactlyInAnyOrder("ROLE_ONE", "ROLE_TWO",
+				"ROLE_THREE");
+		assertThat(token.getReachableAuthorities(roleHierarchy)).contains("ROLE_THREE");
+		verify(roleHierarchy, times(1)).getReachableGrantedAuthorities(any());
+	}
+
+	@Test
+	public void getReachableAuthoritiesWhenOtherRoleHierarchyThenExpandedAgain() {
+		MockAuthenticationImpl token = new MockAuthenticationImpl("Test", "Password", this.authorities);
+		assertThat(token.getReachableAuthorities(new NullRoleHierarchy())).doesNotContain("ROLE_THREE");
+		assertThat(token.getReachableAuthorities(RoleHierarchyImpl.fromHierarchy("ROLE_ONE > ROLE_THREE")))
+			.contains("ROLE_THREE");
+	}
+
+	@Test
+	public void getReachableAuthoritiesThenImmutable() {
+		MockAuthenticationImpl token = new MockAuthenticationImpl("Test", "Password", this.authorities);
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+			.isThrownBy(() -> token.getReachableAuthorities(new NullRoleHierarchy()).add("ROLE_THREE"));
+	}
+
 	private class MockAuthenticationImpl extends AbstractAuthenticationToken {
 
 		private Object credentials;
@@ -16,6 +16,12 @@
 
 package org.springframework.security.authentication;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +35,7 @@ import reactor.test.StepVerifier;
 import org.springframework.context.MessageSource;
 import org.springframework.security.authentication.password.CompromisedPasswordDecision;
 import org.springframework.security.authentication.password.CompromisedPasswordException;
+import org.springframework.security.authentication.password.PasswordHashingExecutor;
 import org.springframework.security.authentication.password.ReactiveCompromisedPasswordChecker;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
@@ -44,9 +51,11 @@ import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 /**
@@ -259,6 +268,72 @@ public class UserDetailsRepositoryReactiveAuthenticationManagerTests {
 			.verifyComplete();
 	}
 
+	@Test
+	public void authenticateWhenPasswordHashingExecutorThenMatchesOnExecutor() {
+		given(this.userDetailsService.findByUsername(any())).willReturn(Mono.just(this.user));
+		given(this.encoder.matches(any(), any())).willReturn(true);
+		PasswordHashingExecutor executor = mock(PasswordHashingExecutor.class);
+		given(executor.submit(any(), any())).willAnswer(
+				(invocation) -> CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(1).get()));
+		this.manager.setPasswordEncoder(this.encoder);
+		this.manager.setScheduler(Schedulers.immediate());
+		this.manager.setPasswordHashingExecutor(executor);
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated(this.user,
+				this.user.getPassword());
+		StepVerifier.create(this.manager.authenticate(token))
+			.assertNext((authentication) -> assertThat(authentication.getPrincipal()).isEqualTo(this.user))
+			.verifyComplete();
+		verify(executor).submit(eq("user"), any());
+	}
+
+	@Test
+	public void authenticateWhenPasswordHashingExecutorThenContinuesOnScheduler() {
+		ExecutorService hashing = Executors.newSingleThreadExecutor((runnable) -> new Thread(runnable, "hashing"));
+		Scheduler scheduler = Schedulers.newSingle("authentication");
+		try {
+			given(this.userDetailsService.findByUsername(any())).willReturn(Mono.just(this.user));
+			given(this.encoder.matches(any(), any())).willReturn(true);
+			PasswordHashingExecutor executor = mock(PasswordHashingExecutor.class);
+			given(executor.submit(any(), any())).willAnswer((invocation) -> CompletableFuture
+				.supplyAsync(invocation.<Supplier<Boolean>>getArgument(1), hashing));
+			AtomicReference<String> postAuthenticationThread = new AtomicReference<>();
+			willAnswer((invocation) -> {
+				postAuthenticationThread.set(Thread.currentThread().getName());
+				return null;
+			}).given(this.postAuthenticationChecks).check(any());
+			this.manager.setPasswordEncoder(this.encoder);
+			this.manager.setScheduler(scheduler);
+			this.manager.setPasswordHashingExecutor(executor);
+			this.manager.setPostAuthenticationChecks(this.postAuthenticationChecks);
+			UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated(this.user,
+					this.user.getPassword());
+			StepVerifier.create(this.manager.authenticate(token))
+				.assertNext(
+						(authentication) -> assertThat(Thread.currentThread().getName()).startsWith("authentication"))
+				.verifyComplete();
+			assertThat(postAuthenticationThread.get()).startsWith("authentication");
+		}
+		finally {
+			hashing.shutdown();
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	public void authenticateWhenPasswordHashingRejectedThenAuthenticationServiceException() {
+		given(this.userDetailsService.findByUsername(any())).willReturn(Mono.just(this.user));
+		PasswordHashingExecutor executor = mock(PasswordHashingExecutor.class);
+		given(executor.submit(any(), any())).willThrow(new AuthenticationServiceException("rejected"));
+		this.manager.setPasswordEncoder(this.encoder);
+		this.manager.setPasswordHashingExecutor(executor);
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated(this.user,
+				this.user.getPassword());
+		StepVerifier.create(this.manager.authenticate(token))
+			.expectError(AuthenticationServiceException.class)
+			.verify();
+		verifyNoInteractions(this.encoder);
+	}
+
 	@Test
 	public void setMessageSourceWhenNullThenThrowsException() {
 		assertThatIllegalArgumentException().isThrownBy(() -> this.manager.setMessageSource(null));
@@ -19,6 +19,8 @@ package org.springframework.security.authentication.dao;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
 
@@ -36,6 +38,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.authentication.password.CompromisedPasswordChecker;
 import org.springframework.security.authentication.password.CompromisedPasswordDecision;
 import org.springframework.security.authentication.password.CompromisedPasswordException;
+import org.springframework.security.authentication.password.PasswordHashingExecutor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
@@ -540,6 +543,31 @@ public class DaoAuthenticationProviderTests {
 		assertThat(authentication).isNotNull();
 	}
 
+	@Test
+	void authenticateWhenPasswordHashingExecutorThenMatchesOnExecutor() {
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(NoOpPasswordEncoder.getInstance());
+		provider.setUserDetailsService(new MockUserDetailsServiceUserRod());
+		PasswordHashingExecutor executor = mock(PasswordHashingExecutor.class);
+		given(executor.submit(any(), any())).willAnswer(
+				(invocation) -> CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(1).get()));
+		provider.setPasswordHashingExecutor(executor);
+		Authentication authentication = provider
+			.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("rod", "koala"));
+		assertThat(authentication.isAuthenticated()).isTrue();
+		verify(executor).submit(eq("rod"), any());
+	}
+
+	@Test
+	void authenticateWhenPasswordHashingRejectedThenAuthenticationServiceException() {
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(NoOpPasswordEncoder.getInstance());
+		provider.setUserDetailsService(new MockUserDetailsServiceUserRod());
+		PasswordHashingExecutor executor = mock(PasswordHashingExecutor.class);
+		given(executor.submit(any(), any())).willThrow(new AuthenticationServiceException("rejected"));
+		provider.setPasswordHashingExecutor(executor);
+		assertThatExceptionOfType(AuthenticationServiceException.class).isThrownBy(
+				() -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("rod", "koala")));
+	}
+
 	private UserDetailsService withUsers(UserDetails... users) {
 		return new InMemoryUserDetailsManager(users);
 	}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link BoundedPasswordHashingExecutor}
+ */
+public class BoundedPasswordHashingExecutorTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private BoundedPasswordHashingExecutor executor;
+
+	@AfterEach
+	void cleanup() {
+		this.release.countDown();
+		if (this.executor != null) {
+			this.executor.destroy();
+		}
+	}
+
+	@Test
+	void constructorWhenThreadsNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BoundedPasswordHashingExecutor(0, 1));
+	}
+
+	@Test
+	void constructorWhenQueueCapacityNegativeThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BoundedPasswordHashingExecutor(1, -1));
+	}
+
+	@Test
+	void setMaxPendingPerUsernameWhenNotPositiveThenIllegalArgumentException() {
+		this.executor = new BoundedPasswordHashingExecutor(1, 1);
+		assertThatIllegalArgumentException().isThrownBy(() -> this.executor.setMaxPendingPerUsername(0));
+	}
+
+	@Test
+	void submitWhenHashedThenCompletesWithResult() throws Exception {
+		this.executor = new BoundedPasswordHashingExecutor(1, 1);
+		CompletableFuture<Boolean> matches = this.executor.submit("user", () -> true);
+		assertThat(matches.get(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void submitWhenHashingFailsThenCompletesExceptionally() {
+		this.executor = new BoundedPasswordHashingExecutor(1, 1);
+		CompletableFuture<Boolean> matches = this.executor.submit("user", () -> {
+			throw new IllegalStateException("failed");
+		});
+		assertThat(matches).failsWithin(5, TimeUnit.SECONDS)
+			.withThrowableOfType(Exception.class)
+			.withCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void submitWhenQueueFullThenAuthenticationServiceException() {
+		this.executor = new BoundedPasswordHashingExecutor(1, 1);
+		this.executor.submit("one", this::awaitRelease);
+		this.executor.submit("two", this::awaitRelease);
+		assertThatExceptionOfType(AuthenticationServiceException.class)
+			.isThrownBy(() -> this.executor.submit("three", this::awaitRelease))
+			.withMessage("Password hashing capacity exceeded");
+	}
+
+	@Test
+	void submitWhenTooManyPendingForUsernameThenAuthenticationServiceException() {
+		this.executor = new BoundedPasswordHashingExecutor(1, 10);
+		this.executor.setMaxPendingPerUsername(1);
+		this.executor.submit("user", this::awaitRelease);
+		assertThatExceptionOfType(AuthenticationServiceException.class)
+			.isThrownBy(() -> this.executor.submit("user", this::awaitRelease))
+			.withMessage("Too many pending password hashes for this user");
+		assertThat(this.executor.submit("other", this::awaitRelease)).isNotNull();
+	}
+
+	@Test
+	void submitWhenPendingHashCompletesThenUsernameAcceptedAgain() throws Exception {
+		this.executor = new BoundedPasswordHashingExecutor(1, 10);
+		this.executor.setMaxPendingPerUsername(1);
+		this.executor.submit("user", () -> true).get(5, TimeUnit.SECONDS);
+		assertThat(this.executor.submit("user", () -> true).get(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void getQueueSizeWhenHashesWaitingThenReturnsWaiting() {
+		this.executor = new BoundedPasswordHashingExecutor(1, 10);
+		this.executor.submit("one", this::awaitRelease);
+		this.executor.submit("two", this::awaitRelease);
+		this.executor.submit("three", this::awaitRelease);
+		assertThat(this.executor.getQueueSize()).isBetween(2, 3);
+	}
+
+	@Test
+	void submitWhenObservationRegistryThenObservesHashing() throws Exception {
+		ObservationHandler<Observation.Context> handler = mock(ObservationHandler.class);
+		given(handler.supportsContext(any())).willReturn(true);
+		ObservationRegistry registry = ObservationRegistry.create();
+		registry.observationConfig().observationHandler(handler);
+		this.executor = new BoundedPasswordHashingExecutor(1, 0);
+		this.executor.setObservationRegistry(registry);
+		this.executor.submit("user", () -> true).get(5, TimeUnit.SECONDS);
+		ArgumentCaptor<Observation.Context> captor = ArgumentCaptor.forClass(Observation.Context.class);
+		verify(handler, atLeastOnce()).onStop(captor.capture());
+		assertThat(captor.getValue().getName()).isEqualTo(BoundedPasswordHashingExecutor.OBSERVATION_NAME);
+		assertThat(captor.getValue().getLowCardinalityKeyValue(BoundedPasswordHashingExecutor.RESULT_KEY).getValue())
+			.isEqualTo("completed");
+	}
+
+	private boolean awaitRelease() {
+		try {
+			return this.release.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+}
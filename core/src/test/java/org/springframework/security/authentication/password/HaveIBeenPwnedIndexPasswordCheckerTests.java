@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link HaveIBeenPwnedIndexPasswordChecker}
+ */
+public class HaveIBeenPwnedIndexPasswordCheckerTests {
+
+	@TempDir
+	Path directory;
+
+	private HaveIBeenPwnedIndexPasswordChecker passwordChecker;
+
+	@BeforeEach
+	void setup() throws IOException {
+		Path ranges = Files.createDirectory(this.directory.resolve("ranges"));
+		Files.writeString(ranges.resolve("5BAA6.txt"), """
+				1E4C9B93F3F0682250B6CF8331B7EE68FD7:1
+				1E4C9B93F3F0682250B6CF8331B7EE68FD8:10434004
+				1E4C9B93F3F0682250B6CF8331B7EE68FD9:1
+				FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF:1
+				""");
+		Files.writeString(ranges.resolve("7C4A8.txt"), "D09CA3762AF61E59520943DC26494F8941B:37359195\n");
+		Path index = this.directory.resolve("index");
+		HaveIBeenPwnedIndexWriter.write(ranges, index);
+		this.passwordChecker = new HaveIBeenPwnedIndexPasswordChecker(index);
+	}
+
+	@Test
+	void checkWhenPasswordIsLeakedThenIsCompromised() {
+		assertThat(this.passwordChecker.check("password").isCompromised()).isTrue();
+		assertThat(this.passwordChecker.check("123456").isCompromised()).isTrue();
+	}
+
+	@Test
+	void checkWhenPasswordIsNotLeakedThenNotCompromised() {
+		assertThat(this.passwordChecker.check("strongpassword-not-leaked").isCompromised()).isFalse();
+		assertThat(this.passwordChecker.check("qwerty").isCompromised()).isFalse();
+	}
+
+	@Test
+	void checkWhenIndexEmptyThenNotCompromised() throws IOException {
+		Path source = Files.createFile(this.directory.resolve("empty.txt"));
+		Path index = this.directory.resolve("empty");
+		HaveIBeenPwnedIndexWriter.write(source, index);
+		HaveIBeenPwnedIndexPasswordChecker passwordChecker = new HaveIBeenPwnedIndexPasswordChecker(index);
+		assertThat(passwordChecker.check("password").isCompromised()).isFalse();
+	}
+
+	@Test
+	void constructorWhenNotIndexThenIllegalArgumentException() throws IOException {
+		Path index = Files.write(this.directory.resolve("invalid"), new byte[HaveIBeenPwnedIndex.FANOUT_BYTES + 16]);
+		assertThatIllegalArgumentException().isThrownBy(() -> new HaveIBeenPwnedIndexPasswordChecker(index))
+			.withMessageContaining("is not a password index");
+	}
+
+	@Test
+	void constructorWhenIndexSizeUnexpectedThenIllegalArgumentException() throws IOException {
+		Path index = this.directory.resolve("index");
+		Files.write(index, new byte[] { 1 }, StandardOpenOption.APPEND);
+		assertThatIllegalArgumentException().isThrownBy(() -> new HaveIBeenPwnedIndexPasswordChecker(index))
+			.withMessageContaining("has an unexpected size");
+	}
+
+}
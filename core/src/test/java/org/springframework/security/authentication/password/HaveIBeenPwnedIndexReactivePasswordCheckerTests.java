@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link HaveIBeenPwnedIndexReactivePasswordChecker}
+ */
+public class HaveIBeenPwnedIndexReactivePasswordCheckerTests {
+
+	@TempDir
+	Path directory;
+
+	private HaveIBeenPwnedIndexReactivePasswordChecker passwordChecker;
+
+	@BeforeEach
+	void setup() throws IOException {
+		Path source = this.directory.resolve("pwnedpasswords.txt");
+		Files.writeString(source, "5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:10434004\n");
+		Path index = this.directory.resolve("index");
+		HaveIBeenPwnedIndexWriter.write(source, index);
+		this.passwordChecker = new HaveIBeenPwnedIndexReactivePasswordChecker(index);
+	}
+
+	@Test
+	void checkWhenPasswordIsLeakedThenIsCompromised() {
+		StepVerifier.create(this.passwordChecker.check("password"))
+			.expectNextMatches(CompromisedPasswordDecision::isCompromised)
+			.verifyComplete();
+	}
+
+	@Test
+	void checkWhenPasswordIsNotLeakedThenNotCompromised() {
+		this.passwordChecker.setScheduler(Schedulers.immediate());
+		StepVerifier.create(this.passwordChecker.check("strongpassword-not-leaked"))
+			.expectNextMatches((decision) -> !decision.isCompromised())
+			.verifyComplete();
+	}
+
+	@Test
+	void setSchedulerWhenNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.passwordChecker.setScheduler(null));
+	}
+
+}
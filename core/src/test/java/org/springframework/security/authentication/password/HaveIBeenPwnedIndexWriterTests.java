@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.authentication.password;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link HaveIBeenPwnedIndexWriter}
+ */
+public class HaveIBeenPwnedIndexWriterTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void writeWhenRangeDirectoryThenIndexesHashes() throws IOException {
+		Path ranges = Files.createDirectory(this.directory.resolve("ranges"));
+		Files.writeString(ranges.resolve("5BAA6.txt"), "1E4C9B93F3F0682250B6CF8331B7EE68FD8:10434004\r\n");
+		Files.writeString(ranges.resolve("21BD1.txt"), "2DC183F740EE76F27B78EB39C8AD972A757:52579\r\n");
+		Files.writeString(ranges.resolve("README.md"), "not a range");
+		Path index = this.directory.resolve("index");
+		assertThat(HaveIBeenPwnedIndexWriter.write(ranges, index)).isEqualTo(2);
+		HaveIBeenPwnedIndex passwords = HaveIBeenPwnedIndex.map(index);
+		assertThat(passwords.size()).isEqualTo(2);
+		assertThat(passwords.contains("password")).isTrue();
+		assertThat(passwords.contains("P@ssw0rd")).isTrue();
+		assertThat(passwords.contains("123456")).isFalse();
+	}
+
+	@Test
+	void writeWhenSingleFileThenIndexesHashes() throws IOException {
+		Path source = this.directory.resolve("pwnedpasswords.txt");
+		Files.writeString(source, """
+				21BD12DC183F740EE76F27B78EB39C8AD972A757:52579
+				5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:10434004
+				7C4A8D09CA3762AF61E59520943DC26494F8941B:37359195
+				""");
+		Path index = this.directory.resolve("index");
+		assertThat(HaveIBeenPwnedIndexWriter.write(source, index)).isEqualTo(3);
+		HaveIBeenPwnedIndex passwords = HaveIBeenPwnedIndex.map(index);
+		assertThat(passwords.contains("password")).isTrue();
+		assertThat(passwords.contains("P@ssw0rd")).isTrue();
+		assertThat(passwords.contains("123456")).isTrue();
+		assertThat(passwords.contains("qwerty")).isFalse();
+	}
+
+	@Test
+	void writeWhenDuplicateHashThenWrittenOnce() throws IOException {
+		Path source = this.directory.resolve("pwnedpasswords.txt");
+		Files.writeString(source, """
+				5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:1
+				5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:2
+				""");
+		assertThat(HaveIBeenPwnedIndexWriter.write(source, this.directory.resolve("index"))).isEqualTo(1);
+	}
+
+	@Test
+	void writeWhenNotSortedThenIllegalArgumentException() throws IOException {
+		Path source = this.directory.resolve("pwnedpasswords.txt");
+		Files.writeString(source, """
+				5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:10434004
+				21BD12DC183F740EE76F27B78EB39C8AD972A757:52579
+				""");
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> HaveIBeenPwnedIndexWriter.write(source, this.directory.resolve("index")))
+			.withMessageContaining("ascending order");
+	}
+
+	@Test
+	void writeWhenNotSha1ThenIllegalArgumentException() throws IOException {
+		Path source = this.directory.resolve("pwnedpasswords.txt");
+		Files.writeString(source, "5BAA61E4C9B93F3F:10434004\n");
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> HaveIBeenPwnedIndexWriter.write(source, this.directory.resolve("index")))
+			.withMessageContaining("Expected a SHA-1 hash");
+	}
+
+}
@@ -27,9 +27,15 @@ import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link AuthoritiesAuthorizationManager}.
@@ -84,4 +90,54 @@ class AuthoritiesAuthorizationManagerTests {
 		assertThat(manager.check(authentication, Collections.singleton("ROLE_USER")).isGranted()).isTrue();
 	}
 
+	@Test
+	void checkWhenSameAuthenticationThenRoleHierarchyExpandedOnce() {
+		AuthoritiesAuthorizationManager manager = new AuthoritiesAuthorizationManager();
+		RoleHierarchy roleHierarchy = mock(RoleHierarchy.class);
+		given(roleHierarchy.getReachableGrantedAuthorities(any()))
+			.willAnswer((invocation) -> invocation.getArgument(0));
+		manager.setRoleHierarchy(roleHierarchy);
+		Authentication authentication = new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		assertThat(manager.check(() -> authentication, Collections.singleton("ROLE_USER")).isGranted()).isTrue();
+		assertThat(manager.check(() -> authentication, Collections.singleton("ROLE_ADMIN")).isGranted()).isFalse();
+		verify(roleHierarchy, times(1)).getReachableGrantedAuthorities(any());
+	}
+
+	@Test
+	void checkWhenDifferentAuthenticationThenRoleHierarchyExpandedForEach() {
+		AuthoritiesAuthorizationManager manager = new AuthoritiesAuthorizationManager();
+		RoleHierarchy roleHierarchy = mock(RoleHierarchy.class);
+		given(roleHierarchy.getReachableGrantedAuthorities(any()))
+			.willAnswer((invocation) -> invocation.getArgument(0));
+		manager.setRoleHierarchy(roleHierarchy);
+		Supplier<Authentication> authentication = () -> new TestingAuthenticationToken("user", "password", "ROLE_USER");
+		manager.check(authentication, Collections.singleton("ROLE_USER"));
+		manager.check(authentication, Collections.singleton("ROLE_USER"));
+		verify(roleHierarchy, times(2)).getReachableGrantedAuthorities(any());
+	}
+
+	@Test
+	void checkWhenRoleHierarchyChangedThenAuthoritiesExpandedAgain() {
+		AuthoritiesAuthorizationManager manager = new AuthoritiesAuthorizationManager();
+		Authentication authentication = new TestingAuthenticationToken("user", "password", "ROLE_ADMIN");
+		assertThat(manager.check(() -> authentication, Collections.singleton("ROLE_USER")).isGranted()).isFalse();
+		manager.setRoleHierarchy(RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"));
+		assertThat(manager.check(() -> authentication, Collections.singleton("ROLE_USER")).isGranted()).isTrue();
+	}
+
+	@Test
+	void checkWhenNotAbstractAuthenticationTokenThenRoleHierarchyExpandedEachTime() {
+		AuthoritiesAuthorizationManager manager = new AuthoritiesAuthorizationManager();
+		RoleHierarchy roleHierarchy = mock(RoleHierarchy.class);
+		given(roleHierarchy.getReachableGrantedAuthorities(any()))
+			.willAnswer((invocation) -> invocation.getArgument(0));
+		manager.setRoleHierarchy(roleHierarchy);
+		Authentication authentication = mock(Authentication.class);
+		given(authentication.getAuthorities())
+			.willAnswer((invocation) -> AuthorityUtils.createAuthorityList("ROLE_USER"));
+		assertThat(manager.check(() -> authentication, Collections.singleton("ROLE_USER")).isGranted()).isTrue();
+		assertThat(manager.check(() -> authentication, Collections.singleton("ROLE_USER")).isGranted()).isTrue();
+		verify(roleHierarchy, times(2)).getReachableGrantedAuthorities(any());
+	}
+
 }
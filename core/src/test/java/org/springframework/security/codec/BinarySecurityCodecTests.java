@@ -0,0 +1,209 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link BinarySecurityCodec}
+ */
+public class BinarySecurityCodecTests {
+
+	private final BinarySecurityCodec codec = new BinarySecurityCodec(List.of(new CoreBinaryCodecModule()));
+
+	@Test
+	void constructorWhenReservedTypeIdThenIllegalArgumentException() {
+		BinaryCodecModule module = () -> List.of(BinaryTypeCodec.of(4, String.class, (value, output) -> {
+		}, (input) -> null));
+		assertThatIllegalArgumentException().isThrownBy(() -> new BinarySecurityCodec(List.of(module)));
+	}
+
+	@Test
+	void constructorWhenDuplicateTypeIdThenIllegalArgumentException() {
+		BinaryCodecModule module = () -> List.of(BinaryTypeCodec.of(5, StringBuilder.class, (value, output) -> {
+		}, (input) -> null));
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new BinarySecurityCodec(List.of(new CoreBinaryCodecModule(), module)))
+			.withMessageContaining("already used");
+	}
+
+	@Test
+	void setDictionaryWhenNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.codec.setDictionary(null));
+	}
+
+	@Test
+	void serializeWhenSecurityContextThenRoundTrips() throws Exception {
+		User user = new User("user", "password", true, true, false, true,
+				AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.authenticated(user, null,
+				user.getAuthorities());
+		token.setDetails("details");
+		SecurityContextImpl context = new SecurityContextImpl(token);
+		Object deserialized = this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(context));
+		assertThat(deserialized).isEqualTo(context);
+		User deserializedUser = (User) ((SecurityContextImpl) deserialized).getAuthentication().getPrincipal();
+		assertThat(deserializedUser.getPassword()).isEqualTo("password");
+		assertThat(deserializedUser.isCredentialsNonExpired()).isFalse();
+		assertThat(deserializedUser.isAccountNonLocked()).isTrue();
+	}
+
+	@Test
+	void serializeWhenUnauthenticatedTokenThenRoundTrips() throws Exception {
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated("user",
+				"password");
+		Object deserialized = this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(token));
+		assertThat(deserialized).isEqualTo(token);
+		assertThat(((UsernamePasswordAuthenticationToken) deserialized).isAuthenticated()).isFalse();
+	}
+
+	@Test
+	void serializeWhenUserCredentialsErasedThenPasswordNull() throws Exception {
+		User user = new User("user", "password", AuthorityUtils.createAuthorityList("ROLE_USER"));
+		user.eraseCredentials();
+		User deserialized = (User) this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(user));
+		assertThat(deserialized).isEqualTo(user);
+		assertThat(deserialized.getPassword()).isNull();
+	}
+
+	@Test
+	void serializeWhenValuesThenRoundTrips() throws Exception {
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("string", "value");
+		values.put("unicode", "välue ☃");
+		values.put("int", -42);
+		values.put("long", Long.MAX_VALUE);
+		values.put("boolean", true);
+		values.put("double", 1.5);
+		values.put("instant", Instant.ofEpochSecond(-1, 5));
+		values.put("url", URI.create("https://example.org/path").toURL());
+		values.put("list", List.of("value", 1));
+		values.put("set", Set.of("one"));
+		values.put("null", null);
+		Object deserialized = this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(values));
+		assertThat(deserialized).isEqualTo(values);
+		assertThat(new ArrayList<Object>(((Map<?, ?>) deserialized).keySet()))
+			.containsExactlyElementsOf(values.keySet());
+	}
+
+	@Test
+	void serializeWhenNoTypeCodecThenUsesFallback() throws Exception {
+		AnonymousAuthenticationToken token = new AnonymousAuthenticationToken("key", "anonymous",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+		Object deserialized = this.codec
+			.deserializeFromByteArray(this.codec.serializeToByteArray(new SecurityContextImpl(token)));
+		assertThat(((SecurityContextImpl) deserialized).getAuthentication()).isEqualTo(token);
+	}
+
+	@Test
+	void serializeWhenRepeatedStringsThenWrittenOnce() {
+		String value = "a-fairly-long-repeated-string-value";
+		byte[] once = this.codec.serializeToByteArray(List.of(value));
+		byte[] twice = this.codec.serializeToByteArray(List.of(value, value));
+		assertThat(twice.length - once.length).isEqualTo(2);
+	}
+
+	@Test
+	void serializeWhenSecurityContextThenSmallerThanJdkSerialization() throws Exception {
+		User user = new User("user", "password", AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+		SecurityContextImpl context = new SecurityContextImpl(
+				UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+		assertThat(this.codec.serializeToByteArray(context).length * 10).isLessThan(jdkSerialize(context).length);
+	}
+
+	@Test
+	void deserializeWhenJdkSerializedThenUsesFallback() throws Exception {
+		SecurityContextImpl context = new SecurityContextImpl(
+				UsernamePasswordAuthenticationToken.authenticated("user", null, List.of()));
+		assertThat(this.codec.deserializeFromByteArray(jdkSerialize(context))).isEqualTo(context);
+	}
+
+	@Test
+	void deserializeWhenDictionaryAppendedThenReads() throws Exception {
+		List<String> dictionary = new ArrayList<>(BinarySecurityCodec.DEFAULT_DICTIONARY);
+		byte[] bytes = this.codec.serializeToByteArray(List.of("ROLE_USER", "ROLE_CUSTOM", "ROLE_CUSTOM"));
+		dictionary.add("ROLE_CUSTOM");
+		BinarySecurityCodec appended = new BinarySecurityCodec(List.of(new CoreBinaryCodecModule()));
+		appended.setDictionary(dictionary);
+		assertThat(appended.deserializeFromByteArray(bytes))
+			.isEqualTo(List.of("ROLE_USER", "ROLE_CUSTOM", "ROLE_CUSTOM"));
+	}
+
+	@Test
+	void deserializeWhenDictionarySmallerThenIllegalArgumentException() {
+		byte[] bytes = this.codec.serializeToByteArray("ROLE_USER");
+		BinarySecurityCodec smaller = new BinarySecurityCodec(List.of(new CoreBinaryCodecModule()));
+		smaller.setDictionary(List.of("ROLE_USER"));
+		assertThatIllegalArgumentException().isThrownBy(() -> smaller.deserializeFromByteArray(bytes));
+	}
+
+	@Test
+	void deserializeWhenTruncatedThenIllegalArgumentException() {
+		byte[] bytes = this.codec.serializeToByteArray(List.of("value", "other"));
+		for (int length = 0; length < bytes.length; length++) {
+			byte[] truncated = new byte[length];
+			System.arraycopy(bytes, 0, truncated, 0, length);
+			assertThatIllegalArgumentException().isThrownBy(() -> this.codec.deserializeFromByteArray(truncated));
+		}
+	}
+
+	@Test
+	void deserializeWhenUnknownTypeIdThenIllegalArgumentException() {
+		byte[] bytes = { 0x53, 1, 0, 100 };
+		assertThatIllegalArgumentException().isThrownBy(() -> this.codec.deserializeFromByteArray(bytes))
+			.withMessage("Unknown type id 100");
+	}
+
+	@Test
+	void deserializeWhenNestedTooDeepThenIllegalArgumentException() {
+		Object value = "value";
+		for (int i = 0; i < 100; i++) {
+			value = List.of(value);
+		}
+		byte[] bytes = this.codec.serializeToByteArray(value);
+		assertThatIllegalArgumentException().isThrownBy(() -> this.codec.deserializeFromByteArray(bytes))
+			.withMessageContaining("depth");
+	}
+
+	private static byte[] jdkSerialize(Object value) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(value);
+		}
+		return bytes.toByteArray();
+	}
+
+}
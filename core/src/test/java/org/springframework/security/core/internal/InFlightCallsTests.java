@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link InFlightCalls}
+ */
+public class InFlightCallsTests {
+
+	private final InFlightCalls<String, String> calls = new InFlightCalls<>();
+
+	private final AtomicInteger started = new AtomicInteger();
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void shareWhenInFlightThenSharesCall() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> this.calls.share("key", () -> {
+			this.started.incrementAndGet();
+			await(release);
+			return "value";
+		}), this.executor);
+		awaitInFlight();
+		List<CompletableFuture<String>> waiting = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			waiting.add(CompletableFuture.supplyAsync(() -> this.calls.share("key", this::start), this.executor));
+		}
+		Thread.sleep(100);
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		for (CompletableFuture<String> call : waiting) {
+			assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		}
+		assertThat(this.started).hasValue(1);
+		assertThat(this.calls.size()).isZero();
+	}
+
+	@Test
+	public void shareWhenCompletedThenMakesNewCall() {
+		assertThat(this.calls.share("key", this::start)).isEqualTo("started");
+		assertThat(this.calls.share("key", this::start)).isEqualTo("started");
+		assertThat(this.started).hasValue(2);
+	}
+
+	@Test
+	public void shareWhenFailedThenThrowsAndMakesNewCall() {
+		assertThatIllegalStateException().isThrownBy(() -> this.calls.share("key", () -> {
+			throw new IllegalStateException();
+		}));
+		assertThat(this.calls.share("key", this::start)).isEqualTo("started");
+		assertThat(this.calls.size()).isZero();
+	}
+
+	@Test
+	public void shareWhenInFlightCallThrowsErrorThenWaitingCallerThrowsError() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> this.calls.share("key", () -> {
+			await(release);
+			throw new OutOfMemoryError("call");
+		}), this.executor);
+		awaitInFlight();
+		CompletableFuture<String> waiting = CompletableFuture.supplyAsync(() -> this.calls.share("key", this::start),
+				this.executor);
+		Thread.sleep(100);
+		release.countDown();
+		assertThatExceptionOfType(Exception.class).isThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+			.withCauseInstanceOf(OutOfMemoryError.class);
+		assertThatExceptionOfType(Exception.class).isThrownBy(() -> waiting.get(5, TimeUnit.SECONDS))
+			.withCauseInstanceOf(OutOfMemoryError.class);
+		assertThat(this.started).hasValue(0);
+	}
+
+	private String start() {
+		this.started.incrementAndGet();
+		return "started";
+	}
+
+	private void awaitInFlight() throws InterruptedException {
+		for (int i = 0; i < 500 && this.calls.size() == 0; i++) {
+			Thread.sleep(10);
+		}
+		assertThat(this.calls.size()).isEqualTo(1);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link InFlightRequests}
+ */
+public class InFlightRequestsTests {
+
+	private final InFlightRequests<String, String> requests = new InFlightRequests<>();
+
+	private final AtomicInteger started = new AtomicInteger();
+
+	@Test
+	public void shareWhenInFlightThenSharesRequest() {
+		Sinks.One<String> result = Sinks.one();
+		CompletableFuture<String> first = this.requests.share("key", () -> start(result.asMono())).toFuture();
+		CompletableFuture<String> second = this.requests.share("key", () -> start(result.asMono())).toFuture();
+		assertThat(this.requests.size()).isEqualTo(1);
+		result.tryEmitValue("value");
+		assertThat(first.join()).isEqualTo("value");
+		assertThat(second.join()).isEqualTo("value");
+		assertThat(this.started).hasValue(1);
+		assertThat(this.requests.size()).isZero();
+	}
+
+	@Test
+	public void shareWhenDifferentKeysThenSeparateRequests() {
+		this.requests.share("one", () -> start(Mono.just("one"))).block();
+		this.requests.share("two", () -> start(Mono.just("two"))).block();
+		assertThat(this.started).hasValue(2);
+	}
+
+	@Test
+	public void shareWhenCompletedThenStartsNewRequest() {
+		assertThat(this.requests.share("key", () -> start(Mono.just("first"))).block()).isEqualTo("first");
+		assertThat(this.requests.share("key", () -> start(Mono.just("second"))).block()).isEqualTo("second");
+		assertThat(this.started).hasValue(2);
+	}
+
+	@Test
+	public void shareWhenFailedThenStartsNewRequest() {
+		Mono<String> failed = this.requests.share("key", () -> start(Mono.error(new IllegalStateException())));
+		assertThatIllegalStateException().isThrownBy(failed::block);
+		assertThat(this.requests.share("key", () -> start(Mono.just("value"))).block()).isEqualTo("value");
+		assertThat(this.started).hasValue(2);
+		assertThat(this.requests.size()).isZero();
+	}
+
+	private Mono<String> start(Mono<String> request) {
+		this.started.incrementAndGet();
+		return request;
+	}
+
+}
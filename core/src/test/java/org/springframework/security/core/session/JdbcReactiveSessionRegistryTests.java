@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JdbcReactiveSessionRegistry}.
+ */
+class JdbcReactiveSessionRegistryTests {
+
+	private EmbeddedDatabase db;
+
+	private JdbcOperations jdbcOperations;
+
+	private JdbcReactiveSessionRegistry sessionRegistry;
+
+	@BeforeEach
+	void setUp() {
+		this.db = JdbcSessionRegistryTests.createDb();
+		this.jdbcOperations = new JdbcTemplate(this.db);
+		this.sessionRegistry = new JdbcReactiveSessionRegistry(this.jdbcOperations);
+		this.sessionRegistry.setLastRequestFlushInterval(null);
+		this.sessionRegistry.setScheduler(Schedulers.immediate());
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.sessionRegistry.destroy();
+		this.db.shutdown();
+	}
+
+	@Test
+	void saveSessionInformationWhenSavedThenCountedAndListed() {
+		save("1", "user", Instant.now().minusSeconds(10));
+		save("2", "user", Instant.now().minusSeconds(20));
+		save("3", "other", Instant.now());
+		StepVerifier.create(this.sessionRegistry.getSessionCount("user")).expectNext(2).verifyComplete();
+		StepVerifier.create(this.sessionRegistry.getAllSessions("user").map(ReactiveSessionInformation::getSessionId))
+			.expectNext("2", "1")
+			.verifyComplete();
+		StepVerifier
+			.create(this.sessionRegistry.getSessionInformation("3").map(ReactiveSessionInformation::getPrincipal))
+			.expectNext("other")
+			.verifyComplete();
+	}
+
+	@Test
+	void invalidateWhenInvalidatedThenExpiredInDatabase() {
+		save("1", "user", Instant.now());
+		save("2", "user", Instant.now());
+		this.sessionRegistry.getSessionInformation("1").flatMap(ReactiveSessionInformation::invalidate).block();
+		StepVerifier.create(this.sessionRegistry.getSessionCount("user")).expectNext(1).verifyComplete();
+		StepVerifier
+			.create(this.sessionRegistry.getLeastRecentlyUsedSessions("user", 2)
+				.map(ReactiveSessionInformation::getSessionId))
+			.expectNext("2")
+			.verifyComplete();
+		StepVerifier.create(this.sessionRegistry.getAllSessions("user").filter(ReactiveSessionInformation::isExpired))
+			.expectNextCount(1)
+			.verifyComplete();
+	}
+
+	@Test
+	void updateLastAccessTimeWhenUpdatedThenWrittenOnFlush() {
+		Instant lastAccessTime = Instant.now().minusSeconds(30).truncatedTo(ChronoUnit.MILLIS);
+		save("1", "user", lastAccessTime);
+		StepVerifier
+			.create(this.sessionRegistry.updateLastAccessTime("1").map(ReactiveSessionInformation::getLastAccessTime))
+			.assertNext((updated) -> assertThat(updated).isAfter(lastAccessTime))
+			.verifyComplete();
+		assertThat(lastAccessTime("1")).isEqualTo(Timestamp.from(lastAccessTime));
+		this.sessionRegistry.flushLastRequests();
+		assertThat(lastAccessTime("1")).isAfter(Timestamp.from(lastAccessTime));
+	}
+
+	@Test
+	void updateLastAccessTimeWhenNotRegisteredThenEmpty() {
+		StepVerifier.create(this.sessionRegistry.updateLastAccessTime("1")).verifyComplete();
+	}
+
+	@Test
+	void removeSessionInformationWhenRegisteredThenRemoved() {
+		save("1", "user", Instant.now());
+		StepVerifier
+			.create(this.sessionRegistry.removeSessionInformation("1").map(ReactiveSessionInformation::getSessionId))
+			.expectNext("1")
+			.verifyComplete();
+		StepVerifier.create(this.sessionRegistry.getSessionInformation("1")).verifyComplete();
+		StepVerifier.create(this.sessionRegistry.getSessionCount("user")).expectNext(0).verifyComplete();
+	}
+
+	private void save(String sessionId, String principal, Instant lastAccessTime) {
+		ReactiveSessionInformation information = new ReactiveSessionInformation(principal, sessionId, lastAccessTime);
+		this.sessionRegistry.saveSessionInformation(information).block();
+	}
+
+	private Timestamp lastAccessTime(String sessionId) {
+		return this.jdbcOperations.queryForObject("SELECT last_request FROM session_registry WHERE session_id = ?",
+				Timestamp.class, sessionId);
+	}
+
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Tests for {@link JdbcSessionRegistry}.
+ */
+class JdbcSessionRegistryTests {
+
+	static final String SESSION_REGISTRY_SQL_RESOURCE = "org/springframework/security/core/session/jdbc/session-registry-schema.sql";
+
+	private EmbeddedDatabase db;
+
+	private JdbcOperations jdbcOperations;
+
+	private JdbcSessionRegistry sessionRegistry;
+
+	@BeforeEach
+	void setUp() {
+		this.db = createDb();
+		this.jdbcOperations = new JdbcTemplate(this.db);
+		this.sessionRegistry = new JdbcSessionRegistry(this.jdbcOperations);
+		this.sessionRegistry.setLastRequestFlushInterval(null);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.sessionRegistry.destroy();
+		this.db.shutdown();
+	}
+
+	static EmbeddedDatabase createDb() {
+		// @formatter:off
+		return new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.HSQL)
+				.setScriptEncoding("UTF-8")
+				.addScript(SESSION_REGISTRY_SQL_RESOURCE)
+				.build();
+		// @formatter:on
+	}
+
+	@Test
+	void constructorWhenJdbcOperationsIsNullThenThrowIllegalArgumentException() {
+		// @formatter:off
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new JdbcSessionRegistry(null))
+				.withMessage("jdbcOperations cannot be null");
+		// @formatter:on
+	}
+
+	@Test
+	void setCacheTimeToLiveWhenNegativeThenThrowIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.sessionRegistry.setCacheTimeToLive(Duration.ofSeconds(-1)));
+	}
+
+	@Test
+	void registerNewSessionWhenRegisteredThenCountedAndListed() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "user");
+		this.sessionRegistry.registerNewSession("3", "other");
+		assertThat(this.sessionRegistry.getSessionCount("user")).isEqualTo(2);
+		assertThat(this.sessionRegistry.getAllSessions("user", false)).extracting(SessionInformation::getSessionId)
+			.containsExactlyInAnyOrder("1", "2");
+		assertThat(this.sessionRegistry.getAllPrincipals()).containsExactlyInAnyOrder("user", "other");
+		SessionInformation info = this.sessionRegistry.getSessionInformation("1");
+		assertThat(info.getPrincipal()).isEqualTo("user");
+		assertThat(info.isExpired()).isFalse();
+	}
+
+	@Test
+	void registerNewSessionWhenAlreadyRegisteredThenReplaced() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("1", "other");
+		assertThat(this.sessionRegistry.getSessionCount("user")).isZero();
+		assertThat(this.sessionRegistry.getSessionCount("other")).isEqualTo(1);
+		assertThat(this.sessionRegistry.getSessionInformation("1").getPrincipal()).isEqualTo("other");
+	}
+
+	@Test
+	void registerNewSessionWhenInsertedConcurrentlyThenReplaced() {
+		JdbcOperations jdbcOperations = spy(this.jdbcOperations);
+		willAnswer((invocation) -> {
+			insert("1", Instant.now());
+			return invocation.callRealMethod();
+		}).given(jdbcOperations).update(startsWith("INSERT"), any(PreparedStatementSetter.class));
+		JdbcSessionRegistry sessionRegistry = new JdbcSessionRegistry(jdbcOperations);
+		try {
+			sessionRegistry.registerNewSession("1", "other");
+			assertThat(sessionRegistry.getSessionCount("user")).isZero();
+			assertThat(sessionRegistry.getSessionCount("other")).isEqualTo(1);
+		}
+		finally {
+			sessionRegistry.destroy();
+		}
+	}
+
+	@Test
+	void registerNewSessionWhenUserDetailsThenStoredByUsername() {
+		UserDetails user = User.withUsername("user").password("password").roles("USER").build();
+		this.sessionRegistry.registerNewSession("1", user);
+		assertThat(this.sessionRegistry.getAllPrincipals()).containsExactly("user");
+		assertThat(this.sessionRegistry.getAllSessions(user, false)).extracting(SessionInformation::getPrincipal)
+			.containsExactly(user);
+		assertThat(this.sessionRegistry.getSessionCount("user")).isEqualTo(1);
+	}
+
+	@Test
+	void isRegisteredWhenSessionOfPrincipalThenTrue() {
+		UserDetails user = User.withUsername("user").password("password").roles("USER").build();
+		this.sessionRegistry.registerNewSession("1", user);
+		this.sessionRegistry.registerNewSession("2", "other");
+		this.sessionRegistry.registerNewSession("3", "user");
+		this.sessionRegistry.getSessionInformation("3").expireNow();
+		assertThat(this.sessionRegistry.isRegistered(user, "1")).isTrue();
+		assertThat(this.sessionRegistry.isRegistered("user", "1")).isTrue();
+		assertThat(this.sessionRegistry.isRegistered(user, "2")).isFalse();
+		assertThat(this.sessionRegistry.isRegistered(user, "3")).isFalse();
+		assertThat(this.sessionRegistry.isRegistered(user, "4")).isFalse();
+	}
+
+	@Test
+	void expireNowWhenExpiredThenVisibleToOtherRegistries() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "user");
+		this.sessionRegistry.getSessionInformation("1").expireNow();
+		JdbcSessionRegistry other = new JdbcSessionRegistry(this.jdbcOperations);
+		try {
+			assertThat(other.getSessionInformation("1").isExpired()).isTrue();
+			assertThat(other.getSessionCount("user")).isEqualTo(1);
+			assertThat(other.getAllSessions("user", false)).extracting(SessionInformation::getSessionId)
+				.containsExactly("2");
+			assertThat(other.getAllSessions("user", true)).hasSize(2);
+		}
+		finally {
+			other.destroy();
+		}
+	}
+
+	@Test
+	void getLeastRecentlyUsedSessionsWhenRefreshedThenMostRecentlyUsedLast() {
+		insert("1", Instant.now().minusSeconds(30));
+		insert("2", Instant.now().minusSeconds(20));
+		insert("3", Instant.now().minusSeconds(10));
+		this.sessionRegistry.refreshLastRequest("1");
+		assertThat(this.sessionRegistry.getLeastRecentlyUsedSessions("user", 2))
+			.extracting(SessionInformation::getSessionId)
+			.containsExactly("2", "3");
+		assertThat(this.sessionRegistry.getAllSessions("user", false)).extracting(SessionInformation::getSessionId)
+			.containsExactly("2", "3", "1");
+	}
+
+	@Test
+	void refreshLastRequestWhenRefreshedThenWrittenOnFlush() {
+		Instant lastRequest = Instant.now().minusSeconds(30).truncatedTo(ChronoUnit.MILLIS);
+		insert("1", lastRequest);
+		this.sessionRegistry.refreshLastRequest("1");
+		this.sessionRegistry.refreshLastRequest("1");
+		assertThat(lastRequest("1")).isEqualTo(Timestamp.from(lastRequest));
+		this.sessionRegistry.flushLastRequests();
+		assertThat(lastRequest("1")).isAfter(Timestamp.from(lastRequest));
+	}
+
+	@Test
+	void refreshLastRequestWhenFlushFailsThenWrittenOnNextFlush() {
+		JdbcOperations jdbcOperations = spy(this.jdbcOperations);
+		willThrow(new DataAccessResourceFailureException("unavailable")).willCallRealMethod()
+			.given(jdbcOperations)
+			.batchUpdate(anyString(), anyList(), any(int[].class));
+		JdbcSessionRegistry sessionRegistry = new JdbcSessionRegistry(jdbcOperations);
+		sessionRegistry.setLastRequestFlushInterval(null);
+		try {
+			Instant lastRequest = Instant.now().minusSeconds(30).truncatedTo(ChronoUnit.MILLIS);
+			insert("1", lastRequest);
+			sessionRegistry.refreshLastRequest("1");
+			assertThatExceptionOfType(DataAccessResourceFailureException.class)
+				.isThrownBy(sessionRegistry::flushLastRequests);
+			assertThat(lastRequest("1")).isEqualTo(Timestamp.from(lastRequest));
+			sessionRegistry.flushLastRequests();
+			assertThat(lastRequest("1")).isAfter(Timestamp.from(lastRequest));
+		}
+		finally {
+			sessionRegistry.destroy();
+		}
+	}
+
+	@Test
+	void refreshLastRequestWhenFlushIntervalThenWrittenInBackground() throws Exception {
+		Instant lastRequest = Instant.now().minusSeconds(30).truncatedTo(ChronoUnit.MILLIS);
+		insert("1", lastRequest);
+		this.sessionRegistry.setLastRequestFlushInterval(Duration.ofMillis(10));
+		this.sessionRegistry.refreshLastRequest("1");
+		for (int i = 0; i < 500 && !lastRequest("1").after(Timestamp.from(lastRequest)); i++) {
+			Thread.sleep(10);
+		}
+		assertThat(lastRequest("1")).isAfter(Timestamp.from(lastRequest));
+	}
+
+	@Test
+	void refreshLastRequestWhenOlderThanStoredThenNotWritten() {
+		Instant lastRequest = Instant.now().plusSeconds(30).truncatedTo(ChronoUnit.MILLIS);
+		insert("1", lastRequest);
+		this.sessionRegistry.refreshLastRequest("1");
+		this.sessionRegistry.flushLastRequests();
+		assertThat(lastRequest("1")).isEqualTo(Timestamp.from(lastRequest));
+	}
+
+	@Test
+	void getSessionInformationWhenCachedThenChangesSeenAfterTimeToLive() throws Exception {
+		this.sessionRegistry.setCacheTimeToLive(Duration.ofMillis(100));
+		this.sessionRegistry.registerNewSession("1", "user");
+		assertThat(this.sessionRegistry.getSessionInformation("1").isExpired()).isFalse();
+		this.jdbcOperations.update("UPDATE session_registry SET expired = true WHERE session_id = '1'");
+		assertThat(this.sessionRegistry.getSessionInformation("1").isExpired()).isFalse();
+		Thread.sleep(150);
+		assertThat(this.sessionRegistry.getSessionInformation("1").isExpired()).isTrue();
+	}
+
+	@Test
+	void getSessionInformationWhenCacheDisabledThenChangesSeenImmediately() {
+		this.sessionRegistry.setCacheTimeToLive(Duration.ZERO);
+		this.sessionRegistry.registerNewSession("1", "user");
+		assertThat(this.sessionRegistry.getSessionInformation("1").isExpired()).isFalse();
+		this.jdbcOperations.update("UPDATE session_registry SET expired = true WHERE session_id = '1'");
+		assertThat(this.sessionRegistry.getSessionInformation("1").isExpired()).isTrue();
+	}
+
+	@Test
+	void removeSessionInformationWhenRemovedThenNotFound() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.getSessionInformation("1");
+		this.sessionRegistry.removeSessionInformation("1");
+		assertThat(this.sessionRegistry.getSessionInformation("1")).isNull();
+		assertThat(this.sessionRegistry.getSessionCount("user")).isZero();
+		assertThat(this.sessionRegistry.getAllPrincipals()).isEmpty();
+	}
+
+	@Test
+	void onApplicationEventWhenSessionDestroyedThenRemoved() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.onApplicationEvent(new SessionDestroyedEvent("") {
+			@Override
+			public String getId() {
+				return "1";
+			}
+
+			@Override
+			public List<SecurityContext> getSecurityContexts() {
+				return null;
+			}
+		});
+		assertThat(this.sessionRegistry.getSessionInformation("1")).isNull();
+	}
+
+	@Test
+	void onApplicationEventWhenSessionIdChangedThenMoved() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.onApplicationEvent(new SessionIdChangedEvent("") {
+			@Override
+			public String getOldSessionId() {
+				return "1";
+			}
+
+			@Override
+			public String getNewSessionId() {
+				return "2";
+			}
+		});
+		assertThat(this.sessionRegistry.getSessionInformation("1")).isNull();
+		assertThat(this.sessionRegistry.getSessionInformation("2").getPrincipal()).isEqualTo("user");
+		assertThat(this.sessionRegistry.getSessionCount("user")).isEqualTo(1);
+	}
+
+	private void insert(String sessionId, Instant lastRequest) {
+		this.jdbcOperations.update("INSERT INTO session_registry VALUES (?, ?, ?, ?)", sessionId, "user",
+				Timestamp.from(lastRequest), false);
+	}
+
+	private Date lastRequest(String sessionId) {
+		return this.jdbcOperations.queryForObject("SELECT last_request FROM session_registry WHERE session_id = ?",
+				Timestamp.class, sessionId);
+	}
+
+}
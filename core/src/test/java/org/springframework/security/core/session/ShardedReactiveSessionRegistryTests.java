@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ShardedReactiveSessionRegistry}
+ */
+public class ShardedReactiveSessionRegistryTests {
+
+	private final ShardedReactiveSessionRegistry sessionRegistry = new ShardedReactiveSessionRegistry(4);
+
+	@Test
+	void saveSessionInformationWhenSavedThenCountedAndListed() {
+		save("1", "user");
+		save("2", "user");
+		save("3", "other");
+		StepVerifier.create(this.sessionRegistry.getSessionCount("user")).expectNext(2).verifyComplete();
+		StepVerifier.create(this.sessionRegistry.getAllSessions("user").map(ReactiveSessionInformation::getSessionId))
+			.expectNext("1", "2")
+			.verifyComplete();
+	}
+
+	@Test
+	void updateLastAccessTimeWhenUpdatedThenMostRecentlyUsed() {
+		ReactiveSessionInformation one = save("1", "user");
+		save("2", "user");
+		StepVerifier.create(this.sessionRegistry.updateLastAccessTime("1")).expectNext(one).verifyComplete();
+		assertThat(one.getLastAccessTime()).isAfter(Instant.EPOCH);
+		StepVerifier
+			.create(this.sessionRegistry.getLeastRecentlyUsedSessions("user", 1)
+				.map(ReactiveSessionInformation::getSessionId))
+			.expectNext("2")
+			.verifyComplete();
+	}
+
+	@Test
+	void updateLastAccessTimeWhenNotRegisteredThenEmpty() {
+		StepVerifier.create(this.sessionRegistry.updateLastAccessTime("1")).verifyComplete();
+	}
+
+	@Test
+	void removeSessionInformationWhenRegisteredThenRemoved() {
+		ReactiveSessionInformation one = save("1", "user");
+		StepVerifier.create(this.sessionRegistry.removeSessionInformation("1")).expectNext(one).verifyComplete();
+		StepVerifier.create(this.sessionRegistry.getSessionInformation("1")).verifyComplete();
+		StepVerifier.create(this.sessionRegistry.getSessionCount("user")).expectNext(0).verifyComplete();
+	}
+
+	private ReactiveSessionInformation save(String sessionId, String principal) {
+		ReactiveSessionInformation information = new ReactiveSessionInformation(principal, sessionId, Instant.EPOCH);
+		this.sessionRegistry.saveSessionInformation(information).block();
+		return information;
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.session;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.core.context.SecurityContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ShardedSessionRegistry}
+ */
+public class ShardedSessionRegistryTests {
+
+	private final ShardedSessionRegistry sessionRegistry = new ShardedSessionRegistry(4);
+
+	@Test
+	void constructorWhenShardsNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ShardedSessionRegistry(0));
+	}
+
+	@Test
+	void registerNewSessionWhenSessionsThenCountedAndListed() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "user");
+		this.sessionRegistry.registerNewSession("3", "other");
+		assertThat(this.sessionRegistry.getSessionCount("user")).isEqualTo(2);
+		assertThat(this.sessionRegistry.getSessionCount("none")).isZero();
+		assertThat(this.sessionRegistry.getAllSessions("user", false)).extracting(SessionInformation::getSessionId)
+			.containsExactly("1", "2");
+		assertThat(this.sessionRegistry.getAllPrincipals()).containsExactlyInAnyOrder("user", "other");
+	}
+
+	@Test
+	void registerNewSessionWhenSameSessionIdThenReplaced() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("1", "other");
+		assertThat(this.sessionRegistry.getSessionCount("user")).isZero();
+		assertThat(this.sessionRegistry.getAllPrincipals()).containsExactly("other");
+		assertThat(this.sessionRegistry.getSessionInformation("1").getPrincipal()).isEqualTo("other");
+	}
+
+	@Test
+	void refreshLastRequestWhenRefreshedThenMostRecentlyUsed() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "user");
+		this.sessionRegistry.registerNewSession("3", "user");
+		this.sessionRegistry.refreshLastRequest("1");
+		this.sessionRegistry.getSessionInformation("2").refreshLastRequest();
+		assertThat(this.sessionRegistry.getLeastRecentlyUsedSessions("user", 2))
+			.extracting(SessionInformation::getSessionId)
+			.containsExactly("3", "1");
+		assertThat(this.sessionRegistry.getAllSessions("user", false)).extracting(SessionInformation::getSessionId)
+			.containsExactly("3", "1", "2");
+	}
+
+	@Test
+	void expireNowWhenExpiredThenNotCounted() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "user");
+		SessionInformation info = this.sessionRegistry.getSessionInformation("1");
+		info.expireNow();
+		info.expireNow();
+		info.refreshLastRequest();
+		assertThat(this.sessionRegistry.getSessionCount("user")).isEqualTo(1);
+		assertThat(this.sessionRegistry.getLeastRecentlyUsedSessions("user", 2))
+			.extracting(SessionInformation::getSessionId)
+			.containsExactly("2");
+		assertThat(this.sessionRegistry.getAllSessions("user", false)).extracting(SessionInformation::getSessionId)
+			.containsExactly("2");
+		assertThat(this.sessionRegistry.getAllSessions("user", true)).extracting(SessionInformation::getSessionId)
+			.containsExactly("1", "2");
+		assertThat(this.sessionRegistry.getSessionInformation("1").isExpired()).isTrue();
+	}
+
+	@Test
+	void isRegisteredWhenSessionOfPrincipalThenTrue() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.registerNewSession("2", "other");
+		this.sessionRegistry.registerNewSession("3", "user");
+		this.sessionRegistry.getSessionInformation("3").expireNow();
+		assertThat(this.sessionRegistry.isRegistered("user", "1")).isTrue();
+		assertThat(this.sessionRegistry.isRegistered("user", "2")).isFalse();
+		assertThat(this.sessionRegistry.isRegistered("user", "3")).isFalse();
+		assertThat(this.sessionRegistry.isRegistered("user", "4")).isFalse();
+	}
+
+	@Test
+	void removeSessionInformationWhenLastSessionThenPrincipalRemoved() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.getSessionInformation("1").expireNow();
+		this.sessionRegistry.removeSessionInformation("1");
+		this.sessionRegistry.removeSessionInformation("1");
+		assertThat(this.sessionRegistry.getSessionInformation("1")).isNull();
+		assertThat(this.sessionRegistry.getAllSessions("user", true)).isEmpty();
+		assertThat(this.sessionRegistry.getAllPrincipals()).isEmpty();
+	}
+
+	@Test
+	void onApplicationEventWhenSessionDestroyedThenRemoved() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.onApplicationEvent(new SessionDestroyedEvent("") {
+			@Override
+			public String getId() {
+				return "1";
+			}
+
+			@Override
+			public List<SecurityContext> getSecurityContexts() {
+				return null;
+			}
+		});
+		assertThat(this.sessionRegistry.getSessionInformation("1")).isNull();
+		assertThat(this.sessionRegistry.getSessionCount("user")).isZero();
+	}
+
+	@Test
+	void onApplicationEventWhenSessionIdChangedThenReregistered() {
+		this.sessionRegistry.registerNewSession("1", "user");
+		this.sessionRegistry.onApplicationEvent(new SessionIdChangedEvent("") {
+			@Override
+			public String getOldSessionId() {
+				return "1";
+			}
+
+			@Override
+			public String getNewSessionId() {
+				return "2";
+			}
+		});
+		assertThat(this.sessionRegistry.getSessionInformation("1")).isNull();
+		assertThat(this.sessionRegistry.getSessionInformation("2").getPrincipal()).isEqualTo("user");
+		assertThat(this.sessionRegistry.getSessionCount("user")).isEqualTo(1);
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.core.userdetails.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link TwoLevelUserCache}
+ */
+public class TwoLevelUserCacheTests {
+
+	private final UserDetails user = User.withUsername("user").password("password").roles("USER").build();
+
+	private UserCache sharedCache;
+
+	private TwoLevelUserCache cache;
+
+	@BeforeEach
+	public void setUp() {
+		this.sharedCache = spy(new SpringCacheBasedUserCache(new ConcurrentMapCache("users")));
+		this.cache = new TwoLevelUserCache(this.sharedCache);
+	}
+
+	@Test
+	public void constructorWhenSharedCacheNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new TwoLevelUserCache(null))
+			.withMessage("sharedCache cannot be null");
+	}
+
+	@Test
+	public void setMaximumSizeWhenNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cache.setMaximumSize(0));
+	}
+
+	@Test
+	public void setTimeToLiveWhenZeroThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cache.setTimeToLive(Duration.ZERO));
+	}
+
+	@Test
+	public void getUserFromCacheWhenPutThenReadFromLocalCache() {
+		this.cache.putUserInCache(this.user);
+		assertThat(this.cache.getUserFromCache("user")).isEqualTo(this.user);
+		verify(this.sharedCache, times(0)).getUserFromCache(any());
+	}
+
+	@Test
+	public void getUserFromCacheWhenCredentialsErasedThenLocalCacheKeepsCredentials() {
+		User user = (User) User.withUserDetails(this.user).build();
+		this.cache.putUserInCache(user);
+		user.eraseCredentials();
+		User cached = (User) this.cache.getUserFromCache("user");
+		cached.eraseCredentials();
+		cached = (User) this.cache.getUserFromCache("user");
+		assertThat(cached.getPassword()).isEqualTo("password");
+		assertThat(cached.getAuthorities()).isEqualTo(this.user.getAuthorities());
+		verify(this.sharedCache, times(0)).getUserFromCache(any());
+	}
+
+	@Test
+	public void getUserFromCacheWhenOnlyInSharedCacheThenCachesLocally() {
+		this.sharedCache.putUserInCache(this.user);
+		assertThat(this.cache.getUserFromCache("user")).isEqualTo(this.user);
+		assertThat(this.cache.getUserFromCache("user")).isEqualTo(this.user);
+		verify(this.sharedCache, times(1)).getUserFromCache("user");
+	}
+
+	@Test
+	public void getUserFromCacheWhenNullThenNull() {
+		assertThat(this.cache.getUserFromCache(null)).isNull();
+	}
+
+	@Test
+	public void getUserFromCacheWhenLocalEntryExpiredThenReadsSharedCache() {
+		Instant now = Instant.now();
+		this.cache.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		this.cache.setTimeToLive(Duration.ofSeconds(30));
+		this.cache.putUserInCache(this.user);
+		this.cache.setClock(Clock.fixed(now.plusSeconds(31), ZoneOffset.UTC));
+		assertThat(this.cache.getUserFromCache("user")).isEqualTo(this.user);
+		verify(this.sharedCache).getUserFromCache("user");
+	}
+
+	@Test
+	public void putUserInCacheWhenMaximumSizeExceededThenEvictsLeastRecentlyUsed() {
+		this.cache.setMaximumSize(2);
+		this.cache.putUserInCache(user("one"));
+		this.cache.putUserInCache(user("two"));
+		this.cache.getUserFromCache("one");
+		this.cache.putUserInCache(user("three"));
+		this.cache.getUserFromCache("one");
+		this.cache.getUserFromCache("three");
+		this.cache.getUserFromCache("two");
+		verify(this.sharedCache, times(0)).getUserFromCache("one");
+		verify(this.sharedCache).getUserFromCache("two");
+		verify(this.sharedCache, times(0)).getUserFromCache("three");
+	}
+
+	@Test
+	public void removeUserFromCacheThenRemovesFromBothTiersAndPublishesEvent() {
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		this.cache.setApplicationEventPublisher(eventPublisher);
+		this.cache.putUserInCache(this.user);
+		this.cache.removeUserFromCache("user");
+		assertThat(this.cache.getUserFromCache("user")).isNull();
+		ArgumentCaptor<UserCacheEvictionEvent> event = ArgumentCaptor.forClass(UserCacheEvictionEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		assertThat(event.getValue().getUsername()).isEqualTo("user");
+		assertThat(event.getValue().getSource()).isSameAs(this.cache);
+	}
+
+	@Test
+	public void onApplicationEventWhenEvictedOnOtherNodeThenRemovesFromLocalCacheOnly() {
+		this.cache.putUserInCache(this.user);
+		this.cache.onApplicationEvent(new UserCacheEvictionEvent(new Object(), "user"));
+		assertThat(this.cache.getUserFromCache("user")).isEqualTo(this.user);
+		verify(this.sharedCache).getUserFromCache("user");
+		verify(this.sharedCache, times(0)).removeUserFromCache(any());
+	}
+
+	private static UserDetails user(String username) {
+		return User.withUsername(username).password("password").roles("USER").build();
+	}
+
+}
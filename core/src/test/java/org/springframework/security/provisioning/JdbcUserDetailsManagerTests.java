@@ -328,6 +328,21 @@ public class JdbcUserDetailsManagerTests {
 				"select authority from group_authorities where authority = 'ROLE_X' and group_id = 0", String.class);
 	}
 
+	@Test
+	public void addGroupAuthorityClearsCacheOfGroupMembers() {
+		this.cache.putUserInCache(new User("tom", "password", AuthorityUtils.createAuthorityList("ROLE_B")));
+		this.cache.putUserInCache(joe);
+		this.manager.addGroupAuthority("GROUP_1", new SimpleGrantedAuthority("ROLE_X"));
+		assertThat(this.cache.getUserMap()).containsOnlyKeys("joe");
+	}
+
+	@Test
+	public void deleteGroupClearsCacheOfGroupMembers() {
+		this.cache.putUserInCache(new User("jerry", "password", AuthorityUtils.createAuthorityList("ROLE_A")));
+		this.manager.deleteGroup("GROUP_0");
+		assertThat(this.cache.getUserMap()).isEmpty();
+	}
+
 	@Test
 	public void deleteGroupAuthorityRemovesCorrectRows() {
 		GrantedAuthority auth = new SimpleGrantedAuthority("ROLE_A");
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.provisioning;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.MessageDigestPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link JdbcUserDetailsPasswordMigrator}
+ */
+public class JdbcUserDetailsPasswordMigratorTests {
+
+	private static final String USERS_SQL_RESOURCE = "org/springframework/security/core/userdetails/jdbc/users.ddl";
+
+	private EmbeddedDatabase db;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private PasswordEncoder passwordEncoder;
+
+	private JdbcUserDetailsPasswordMigrator migrator;
+
+	@BeforeEach
+	@SuppressWarnings("deprecation")
+	public void setUp() {
+		// @formatter:off
+		this.db = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.HSQL)
+				.setScriptEncoding("UTF-8")
+				.addScript(USERS_SQL_RESOURCE)
+				.build();
+		// @formatter:on
+		this.jdbcTemplate = new JdbcTemplate(this.db);
+		this.passwordEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(4),
+				"noop", NoOpPasswordEncoder.getInstance(), "SHA-256", new MessageDigestPasswordEncoder("SHA-256")));
+		this.migrator = new JdbcUserDetailsPasswordMigrator(this.jdbcTemplate, this.passwordEncoder);
+		this.migrator.setPageSize(2);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.db.shutdown();
+	}
+
+	@Test
+	public void constructorWhenJdbcOperationsNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new JdbcUserDetailsPasswordMigrator(null, this.passwordEncoder))
+			.withMessage("jdbcOperations cannot be null");
+	}
+
+	@Test
+	public void setPageSizeWhenNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.migrator.setPageSize(0));
+	}
+
+	@Test
+	public void migrateWhenNoOpPasswordsThenReencodes() {
+		for (int i = 0; i < 5; i++) {
+			insertUser("user" + i, "{noop}password" + i);
+		}
+		JdbcUserDetailsPasswordMigrator.Progress progress = this.migrator.migrate();
+		assertThat(progress.getScanned()).isEqualTo(5);
+		assertThat(progress.getUpgraded()).isEqualTo(5);
+		for (int i = 0; i < 5; i++) {
+			String password = password("user" + i);
+			assertThat(password).startsWith("{bcrypt}");
+			assertThat(this.passwordEncoder.matches("password" + i, password)).isTrue();
+		}
+	}
+
+	@Test
+	public void migrateWhenPasswordCurrentThenUnchanged() {
+		String encoded = this.passwordEncoder.encode("password");
+		insertUser("user", encoded);
+		JdbcUserDetailsPasswordMigrator.Progress progress = this.migrator.migrate();
+		assertThat(progress.getScanned()).isEqualTo(1);
+		assertThat(progress.getUpgraded()).isZero();
+		assertThat(password("user")).isEqualTo(encoded);
+	}
+
+	@Test
+	public void migrateWhenHashedPasswordThenUnrecoverable() {
+		insertUser("user", "{SHA-256}d5e9bd5dc6a7cd3b8a0bd5b4bd0d7c4a");
+		JdbcUserDetailsPasswordMigrator.Progress progress = this.migrator.migrate();
+		assertThat(progress.getUnrecoverable()).isEqualTo(1);
+		assertThat(progress.getUpgraded()).isZero();
+		assertThat(password("user")).isEqualTo("{SHA-256}d5e9bd5dc6a7cd3b8a0bd5b4bd0d7c4a");
+	}
+
+	@Test
+	public void migrateWhenRawPasswordResolverThenUsesResolvedPassword() {
+		insertUser("user", "{legacy}drowssap");
+		this.migrator
+			.setRawPasswordResolver((password) -> new StringBuilder(password.substring(8)).reverse().toString());
+		this.migrator.migrate();
+		assertThat(this.passwordEncoder.matches("password", password("user"))).isTrue();
+	}
+
+	@Test
+	public void migrateWhenPasswordChangedConcurrentlyThenNotOverwritten() {
+		insertUser("user", "{noop}password");
+		this.migrator.setRawPasswordResolver((password) -> {
+			this.jdbcTemplate.update("update users set password = ? where username = ?", "{noop}changed", "user");
+			return "password";
+		});
+		JdbcUserDetailsPasswordMigrator.Progress progress = this.migrator.migrate();
+		assertThat(progress.getFailed()).isEqualTo(1);
+		assertThat(password("user")).isEqualTo("{noop}changed");
+	}
+
+	@Test
+	public void migrateWhenProgressListenerThenNotifiedAfterEachPage() {
+		for (int i = 0; i < 5; i++) {
+			insertUser("user" + i, "{noop}password" + i);
+		}
+		List<Long> scanned = new ArrayList<>();
+		this.migrator.setProgressListener((progress) -> scanned.add(progress.getScanned()));
+		this.migrator.migrate();
+		assertThat(scanned).containsExactly(2L, 4L, 5L);
+	}
+
+	private void insertUser(String username, String password) {
+		this.jdbcTemplate.update("insert into users (username, password, enabled) values (?, ?, true)", username,
+				password);
+	}
+
+	private String password(String username) {
+		return this.jdbcTemplate.queryForObject("select password from users where username = ?", String.class,
+				username);
+	}
+
+}
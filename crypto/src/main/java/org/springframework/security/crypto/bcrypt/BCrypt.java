@@ -276,7 +276,6 @@ public class BCrypt {
 	 * @throws IllegalArgumentException if maxolen is invalid
 	 */
 	static byte[] decode_base64(String s, int maxolen) throws IllegalArgumentException {
-		StringBuilder rs = new StringBuilder();
 		int off = 0, slen = s.length(), olen = 0;
 		byte ret[];
 		byte c1, c2, c3, c4, o;
@@ -284,6 +283,7 @@ public class BCrypt {
 		if (maxolen <= 0) {
 			throw new IllegalArgumentException("Invalid maxolen");
 		}
+		ret = new byte[maxolen];
 
 		while (off < slen - 1 && olen < maxolen) {
 			c1 = char64(s.charAt(off++));
@@ -293,7 +293,7 @@ public class BCrypt {
 			}
 			o = (byte) (c1 << 2);
 			o |= (c2 & 0x30) >> 4;
-			rs.append((char) o);
+			ret[olen] = o;
 			if (++olen >= maxolen || off >= slen) {
 				break;
 			}
@@ -303,22 +303,18 @@ public class BCrypt {
 			}
 			o = (byte) ((c2 & 0x0f) << 4);
 			o |= (c3 & 0x3c) >> 2;
-			rs.append((char) o);
+			ret[olen] = o;
 			if (++olen >= maxolen || off >= slen) {
 				break;
 			}
 			c4 = char64(s.charAt(off++));
 			o = (byte) ((c3 & 0x03) << 6);
 			o |= c4;
-			rs.append((char) o);
+			ret[olen] = o;
 			++olen;
 		}
 
-		ret = new byte[olen];
-		for (off = 0; off < olen; off++) {
-			ret[off] = (byte) rs.charAt(off);
-		}
-		return ret;
+		return (olen < maxolen) ? Arrays.copyOf(ret, olen) : ret;
 	}
 
 	/**
@@ -327,26 +323,49 @@ public class BCrypt {
 	 * @param off the position in the array of the blocks
 	 */
 	private void encipher(int lr[], int off) {
-		int i, n, l = lr[off], r = lr[off + 1];
-
-		l ^= this.P[0];
-		for (i = 0; i <= BLOWFISH_NUM_ROUNDS - 2;) {
-			// Feistel substitution on left word
-			n = this.S[(l >> 24) & 0xff];
-			n += this.S[0x100 | ((l >> 16) & 0xff)];
-			n ^= this.S[0x200 | ((l >> 8) & 0xff)];
-			n += this.S[0x300 | (l & 0xff)];
-			r ^= n ^ this.P[++i];
-
-			// Feistel substitution on right word
-			n = this.S[(r >> 24) & 0xff];
-			n += this.S[0x100 | ((r >> 16) & 0xff)];
-			n ^= this.S[0x200 | ((r >> 8) & 0xff)];
-			n += this.S[0x300 | (r & 0xff)];
-			l ^= n ^ this.P[++i];
-		}
-		lr[off] = r ^ this.P[BLOWFISH_NUM_ROUNDS + 1];
-		lr[off + 1] = l;
+		long block = encipher(this.P, this.S, lr[off], lr[off + 1]);
+		lr[off] = (int) (block >>> 32);
+		lr[off + 1] = (int) block;
+	}
+
+	/**
+	 * Blowfish encipher a single 64-bit block, with the rounds unrolled
+	 * @param p the P-array of the key schedule
+	 * @param s the S-boxes of the key schedule
+	 * @param l the left 32-bit half block
+	 * @param r the right 32-bit half block
+	 * @return the enciphered left half block in the high and the right half block in the
+	 * low 32 bits
+	 */
+	private static long encipher(int p[], int s[], int l, int r) {
+		l ^= p[0];
+		r ^= feistel(s, l) ^ p[1];
+		l ^= feistel(s, r) ^ p[2];
+		r ^= feistel(s, l) ^ p[3];
+		l ^= feistel(s, r) ^ p[4];
+		r ^= feistel(s, l) ^ p[5];
+		l ^= feistel(s, r) ^ p[6];
+		r ^= feistel(s, l) ^ p[7];
+		l ^= feistel(s, r) ^ p[8];
+		r ^= feistel(s, l) ^ p[9];
+		l ^= feistel(s, r) ^ p[10];
+		r ^= feistel(s, l) ^ p[11];
+		l ^= feistel(s, r) ^ p[12];
+		r ^= feistel(s, l) ^ p[13];
+		l ^= feistel(s, r) ^ p[14];
+		r ^= feistel(s, l) ^ p[15];
+		l ^= feistel(s, r) ^ p[BLOWFISH_NUM_ROUNDS];
+		return ((long) (r ^ p[BLOWFISH_NUM_ROUNDS + 1]) << 32) | (l & 0xffffffffL);
+	}
+
+	/**
+	 * Blowfish Feistel substitution of a 32-bit half block
+	 * @param s the S-boxes of the key schedule
+	 * @param x the half block
+	 * @return the substituted word
+	 */
+	private static int feistel(int s[], int x) {
+		return ((s[x >>> 24] + s[0x100 | ((x >>> 16) & 0xff)]) ^ s[0x200 | ((x >>> 8) & 0xff)]) + s[0x300 | (x & 0xff)];
 	}
 
 	/**
@@ -408,36 +427,46 @@ public class BCrypt {
 	}
 
 	/**
-	 * Key the Blowfish cipher
+	 * Extract the words of key material XORed into the P-array, which are the same on
+	 * every call to {@link #key(int[])}
 	 * @param key an array containing the key
 	 * @param sign_ext_bug true to implement the 2x bug
-	 * @param safety bit 16 is set when the safety measure is requested
+	 * @return the words of key material
 	 */
-	private void key(byte key[], boolean sign_ext_bug, int safety) {
-		int i;
+	private static int[] keywords(byte key[], boolean sign_ext_bug) {
 		int koffp[] = { 0 };
-		int lr[] = { 0, 0 };
-		int plen = this.P.length, slen = this.S.length;
+		int words[] = new int[P_orig.length];
 
-		for (i = 0; i < plen; i++) {
-			if (!sign_ext_bug) {
-				this.P[i] = this.P[i] ^ streamtoword(key, koffp);
-			}
-			else {
-				this.P[i] = this.P[i] ^ streamtoword_bug(key, koffp);
-			}
+		for (int i = 0; i < words.length; i++) {
+			words[i] = sign_ext_bug ? streamtoword_bug(key, koffp) : streamtoword(key, koffp);
 		}
+		return words;
+	}
 
-		for (i = 0; i < plen; i += 2) {
-			encipher(lr, 0);
-			this.P[i] = lr[0];
-			this.P[i + 1] = lr[1];
+	/**
+	 * Key the Blowfish cipher
+	 * @param keywords the words of key material, as extracted by
+	 * {@link #keywords(byte[], boolean)}
+	 */
+	private void key(int keywords[]) {
+		int p[] = this.P, s[] = this.S;
+		int plen = p.length, slen = s.length;
+		long block = 0;
+
+		for (int i = 0; i < plen; i++) {
+			p[i] ^= keywords[i];
 		}
 
-		for (i = 0; i < slen; i += 2) {
-			encipher(lr, 0);
-			this.S[i] = lr[0];
-			this.S[i + 1] = lr[1];
+		for (int i = 0; i < plen; i += 2) {
+			block = encipher(p, s, (int) (block >>> 32), (int) block);
+			p[i] = (int) (block >>> 32);
+			p[i + 1] = (int) block;
+		}
+
+		for (int i = 0; i < slen; i += 2) {
+			block = encipher(p, s, (int) (block >>> 32), (int) block);
+			s[i] = (int) (block >>> 32);
+			s[i + 1] = (int) block;
 		}
 	}
 
@@ -554,9 +583,11 @@ public class BCrypt {
 
 		init_key();
 		ekskey(salt, password, sign_ext_bug, safety);
-		for (int i = 0; i < rounds; i++) {
-			key(password, sign_ext_bug, safety);
-			key(salt, false, safety);
+		int passwordwords[] = keywords(password, sign_ext_bug);
+		int saltwords[] = keywords(salt, false);
+		for (long i = 0; i < rounds; i++) {
+			key(passwordwords);
+			key(saltwords);
 		}
 
 		for (int i = 0; i < 64; i++) {
@@ -609,7 +640,7 @@ public class BCrypt {
 		byte saltb[], hashed[];
 		char minor = (char) 0;
 		int rounds, off;
-		StringBuilder rs = new StringBuilder();
+		StringBuilder rs = new StringBuilder(60);
 
 		if (salt == null) {
 			throw new IllegalArgumentException("salt cannot be null");
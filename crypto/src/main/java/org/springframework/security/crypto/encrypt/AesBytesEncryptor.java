@@ -40,9 +40,7 @@ public final class AesBytesEncryptor implements BytesEncryptor {
 
 	private final SecretKey secretKey;
 
-	private final Cipher encryptor;
-
-	private final Cipher decryptor;
+	private final InstancePool<Cipher> ciphers;
 
 	private final BytesKeyGenerator ivGenerator;
 
@@ -109,31 +107,42 @@ public final class AesBytesEncryptor implements BytesEncryptor {
 	 * @param alg the {@link CipherAlgorithm} to be used
 	 */
 	public AesBytesEncryptor(SecretKey secretKey, BytesKeyGenerator ivGenerator, CipherAlgorithm alg) {
+		this(secretKey, ivGenerator, alg, new InstancePool<>(alg::createCipher));
+		this.ciphers.release(alg.createCipher());
+	}
+
+	/**
+	 * Constructs an encryptor that uses AES encryption with ciphers from the provided
+	 * pool, which may be shared with other encryptors using the same
+	 * {@link CipherAlgorithm}.
+	 */
+	AesBytesEncryptor(SecretKey secretKey, BytesKeyGenerator ivGenerator, CipherAlgorithm alg,
+			InstancePool<Cipher> ciphers) {
 		this.secretKey = new SecretKeySpec(secretKey.getEncoded(), "AES");
 		this.alg = alg;
-		this.encryptor = alg.createCipher();
-		this.decryptor = alg.createCipher();
+		this.ciphers = ciphers;
 		this.ivGenerator = (ivGenerator != null) ? ivGenerator : alg.defaultIvGenerator();
 	}
 
 	@Override
 	public byte[] encrypt(byte[] bytes) {
-		synchronized (this.encryptor) {
-			byte[] iv = this.ivGenerator.generateKey();
-			CipherUtils.initCipher(this.encryptor, Cipher.ENCRYPT_MODE, this.secretKey, this.alg.getParameterSpec(iv));
-			byte[] encrypted = CipherUtils.doFinal(this.encryptor, bytes);
-			return (this.ivGenerator != NULL_IV_GENERATOR) ? EncodingUtils.concatenate(iv, encrypted) : encrypted;
-		}
+		Cipher encryptor = this.ciphers.borrow();
+		byte[] iv = this.ivGenerator.generateKey();
+		CipherUtils.initCipher(encryptor, Cipher.ENCRYPT_MODE, this.secretKey, this.alg.getParameterSpec(iv));
+		byte[] encrypted = CipherUtils.doFinal(encryptor, bytes);
+		this.ciphers.release(encryptor);
+		return (this.ivGenerator != NULL_IV_GENERATOR) ? EncodingUtils.concatenate(iv, encrypted) : encrypted;
 	}
 
 	@Override
 	public byte[] decrypt(byte[] encryptedBytes) {
-		synchronized (this.decryptor) {
-			byte[] iv = iv(encryptedBytes);
-			CipherUtils.initCipher(this.decryptor, Cipher.DECRYPT_MODE, this.secretKey, this.alg.getParameterSpec(iv));
-			return CipherUtils.doFinal(this.decryptor,
-					(this.ivGenerator != NULL_IV_GENERATOR) ? encrypted(encryptedBytes, iv.length) : encryptedBytes);
-		}
+		Cipher decryptor = this.ciphers.borrow();
+		byte[] iv = iv(encryptedBytes);
+		CipherUtils.initCipher(decryptor, Cipher.DECRYPT_MODE, this.secretKey, this.alg.getParameterSpec(iv));
+		byte[] decrypted = CipherUtils.doFinal(decryptor,
+				(this.ivGenerator != NULL_IV_GENERATOR) ? encrypted(encryptedBytes, iv.length) : encryptedBytes);
+		this.ciphers.release(decryptor);
+		return decrypted;
 	}
 
 	private byte[] iv(byte[] encrypted) {
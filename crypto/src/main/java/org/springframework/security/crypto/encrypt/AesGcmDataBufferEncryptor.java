@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Encrypts and decrypts streams of {@link DataBuffer}s in the same format as an
+ * {@link AesGcmStreamingBytesEncryptor}, so that a stream encrypted by one can be
+ * decrypted by the other. As with the {@link AesGcmStreamingBytesEncryptor}, at most one
+ * segment is buffered, and decrypted bytes are only emitted once the segment they belong
+ * to has been authenticated.
+ *
+ * <p>
+ * The source {@link DataBuffer}s are released once they have been read.
+ *
+ * @since 6.5
+ */
+public final class AesGcmDataBufferEncryptor {
+
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	private final AesGcmStreamingBytesEncryptor encryptor;
+
+	/**
+	 * Constructs an encryptor using the key and segment size of the provided encryptor.
+	 * @param encryptor the {@link AesGcmStreamingBytesEncryptor} to use
+	 */
+	public AesGcmDataBufferEncryptor(AesGcmStreamingBytesEncryptor encryptor) {
+		if (encryptor == null) {
+			throw new IllegalArgumentException("encryptor cannot be null");
+		}
+		this.encryptor = encryptor;
+	}
+
+	/**
+	 * Encrypts the stream of {@link DataBuffer}s.
+	 * @param plaintext the bytes to encrypt
+	 * @param bufferFactory the factory of the encrypted {@link DataBuffer}s
+	 * @return the encrypted bytes
+	 */
+	public Flux<DataBuffer> encrypt(Publisher<? extends DataBuffer> plaintext, DataBufferFactory bufferFactory) {
+		return process(plaintext, bufferFactory, this.encryptor::encrypter);
+	}
+
+	/**
+	 * Decrypts the stream of {@link DataBuffer}s. A failure to decrypt is emitted as an
+	 * {@link IOException}.
+	 * @param ciphertext the bytes to decrypt
+	 * @param bufferFactory the factory of the decrypted {@link DataBuffer}s
+	 * @return the decrypted bytes
+	 */
+	public Flux<DataBuffer> decrypt(Publisher<? extends DataBuffer> ciphertext, DataBufferFactory bufferFactory) {
+		return process(ciphertext, bufferFactory, this.encryptor::decrypter);
+	}
+
+	private Flux<DataBuffer> process(Publisher<? extends DataBuffer> source, DataBufferFactory bufferFactory,
+			Supplier<AesGcmSegmentCipher> cipher) {
+		if (source == null) {
+			throw new IllegalArgumentException("source cannot be null");
+		}
+		if (bufferFactory == null) {
+			throw new IllegalArgumentException("bufferFactory cannot be null");
+		}
+		return Flux.defer(() -> {
+			Segments segments = new Segments(cipher.get(), bufferFactory);
+			return Flux.<DataBuffer>from(source).handle(segments::update).concatWith(Mono.defer(segments::finish));
+		});
+	}
+
+	private static final class Segments {
+
+		private final AesGcmSegmentCipher cipher;
+
+		private final DataBufferFactory bufferFactory;
+
+		private final byte[] bytes = new byte[READ_BUFFER_SIZE];
+
+		private DataBuffer output;
+
+		private Segments(AesGcmSegmentCipher cipher, DataBufferFactory bufferFactory) {
+			this.cipher = cipher;
+			this.bufferFactory = bufferFactory;
+		}
+
+		private void update(DataBuffer buffer, SynchronousSink<DataBuffer> sink) {
+			try {
+				while (buffer.readableByteCount() > 0) {
+					int length = Math.min(this.bytes.length, buffer.readableByteCount());
+					buffer.read(this.bytes, 0, length);
+					this.cipher.update(this.bytes, 0, length, this::write);
+				}
+				if (this.output != null) {
+					sink.next(takeOutput());
+				}
+			}
+			catch (IOException | RuntimeException ex) {
+				releaseOutput();
+				sink.error(ex);
+			}
+			finally {
+				DataBufferUtils.release(buffer);
+			}
+		}
+
+		private Mono<DataBuffer> finish() {
+			try {
+				this.cipher.finish(this::write);
+				return Mono.justOrEmpty(takeOutput());
+			}
+			catch (IOException | RuntimeException ex) {
+				releaseOutput();
+				return Mono.error(ex);
+			}
+		}
+
+		private void write(byte[] bytes, int offset, int length) {
+			if (this.output == null) {
+				this.output = this.bufferFactory.allocateBuffer(length);
+			}
+			this.output.write(bytes, offset, length);
+		}
+
+		private DataBuffer takeOutput() {
+			DataBuffer output = this.output;
+			this.output = null;
+			return output;
+		}
+
+		private void releaseOutput() {
+			DataBufferUtils.release(takeOutput());
+		}
+
+	}
+
+}
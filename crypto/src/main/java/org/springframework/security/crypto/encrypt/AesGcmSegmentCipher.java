@@ -0,0 +1,274 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.crypto.keygen.BytesKeyGenerator;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+
+/**
+ * Encrypts or decrypts a single stream in the segmented AES-GCM format of
+ * {@link AesGcmStreamingBytesEncryptor}. Input is buffered up to one segment, so memory
+ * use does not depend on the length of the stream.
+ *
+ * <p>
+ * The ciphertext starts with a header holding the format version, the plaintext segment
+ * size, a random salt and a random nonce prefix. A segment key is derived from the secret
+ * key and the salt with HKDF-SHA256, so that nonces are unique per stream. The plaintext
+ * is then split into segments of the segment size, the last of which may be shorter or
+ * empty, and each segment is encrypted with AES-GCM using the header as additional
+ * authenticated data and a nonce made of the nonce prefix, the segment index and whether
+ * it is the last segment. Segments therefore cannot be reordered, dropped or appended,
+ * and a stream cut at a segment boundary fails to decrypt.
+ *
+ * <p>
+ * Instances are not thread-safe and are used for a single stream.
+ *
+ * @since 6.5
+ */
+final class AesGcmSegmentCipher {
+
+	static final int VERSION = 1;
+
+	static final int SALT_LENGTH = 16;
+
+	static final int NONCE_PREFIX_LENGTH = 7;
+
+	static final int HEADER_LENGTH = 1 + Integer.BYTES + SALT_LENGTH + NONCE_PREFIX_LENGTH;
+
+	static final int TAG_LENGTH = 16;
+
+	static final int MAX_SEGMENT_SIZE = 1 << 24;
+
+	private static final long MAX_SEGMENT_INDEX = 0xffffffffL;
+
+	private static final int NONCE_LENGTH = 12;
+
+	private static final byte[] KEY_INFO = "spring-security-aes-gcm-streaming".getBytes(StandardCharsets.US_ASCII);
+
+	private static final BytesKeyGenerator headerGenerator = KeyGenerators
+		.secureRandom(SALT_LENGTH + NONCE_PREFIX_LENGTH);
+
+	private final int mode;
+
+	private final byte[] secretKey;
+
+	private final Cipher cipher = CipherUtils.newCipher(AesBytesEncryptor.CipherAlgorithm.GCM.toString());
+
+	private final byte[] nonce = new byte[NONCE_LENGTH];
+
+	private byte[] header;
+
+	private int headerLength;
+
+	private boolean headerWritten;
+
+	private SecretKey segmentKey;
+
+	private byte[] input;
+
+	private int inputLength;
+
+	private byte[] output;
+
+	private long segmentIndex;
+
+	private boolean finished;
+
+	private AesGcmSegmentCipher(int mode, byte[] secretKey) {
+		this.mode = mode;
+		this.secretKey = secretKey;
+	}
+
+	/**
+	 * Creates a cipher that encrypts a stream.
+	 * @param secretKey the encoded AES secret key
+	 * @param segmentSize the plaintext segment size
+	 * @return the cipher
+	 */
+	static AesGcmSegmentCipher encrypter(byte[] secretKey, int segmentSize) {
+		AesGcmSegmentCipher cipher = new AesGcmSegmentCipher(Cipher.ENCRYPT_MODE, secretKey);
+		byte[] random = headerGenerator.generateKey();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		header.put((byte) VERSION);
+		header.putInt(segmentSize);
+		header.put(random);
+		cipher.header = header.array();
+		cipher.headerLength = HEADER_LENGTH;
+		cipher.start(segmentSize);
+		return cipher;
+	}
+
+	/**
+	 * Creates a cipher that decrypts a stream, reading the header from its first bytes.
+	 * @param secretKey the encoded AES secret key
+	 * @return the cipher
+	 */
+	static AesGcmSegmentCipher decrypter(byte[] secretKey) {
+		AesGcmSegmentCipher cipher = new AesGcmSegmentCipher(Cipher.DECRYPT_MODE, secretKey);
+		cipher.header = new byte[HEADER_LENGTH];
+		return cipher;
+	}
+
+	/**
+	 * Processes the next bytes of the stream, writing every completed segment to the
+	 * output. A full segment is only processed once more bytes follow it, since the last
+	 * segment is processed differently.
+	 * @param bytes the bytes
+	 * @param offset the offset of the first byte
+	 * @param length the number of bytes
+	 * @param output the destination of the processed bytes
+	 * @throws IOException if the output fails or a segment cannot be decrypted
+	 */
+	void update(byte[] bytes, int offset, int length, Output output) throws IOException {
+		if (this.finished) {
+			throw new IllegalStateException("The stream has already been finished");
+		}
+		int end = offset + length;
+		if (this.input == null) {
+			int read = Math.min(HEADER_LENGTH - this.headerLength, length);
+			System.arraycopy(bytes, offset, this.header, this.headerLength, read);
+			this.headerLength += read;
+			offset += read;
+			if (this.headerLength < HEADER_LENGTH) {
+				return;
+			}
+			start(readHeader(this.header));
+		}
+		while (offset < end) {
+			if (this.inputLength == this.input.length) {
+				process(false, output);
+			}
+			int read = Math.min(this.input.length - this.inputLength, end - offset);
+			System.arraycopy(bytes, offset, this.input, this.inputLength, read);
+			this.inputLength += read;
+			offset += read;
+		}
+	}
+
+	/**
+	 * Processes the last segment of the stream.
+	 * @param output the destination of the processed bytes
+	 * @throws IOException if the output fails or the last segment cannot be decrypted
+	 */
+	void finish(Output output) throws IOException {
+		if (this.finished) {
+			return;
+		}
+		if (this.input == null) {
+			throw new IOException("The ciphertext is truncated");
+		}
+		process(true, output);
+		this.finished = true;
+	}
+
+	private void start(int segmentSize) {
+		this.segmentKey = new SecretKeySpec(
+				deriveKey(this.secretKey, Arrays.copyOfRange(this.header,
+						HEADER_LENGTH - SALT_LENGTH - NONCE_PREFIX_LENGTH, HEADER_LENGTH - NONCE_PREFIX_LENGTH)),
+				"AES");
+		System.arraycopy(this.header, HEADER_LENGTH - NONCE_PREFIX_LENGTH, this.nonce, 0, NONCE_PREFIX_LENGTH);
+		boolean encrypting = this.mode == Cipher.ENCRYPT_MODE;
+		this.input = new byte[encrypting ? segmentSize : segmentSize + TAG_LENGTH];
+		this.output = new byte[encrypting ? segmentSize + TAG_LENGTH : segmentSize];
+	}
+
+	private void process(boolean last, Output output) throws IOException {
+		if (this.segmentIndex > MAX_SEGMENT_INDEX) {
+			throw new IOException("The stream has too many segments");
+		}
+		if (this.mode == Cipher.DECRYPT_MODE && this.inputLength < TAG_LENGTH) {
+			throw new IOException("The ciphertext is truncated");
+		}
+		ByteBuffer.wrap(this.nonce, NONCE_PREFIX_LENGTH, Integer.BYTES + 1)
+			.putInt((int) this.segmentIndex)
+			.put((byte) (last ? 1 : 0));
+		CipherUtils.initCipher(this.cipher, this.mode, this.segmentKey,
+				new GCMParameterSpec(TAG_LENGTH * 8, this.nonce));
+		this.cipher.updateAAD(this.header);
+		int length;
+		try {
+			length = this.cipher.doFinal(this.input, 0, this.inputLength, this.output, 0);
+		}
+		catch (AEADBadTagException ex) {
+			throw new IOException("Unable to authenticate segment " + this.segmentIndex, ex);
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Unable to invoke Cipher", ex);
+		}
+		if (!this.headerWritten && this.mode == Cipher.ENCRYPT_MODE) {
+			output.write(this.header, 0, HEADER_LENGTH);
+		}
+		this.headerWritten = true;
+		output.write(this.output, 0, length);
+		this.inputLength = 0;
+		this.segmentIndex++;
+	}
+
+	private static int readHeader(byte[] header) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(header);
+		int version = buffer.get();
+		if (version != VERSION) {
+			throw new IOException("Unsupported ciphertext version " + version);
+		}
+		int segmentSize = buffer.getInt();
+		if (segmentSize < 1 || segmentSize > MAX_SEGMENT_SIZE) {
+			throw new IOException("Invalid ciphertext segment size " + segmentSize);
+		}
+		return segmentSize;
+	}
+
+	/**
+	 * Derives a key of the same length as the secret key with HKDF-SHA256 (RFC 5869).
+	 */
+	private static byte[] deriveKey(byte[] secretKey, byte[] salt) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(salt, "HmacSHA256"));
+			byte[] pseudoRandomKey = mac.doFinal(secretKey);
+			mac.init(new SecretKeySpec(pseudoRandomKey, "HmacSHA256"));
+			mac.update(KEY_INFO);
+			mac.update((byte) 1);
+			return Arrays.copyOf(mac.doFinal(), secretKey.length);
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Unable to derive the segment key", ex);
+		}
+	}
+
+	/**
+	 * The destination of the processed bytes. The bytes are only valid during the call.
+	 */
+	interface Output {
+
+		void write(byte[] bytes, int offset, int length) throws IOException;
+
+	}
+
+}
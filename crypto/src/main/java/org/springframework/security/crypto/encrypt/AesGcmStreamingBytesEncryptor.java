@@ -0,0 +1,253 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.springframework.security.crypto.codec.Hex;
+
+/**
+ * A {@link StreamingBytesEncryptor} that uses AES-GCM on fixed-size segments of the
+ * stream, so that streams of any length are encrypted and decrypted with constant memory.
+ *
+ * <p>
+ * Each stream uses a key derived from the secret key and a random salt, and each segment
+ * is authenticated with a nonce made of a random prefix, the segment index and whether it
+ * is the last segment, so segments cannot be reordered, dropped or appended without
+ * decryption failing. Decrypted bytes are only returned once the segment they belong to
+ * has been authenticated, but a stream that fails to decrypt may already have returned
+ * the bytes of its earlier segments. A failure to decrypt is reported as an
+ * {@link IOException} when reading the decrypted stream.
+ *
+ * <p>
+ * The segment size is recorded in the encrypted stream, so streams encrypted with a
+ * different segment size can still be decrypted.
+ *
+ * @since 6.5
+ */
+public final class AesGcmStreamingBytesEncryptor implements StreamingBytesEncryptor {
+
+	private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	private final byte[] secretKey;
+
+	private final int segmentSize;
+
+	/**
+	 * Constructs an encryptor that derives a 256 bit AES key from the password using
+	 * PBKDF2, like {@link Encryptors#stronger(CharSequence, CharSequence)}.
+	 * @param password the password value
+	 * @param salt the hex-encoded salt value
+	 */
+	public AesGcmStreamingBytesEncryptor(String password, CharSequence salt) {
+		this(CipherUtils.newSecretKey("PBKDF2WithHmacSHA1",
+				new PBEKeySpec(password.toCharArray(), Hex.decode(salt), 1024, 256)));
+	}
+
+	/**
+	 * Constructs an encryptor that uses segments of 64 KiB.
+	 * @param secretKey the 128, 192 or 256 bit AES secret key
+	 */
+	public AesGcmStreamingBytesEncryptor(SecretKey secretKey) {
+		this(secretKey, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Constructs an encryptor.
+	 * @param secretKey the 128, 192 or 256 bit AES secret key
+	 * @param segmentSize the number of plaintext bytes per segment, up to 16 MiB. Larger
+	 * segments have less overhead, but are buffered whole when encrypting and decrypting
+	 */
+	public AesGcmStreamingBytesEncryptor(SecretKey secretKey, int segmentSize) {
+		if (secretKey == null) {
+			throw new IllegalArgumentException("secretKey cannot be null");
+		}
+		byte[] encoded = secretKey.getEncoded();
+		if (encoded == null || (encoded.length != 16 && encoded.length != 24 && encoded.length != 32)) {
+			throw new IllegalArgumentException("secretKey must be a 128, 192 or 256 bit AES key");
+		}
+		if (segmentSize < 1 || segmentSize > AesGcmSegmentCipher.MAX_SEGMENT_SIZE) {
+			throw new IllegalArgumentException("segmentSize must be between 1 and 16 MiB");
+		}
+		this.secretKey = encoded;
+		this.segmentSize = segmentSize;
+	}
+
+	@Override
+	public OutputStream encrypt(OutputStream outputStream) {
+		if (outputStream == null) {
+			throw new IllegalArgumentException("outputStream cannot be null");
+		}
+		return new EncryptingOutputStream(outputStream, encrypter());
+	}
+
+	@Override
+	public InputStream decrypt(InputStream inputStream) {
+		if (inputStream == null) {
+			throw new IllegalArgumentException("inputStream cannot be null");
+		}
+		return new DecryptingInputStream(inputStream, decrypter());
+	}
+
+	AesGcmSegmentCipher encrypter() {
+		return AesGcmSegmentCipher.encrypter(this.secretKey, this.segmentSize);
+	}
+
+	AesGcmSegmentCipher decrypter() {
+		return AesGcmSegmentCipher.decrypter(this.secretKey);
+	}
+
+	private static final class EncryptingOutputStream extends OutputStream {
+
+		private final OutputStream out;
+
+		private final AesGcmSegmentCipher cipher;
+
+		private boolean closed;
+
+		private EncryptingOutputStream(OutputStream out, AesGcmSegmentCipher cipher) {
+			this.out = out;
+			this.cipher = cipher;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (this.closed) {
+				throw new IOException("Stream closed");
+			}
+			this.cipher.update(b, off, len, this.out::write);
+		}
+
+		/**
+		 * Flushes the segments encrypted so far. The bytes of the current segment are
+		 * only written once it is complete or the stream is closed.
+		 */
+		@Override
+		public void flush() throws IOException {
+			this.out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			try {
+				this.cipher.finish(this.out::write);
+			}
+			finally {
+				this.out.close();
+			}
+		}
+
+	}
+
+	private static final class DecryptingInputStream extends InputStream {
+
+		private final InputStream in;
+
+		private final AesGcmSegmentCipher cipher;
+
+		private final byte[] ciphertext = new byte[READ_BUFFER_SIZE];
+
+		private byte[] plaintext = new byte[READ_BUFFER_SIZE];
+
+		private int position;
+
+		private int limit;
+
+		private boolean finished;
+
+		private DecryptingInputStream(InputStream in, AesGcmSegmentCipher cipher) {
+			this.in = in;
+			this.cipher = cipher;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return (read(b, 0, 1) != -1) ? b[0] & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			while (this.position == this.limit) {
+				if (this.finished) {
+					return -1;
+				}
+				fill();
+			}
+			int read = Math.min(len, this.limit - this.position);
+			System.arraycopy(this.plaintext, this.position, b, off, read);
+			this.position += read;
+			return read;
+		}
+
+		@Override
+		public int available() {
+			return this.limit - this.position;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.finished = true;
+			this.position = this.limit;
+			this.in.close();
+		}
+
+		private void fill() throws IOException {
+			this.position = 0;
+			this.limit = 0;
+			int read = this.in.read(this.ciphertext);
+			if (read == -1) {
+				this.cipher.finish(this::append);
+				this.finished = true;
+			}
+			else {
+				this.cipher.update(this.ciphertext, 0, read, this::append);
+			}
+		}
+
+		private void append(byte[] bytes, int offset, int length) {
+			if (this.limit + length > this.plaintext.length) {
+				this.plaintext = Arrays.copyOf(this.plaintext,
+						Math.max(this.plaintext.length * 2, this.limit + length));
+			}
+			System.arraycopy(bytes, offset, this.plaintext, this.limit, length);
+			this.limit += length;
+		}
+
+	}
+
+}
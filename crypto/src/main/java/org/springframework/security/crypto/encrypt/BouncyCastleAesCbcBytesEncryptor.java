@@ -36,6 +36,11 @@ import org.springframework.security.crypto.util.EncodingUtils;
  */
 public class BouncyCastleAesCbcBytesEncryptor extends BouncyCastleAesBytesEncryptor {
 
+	@SuppressWarnings("deprecation")
+	private final InstancePool<PaddedBufferedBlockCipher> blockCiphers = new InstancePool<>(
+			() -> new PaddedBufferedBlockCipher(new CBCBlockCipher(new org.bouncycastle.crypto.engines.AESFastEngine()),
+					new PKCS7Padding()));
+
 	public BouncyCastleAesCbcBytesEncryptor(String password, CharSequence salt) {
 		super(password, salt);
 	}
@@ -45,25 +50,24 @@ public class BouncyCastleAesCbcBytesEncryptor extends BouncyCastleAesBytesEncryp
 	}
 
 	@Override
-	@SuppressWarnings("deprecation")
 	public byte[] encrypt(byte[] bytes) {
 		byte[] iv = this.ivGenerator.generateKey();
-		PaddedBufferedBlockCipher blockCipher = new PaddedBufferedBlockCipher(
-				new CBCBlockCipher(new org.bouncycastle.crypto.engines.AESFastEngine()), new PKCS7Padding());
+		PaddedBufferedBlockCipher blockCipher = this.blockCiphers.borrow();
 		blockCipher.init(true, new ParametersWithIV(this.secretKey, iv));
 		byte[] encrypted = process(blockCipher, bytes);
+		this.blockCiphers.release(blockCipher);
 		return (iv != null) ? EncodingUtils.concatenate(iv, encrypted) : encrypted;
 	}
 
 	@Override
-	@SuppressWarnings("deprecation")
 	public byte[] decrypt(byte[] encryptedBytes) {
 		byte[] iv = EncodingUtils.subArray(encryptedBytes, 0, this.ivGenerator.getKeyLength());
 		encryptedBytes = EncodingUtils.subArray(encryptedBytes, this.ivGenerator.getKeyLength(), encryptedBytes.length);
-		PaddedBufferedBlockCipher blockCipher = new PaddedBufferedBlockCipher(
-				new CBCBlockCipher(new org.bouncycastle.crypto.engines.AESFastEngine()), new PKCS7Padding());
+		PaddedBufferedBlockCipher blockCipher = this.blockCiphers.borrow();
 		blockCipher.init(false, new ParametersWithIV(this.secretKey, iv));
-		return process(blockCipher, encryptedBytes);
+		byte[] decrypted = process(blockCipher, encryptedBytes);
+		this.blockCiphers.release(blockCipher);
+		return decrypted;
 	}
 
 	private byte[] process(BufferedBlockCipher blockCipher, byte[] in) {
@@ -35,6 +35,10 @@ import org.springframework.security.crypto.util.EncodingUtils;
  */
 public class BouncyCastleAesGcmBytesEncryptor extends BouncyCastleAesBytesEncryptor {
 
+	@SuppressWarnings("deprecation")
+	private final InstancePool<GCMBlockCipher> blockCiphers = new InstancePool<>(
+			() -> new GCMBlockCipher(new org.bouncycastle.crypto.engines.AESFastEngine()));
+
 	public BouncyCastleAesGcmBytesEncryptor(String password, CharSequence salt) {
 		super(password, salt);
 	}
@@ -44,23 +48,24 @@ public class BouncyCastleAesGcmBytesEncryptor extends BouncyCastleAesBytesEncryp
 	}
 
 	@Override
-	@SuppressWarnings("deprecation")
 	public byte[] encrypt(byte[] bytes) {
 		byte[] iv = this.ivGenerator.generateKey();
-		GCMBlockCipher blockCipher = new GCMBlockCipher(new org.bouncycastle.crypto.engines.AESFastEngine());
+		GCMBlockCipher blockCipher = this.blockCiphers.borrow();
 		blockCipher.init(true, new AEADParameters(this.secretKey, 128, iv, null));
 		byte[] encrypted = process(blockCipher, bytes);
+		this.blockCiphers.release(blockCipher);
 		return (iv != null) ? EncodingUtils.concatenate(iv, encrypted) : encrypted;
 	}
 
 	@Override
-	@SuppressWarnings("deprecation")
 	public byte[] decrypt(byte[] encryptedBytes) {
 		byte[] iv = EncodingUtils.subArray(encryptedBytes, 0, this.ivGenerator.getKeyLength());
 		encryptedBytes = EncodingUtils.subArray(encryptedBytes, this.ivGenerator.getKeyLength(), encryptedBytes.length);
-		GCMBlockCipher blockCipher = new GCMBlockCipher(new org.bouncycastle.crypto.engines.AESFastEngine());
+		GCMBlockCipher blockCipher = this.blockCiphers.borrow();
 		blockCipher.init(false, new AEADParameters(this.secretKey, 128, iv, null));
-		return process(blockCipher, encryptedBytes);
+		byte[] decrypted = process(blockCipher, encryptedBytes);
+		this.blockCiphers.release(blockCipher);
+		return decrypted;
 	}
 
 	private byte[] process(AEADBlockCipher blockCipher, byte[] in) {
@@ -53,13 +53,28 @@ final class CipherUtils {
 	 * Generates a SecretKey.
 	 */
 	static SecretKey newSecretKey(String algorithm, PBEKeySpec keySpec) {
+		return newSecretKey(newSecretKeyFactory(algorithm), keySpec);
+	}
+
+	/**
+	 * Constructs a new SecretKeyFactory.
+	 */
+	static SecretKeyFactory newSecretKeyFactory(String algorithm) {
 		try {
-			SecretKeyFactory factory = SecretKeyFactory.getInstance(algorithm);
-			return factory.generateSecret(keySpec);
+			return SecretKeyFactory.getInstance(algorithm);
 		}
 		catch (NoSuchAlgorithmException ex) {
 			throw new IllegalArgumentException("Not a valid encryption algorithm", ex);
 		}
+	}
+
+	/**
+	 * Generates a SecretKey.
+	 */
+	static SecretKey newSecretKey(SecretKeyFactory factory, PBEKeySpec keySpec) {
+		try {
+			return factory.generateSecret(keySpec);
+		}
 		catch (InvalidKeySpecException ex) {
 			throw new IllegalArgumentException("Not a valid secret key", ex);
 		}
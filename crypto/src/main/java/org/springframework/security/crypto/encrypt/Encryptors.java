@@ -69,6 +69,23 @@ public final class Encryptors {
 		return new AesBytesEncryptor(password.toString(), salt, KeyGenerators.secureRandom(16));
 	}
 
+	/**
+	 * Creates a password-based streaming encryptor using 256 bit AES encryption with
+	 * Galois Counter Mode (GCM) on segments of 64 KiB, so that streams of any length are
+	 * encrypted with constant memory. Derives the secret key like
+	 * {@link #stronger(CharSequence, CharSequence)}, and each stream from it with a
+	 * random salt.
+	 * @param password the password used to generate the encryptor's secret key; should
+	 * not be shared
+	 * @param salt a hex-encoded, random, site-global salt value to use to generate the
+	 * key
+	 * @since 6.5
+	 * @see AesGcmStreamingBytesEncryptor
+	 */
+	public static StreamingBytesEncryptor streaming(CharSequence password, CharSequence salt) {
+		return new AesGcmStreamingBytesEncryptor(password.toString(), salt);
+	}
+
 	/**
 	 * Creates a text encryptor that uses "stronger" password-based encryption. Encrypted
 	 * text is hex-encoded.
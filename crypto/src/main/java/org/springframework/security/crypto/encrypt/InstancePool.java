@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * A pool of instances that are expensive to create and not thread-safe, such as
+ * {@link javax.crypto.Cipher}s, so that concurrent operations neither create an instance
+ * each nor wait for a shared one.
+ *
+ * <p>
+ * An instance is borrowed for a single operation, fully initialized by it, and released
+ * once the operation succeeds. An instance whose operation fails is not released, so an
+ * instance left in an unknown state is never reused. At most the maximum number of idle
+ * instances are kept; beyond that, released instances are discarded.
+ *
+ * @param <T> the type of the pooled instances
+ * @since 6.5
+ */
+final class InstancePool<T> {
+
+	private static final int DEFAULT_MAX_IDLE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	private final Supplier<T> factory;
+
+	private final BlockingQueue<T> idle;
+
+	InstancePool(Supplier<T> factory) {
+		this(factory, DEFAULT_MAX_IDLE);
+	}
+
+	InstancePool(Supplier<T> factory, int maxIdle) {
+		this.factory = factory;
+		this.idle = new ArrayBlockingQueue<>(maxIdle);
+	}
+
+	/**
+	 * Returns an idle instance, or a new one if there is none.
+	 * @return the instance
+	 */
+	T borrow() {
+		T instance = this.idle.poll();
+		return (instance != null) ? instance : this.factory.get();
+	}
+
+	/**
+	 * Returns an instance to the pool after a successful operation.
+	 * @param instance the instance
+	 */
+	void release(T instance) {
+		this.idle.offer(instance);
+	}
+
+	int getIdleCount() {
+		return this.idle.size();
+	}
+
+}
@@ -27,8 +27,13 @@ import java.security.interfaces.RSAPublicKey;
 import java.util.Base64;
 
 import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 import org.springframework.security.crypto.codec.Hex;
+import org.springframework.security.crypto.encrypt.AesBytesEncryptor.CipherAlgorithm;
+import org.springframework.security.crypto.keygen.BytesKeyGenerator;
 import org.springframework.security.crypto.keygen.KeyGenerators;
 
 /**
@@ -42,6 +47,10 @@ public class RsaSecretEncryptor implements BytesEncryptor, TextEncryptor, RsaKey
 	// The secret for encryption is random (so dictionary attack is not a danger)
 	private static final String DEFAULT_SALT = "deadbeef";
 
+	private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA1";
+
+	private static final BytesKeyGenerator secretGenerator = KeyGenerators.secureRandom(16);
+
 	private final String salt;
 
 	private RsaAlgorithm algorithm = RsaAlgorithm.DEFAULT;
@@ -56,6 +65,13 @@ public class RsaSecretEncryptor implements BytesEncryptor, TextEncryptor, RsaKey
 
 	private final boolean gcm;
 
+	private final InstancePool<Cipher> rsaCiphers;
+
+	private final InstancePool<Cipher> aesCiphers;
+
+	private final InstancePool<SecretKeyFactory> secretKeyFactories = new InstancePool<>(
+			() -> CipherUtils.newSecretKeyFactory(PBKDF2_ALGORITHM));
+
 	public RsaSecretEncryptor(RsaAlgorithm algorithm, String salt, boolean gcm) {
 		this(RsaKeyHelper.generateKeyPair(), algorithm, salt, gcm);
 	}
@@ -137,6 +153,8 @@ public class RsaSecretEncryptor implements BytesEncryptor, TextEncryptor, RsaKey
 		this.algorithm = algorithm;
 		this.salt = isHex(salt) ? salt : new String(Hex.encode(salt.getBytes(this.defaultCharset)));
 		this.gcm = gcm;
+		this.rsaCiphers = new InstancePool<>(() -> CipherUtils.newCipher(algorithm.getJceName()));
+		this.aesCiphers = new InstancePool<>(aesAlgorithm()::createCipher);
 	}
 
 	@Override
@@ -160,29 +178,16 @@ public class RsaSecretEncryptor implements BytesEncryptor, TextEncryptor, RsaKey
 
 	@Override
 	public byte[] encrypt(byte[] byteArray) {
-		return encrypt(byteArray, this.publicKey, this.algorithm, this.salt, this.gcm);
-	}
-
-	@Override
-	public byte[] decrypt(byte[] encryptedByteArray) {
-		if (!canDecrypt()) {
-			throw new IllegalStateException("Encryptor is not configured for decryption");
-		}
-		return decrypt(encryptedByteArray, this.privateKey, this.algorithm, this.salt, this.gcm);
-	}
-
-	private static byte[] encrypt(byte[] text, PublicKey key, RsaAlgorithm alg, String salt, boolean gcm) {
-		byte[] random = KeyGenerators.secureRandom(16).generateKey();
-		BytesEncryptor aes = gcm ? Encryptors.stronger(new String(Hex.encode(random)), salt)
-				: Encryptors.standard(new String(Hex.encode(random)), salt);
+		byte[] random = secretGenerator.generateKey();
 		try {
-			final Cipher cipher = Cipher.getInstance(alg.getJceName());
-			cipher.init(Cipher.ENCRYPT_MODE, key);
+			Cipher cipher = this.rsaCiphers.borrow();
+			cipher.init(Cipher.ENCRYPT_MODE, this.publicKey);
 			byte[] secret = cipher.doFinal(random);
-			ByteArrayOutputStream result = new ByteArrayOutputStream(text.length + 20);
+			this.rsaCiphers.release(cipher);
+			ByteArrayOutputStream result = new ByteArrayOutputStream(byteArray.length + 20);
 			writeInt(result, secret.length);
 			result.write(secret);
-			result.write(aes.encrypt(text));
+			result.write(aes(new String(Hex.encode(random))).encrypt(byteArray));
 			return result.toByteArray();
 		}
 		catch (RuntimeException ex) {
@@ -193,33 +198,24 @@ public class RsaSecretEncryptor implements BytesEncryptor, TextEncryptor, RsaKey
 		}
 	}
 
-	private static void writeInt(ByteArrayOutputStream result, int length) throws IOException {
-		byte[] data = new byte[2];
-		data[0] = (byte) ((length >> 8) & 0xFF);
-		data[1] = (byte) (length & 0xFF);
-		result.write(data);
-	}
-
-	private static int readInt(ByteArrayInputStream result) throws IOException {
-		byte[] b = new byte[2];
-		result.read(b);
-		return ((b[0] & 0xFF) << 8) | (b[1] & 0xFF);
-	}
-
-	private static byte[] decrypt(byte[] text, PrivateKey key, RsaAlgorithm alg, String salt, boolean gcm) {
-		ByteArrayInputStream input = new ByteArrayInputStream(text);
-		ByteArrayOutputStream output = new ByteArrayOutputStream(text.length);
+	@Override
+	public byte[] decrypt(byte[] encryptedByteArray) {
+		if (!canDecrypt()) {
+			throw new IllegalStateException("Encryptor is not configured for decryption");
+		}
+		ByteArrayInputStream input = new ByteArrayInputStream(encryptedByteArray);
+		ByteArrayOutputStream output = new ByteArrayOutputStream(encryptedByteArray.length);
 		try {
 			int length = readInt(input);
 			byte[] random = new byte[length];
 			input.read(random);
-			final Cipher cipher = Cipher.getInstance(alg.getJceName());
-			cipher.init(Cipher.DECRYPT_MODE, key);
+			Cipher cipher = this.rsaCiphers.borrow();
+			cipher.init(Cipher.DECRYPT_MODE, this.privateKey);
 			String secret = new String(Hex.encode(cipher.doFinal(random)));
-			byte[] buffer = new byte[text.length - random.length - 2];
+			this.rsaCiphers.release(cipher);
+			byte[] buffer = new byte[encryptedByteArray.length - random.length - 2];
 			input.read(buffer);
-			BytesEncryptor aes = gcm ? Encryptors.stronger(secret, salt) : Encryptors.standard(secret, salt);
-			output.write(aes.decrypt(buffer));
+			output.write(aes(secret).decrypt(buffer));
 			return output.toByteArray();
 		}
 		catch (RuntimeException ex) {
@@ -230,6 +226,37 @@ public class RsaSecretEncryptor implements BytesEncryptor, TextEncryptor, RsaKey
 		}
 	}
 
+	/**
+	 * Creates the encryptor of the data, equivalent to
+	 * {@link Encryptors#stronger(CharSequence, CharSequence)} or
+	 * {@link Encryptors#standard(CharSequence, CharSequence)}, but reusing the ciphers
+	 * and secret key factories of previous operations.
+	 */
+	private BytesEncryptor aes(String secret) {
+		SecretKeyFactory factory = this.secretKeyFactories.borrow();
+		SecretKey key = CipherUtils.newSecretKey(factory,
+				new PBEKeySpec(secret.toCharArray(), Hex.decode(this.salt), 1024, 256));
+		this.secretKeyFactories.release(factory);
+		return new AesBytesEncryptor(key, secretGenerator, aesAlgorithm(), this.aesCiphers);
+	}
+
+	private CipherAlgorithm aesAlgorithm() {
+		return this.gcm ? CipherAlgorithm.GCM : CipherAlgorithm.CBC;
+	}
+
+	private static void writeInt(ByteArrayOutputStream result, int length) throws IOException {
+		byte[] data = new byte[2];
+		data[0] = (byte) ((length >> 8) & 0xFF);
+		data[1] = (byte) (length & 0xFF);
+		result.write(data);
+	}
+
+	private static int readInt(ByteArrayInputStream result) throws IOException {
+		byte[] b = new byte[2];
+		result.read(b);
+		return ((b[0] & 0xFF) << 8) | (b[1] & 0xFF);
+	}
+
 	private static boolean isHex(String input) {
 		try {
 			Hex.decode(input);
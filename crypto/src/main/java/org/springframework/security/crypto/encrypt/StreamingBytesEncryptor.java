@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Service interface for symmetric encryption of streams, which unlike
+ * {@link BytesEncryptor} does not require the whole data to be held in memory.
+ *
+ * @since 6.5
+ * @see AesGcmStreamingBytesEncryptor
+ */
+public interface StreamingBytesEncryptor {
+
+	/**
+	 * Returns a stream that encrypts the bytes written to it into the provided stream.
+	 * The encryption is only complete once the returned stream is closed, which also
+	 * closes the provided stream.
+	 * @param outputStream the stream to write the encrypted bytes to
+	 * @return the stream to write the bytes to encrypt to
+	 */
+	OutputStream encrypt(OutputStream outputStream);
+
+	/**
+	 * Returns a stream that decrypts the bytes read from the provided stream. Closing the
+	 * returned stream also closes the provided stream.
+	 * @param inputStream the stream to read the encrypted bytes from
+	 * @return the stream to read the decrypted bytes from
+	 */
+	InputStream decrypt(InputStream inputStream);
+
+	/**
+	 * Returns a channel that encrypts the bytes written to it into the provided channel.
+	 * The encryption is only complete once the returned channel is closed, which also
+	 * closes the provided channel.
+	 * @param channel the channel to write the encrypted bytes to
+	 * @return the channel to write the bytes to encrypt to
+	 */
+	default WritableByteChannel encrypt(WritableByteChannel channel) {
+		return Channels.newChannel(encrypt(Channels.newOutputStream(channel)));
+	}
+
+	/**
+	 * Returns a channel that decrypts the bytes read from the provided channel. Closing
+	 * the returned channel also closes the provided channel.
+	 * @param channel the channel to read the encrypted bytes from
+	 * @return the channel to read the decrypted bytes from
+	 */
+	default ReadableByteChannel decrypt(ReadableByteChannel channel) {
+		return Channels.newChannel(decrypt(Channels.newInputStream(channel)));
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.factory;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+/**
+ * Creates password encoders whose work factor is calibrated to the current host, so that
+ * verifying a password takes about the target latency. Each method measures the time to
+ * verify a password with the Spring Security defaults and scales the work factor from
+ * there, so calibrating takes a few times the target latency and should be done once at
+ * startup.
+ *
+ * <p>
+ * The work factor is never lower than the Spring Security defaults, such as
+ * {@link BCryptPasswordEncoder#BCryptPasswordEncoder() a strength of 10}, even if a host
+ * cannot verify a password with them within the target latency. The memory used by SCrypt
+ * and Argon2 is only increased up to the {@link #setMaximumMemory(int) maximum memory}.
+ *
+ * <p>
+ * BCrypt, SCrypt and Argon2 record their work factor in the encoded password, so
+ * passwords encoded with a different work factor still match, and
+ * {@link PasswordEncoder#upgradeEncoding(String)} reports passwords encoded with a lower
+ * one. PBKDF2 does not, so a calibrated {@link Pbkdf2PasswordEncoder} only matches
+ * passwords encoded with the same iterations and its iterations should be recorded and
+ * configured explicitly rather than calibrated on each startup.
+ *
+ * @since 6.5
+ * @see PasswordEncoderFactories#createCalibratedDelegatingPasswordEncoder(Duration)
+ */
+public final class PasswordEncoderCalibrator {
+
+	private static final String PASSWORD = "calibration-password";
+
+	private static final int DEFAULT_BCRYPT_STRENGTH = 10;
+
+	private static final int MAX_BCRYPT_STRENGTH = 31;
+
+	private static final int DEFAULT_PBKDF2_ITERATIONS = 310000;
+
+	private static final int DEFAULT_SCRYPT_CPU_COST = 65536;
+
+	private static final int MAX_SCRYPT_CPU_COST = 1 << 20;
+
+	private static final int SCRYPT_MEMORY_COST = 8;
+
+	private static final int DEFAULT_ARGON2_MEMORY = 1 << 14;
+
+	private static final int DEFAULT_ARGON2_ITERATIONS = 2;
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final long targetNanos;
+
+	private int maximumMemory = 1 << 16;
+
+	private int samples = 3;
+
+	/**
+	 * Constructs a {@code PasswordEncoderCalibrator} using the provided parameters.
+	 * @param targetLatency the time verifying a password should take, for example 250
+	 * milliseconds
+	 */
+	public PasswordEncoderCalibrator(Duration targetLatency) {
+		if (targetLatency == null || targetLatency.isNegative() || targetLatency.isZero()) {
+			throw new IllegalArgumentException("targetLatency must be positive");
+		}
+		this.targetNanos = targetLatency.toNanos();
+	}
+
+	/**
+	 * Sets the maximum memory in kibibytes that a single SCrypt or Argon2 hash may use.
+	 * Defaults to 65536, that is 64 MiB.
+	 * @param maximumMemory the maximum memory in kibibytes
+	 */
+	public void setMaximumMemory(int maximumMemory) {
+		if (maximumMemory <= 0) {
+			throw new IllegalArgumentException("maximumMemory must be greater than 0");
+		}
+		this.maximumMemory = maximumMemory;
+	}
+
+	/**
+	 * Sets the number of times a password is verified to measure the latency, the median
+	 * of which is used. Defaults to 3.
+	 * @param samples the number of measurements
+	 */
+	public void setSamples(int samples) {
+		if (samples <= 0) {
+			throw new IllegalArgumentException("samples must be greater than 0");
+		}
+		this.samples = samples;
+	}
+
+	/**
+	 * Creates a {@link BCryptPasswordEncoder} with the highest strength whose latency
+	 * does not exceed the target.
+	 * @return the calibrated {@link BCryptPasswordEncoder}
+	 */
+	public BCryptPasswordEncoder bcrypt() {
+		int strength = bcryptStrength(factor(new BCryptPasswordEncoder(DEFAULT_BCRYPT_STRENGTH)));
+		this.logger.debug("Calibrated BCrypt strength " + strength);
+		return new BCryptPasswordEncoder(strength);
+	}
+
+	/**
+	 * Creates a {@link Pbkdf2PasswordEncoder} using
+	 * {@link Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm#PBKDF2WithHmacSHA256} with
+	 * the most iterations, in multiples of 1000, whose latency does not exceed the
+	 * target.
+	 * @return the calibrated {@link Pbkdf2PasswordEncoder}
+	 */
+	public Pbkdf2PasswordEncoder pbkdf2() {
+		int iterations = pbkdf2Iterations(factor(Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+		this.logger.debug("Calibrated PBKDF2 iterations " + iterations);
+		return new Pbkdf2PasswordEncoder("", 16, iterations,
+				Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+	}
+
+	/**
+	 * Creates a {@link SCryptPasswordEncoder} with the highest CPU cost whose latency
+	 * does not exceed the target and whose memory does not exceed the maximum memory.
+	 * @return the calibrated {@link SCryptPasswordEncoder}
+	 */
+	public SCryptPasswordEncoder scrypt() {
+		int cpuCost = scryptCpuCost(factor(SCryptPasswordEncoder.defaultsForSpringSecurity_v5_8()), this.maximumMemory);
+		this.logger.debug("Calibrated SCrypt CPU cost " + cpuCost);
+		return new SCryptPasswordEncoder(cpuCost, SCRYPT_MEMORY_COST, 1, 32, 16);
+	}
+
+	/**
+	 * Creates an {@link Argon2PasswordEncoder} whose latency does not exceed the target,
+	 * using as much of the maximum memory as the target allows before increasing the
+	 * iterations.
+	 * @return the calibrated {@link Argon2PasswordEncoder}
+	 */
+	public Argon2PasswordEncoder argon2() {
+		double factor = factor(Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+		int memory = argon2Memory(factor, this.maximumMemory);
+		int iterations = argon2Iterations(factor * DEFAULT_ARGON2_MEMORY / memory);
+		this.logger.debug("Calibrated Argon2 memory " + memory + " KiB and iterations " + iterations);
+		return new Argon2PasswordEncoder(16, 32, 1, memory, iterations);
+	}
+
+	/**
+	 * Returns how many times the latency of the encoder fits in the target latency.
+	 */
+	private double factor(PasswordEncoder encoder) {
+		String encoded = encoder.encode(PASSWORD);
+		long[] timings = new long[this.samples];
+		for (int i = 0; i < timings.length; i++) {
+			long start = System.nanoTime();
+			encoder.matches(PASSWORD, encoded);
+			timings[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(timings);
+		return (double) this.targetNanos / Math.max(1, timings[timings.length / 2]);
+	}
+
+	static int bcryptStrength(double factor) {
+		return Math.min(DEFAULT_BCRYPT_STRENGTH + doublings(factor), MAX_BCRYPT_STRENGTH);
+	}
+
+	static int pbkdf2Iterations(double factor) {
+		long iterations = (long) (DEFAULT_PBKDF2_ITERATIONS * factor) / 1000 * 1000;
+		return (int) Math.min(Integer.MAX_VALUE / 1000 * 1000, Math.max(DEFAULT_PBKDF2_ITERATIONS, iterations));
+	}
+
+	static int scryptCpuCost(double factor, int maximumMemory) {
+		int cpuCost = DEFAULT_SCRYPT_CPU_COST;
+		for (int i = doublings(factor); i > 0 && cpuCost < MAX_SCRYPT_CPU_COST
+				&& scryptMemory(cpuCost * 2L) <= maximumMemory; i--) {
+			cpuCost *= 2;
+		}
+		return cpuCost;
+	}
+
+	static int argon2Memory(double factor, int maximumMemory) {
+		int memory = DEFAULT_ARGON2_MEMORY;
+		for (int i = doublings(factor); i > 0 && memory * 2L <= maximumMemory; i--) {
+			memory *= 2;
+		}
+		return memory;
+	}
+
+	static int argon2Iterations(double factor) {
+		return (int) Math.min(Integer.MAX_VALUE,
+				Math.max(DEFAULT_ARGON2_ITERATIONS, DEFAULT_ARGON2_ITERATIONS * factor));
+	}
+
+	/**
+	 * Returns the memory in kibibytes used by SCrypt, which is 128 bytes times the CPU
+	 * cost times the memory cost.
+	 */
+	private static long scryptMemory(long cpuCost) {
+		return 128 * cpuCost * SCRYPT_MEMORY_COST / 1024;
+	}
+
+	/**
+	 * Returns how many times the work factor can be doubled within the factor.
+	 */
+	private static int doublings(double factor) {
+		if (factor < 2) {
+			return 0;
+		}
+		return (int) Math.floor(Math.log(factor) / Math.log(2));
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.security.crypto.factory;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -68,11 +69,36 @@ public final class PasswordEncoderFactories {
 	 * </ul>
 	 * @return the {@link PasswordEncoder} to use
 	 */
-	@SuppressWarnings("deprecation")
 	public static PasswordEncoder createDelegatingPasswordEncoder() {
+		return createDelegatingPasswordEncoder(new BCryptPasswordEncoder());
+	}
+
+	/**
+	 * Creates a {@link DelegatingPasswordEncoder} with the same mappings as
+	 * {@link #createDelegatingPasswordEncoder()}, except that passwords are encoded with
+	 * a {@link BCryptPasswordEncoder} whose strength is calibrated by a
+	 * {@link PasswordEncoderCalibrator} so that verifying a password takes about the
+	 * target latency on the current host.
+	 *
+	 * <p>
+	 * {@link PasswordEncoder#upgradeEncoding(String)} reports passwords encoded with a
+	 * lower strength or with another encoder, so that they are encoded again with the
+	 * calibrated strength when the user next logs in, for example through a
+	 * {@code UserDetailsPasswordService}.
+	 * @param targetLatency the time verifying a password should take, for example 250
+	 * milliseconds
+	 * @return the {@link PasswordEncoder} to use
+	 * @since 6.5
+	 */
+	public static PasswordEncoder createCalibratedDelegatingPasswordEncoder(Duration targetLatency) {
+		return createDelegatingPasswordEncoder(new PasswordEncoderCalibrator(targetLatency).bcrypt());
+	}
+
+	@SuppressWarnings("deprecation")
+	private static PasswordEncoder createDelegatingPasswordEncoder(BCryptPasswordEncoder bcrypt) {
 		String encodingId = "bcrypt";
 		Map<String, PasswordEncoder> encoders = new HashMap<>();
-		encoders.put(encodingId, new BCryptPasswordEncoder());
+		encoders.put(encodingId, bcrypt);
 		encoders.put("ldap", new org.springframework.security.crypto.password.LdapShaPasswordEncoder());
 		encoders.put("MD4", new org.springframework.security.crypto.password.Md4PasswordEncoder());
 		encoders.put("MD5", new org.springframework.security.crypto.password.MessageDigestPasswordEncoder("MD5"));
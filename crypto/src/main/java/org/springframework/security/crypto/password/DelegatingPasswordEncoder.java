@@ -16,8 +16,8 @@
 
 package org.springframework.security.crypto.password;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.util.StringUtils;
 
@@ -148,7 +148,7 @@ public class DelegatingPasswordEncoder implements PasswordEncoder {
 
 	private final PasswordEncoder passwordEncoderForEncode;
 
-	private final Map<String, PasswordEncoder> idToPasswordEncoder;
+	private final PasswordEncoders idToPasswordEncoder;
 
 	private PasswordEncoder defaultPasswordEncoderForMatches = new UnmappedIdPasswordEncoder();
 
@@ -206,7 +206,7 @@ public class DelegatingPasswordEncoder implements PasswordEncoder {
 		}
 		this.idForEncode = idForEncode;
 		this.passwordEncoderForEncode = idToPasswordEncoder.get(idForEncode);
-		this.idToPasswordEncoder = new HashMap<>(idToPasswordEncoder);
+		this.idToPasswordEncoder = new PasswordEncoders(idToPasswordEncoder);
 		this.idPrefix = idPrefix;
 		this.idSuffix = idSuffix;
 	}
@@ -242,39 +242,46 @@ public class DelegatingPasswordEncoder implements PasswordEncoder {
 		if (rawPassword == null && prefixEncodedPassword == null) {
 			return true;
 		}
-		String id = extractId(prefixEncodedPassword);
-		PasswordEncoder delegate = this.idToPasswordEncoder.get(id);
+		int idEnd = findIdEnd(prefixEncodedPassword);
+		PasswordEncoder delegate = (idEnd != -1)
+				? this.idToPasswordEncoder.get(prefixEncodedPassword, this.idPrefix.length(), idEnd)
+				: this.idToPasswordEncoder.getForNullId();
 		if (delegate == null) {
 			return this.defaultPasswordEncoderForMatches.matches(rawPassword, prefixEncodedPassword);
 		}
-		String encodedPassword = extractEncodedPassword(prefixEncodedPassword);
+		String encodedPassword = (idEnd != -1) ? prefixEncodedPassword.substring(idEnd + this.idSuffix.length())
+				: extractEncodedPassword(prefixEncodedPassword);
 		return delegate.matches(rawPassword, encodedPassword);
 	}
 
 	private String extractId(String prefixEncodedPassword) {
-		if (prefixEncodedPassword == null) {
-			return null;
-		}
-		int start = prefixEncodedPassword.indexOf(this.idPrefix);
-		if (start != 0) {
-			return null;
-		}
-		int end = prefixEncodedPassword.indexOf(this.idSuffix, start);
-		if (end < 0) {
-			return null;
+		int idEnd = findIdEnd(prefixEncodedPassword);
+		return (idEnd != -1) ? prefixEncodedPassword.substring(this.idPrefix.length(), idEnd) : null;
+	}
+
+	/**
+	 * Finds the id in place, without allocating it.
+	 * @return the index of the id suffix, or -1 if the password does not start with an id
+	 */
+	private int findIdEnd(String prefixEncodedPassword) {
+		if (prefixEncodedPassword == null || !prefixEncodedPassword.startsWith(this.idPrefix)) {
+			return -1;
 		}
-		return prefixEncodedPassword.substring(start + this.idPrefix.length(), end);
+		return prefixEncodedPassword.indexOf(this.idSuffix, this.idPrefix.length());
 	}
 
 	@Override
 	public boolean upgradeEncoding(String prefixEncodedPassword) {
-		String id = extractId(prefixEncodedPassword);
-		if (!this.idForEncode.equalsIgnoreCase(id)) {
+		int idEnd = findIdEnd(prefixEncodedPassword);
+		int idLength = idEnd - this.idPrefix.length();
+		if (idEnd == -1 || idLength != this.idForEncode.length()
+				|| !prefixEncodedPassword.regionMatches(true, this.idPrefix.length(), this.idForEncode, 0, idLength)) {
 			return true;
 		}
 		else {
-			String encodedPassword = extractEncodedPassword(prefixEncodedPassword);
-			return this.idToPasswordEncoder.get(id).upgradeEncoding(encodedPassword);
+			String encodedPassword = prefixEncodedPassword.substring(idEnd + this.idSuffix.length());
+			return this.idToPasswordEncoder.get(prefixEncodedPassword, this.idPrefix.length(), idEnd)
+				.upgradeEncoding(encodedPassword);
 		}
 	}
 
@@ -313,4 +320,87 @@ public class DelegatingPasswordEncoder implements PasswordEncoder {
 
 	}
 
+	/**
+	 * The {@link PasswordEncoder}s by id, looked up by a region of the encoded password
+	 * so that matching does not allocate the id. The ids are kept in an open addressing
+	 * table that is grown until the ids do not collide, up to a limit, so that a lookup
+	 * usually compares a single id.
+	 */
+	private static final class PasswordEncoders {
+
+		private static final int MAX_TABLE_SIZE = 1 << 12;
+
+		private final String[] ids;
+
+		private final PasswordEncoder[] passwordEncoders;
+
+		private final PasswordEncoder passwordEncoderForNullId;
+
+		private PasswordEncoders(Map<String, PasswordEncoder> idToPasswordEncoder) {
+			int size = Integer.highestOneBit(Math.max(1, idToPasswordEncoder.size()) * 2 - 1) << 1;
+			while (size < MAX_TABLE_SIZE && collides(idToPasswordEncoder.keySet(), size)) {
+				size <<= 1;
+			}
+			this.ids = new String[size];
+			this.passwordEncoders = new PasswordEncoder[size];
+			PasswordEncoder passwordEncoderForNullId = null;
+			for (Map.Entry<String, PasswordEncoder> entry : idToPasswordEncoder.entrySet()) {
+				if (entry.getKey() == null) {
+					passwordEncoderForNullId = entry.getValue();
+					continue;
+				}
+				int index = index(entry.getKey().hashCode(), size);
+				while (this.ids[index] != null) {
+					index = (index + 1) & (size - 1);
+				}
+				this.ids[index] = entry.getKey();
+				this.passwordEncoders[index] = entry.getValue();
+			}
+			this.passwordEncoderForNullId = passwordEncoderForNullId;
+		}
+
+		/**
+		 * Returns the {@link PasswordEncoder} for the id between the start and end of the
+		 * encoded password, or {@code null} if the id is not mapped.
+		 */
+		private PasswordEncoder get(String encodedPassword, int start, int end) {
+			int hash = 0;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + encodedPassword.charAt(i);
+			}
+			int length = end - start;
+			int mask = this.ids.length - 1;
+			for (int index = index(hash, this.ids.length); this.ids[index] != null; index = (index + 1) & mask) {
+				String id = this.ids[index];
+				if (id.length() == length && encodedPassword.regionMatches(start, id, 0, length)) {
+					return this.passwordEncoders[index];
+				}
+			}
+			return null;
+		}
+
+		private PasswordEncoder getForNullId() {
+			return this.passwordEncoderForNullId;
+		}
+
+		private static boolean collides(Set<String> ids, int size) {
+			boolean[] used = new boolean[size];
+			for (String id : ids) {
+				if (id != null) {
+					int index = index(id.hashCode(), size);
+					if (used[index]) {
+						return true;
+					}
+					used[index] = true;
+				}
+			}
+			return false;
+		}
+
+		private static int index(int hash, int size) {
+			return (hash ^ (hash >>> 16)) & (size - 1);
+		}
+
+	}
+
 }
@@ -16,6 +16,12 @@
 
 package org.springframework.security.crypto.encrypt;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import javax.crypto.SecretKey;
 import javax.crypto.spec.PBEKeySpec;
 
@@ -25,9 +31,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.crypto.encrypt.AesBytesEncryptor.CipherAlgorithm;
 import org.springframework.security.crypto.keygen.BytesKeyGenerator;
+import org.springframework.security.crypto.keygen.KeyGenerators;
 import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -96,4 +104,37 @@ public class AesBytesEncryptorTests {
 		assertThat(new String(decryption)).isEqualTo(this.secret);
 	}
 
+	@Test
+	public void decryptWhenPreviousDecryptFailedThenDecrypts() {
+		CryptoAssumptions.assumeGCMJCE();
+		AesBytesEncryptor encryptor = new AesBytesEncryptor(this.password, this.hexSalt, this.generator,
+				CipherAlgorithm.GCM);
+		byte[] encryption = encryptor.encrypt(this.secret.getBytes());
+		byte[] tampered = encryption.clone();
+		tampered[tampered.length - 1] ^= 1;
+		assertThatIllegalStateException().isThrownBy(() -> encryptor.decrypt(tampered));
+		assertThat(new String(encryptor.decrypt(encryption))).isEqualTo(this.secret);
+	}
+
+	@Test
+	public void encryptWhenConcurrentThenEncryptsAndDecrypts() throws Exception {
+		CryptoAssumptions.assumeGCMJCE();
+		AesBytesEncryptor encryptor = new AesBytesEncryptor(this.password, this.hexSalt, KeyGenerators.secureRandom(16),
+				CipherAlgorithm.GCM);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				String secret = this.secret + i;
+				results.add(executor.submit(() -> new String(encryptor.decrypt(encryptor.encrypt(secret.getBytes())))));
+			}
+			for (int i = 0; i < results.size(); i++) {
+				assertThat(results.get(i).get()).isEqualTo(this.secret + i);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AesGcmDataBufferEncryptor}
+ */
+public class AesGcmDataBufferEncryptorTests {
+
+	private static final int SEGMENT_SIZE = 64;
+
+	private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+	private AesGcmStreamingBytesEncryptor streamingEncryptor;
+
+	private AesGcmDataBufferEncryptor encryptor;
+
+	@BeforeEach
+	public void setUp() {
+		CryptoAssumptions.assumeGCMJCE();
+		this.streamingEncryptor = new AesGcmStreamingBytesEncryptor(new SecretKeySpec(new byte[32], "AES"),
+				SEGMENT_SIZE);
+		this.encryptor = new AesGcmDataBufferEncryptor(this.streamingEncryptor);
+	}
+
+	@Test
+	public void roundtripWhenBuffersThenEncryptsAndDecrypts() {
+		byte[] plaintext = bytes(1000);
+		Flux<DataBuffer> ciphertext = this.encryptor.encrypt(buffers(plaintext, 37), this.bufferFactory);
+		Flux<DataBuffer> decrypted = this.encryptor.decrypt(ciphertext, this.bufferFactory);
+		assertThat(join(decrypted)).isEqualTo(plaintext);
+	}
+
+	@Test
+	public void roundtripWhenEmptyThenEncryptsAndDecrypts() {
+		Flux<DataBuffer> ciphertext = this.encryptor.encrypt(Flux.empty(), this.bufferFactory);
+		assertThat(join(this.encryptor.decrypt(ciphertext, this.bufferFactory))).isEmpty();
+	}
+
+	@Test
+	public void decryptWhenEncryptedByStreamThenDecrypts() throws IOException {
+		byte[] plaintext = bytes(500);
+		ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+		try (OutputStream encrypting = this.streamingEncryptor.encrypt(ciphertext)) {
+			encrypting.write(plaintext);
+		}
+		Flux<DataBuffer> decrypted = this.encryptor.decrypt(buffers(ciphertext.toByteArray(), 100), this.bufferFactory);
+		assertThat(join(decrypted)).isEqualTo(plaintext);
+	}
+
+	@Test
+	public void encryptWhenDecryptedByStreamThenDecrypts() throws IOException {
+		byte[] plaintext = bytes(500);
+		byte[] ciphertext = join(this.encryptor.encrypt(buffers(plaintext, 100), this.bufferFactory));
+		byte[] decrypted = this.streamingEncryptor.decrypt(new ByteArrayInputStream(ciphertext)).readAllBytes();
+		assertThat(decrypted).isEqualTo(plaintext);
+	}
+
+	@Test
+	public void decryptWhenModifiedThenIOException() {
+		byte[] ciphertext = join(this.encryptor.encrypt(buffers(bytes(500), 100), this.bufferFactory));
+		ciphertext[ciphertext.length - 1] ^= 1;
+		StepVerifier.create(DataBufferUtils.join(this.encryptor.decrypt(buffers(ciphertext, 100), this.bufferFactory)))
+			.expectError(IOException.class)
+			.verify();
+	}
+
+	@Test
+	public void decryptWhenTruncatedThenIOException() {
+		byte[] ciphertext = join(this.encryptor.encrypt(buffers(bytes(500), 100), this.bufferFactory));
+		byte[] truncated = Arrays.copyOf(ciphertext, ciphertext.length - 20);
+		StepVerifier.create(DataBufferUtils.join(this.encryptor.decrypt(buffers(truncated, 100), this.bufferFactory)))
+			.expectError(IOException.class)
+			.verify();
+	}
+
+	private Flux<DataBuffer> buffers(byte[] bytes, int size) {
+		return Flux.range(0, (bytes.length + size - 1) / size)
+			.map((i) -> this.bufferFactory
+				.wrap(Arrays.copyOfRange(bytes, i * size, Math.min(bytes.length, (i + 1) * size))));
+	}
+
+	private static byte[] join(Flux<DataBuffer> buffers) {
+		DataBuffer joined = DataBufferUtils.join(buffers).block();
+		if (joined == null) {
+			return new byte[0];
+		}
+		byte[] bytes = new byte[joined.readableByteCount()];
+		joined.read(bytes);
+		return bytes;
+	}
+
+	private static byte[] bytes(int length) {
+		byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+
+}
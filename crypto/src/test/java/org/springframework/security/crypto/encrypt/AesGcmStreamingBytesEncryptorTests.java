@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link AesGcmStreamingBytesEncryptor}
+ */
+public class AesGcmStreamingBytesEncryptorTests {
+
+	private static final int SEGMENT_SIZE = 64;
+
+	private final SecretKey secretKey = new SecretKeySpec(new byte[32], "AES");
+
+	private AesGcmStreamingBytesEncryptor encryptor;
+
+	@BeforeEach
+	public void setUp() {
+		CryptoAssumptions.assumeGCMJCE();
+		this.encryptor = new AesGcmStreamingBytesEncryptor(this.secretKey, SEGMENT_SIZE);
+	}
+
+	@Test
+	public void constructorWhenKeyNotAesLengthThenIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new AesGcmStreamingBytesEncryptor(new SecretKeySpec(new byte[10], "AES")));
+	}
+
+	@Test
+	public void constructorWhenSegmentSizeNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new AesGcmStreamingBytesEncryptor(this.secretKey, 0));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 0, 1, SEGMENT_SIZE - 1, SEGMENT_SIZE, SEGMENT_SIZE + 1, 3 * SEGMENT_SIZE, 10_000 })
+	public void roundtripWhenLengthThenEncryptsAndDecrypts(int length) throws IOException {
+		byte[] plaintext = bytes(length);
+		byte[] ciphertext = encrypt(plaintext);
+		int segments = Math.max(1, (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+		assertThat(ciphertext)
+			.hasSize(AesGcmSegmentCipher.HEADER_LENGTH + length + segments * AesGcmSegmentCipher.TAG_LENGTH);
+		assertThat(decrypt(ciphertext)).isEqualTo(plaintext);
+	}
+
+	@Test
+	public void encryptWhenSamePlaintextThenDifferentCiphertext() throws IOException {
+		byte[] plaintext = bytes(100);
+		assertThat(encrypt(plaintext)).isNotEqualTo(encrypt(plaintext));
+	}
+
+	@Test
+	public void encryptWhenWrittenByteByByteThenSameAsWrittenAtOnce() throws IOException {
+		byte[] plaintext = bytes(200);
+		ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+		try (OutputStream encrypting = this.encryptor.encrypt(ciphertext)) {
+			for (byte b : plaintext) {
+				encrypting.write(b);
+			}
+		}
+		assertThat(decrypt(ciphertext.toByteArray())).isEqualTo(plaintext);
+	}
+
+	@Test
+	public void decryptWhenDifferentSegmentSizeThenDecrypts() throws IOException {
+		byte[] plaintext = bytes(1000);
+		byte[] ciphertext = encrypt(plaintext);
+		AesGcmStreamingBytesEncryptor other = new AesGcmStreamingBytesEncryptor(this.secretKey);
+		assertThat(other.decrypt(new ByteArrayInputStream(ciphertext)).readAllBytes()).isEqualTo(plaintext);
+	}
+
+	@Test
+	public void decryptWhenDifferentKeyThenIOException() throws IOException {
+		byte[] ciphertext = encrypt(bytes(100));
+		byte[] key = new byte[32];
+		key[0] = 1;
+		AesGcmStreamingBytesEncryptor other = new AesGcmStreamingBytesEncryptor(new SecretKeySpec(key, "AES"));
+		assertThatExceptionOfType(IOException.class)
+			.isThrownBy(() -> other.decrypt(new ByteArrayInputStream(ciphertext)).readAllBytes());
+	}
+
+	@Test
+	public void decryptWhenSegmentModifiedThenIOException() throws IOException {
+		byte[] ciphertext = encrypt(bytes(100));
+		ciphertext[AesGcmSegmentCipher.HEADER_LENGTH + 1] ^= 1;
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> decrypt(ciphertext))
+			.withMessage("Unable to authenticate segment 0");
+	}
+
+	@Test
+	public void decryptWhenHeaderModifiedThenIOException() throws IOException {
+		byte[] ciphertext = encrypt(bytes(100));
+		ciphertext[AesGcmSegmentCipher.HEADER_LENGTH - 1] ^= 1;
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> decrypt(ciphertext));
+	}
+
+	@Test
+	public void decryptWhenTruncatedAtSegmentBoundaryThenIOException() throws IOException {
+		byte[] ciphertext = encrypt(bytes(3 * SEGMENT_SIZE + 10));
+		byte[] truncated = Arrays.copyOf(ciphertext,
+				AesGcmSegmentCipher.HEADER_LENGTH + 2 * (SEGMENT_SIZE + AesGcmSegmentCipher.TAG_LENGTH));
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> decrypt(truncated))
+			.withMessage("Unable to authenticate segment 1");
+	}
+
+	@Test
+	public void decryptWhenSegmentsReorderedThenIOException() throws IOException {
+		byte[] ciphertext = encrypt(bytes(3 * SEGMENT_SIZE + 10));
+		int segment = SEGMENT_SIZE + AesGcmSegmentCipher.TAG_LENGTH;
+		int first = AesGcmSegmentCipher.HEADER_LENGTH;
+		byte[] reordered = ciphertext.clone();
+		System.arraycopy(ciphertext, first, reordered, first + segment, segment);
+		System.arraycopy(ciphertext, first + segment, reordered, first, segment);
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> decrypt(reordered))
+			.withMessage("Unable to authenticate segment 0");
+	}
+
+	@Test
+	public void decryptWhenMissingHeaderThenIOException() {
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> decrypt(new byte[10]))
+			.withMessage("The ciphertext is truncated");
+	}
+
+	@Test
+	public void decryptWhenUnsupportedVersionThenIOException() throws IOException {
+		byte[] ciphertext = encrypt(bytes(10));
+		ciphertext[0] = 2;
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> decrypt(ciphertext))
+			.withMessage("Unsupported ciphertext version 2");
+	}
+
+	@Test
+	public void decryptWhenSegmentAuthenticatedThenReturnedBeforeLaterSegmentFails() throws IOException {
+		byte[] plaintext = bytes(3 * SEGMENT_SIZE);
+		byte[] ciphertext = encrypt(plaintext);
+		ciphertext[ciphertext.length - 1] ^= 1;
+		InputStream decrypting = this.encryptor.decrypt(new ByteArrayInputStream(ciphertext));
+		assertThat(decrypting.readNBytes(SEGMENT_SIZE)).isEqualTo(Arrays.copyOf(plaintext, SEGMENT_SIZE));
+		assertThatExceptionOfType(IOException.class).isThrownBy(decrypting::readAllBytes);
+	}
+
+	@Test
+	public void roundtripWhenChannelsThenEncryptsAndDecrypts() throws IOException {
+		byte[] plaintext = bytes(1000);
+		ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+		try (WritableByteChannel encrypting = this.encryptor.encrypt(Channels.newChannel(ciphertext))) {
+			encrypting.write(ByteBuffer.wrap(plaintext));
+		}
+		try (ReadableByteChannel decrypting = this.encryptor
+			.decrypt(Channels.newChannel(new ByteArrayInputStream(ciphertext.toByteArray())))) {
+			assertThat(Channels.newInputStream(decrypting).readAllBytes()).isEqualTo(plaintext);
+		}
+	}
+
+	private byte[] encrypt(byte[] plaintext) throws IOException {
+		ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+		try (OutputStream encrypting = this.encryptor.encrypt(ciphertext)) {
+			encrypting.write(plaintext);
+		}
+		return ciphertext.toByteArray();
+	}
+
+	private byte[] decrypt(byte[] ciphertext) throws IOException {
+		try (InputStream decrypting = this.encryptor.decrypt(new ByteArrayInputStream(ciphertext))) {
+			return decrypting.readAllBytes();
+		}
+	}
+
+	private static byte[] bytes(int length) {
+		byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+
+}
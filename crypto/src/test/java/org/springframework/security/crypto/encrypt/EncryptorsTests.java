@@ -16,6 +16,11 @@
 
 package org.springframework.security.crypto.encrypt;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,6 +49,20 @@ public class EncryptorsTests {
 		assertThat(new String(result)).isNotEqualTo(new String(encryptor.encrypt("text".getBytes())));
 	}
 
+	@Test
+	public void streaming() throws Exception {
+		CryptoAssumptions.assumeGCMJCE();
+		StreamingBytesEncryptor encryptor = Encryptors.streaming("password", "5c0744940b5c369b");
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (OutputStream encrypting = encryptor.encrypt(result)) {
+			encrypting.write("text".getBytes("UTF-8"));
+		}
+		assertThat(new String(result.toByteArray()).contains("text")).isFalse();
+		try (InputStream decrypting = encryptor.decrypt(new ByteArrayInputStream(result.toByteArray()))) {
+			assertThat(new String(decrypting.readAllBytes(), "UTF-8")).isEqualTo("text");
+		}
+	}
+
 	@Test
 	public void preferred() {
 		CryptoAssumptions.assumeGCMJCE();
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.encrypt;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link InstancePool}
+ */
+public class InstancePoolTests {
+
+	private final AtomicInteger created = new AtomicInteger();
+
+	private final InstancePool<Object> pool = new InstancePool<>(this::create, 2);
+
+	@Test
+	public void borrowWhenNoIdleInstanceThenCreates() {
+		Object first = this.pool.borrow();
+		Object second = this.pool.borrow();
+		assertThat(first).isNotSameAs(second);
+		assertThat(this.created).hasValue(2);
+	}
+
+	@Test
+	public void borrowWhenReleasedThenReuses() {
+		Object instance = this.pool.borrow();
+		this.pool.release(instance);
+		assertThat(this.pool.borrow()).isSameAs(instance);
+		assertThat(this.created).hasValue(1);
+	}
+
+	@Test
+	public void releaseWhenMaxIdleThenDiscards() {
+		Object first = this.pool.borrow();
+		Object second = this.pool.borrow();
+		Object third = this.pool.borrow();
+		this.pool.release(first);
+		this.pool.release(second);
+		this.pool.release(third);
+		assertThat(this.pool.getIdleCount()).isEqualTo(2);
+	}
+
+	private Object create() {
+		this.created.incrementAndGet();
+		return new Object();
+	}
+
+}
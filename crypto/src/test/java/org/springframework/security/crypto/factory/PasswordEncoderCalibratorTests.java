@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.crypto.factory;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link PasswordEncoderCalibrator}
+ */
+public class PasswordEncoderCalibratorTests {
+
+	private final PasswordEncoderCalibrator calibrator = new PasswordEncoderCalibrator(Duration.ofNanos(1));
+
+	@Test
+	void constructorWhenTargetLatencyNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new PasswordEncoderCalibrator(Duration.ZERO));
+		assertThatIllegalArgumentException().isThrownBy(() -> new PasswordEncoderCalibrator(null));
+	}
+
+	@Test
+	void setSamplesWhenNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.calibrator.setSamples(0));
+	}
+
+	@Test
+	void setMaximumMemoryWhenNotPositiveThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.calibrator.setMaximumMemory(0));
+	}
+
+	@Test
+	void bcryptWhenHostTooSlowForTargetThenDefaultStrength() {
+		this.calibrator.setSamples(1);
+		BCryptPasswordEncoder encoder = this.calibrator.bcrypt();
+		String encoded = encoder.encode("password");
+		assertThat(encoded).startsWith("$2a$10$");
+		assertThat(encoder.matches("password", encoded)).isTrue();
+	}
+
+	@Test
+	void pbkdf2WhenHostTooSlowForTargetThenMatchesDefaults() {
+		this.calibrator.setSamples(1);
+		Pbkdf2PasswordEncoder encoder = this.calibrator.pbkdf2();
+		String encoded = Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password");
+		assertThat(encoder.matches("password", encoded)).isTrue();
+	}
+
+	@Test
+	void scryptWhenHostTooSlowForTargetThenDefaultsNotUpgraded() {
+		this.calibrator.setSamples(1);
+		SCryptPasswordEncoder encoder = this.calibrator.scrypt();
+		String encoded = SCryptPasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password");
+		assertThat(encoder.matches("password", encoded)).isTrue();
+		assertThat(encoder.upgradeEncoding(encoded)).isFalse();
+	}
+
+	@Test
+	void argon2WhenHostTooSlowForTargetThenDefaultsNotUpgraded() {
+		this.calibrator.setSamples(1);
+		Argon2PasswordEncoder encoder = this.calibrator.argon2();
+		String encoded = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password");
+		assertThat(encoder.matches("password", encoded)).isTrue();
+		assertThat(encoder.upgradeEncoding(encoded)).isFalse();
+	}
+
+	@Test
+	void bcryptStrengthWhenFactorThenDoublesStrength() {
+		assertThat(PasswordEncoderCalibrator.bcryptStrength(0.5)).isEqualTo(10);
+		assertThat(PasswordEncoderCalibrator.bcryptStrength(1.9)).isEqualTo(10);
+		assertThat(PasswordEncoderCalibrator.bcryptStrength(2)).isEqualTo(11);
+		assertThat(PasswordEncoderCalibrator.bcryptStrength(5)).isEqualTo(12);
+		assertThat(PasswordEncoderCalibrator.bcryptStrength(Double.MAX_VALUE)).isEqualTo(31);
+	}
+
+	@Test
+	void pbkdf2IterationsWhenFactorThenScalesIterations() {
+		assertThat(PasswordEncoderCalibrator.pbkdf2Iterations(0.5)).isEqualTo(310000);
+		assertThat(PasswordEncoderCalibrator.pbkdf2Iterations(1.5)).isEqualTo(465000);
+		assertThat(PasswordEncoderCalibrator.pbkdf2Iterations(3.33333)).isEqualTo(1033000);
+	}
+
+	@Test
+	void scryptCpuCostWhenFactorThenDoublesWithinMemory() {
+		assertThat(PasswordEncoderCalibrator.scryptCpuCost(0.5, 1 << 20)).isEqualTo(65536);
+		assertThat(PasswordEncoderCalibrator.scryptCpuCost(4, 1 << 20)).isEqualTo(262144);
+		assertThat(PasswordEncoderCalibrator.scryptCpuCost(4, 1 << 17)).isEqualTo(131072);
+		assertThat(PasswordEncoderCalibrator.scryptCpuCost(4, 1 << 16)).isEqualTo(65536);
+		assertThat(PasswordEncoderCalibrator.scryptCpuCost(Double.MAX_VALUE, Integer.MAX_VALUE)).isEqualTo(1 << 20);
+	}
+
+	@Test
+	void argon2WhenFactorThenMemoryBeforeIterations() {
+		assertThat(PasswordEncoderCalibrator.argon2Memory(0.5, 1 << 16)).isEqualTo(1 << 14);
+		assertThat(PasswordEncoderCalibrator.argon2Memory(3, 1 << 16)).isEqualTo(1 << 15);
+		assertThat(PasswordEncoderCalibrator.argon2Memory(16, 1 << 16)).isEqualTo(1 << 16);
+		assertThat(PasswordEncoderCalibrator.argon2Iterations(0.5)).isEqualTo(2);
+		assertThat(PasswordEncoderCalibrator.argon2Iterations(4)).isEqualTo(8);
+	}
+
+}
@@ -16,8 +16,11 @@
 
 package org.springframework.security.crypto.factory;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
 
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -123,4 +126,16 @@ public class PasswordEncoderFactoriesTests {
 		assertThat(this.encoder.matches(this.rawPassword, encodedPassword)).isTrue();
 	}
 
+	@Test
+	public void createCalibratedDelegatingPasswordEncoderWhenLowerStrengthThenUpgradeEncoding() {
+		PasswordEncoder encoder = PasswordEncoderFactories
+			.createCalibratedDelegatingPasswordEncoder(Duration.ofNanos(1));
+		String encodedPassword = encoder.encode(this.rawPassword);
+		assertThat(encodedPassword).startsWith("{bcrypt}$2a$10$");
+		assertThat(encoder.matches(this.rawPassword, encodedPassword)).isTrue();
+		assertThat(encoder.upgradeEncoding(encodedPassword)).isFalse();
+		assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode(this.rawPassword)))
+			.isTrue();
+	}
+
 }
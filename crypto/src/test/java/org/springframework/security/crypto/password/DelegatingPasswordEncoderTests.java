@@ -197,6 +197,25 @@ public class DelegatingPasswordEncoderTests {
 		verifyNoMoreInteractions(this.bcrypt);
 	}
 
+	@Test
+	public void matchesWhenManyIdsThenDelegatesToEncoderOfId() {
+		Map<String, PasswordEncoder> delegates = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			delegates.put("id" + i, new PlainTextPasswordEncoder("id" + i));
+		}
+		DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("id0", delegates);
+		for (int i = 0; i < 100; i++) {
+			assertThat(passwordEncoder.matches(this.rawPassword, "{id" + i + "}id" + i + this.rawPassword)).isTrue();
+		}
+	}
+
+	@Test
+	public void matchesWhenIdIsPrefixOfMappedIdThenIllegalArgumentException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.passwordEncoder.matches(this.rawPassword, "{bcry}" + this.encodedPassword));
+		verifyNoMoreInteractions(this.bcrypt, this.noop);
+	}
+
 	@Test
 	public void matchesWhenUnMappedThenIllegalArgumentException() {
 		assertThatIllegalArgumentException()
@@ -291,6 +310,14 @@ public class DelegatingPasswordEncoderTests {
 		verify(this.bcrypt).upgradeEncoding(this.encodedPassword);
 	}
 
+	@Test
+	public void upgradeEncodingWhenIdDiffersInCaseThenEncoderDecides() {
+		this.delegates.put("BCRYPT", this.bcrypt);
+		DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(this.bcryptId, this.delegates);
+		assertThat(passwordEncoder.upgradeEncoding("{BCRYPT}" + this.encodedPassword)).isFalse();
+		verify(this.bcrypt).upgradeEncoding(this.encodedPassword);
+	}
+
 	@Test
 	public void upgradeEncodingWhenDifferentIdThenTrue() {
 		assertThat(this.passwordEncoder.upgradeEncoding(this.noopEncodedPassword)).isTrue();
@@ -306,4 +333,24 @@ public class DelegatingPasswordEncoderTests {
 		verifyNoMoreInteractions(this.bcrypt, this.noop);
 	}
 
+	private static final class PlainTextPasswordEncoder implements PasswordEncoder {
+
+		private final String prefix;
+
+		private PlainTextPasswordEncoder(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return this.prefix + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+
+	}
+
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.codec;
+
+import java.util.List;
+
+import org.springframework.security.codec.BinaryCodecModule;
+import org.springframework.security.codec.BinaryInput;
+import org.springframework.security.codec.BinaryOutput;
+import org.springframework.security.codec.BinaryTypeCodec;
+import org.springframework.security.codec.SecurityBinaryCodecModules;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+/**
+ * The {@link BinaryCodecModule} for the types of {@code spring-security-oauth2-client}.
+ *
+ * @since 6.5
+ * @see SecurityBinaryCodecModules
+ */
+public final class OAuth2ClientBinaryCodecModule implements BinaryCodecModule {
+
+	@Override
+	public List<BinaryTypeCodec<?>> getTypeCodecs() {
+		return List.of(BinaryTypeCodec.of(64, OAuth2AuthenticationToken.class,
+				OAuth2ClientBinaryCodecModule::writeAuthenticationToken,
+				OAuth2ClientBinaryCodecModule::readAuthenticationToken));
+	}
+
+	private static void writeAuthenticationToken(OAuth2AuthenticationToken token, BinaryOutput output) {
+		output.writeObject(token.getPrincipal());
+		output.writeAuthorities(token.getAuthorities());
+		output.writeString(token.getAuthorizedClientRegistrationId());
+		output.writeObject(token.getDetails());
+	}
+
+	private static OAuth2AuthenticationToken readAuthenticationToken(BinaryInput input) {
+		OAuth2User principal = input.readObject(OAuth2User.class);
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		OAuth2AuthenticationToken token = new OAuth2AuthenticationToken(principal, authorities, input.readString());
+		token.setDetails(input.readObject());
+		return token;
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.client.codec;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.codec.BinarySecurityCodec;
+import org.springframework.security.codec.CoreBinaryCodecModule;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.authentication.TestOAuth2AuthenticationTokens;
+import org.springframework.security.oauth2.core.codec.OAuth2CoreBinaryCodecModule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OAuth2ClientBinaryCodecModule}
+ */
+public class OAuth2ClientBinaryCodecModuleTests {
+
+	private final BinarySecurityCodec codec = new BinarySecurityCodec(List.of(new CoreBinaryCodecModule(),
+			new OAuth2CoreBinaryCodecModule(), new OAuth2ClientBinaryCodecModule()));
+
+	@Test
+	void serializeWhenOAuth2AuthenticationTokenThenRoundTrips() throws Exception {
+		OAuth2AuthenticationToken token = TestOAuth2AuthenticationTokens.authenticated();
+		SecurityContextImpl context = new SecurityContextImpl(token);
+		assertThat(this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(context))).isEqualTo(context);
+	}
+
+	@Test
+	void serializeWhenOidcAuthenticationTokenThenRoundTrips() throws Exception {
+		OAuth2AuthenticationToken token = TestOAuth2AuthenticationTokens.oidcAuthenticated();
+		OAuth2AuthenticationToken deserialized = (OAuth2AuthenticationToken) this.codec
+			.deserializeFromByteArray(this.codec.serializeToByteArray(token));
+		assertThat(deserialized).isEqualTo(token);
+		assertThat(deserialized.getAuthorizedClientRegistrationId()).isEqualTo("registration-id");
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.codec;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.codec.BinaryCodecModule;
+import org.springframework.security.codec.BinaryInput;
+import org.springframework.security.codec.BinaryOutput;
+import org.springframework.security.codec.BinaryTypeCodec;
+import org.springframework.security.codec.SecurityBinaryCodecModules;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.DefaultOAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+
+/**
+ * The {@link BinaryCodecModule} for the types of {@code spring-security-oauth2-core}.
+ *
+ * <p>
+ * The name attribute key of a {@link DefaultOAuth2User} or {@link DefaultOidcUser} is not
+ * exposed, so it is written as the user name attribute name of its
+ * {@link OAuth2UserAuthority}, or otherwise as the first attribute whose value is the
+ * name of the user.
+ *
+ * @since 6.5
+ * @see SecurityBinaryCodecModules
+ */
+public final class OAuth2CoreBinaryCodecModule implements BinaryCodecModule {
+
+	@Override
+	public List<BinaryTypeCodec<?>> getTypeCodecs() {
+		return List.of(
+				BinaryTypeCodec.of(48, OAuth2AccessToken.class, OAuth2CoreBinaryCodecModule::writeAccessToken,
+						OAuth2CoreBinaryCodecModule::readAccessToken),
+				BinaryTypeCodec.of(49, OidcIdToken.class, OAuth2CoreBinaryCodecModule::writeIdToken,
+						OAuth2CoreBinaryCodecModule::readIdToken),
+				BinaryTypeCodec.of(50, OidcUserInfo.class,
+						(userInfo, output) -> output.writeObject(userInfo.getClaims()),
+						(input) -> new OidcUserInfo(input.readAttributes())),
+				BinaryTypeCodec.of(51, DefaultOAuth2User.class, OAuth2CoreBinaryCodecModule::writeOAuth2User,
+						OAuth2CoreBinaryCodecModule::readOAuth2User),
+				BinaryTypeCodec.of(52, DefaultOidcUser.class, OAuth2CoreBinaryCodecModule::writeOidcUser,
+						OAuth2CoreBinaryCodecModule::readOidcUser),
+				BinaryTypeCodec.of(53, OAuth2UserAuthority.class, OAuth2CoreBinaryCodecModule::writeUserAuthority,
+						OAuth2CoreBinaryCodecModule::readUserAuthority),
+				BinaryTypeCodec.of(54, OidcUserAuthority.class, OAuth2CoreBinaryCodecModule::writeOidcUserAuthority,
+						OAuth2CoreBinaryCodecModule::readOidcUserAuthority),
+				BinaryTypeCodec.of(55, DefaultOAuth2AuthenticatedPrincipal.class,
+						OAuth2CoreBinaryCodecModule::writeAuthenticatedPrincipal,
+						OAuth2CoreBinaryCodecModule::readAuthenticatedPrincipal));
+	}
+
+	private static void writeAccessToken(OAuth2AccessToken token, BinaryOutput output) {
+		output.writeString(token.getTokenType().getValue());
+		output.writeString(token.getTokenValue());
+		output.writeObject(token.getIssuedAt());
+		output.writeObject(token.getExpiresAt());
+		output.writeObject(token.getScopes());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static OAuth2AccessToken readAccessToken(BinaryInput input) {
+		String tokenType = input.readString();
+		OAuth2AccessToken.TokenType type = OAuth2AccessToken.TokenType.BEARER.getValue().equalsIgnoreCase(tokenType)
+				? OAuth2AccessToken.TokenType.BEARER : new OAuth2AccessToken.TokenType(tokenType);
+		return new OAuth2AccessToken(type, input.readString(), input.readObject(Instant.class),
+				input.readObject(Instant.class), input.readObject(Set.class));
+	}
+
+	private static void writeIdToken(OidcIdToken idToken, BinaryOutput output) {
+		output.writeString(idToken.getTokenValue());
+		output.writeObject(idToken.getIssuedAt());
+		output.writeObject(idToken.getExpiresAt());
+		output.writeObject(idToken.getClaims());
+	}
+
+	private static OidcIdToken readIdToken(BinaryInput input) {
+		return new OidcIdToken(input.readString(), input.readObject(Instant.class), input.readObject(Instant.class),
+				input.readAttributes());
+	}
+
+	private static void writeOAuth2User(DefaultOAuth2User user, BinaryOutput output) {
+		output.writeAuthorities(user.getAuthorities());
+		output.writeObject(user.getAttributes());
+		output.writeString(nameAttributeKey(user));
+	}
+
+	private static DefaultOAuth2User readOAuth2User(BinaryInput input) {
+		return new DefaultOAuth2User(input.readAuthorities(), input.readAttributes(), input.readString());
+	}
+
+	private static void writeOidcUser(DefaultOidcUser user, BinaryOutput output) {
+		output.writeAuthorities(user.getAuthorities());
+		output.writeObject(user.getIdToken());
+		output.writeObject(user.getUserInfo());
+		output.writeString(nameAttributeKey(user));
+	}
+
+	private static DefaultOidcUser readOidcUser(BinaryInput input) {
+		return new DefaultOidcUser(input.readAuthorities(), input.readObject(OidcIdToken.class),
+				input.readObject(OidcUserInfo.class), input.readString());
+	}
+
+	private static void writeUserAuthority(OAuth2UserAuthority authority, BinaryOutput output) {
+		output.writeString(authority.getAuthority());
+		output.writeObject(authority.getAttributes());
+		output.writeString(authority.getUserNameAttributeName());
+	}
+
+	private static OAuth2UserAuthority readUserAuthority(BinaryInput input) {
+		return new OAuth2UserAuthority(input.readString(), input.readAttributes(), input.readString());
+	}
+
+	private static void writeOidcUserAuthority(OidcUserAuthority authority, BinaryOutput output) {
+		output.writeString(authority.getAuthority());
+		output.writeObject(authority.getIdToken());
+		output.writeObject(authority.getUserInfo());
+		output.writeString(authority.getUserNameAttributeName());
+	}
+
+	private static OidcUserAuthority readOidcUserAuthority(BinaryInput input) {
+		return new OidcUserAuthority(input.readString(), input.readObject(OidcIdToken.class),
+				input.readObject(OidcUserInfo.class), input.readString());
+	}
+
+	private static void writeAuthenticatedPrincipal(DefaultOAuth2AuthenticatedPrincipal principal,
+			BinaryOutput output) {
+		output.writeString(principal.getName());
+		output.writeObject(principal.getAttributes());
+		output.writeAuthorities(principal.getAuthorities());
+	}
+
+	private static DefaultOAuth2AuthenticatedPrincipal readAuthenticatedPrincipal(BinaryInput input) {
+		String name = input.readString();
+		Map<String, Object> attributes = input.readAttributes();
+		Collection<GrantedAuthority> authorities = input.readAuthorities();
+		return new DefaultOAuth2AuthenticatedPrincipal(name, attributes, authorities);
+	}
+
+	private static String nameAttributeKey(OAuth2User user) {
+		String name = user.getName();
+		for (GrantedAuthority authority : user.getAuthorities()) {
+			if (authority instanceof OAuth2UserAuthority userAuthority) {
+				String key = userAuthority.getUserNameAttributeName();
+				if (key != null && isName(user.getAttributes().get(key), name)) {
+					return key;
+				}
+			}
+		}
+		for (Map.Entry<String, Object> attribute : user.getAttributes().entrySet()) {
+			if (isName(attribute.getValue(), name)) {
+				return attribute.getKey();
+			}
+		}
+		throw new IllegalArgumentException("Unable to find the name attribute of " + name);
+	}
+
+	private static boolean isName(Object value, String name) {
+		return value != null && value.toString().equals(name);
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.internal;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.util.Assert;
+
+/**
+ * A bounded cache of values keyed by token value, such as decoded JWTs or introspection
+ * results. An entry expires after the time to live it was stored with or at the given
+ * expiry, typically the token's own, whichever comes first.
+ *
+ * <p>
+ * When the cache is full, the least recently used entry is evicted.
+ *
+ * <p>
+ * Lookup results can be recorded with {@link #record(String)} as an {@link Observation}
+ * named after the cache.
+ *
+ * <p>
+ * For internal use only.
+ *
+ * @param <V> the type of the cached values
+ * @since 6.5
+ */
+public final class ExpiringTokenCache<V> {
+
+	private final Map<String, CachedValue<V>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final String observationName;
+
+	private final String resultKey;
+
+	private int maximumSize;
+
+	private Clock clock = Clock.systemUTC();
+
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	/**
+	 * Constructs an {@code ExpiringTokenCache} using the provided parameters.
+	 * @param maximumSize the maximum number of cached tokens
+	 * @param observationName the name of the {@link Observation} recorded for lookups
+	 * @param resultKey the key of the lookup result in the recorded {@link Observation}
+	 */
+	public ExpiringTokenCache(int maximumSize, String observationName, String resultKey) {
+		Assert.hasText(observationName, "observationName cannot be empty");
+		Assert.hasText(resultKey, "resultKey cannot be empty");
+		setMaximumSize(maximumSize);
+		this.observationName = observationName;
+		this.resultKey = resultKey;
+	}
+
+	/**
+	 * Returns the cached value for the token.
+	 * @param token the token value
+	 * @return the cached value or {@code null} if there is none or it has expired
+	 */
+	public V get(String token) {
+		Instant now = this.clock.instant();
+		synchronized (this.cache) {
+			CachedValue<V> cached = this.cache.get(token);
+			if (cached == null) {
+				return null;
+			}
+			if (!cached.expiresAt.isAfter(now)) {
+				this.cache.remove(token);
+				return null;
+			}
+			return cached.value;
+		}
+	}
+
+	/**
+	 * Caches the value for the time to live or until the expiry, whichever comes first,
+	 * unless it is already expired.
+	 * @param token the token value
+	 * @param value the value to cache
+	 * @param timeToLive the maximum time the value stays cached
+	 * @param expiresAt the time the value expires, or {@code null} if only the time to
+	 * live applies
+	 */
+	public void put(String token, V value, Duration timeToLive, Instant expiresAt) {
+		Assert.notNull(value, "value cannot be null");
+		Instant now = this.clock.instant();
+		Instant removeAt = now.plus(timeToLive);
+		if (expiresAt != null && expiresAt.isBefore(removeAt)) {
+			removeAt = expiresAt;
+		}
+		if (!removeAt.isAfter(now)) {
+			return;
+		}
+		synchronized (this.cache) {
+			this.cache.put(token, new CachedValue<>(value, removeAt));
+			evictLeastRecentlyUsed();
+		}
+	}
+
+	/**
+	 * Records the result of a lookup, for example {@code hit} or {@code miss}.
+	 * @param result the result of the lookup
+	 */
+	public void record(String result) {
+		Observation.createNotStarted(this.observationName, this.observationRegistry)
+			.lowCardinalityKeyValue(this.resultKey, result)
+			.start()
+			.stop();
+	}
+
+	/**
+	 * Removes all cached entries.
+	 */
+	public void clear() {
+		synchronized (this.cache) {
+			this.cache.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of cached entries, including expired entries not yet removed.
+	 * @return the number of cached entries
+	 */
+	public int size() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	/**
+	 * Sets the maximum number of cached tokens.
+	 * @param maximumSize the maximum number of cached tokens
+	 */
+	public void setMaximumSize(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		synchronized (this.cache) {
+			this.maximumSize = maximumSize;
+			evictLeastRecentlyUsed();
+		}
+	}
+
+	/**
+	 * Sets the {@link Clock} used to expire cached tokens.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets the {@link ObservationRegistry} used to record lookups. Defaults to
+	 * {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the {@link ObservationRegistry} to use
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	private void evictLeastRecentlyUsed() {
+		Iterator<CachedValue<V>> entries = this.cache.values().iterator();
+		for (int size = this.cache.size(); size > this.maximumSize; size--) {
+			entries.next();
+			entries.remove();
+		}
+	}
+
+	private static final class CachedValue<V> {
+
+		private final V value;
+
+		private final Instant expiresAt;
+
+		private CachedValue(V value, Instant expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.codec;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.codec.BinarySecurityCodec;
+import org.springframework.security.codec.CoreBinaryCodecModule;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.core.DefaultOAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.TestOAuth2AccessTokens;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.TestOidcUsers;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.TestOAuth2Users;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OAuth2CoreBinaryCodecModule}
+ */
+public class OAuth2CoreBinaryCodecModuleTests {
+
+	private final BinarySecurityCodec codec = new BinarySecurityCodec(
+			List.of(new CoreBinaryCodecModule(), new OAuth2CoreBinaryCodecModule()));
+
+	@Test
+	void serializeWhenAccessTokenThenRoundTrips() throws Exception {
+		OAuth2AccessToken token = TestOAuth2AccessTokens.scopes("read", "write");
+		OAuth2AccessToken deserialized = roundTrip(token);
+		assertThat(deserialized.getTokenType()).isEqualTo(OAuth2AccessToken.TokenType.BEARER);
+		assertThat(deserialized.getTokenValue()).isEqualTo(token.getTokenValue());
+		assertThat(deserialized.getIssuedAt()).isEqualTo(token.getIssuedAt());
+		assertThat(deserialized.getExpiresAt()).isEqualTo(token.getExpiresAt());
+		assertThat(deserialized.getScopes()).isEqualTo(token.getScopes());
+	}
+
+	@Test
+	void serializeWhenOidcUserThenRoundTrips() throws Exception {
+		DefaultOidcUser user = TestOidcUsers.create();
+		DefaultOidcUser deserialized = roundTrip(user);
+		assertThat(deserialized).isEqualTo(user);
+		assertThat(deserialized.getName()).isEqualTo("subject");
+		assertThat(deserialized.getIdToken().getClaims()).isEqualTo(user.getIdToken().getClaims());
+		assertThat(deserialized.getUserInfo().getClaims()).isEqualTo(user.getUserInfo().getClaims());
+	}
+
+	@Test
+	void serializeWhenOAuth2UserThenRoundTrips() throws Exception {
+		DefaultOAuth2User user = TestOAuth2Users.create();
+		DefaultOAuth2User deserialized = roundTrip(user);
+		assertThat(deserialized).isEqualTo(user);
+		assertThat(deserialized.getName()).isEqualTo("user");
+	}
+
+	@Test
+	void serializeWhenOAuth2UserWithoutUserAuthorityThenNameAttributeFromAttributes() throws Exception {
+		DefaultOAuth2User user = new DefaultOAuth2User(AuthorityUtils.createAuthorityList("SCOPE_read"),
+				Map.of("id", 1234, "login", "octocat"), "login");
+		DefaultOAuth2User deserialized = roundTrip(user);
+		assertThat(deserialized).isEqualTo(user);
+		assertThat(deserialized.getName()).isEqualTo("octocat");
+	}
+
+	@Test
+	void serializeWhenAuthenticatedPrincipalThenRoundTrips() throws Exception {
+		DefaultOAuth2AuthenticatedPrincipal principal = new DefaultOAuth2AuthenticatedPrincipal("user",
+				Map.of("sub", "user", "scope", "read"), AuthorityUtils.createAuthorityList("SCOPE_read"));
+		DefaultOAuth2AuthenticatedPrincipal deserialized = roundTrip(principal);
+		assertThat(deserialized.getName()).isEqualTo("user");
+		assertThat(deserialized.getAttributes()).isEqualTo(principal.getAttributes());
+		assertThat(AuthorityUtils.authorityListToSet(deserialized.getAuthorities())).containsExactly("SCOPE_read");
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T roundTrip(T value) throws Exception {
+		return (T) this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(value));
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.core.internal;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ExpiringTokenCache}.
+ */
+public class ExpiringTokenCacheTests {
+
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+	private final ExpiringTokenCache<String> cache = new ExpiringTokenCache<>(10, "cache", "cache.result");
+
+	@BeforeEach
+	public void setup() {
+		this.cache.setClock(clock(NOW));
+	}
+
+	@Test
+	public void constructorWhenMaximumSizeNotPositiveThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ExpiringTokenCache<>(0, "cache", "cache.result"));
+	}
+
+	@Test
+	public void getWhenPutThenReturnsValue() {
+		this.cache.put("token", "value", Duration.ofMinutes(5), null);
+		assertThat(this.cache.get("token")).isEqualTo("value");
+		assertThat(this.cache.get("other")).isNull();
+	}
+
+	@Test
+	public void getWhenExpiresBeforeTimeToLiveThenNullAfterExpiry() {
+		this.cache.put("token", "value", Duration.ofMinutes(5), NOW.plusSeconds(60));
+		this.cache.setClock(clock(NOW.plusSeconds(60)));
+		assertThat(this.cache.get("token")).isNull();
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void getWhenTimeToLiveElapsedThenNull() {
+		this.cache.put("token", "value", Duration.ofMinutes(5), NOW.plus(Duration.ofHours(1)));
+		this.cache.setClock(clock(NOW.plus(Duration.ofMinutes(4))));
+		assertThat(this.cache.get("token")).isNotNull();
+		this.cache.setClock(clock(NOW.plus(Duration.ofMinutes(5))));
+		assertThat(this.cache.get("token")).isNull();
+	}
+
+	@Test
+	public void putWhenAlreadyExpiredThenNotCached() {
+		this.cache.put("token", "value", Duration.ofMinutes(5), NOW);
+		this.cache.put("other", "value", Duration.ZERO, null);
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void putWhenFullThenEvicts() {
+		for (int i = 0; i < 25; i++) {
+			this.cache.put("token" + i, "value", Duration.ofMinutes(5), null);
+			assertThat(this.cache.size()).isLessThanOrEqualTo(10);
+		}
+		assertThat(this.cache.get("token24")).isNotNull();
+	}
+
+	@Test
+	public void putWhenFullThenEvictsLeastRecentlyUsed() {
+		for (int i = 0; i < 10; i++) {
+			this.cache.put("token" + i, "value", Duration.ofMinutes(5), null);
+		}
+		assertThat(this.cache.get("token0")).isNotNull();
+		this.cache.put("token10", "value", Duration.ofMinutes(5), null);
+		assertThat(this.cache.size()).isEqualTo(10);
+		assertThat(this.cache.get("token0")).isNotNull();
+		assertThat(this.cache.get("token1")).isNull();
+	}
+
+	private static Clock clock(Instant instant) {
+		return Clock.fixed(instant, ZoneOffset.UTC);
+	}
+
+}
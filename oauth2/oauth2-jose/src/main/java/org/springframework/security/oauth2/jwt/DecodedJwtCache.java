@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.security.oauth2.core.internal.ExpiringTokenCache;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded cache of decoded and verified {@link Jwt}s keyed by their token value. An
+ * entry expires after the configured time to live or at the token's {@code exp} claim,
+ * whichever comes first, and entries are evicted as described in
+ * {@link ExpiringTokenCache}.
+ *
+ * <p>
+ * Each lookup is recorded as a {@code spring.security.jwt.cache} {@link Observation} with
+ * a {@code jwt.cache.result} key of {@code hit} or {@code miss}.
+ *
+ * @since 6.5
+ */
+final class DecodedJwtCache {
+
+	static final String OBSERVATION_NAME = "spring.security.jwt.cache";
+
+	static final String RESULT_KEY = "jwt.cache.result";
+
+	private final ExpiringTokenCache<Jwt> cache;
+
+	private final Duration timeToLive;
+
+	DecodedJwtCache(int maximumSize, Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		this.cache = new ExpiringTokenCache<>(maximumSize, OBSERVATION_NAME, RESULT_KEY);
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Returns the cached {@link Jwt} for the token.
+	 * @param token the token value
+	 * @return the cached {@link Jwt} or {@code null} if there is none or it has expired
+	 */
+	Jwt get(String token) {
+		Jwt jwt = this.cache.get(token);
+		this.cache.record((jwt != null) ? "hit" : "miss");
+		return jwt;
+	}
+
+	/**
+	 * Caches the {@link Jwt} under its token value, unless it is already expired.
+	 * @param jwt the decoded and verified {@link Jwt}
+	 */
+	void put(Jwt jwt) {
+		this.cache.put(jwt.getTokenValue(), jwt, this.timeToLive, jwt.getExpiresAt());
+	}
+
+	/**
+	 * Removes all cached entries.
+	 */
+	void clear() {
+		this.cache.clear();
+	}
+
+	int size() {
+		return this.cache.size();
+	}
+
+	void setClock(Clock clock) {
+		this.cache.setClock(clock);
+	}
+
+	void setObservationRegistry(ObservationRegistry observationRegistry) {
+		this.cache.setObservationRegistry(observationRegistry);
+	}
+
+}
@@ -21,6 +21,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -53,6 +54,7 @@ import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
 import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.nimbusds.jwt.proc.JWTProcessor;
+import io.micrometer.observation.ObservationRegistry;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -95,6 +97,8 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 
 	private OAuth2TokenValidator<Jwt> jwtValidator = JwtValidators.createDefault();
 
+	private DecodedJwtCache jwtCache;
+
 	/**
 	 * Configures a {@link NimbusJwtDecoder} with the given parameters
 	 * @param jwtProcessor - the {@link JWTProcessor} to use
@@ -120,6 +124,13 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 	public void setClaimSetConverter(Converter<Map<String, Object>, Map<String, Object>> claimSetConverter) {
 		Assert.notNull(claimSetConverter, "claimSetConverter cannot be null");
 		this.claimSetConverter = claimSetConverter;
+		if (this.jwtCache != null) {
+			this.jwtCache.clear();
+		}
+	}
+
+	void setJwtCache(DecodedJwtCache jwtCache) {
+		this.jwtCache = jwtCache;
 	}
 
 	/**
@@ -130,13 +141,23 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 	 */
 	@Override
 	public Jwt decode(String token) throws JwtException {
+		if (this.jwtCache != null) {
+			Jwt cachedJwt = this.jwtCache.get(token);
+			if (cachedJwt != null) {
+				return validateJwt(cachedJwt);
+			}
+		}
 		JWT jwt = parse(token);
 		if (jwt instanceof PlainJWT) {
 			this.logger.trace("Failed to decode unsigned token");
 			throw new BadJwtException("Unsupported algorithm of " + jwt.getHeader().getAlgorithm());
 		}
 		Jwt createdJwt = createJwt(token, jwt);
-		return validateJwt(createdJwt);
+		Jwt validatedJwt = validateJwt(createdJwt);
+		if (this.jwtCache != null) {
+			this.jwtCache.put(validatedJwt);
+		}
+		return validatedJwt;
 	}
 
 	private JWT parse(String token) {
@@ -277,6 +298,12 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 
 		private Consumer<ConfigurableJWTProcessor<SecurityContext>> jwtProcessorCustomizer;
 
+		private int jwtCacheMaximumSize;
+
+		private Duration jwtCacheTimeToLive;
+
+		private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
 		private JwkSetUriJwtDecoderBuilder(String jwkSetUri) {
 			Assert.hasText(jwkSetUri, "jwkSetUri cannot be empty");
 			this.jwkSetUri = (rest) -> jwkSetUri;
@@ -364,6 +391,38 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 			return this;
 		}
 
+		/**
+		 * Cache decoded and verified JWTs so that a token presented again within its
+		 * lifetime is not parsed and verified again. The configured
+		 * {@link OAuth2TokenValidator} still runs each time the token is decoded. Entries
+		 * expire after {@code timeToLive} or at the token's {@code exp} claim, whichever
+		 * comes first.
+		 * @param maximumSize the maximum number of cached JWTs
+		 * @param timeToLive the maximum time a JWT stays cached
+		 * @return a {@link JwkSetUriJwtDecoderBuilder} for further configurations
+		 * @since 6.5
+		 */
+		public JwkSetUriJwtDecoderBuilder jwtCache(int maximumSize, Duration timeToLive) {
+			Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+			Assert.notNull(timeToLive, "timeToLive cannot be null");
+			this.jwtCacheMaximumSize = maximumSize;
+			this.jwtCacheTimeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Use this {@link ObservationRegistry} to record hits and misses of the cache
+		 * configured with {@link #jwtCache(int, Duration)}.
+		 * @param observationRegistry the {@link ObservationRegistry} to use
+		 * @return a {@link JwkSetUriJwtDecoderBuilder} for further configurations
+		 * @since 6.5
+		 */
+		public JwkSetUriJwtDecoderBuilder observationRegistry(ObservationRegistry observationRegistry) {
+			Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+			this.observationRegistry = observationRegistry;
+			return this;
+		}
+
 		JWSKeySelector<SecurityContext> jwsKeySelector(JWKSource<SecurityContext> jwkSource) {
 			if (this.signatureAlgorithms.isEmpty()) {
 				return new JWSVerificationKeySelector<>(this.defaultAlgorithms.apply(jwkSource), jwkSource);
@@ -402,7 +461,13 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 		 * @return the configured {@link NimbusJwtDecoder}
 		 */
 		public NimbusJwtDecoder build() {
-			return new NimbusJwtDecoder(processor());
+			NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(processor());
+			if (this.jwtCacheTimeToLive != null) {
+				DecodedJwtCache jwtCache = new DecodedJwtCache(this.jwtCacheMaximumSize, this.jwtCacheTimeToLive);
+				jwtCache.setObservationRegistry(this.observationRegistry);
+				jwtDecoder.setJwtCache(jwtCache);
+			}
+			return jwtDecoder;
 		}
 
 		private static URL toURL(String url) {
@@ -507,6 +572,12 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 
 		private Consumer<ConfigurableJWTProcessor<SecurityContext>> jwtProcessorCustomizer;
 
+		private int jwtCacheMaximumSize;
+
+		private Duration jwtCacheTimeToLive;
+
+		private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
 		private PublicKeyJwtDecoderBuilder(RSAPublicKey key) {
 			Assert.notNull(key, "key cannot be null");
 			this.jwsAlgorithm = JWSAlgorithm.RS256;
@@ -547,6 +618,38 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 			return this;
 		}
 
+		/**
+		 * Cache decoded and verified JWTs so that a token presented again within its
+		 * lifetime is not parsed and verified again. The configured
+		 * {@link OAuth2TokenValidator} still runs each time the token is decoded. Entries
+		 * expire after {@code timeToLive} or at the token's {@code exp} claim, whichever
+		 * comes first.
+		 * @param maximumSize the maximum number of cached JWTs
+		 * @param timeToLive the maximum time a JWT stays cached
+		 * @return a {@link PublicKeyJwtDecoderBuilder} for further configurations
+		 * @since 6.5
+		 */
+		public PublicKeyJwtDecoderBuilder jwtCache(int maximumSize, Duration timeToLive) {
+			Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+			Assert.notNull(timeToLive, "timeToLive cannot be null");
+			this.jwtCacheMaximumSize = maximumSize;
+			this.jwtCacheTimeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Use this {@link ObservationRegistry} to record hits and misses of the cache
+		 * configured with {@link #jwtCache(int, Duration)}.
+		 * @param observationRegistry the {@link ObservationRegistry} to use
+		 * @return a {@link PublicKeyJwtDecoderBuilder} for further configurations
+		 * @since 6.5
+		 */
+		public PublicKeyJwtDecoderBuilder observationRegistry(ObservationRegistry observationRegistry) {
+			Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+			this.observationRegistry = observationRegistry;
+			return this;
+		}
+
 		JWTProcessor<SecurityContext> processor() {
 			Assert.state(JWSAlgorithm.Family.RSA.contains(this.jwsAlgorithm),
 					() -> "The provided key is of type RSA; however the signature algorithm is of some other type: "
@@ -566,7 +669,13 @@ public final class NimbusJwtDecoder implements JwtDecoder {
 		 * @return the configured {@link NimbusJwtDecoder}
 		 */
 		public NimbusJwtDecoder build() {
-			return new NimbusJwtDecoder(processor());
+			NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(processor());
+			if (this.jwtCacheTimeToLive != null) {
+				DecodedJwtCache jwtCache = new DecodedJwtCache(this.jwtCacheMaximumSize, this.jwtCacheTimeToLive);
+				jwtCache.setObservationRegistry(this.observationRegistry);
+				jwtDecoder.setJwtCache(jwtCache);
+			}
+			return jwtDecoder;
 		}
 
 	}
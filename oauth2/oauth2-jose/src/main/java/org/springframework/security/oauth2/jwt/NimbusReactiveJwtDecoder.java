@@ -52,12 +52,14 @@ import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
 import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.nimbusds.jwt.proc.JWTProcessor;
+import io.micrometer.observation.ObservationRegistry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.internal.InFlightRequests;
 import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
@@ -98,6 +100,10 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 	private Converter<Map<String, Object>, Map<String, Object>> claimSetConverter = MappedJwtClaimSetConverter
 		.withDefaults(Collections.emptyMap());
 
+	private DecodedJwtCache jwtCache;
+
+	private final InFlightRequests<String, Jwt> decodeRequests = new InFlightRequests<>();
+
 	/**
 	 * Constructs a {@code NimbusReactiveJwtDecoder} using the provided parameters.
 	 * @param jwkSetUrl the JSON Web Key (JWK) Set {@code URL}
@@ -141,16 +147,36 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 	public void setClaimSetConverter(Converter<Map<String, Object>, Map<String, Object>> claimSetConverter) {
 		Assert.notNull(claimSetConverter, "claimSetConverter cannot be null");
 		this.claimSetConverter = claimSetConverter;
+		if (this.jwtCache != null) {
+			this.jwtCache.clear();
+		}
+	}
+
+	void setJwtCache(DecodedJwtCache jwtCache) {
+		this.jwtCache = jwtCache;
 	}
 
 	@Override
 	public Mono<Jwt> decode(String token) {
+		if (this.jwtCache == null) {
+			return validate(verify(token));
+		}
+		return Mono.defer(() -> {
+			Jwt cachedJwt = this.jwtCache.get(token);
+			if (cachedJwt != null) {
+				return validate(Mono.just(cachedJwt));
+			}
+			return validate(this.decodeRequests.share(token, () -> verify(token))).doOnNext(this.jwtCache::put);
+		});
+	}
+
+	private Mono<Jwt> verify(String token) {
 		try {
 			JWT jwt = JWTParser.parse(token);
 			if (jwt instanceof PlainJWT) {
 				return Mono.error(new BadJwtException("Unsupported algorithm of " + jwt.getHeader().getAlgorithm()));
 			}
-			return this.decode(jwt);
+			return this.verify(jwt);
 		}
 		catch (Exception ex) {
 			return Mono.error(new BadJwtException(
@@ -158,15 +184,9 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 		}
 	}
 
-	private Mono<Jwt> decode(JWT parsedToken) {
+	private Mono<Jwt> verify(JWT parsedToken) {
 		try {
-			// @formatter:off
-			return this.jwtProcessor.convert(parsedToken)
-					.map((set) -> createJwt(parsedToken, set))
-					.map(this::validateJwt)
-					.onErrorMap((ex) -> !(ex instanceof IllegalStateException) && !(ex instanceof JwtException),
-							(ex) -> new JwtException("An error occurred while attempting to decode the Jwt: ", ex));
-			// @formatter:on
+			return this.jwtProcessor.convert(parsedToken).map((set) -> createJwt(parsedToken, set));
 		}
 		catch (JwtException ex) {
 			throw ex;
@@ -176,6 +196,14 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 		}
 	}
 
+	private Mono<Jwt> validate(Mono<Jwt> jwt) {
+		// @formatter:off
+		return jwt.map(this::validateJwt)
+				.onErrorMap((ex) -> !(ex instanceof IllegalStateException) && !(ex instanceof JwtException),
+						(ex) -> new JwtException("An error occurred while attempting to decode the Jwt: ", ex));
+		// @formatter:on
+	}
+
 	private Jwt createJwt(JWT parsedJwt, JWTClaimsSet jwtClaimsSet) {
 		try {
 			Map<String, Object> headers = new LinkedHashMap<>(parsedJwt.getHeader().toJSONObject());
@@ -321,6 +349,12 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 
 		private BiFunction<ReactiveRemoteJWKSource, ConfigurableJWTProcessor<JWKSecurityContext>, Mono<ConfigurableJWTProcessor<JWKSecurityContext>>> jwtProcessorCustomizer;
 
+		private int jwtCacheMaximumSize;
+
+		private Duration jwtCacheTimeToLive;
+
+		private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
 		private JwkSetUriReactiveJwtDecoderBuilder(String jwkSetUri) {
 			Assert.hasText(jwkSetUri, "jwkSetUri cannot be empty");
 			this.jwkSetUri = (web) -> Mono.just(jwkSetUri);
@@ -403,12 +437,51 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 			return this;
 		}
 
+		/**
+		 * Cache decoded and verified JWTs so that a token presented again within its
+		 * lifetime is not parsed and verified again, and so that concurrent decodes of
+		 * the same token share one verification. The configured
+		 * {@link OAuth2TokenValidator} still runs each time the token is decoded. Entries
+		 * expire after {@code timeToLive} or at the token's {@code exp} claim, whichever
+		 * comes first.
+		 * @param maximumSize the maximum number of cached JWTs
+		 * @param timeToLive the maximum time a JWT stays cached
+		 * @return a {@link JwkSetUriReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.5
+		 */
+		public JwkSetUriReactiveJwtDecoderBuilder jwtCache(int maximumSize, Duration timeToLive) {
+			Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+			Assert.notNull(timeToLive, "timeToLive cannot be null");
+			this.jwtCacheMaximumSize = maximumSize;
+			this.jwtCacheTimeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Use this {@link ObservationRegistry} to record hits and misses of the cache
+		 * configured with {@link #jwtCache(int, Duration)}.
+		 * @param observationRegistry the {@link ObservationRegistry} to use
+		 * @return a {@link JwkSetUriReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.5
+		 */
+		public JwkSetUriReactiveJwtDecoderBuilder observationRegistry(ObservationRegistry observationRegistry) {
+			Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+			this.observationRegistry = observationRegistry;
+			return this;
+		}
+
 		/**
 		 * Build the configured {@link NimbusReactiveJwtDecoder}.
 		 * @return the configured {@link NimbusReactiveJwtDecoder}
 		 */
 		public NimbusReactiveJwtDecoder build() {
-			return new NimbusReactiveJwtDecoder(processor());
+			NimbusReactiveJwtDecoder jwtDecoder = new NimbusReactiveJwtDecoder(processor());
+			if (this.jwtCacheTimeToLive != null) {
+				DecodedJwtCache jwtCache = new DecodedJwtCache(this.jwtCacheMaximumSize, this.jwtCacheTimeToLive);
+				jwtCache.setObservationRegistry(this.observationRegistry);
+				jwtDecoder.setJwtCache(jwtCache);
+			}
+			return jwtDecoder;
 		}
 
 		Mono<JWSKeySelector<JWKSecurityContext>> jwsKeySelector(ReactiveRemoteJWKSource source) {
@@ -482,6 +555,12 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 
 		private Consumer<ConfigurableJWTProcessor<SecurityContext>> jwtProcessorCustomizer;
 
+		private int jwtCacheMaximumSize;
+
+		private Duration jwtCacheTimeToLive;
+
+		private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
 		private PublicKeyReactiveJwtDecoderBuilder(RSAPublicKey key) {
 			Assert.notNull(key, "key cannot be null");
 			this.key = key;
@@ -520,12 +599,51 @@ public final class NimbusReactiveJwtDecoder implements ReactiveJwtDecoder {
 			return this;
 		}
 
+		/**
+		 * Cache decoded and verified JWTs so that a token presented again within its
+		 * lifetime is not parsed and verified again, and so that concurrent decodes of
+		 * the same token share one verification. The configured
+		 * {@link OAuth2TokenValidator} still runs each time the token is decoded. Entries
+		 * expire after {@code timeToLive} or at the token's {@code exp} claim, whichever
+		 * comes first.
+		 * @param maximumSize the maximum number of cached JWTs
+		 * @param timeToLive the maximum time a JWT stays cached
+		 * @return a {@link PublicKeyReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.5
+		 */
+		public PublicKeyReactiveJwtDecoderBuilder jwtCache(int maximumSize, Duration timeToLive) {
+			Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+			Assert.notNull(timeToLive, "timeToLive cannot be null");
+			this.jwtCacheMaximumSize = maximumSize;
+			this.jwtCacheTimeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Use this {@link ObservationRegistry} to record hits and misses of the cache
+		 * configured with {@link #jwtCache(int, Duration)}.
+		 * @param observationRegistry the {@link ObservationRegistry} to use
+		 * @return a {@link PublicKeyReactiveJwtDecoderBuilder} for further configurations
+		 * @since 6.5
+		 */
+		public PublicKeyReactiveJwtDecoderBuilder observationRegistry(ObservationRegistry observationRegistry) {
+			Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+			this.observationRegistry = observationRegistry;
+			return this;
+		}
+
 		/**
 		 * Build the configured {@link NimbusReactiveJwtDecoder}.
 		 * @return the configured {@link NimbusReactiveJwtDecoder}
 		 */
 		public NimbusReactiveJwtDecoder build() {
-			return new NimbusReactiveJwtDecoder(processor());
+			NimbusReactiveJwtDecoder jwtDecoder = new NimbusReactiveJwtDecoder(processor());
+			if (this.jwtCacheTimeToLive != null) {
+				DecodedJwtCache jwtCache = new DecodedJwtCache(this.jwtCacheMaximumSize, this.jwtCacheTimeToLive);
+				jwtCache.setObservationRegistry(this.observationRegistry);
+				jwtDecoder.setJwtCache(jwtCache);
+			}
+			return jwtDecoder;
 		}
 
 		Converter<JWT, Mono<JWTClaimsSet>> processor() {
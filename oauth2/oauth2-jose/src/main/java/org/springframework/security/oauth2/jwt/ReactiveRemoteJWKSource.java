@@ -29,6 +29,7 @@ import com.nimbusds.jose.jwk.JWKSelector;
 import com.nimbusds.jose.jwk.JWKSet;
 import reactor.core.publisher.Mono;
 
+import org.springframework.security.core.internal.InFlightRequests;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.WebClient;
 
@@ -48,6 +49,11 @@ class ReactiveRemoteJWKSource implements ReactiveJWKSource {
 	 */
 	private final AtomicReference<String> cachedJwkSetUrl = new AtomicReference<>();
 
+	/**
+	 * The JWK set requests in flight, shared by concurrent refreshes.
+	 */
+	private final InFlightRequests<String, JWKSet> jwkSetRequests = new InFlightRequests<>();
+
 	private WebClient webClient = WebClient.create();
 
 	private final Mono<String> jwkSetUrlProvider;
@@ -100,23 +106,26 @@ class ReactiveRemoteJWKSource implements ReactiveJWKSource {
 	}
 
 	/**
-	 * Updates the cached JWK set from the configured URL.
+	 * Updates the cached JWK set from the configured URL. Concurrent updates share a
+	 * single request, so that a key rotation does not cause a request per token.
 	 * @return The updated JWK set.
 	 * @throws RemoteKeySourceException If JWK retrieval failed.
 	 */
 	private Mono<JWKSet> getJWKSet() {
-		// @formatter:off
 		return this.jwkSetUrlProvider
-				.flatMap((jwkSetURL) -> this.webClient.get()
-					.uri(jwkSetURL)
-					.retrieve()
-					.bodyToMono(String.class)
-				)
+			.flatMap((jwkSetURL) -> this.jwkSetRequests.share(jwkSetURL, () -> getJWKSet(jwkSetURL)));
+	}
+
+	private Mono<JWKSet> getJWKSet(String jwkSetURL) {
+		// @formatter:off
+		return this.webClient.get()
+				.uri(jwkSetURL)
+				.retrieve()
+				.bodyToMono(String.class)
 				.map(this::parse)
 				.doOnNext((jwkSet) -> this.cachedJWKSet
 					.set(Mono.just(jwkSet))
-				)
-				.cache();
+				);
 		// @formatter:on
 	}
 
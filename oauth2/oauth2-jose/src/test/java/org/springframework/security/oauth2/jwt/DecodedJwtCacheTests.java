@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.jwt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link DecodedJwtCache}.
+ */
+public class DecodedJwtCacheTests {
+
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+	private final DecodedJwtCache cache = new DecodedJwtCache(10, Duration.ofMinutes(5));
+
+	@Test
+	public void constructorWhenMaximumSizeNotPositiveThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new DecodedJwtCache(0, Duration.ofMinutes(5)));
+	}
+
+	@Test
+	public void constructorWhenTimeToLiveZeroThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new DecodedJwtCache(10, Duration.ZERO));
+	}
+
+	@Test
+	public void getWhenPutThenReturnsJwt() {
+		this.cache.setClock(clock(NOW));
+		Jwt jwt = jwt("token", NOW.plusSeconds(60));
+		this.cache.put(jwt);
+		assertThat(this.cache.get("token")).isSameAs(jwt);
+		assertThat(this.cache.get("other")).isNull();
+	}
+
+	@Test
+	public void getWhenTokenExpiredThenNull() {
+		this.cache.setClock(clock(NOW));
+		this.cache.put(jwt("token", NOW.plusSeconds(60)));
+		this.cache.setClock(clock(NOW.plusSeconds(60)));
+		assertThat(this.cache.get("token")).isNull();
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void getWhenTimeToLiveElapsedThenNull() {
+		this.cache.setClock(clock(NOW));
+		this.cache.put(jwt("token", NOW.plus(Duration.ofHours(1))));
+		this.cache.setClock(clock(NOW.plus(Duration.ofMinutes(4))));
+		assertThat(this.cache.get("token")).isNotNull();
+		this.cache.setClock(clock(NOW.plus(Duration.ofMinutes(5))));
+		assertThat(this.cache.get("token")).isNull();
+	}
+
+	@Test
+	public void putWhenAlreadyExpiredThenNotCached() {
+		this.cache.setClock(clock(NOW.plusSeconds(60)));
+		this.cache.put(jwt("token", NOW.plusSeconds(60)));
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	public void putWhenFullThenEvicts() {
+		this.cache.setClock(clock(NOW));
+		for (int i = 0; i < 25; i++) {
+			this.cache.put(jwt("token" + i, NOW.plusSeconds(60)));
+			assertThat(this.cache.size()).isLessThanOrEqualTo(10);
+		}
+		assertThat(this.cache.get("token24")).isNotNull();
+	}
+
+	@Test
+	public void getWhenObservationRegistryThenRecordsHitsAndMisses() {
+		ObservationHandler<Observation.Context> handler = mock(ObservationHandler.class);
+		given(handler.supportsContext(any())).willReturn(true);
+		ObservationRegistry registry = ObservationRegistry.create();
+		registry.observationConfig().observationHandler(handler);
+		this.cache.setObservationRegistry(registry);
+		this.cache.setClock(clock(NOW));
+		this.cache.get("token");
+		this.cache.put(jwt("token", NOW.plusSeconds(60)));
+		this.cache.get("token");
+		ArgumentCaptor<Observation.Context> captor = ArgumentCaptor.forClass(Observation.Context.class);
+		verify(handler, times(2)).onStop(captor.capture());
+		assertThat(captor.getAllValues()).extracting(Observation.Context::getName)
+			.containsOnly(DecodedJwtCache.OBSERVATION_NAME);
+		assertThat(captor.getAllValues())
+			.extracting((context) -> context.getLowCardinalityKeyValue(DecodedJwtCache.RESULT_KEY))
+			.extracting(KeyValue::getValue)
+			.containsExactly("miss", "hit");
+	}
+
+	private static Jwt jwt(String token, Instant expiresAt) {
+		return TestJwts.jwt().tokenValue(token).issuedAt(NOW).notBefore(NOW).expiresAt(expiresAt).build();
+	}
+
+	private static Clock clock(Instant instant) {
+		return Clock.fixed(instant, ZoneOffset.UTC);
+	}
+
+}
@@ -25,6 +25,7 @@ import java.security.spec.EncodedKeySpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Base64;
@@ -48,6 +49,7 @@ import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
 import com.nimbusds.jose.proc.JWSKeySelector;
 import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.BadJWTException;
@@ -398,6 +400,48 @@ public class NimbusJwtDecoderTests {
 		// @formatter:on
 	}
 
+	@Test
+	public void decodeWhenJwtCacheThenSameJwtAndValidatedEachTime() throws Exception {
+		OAuth2TokenValidator<Jwt> jwtValidator = mock(OAuth2TokenValidator.class);
+		given(jwtValidator.validate(any(Jwt.class))).willReturn(OAuth2TokenValidatorResult.success());
+		NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(key()).jwtCache(10, Duration.ofMinutes(5)).build();
+		decoder.setJwtValidator(jwtValidator);
+		Jwt jwt = decoder.decode(RS256_SIGNED_JWT);
+		assertThat(decoder.decode(RS256_SIGNED_JWT)).isSameAs(jwt);
+		verify(jwtValidator, times(2)).validate(jwt);
+	}
+
+	@Test
+	public void decodeWhenJwtCacheAndValidationFailsOnHitThenThrowsJwtValidationException() throws Exception {
+		OAuth2TokenValidator<Jwt> jwtValidator = mock(OAuth2TokenValidator.class);
+		given(jwtValidator.validate(any(Jwt.class))).willReturn(OAuth2TokenValidatorResult.success())
+			.willReturn(OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "expired", null)));
+		NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(key()).jwtCache(10, Duration.ofMinutes(5)).build();
+		decoder.setJwtValidator(jwtValidator);
+		decoder.decode(RS256_SIGNED_JWT);
+		assertThatExceptionOfType(JwtValidationException.class).isThrownBy(() -> decoder.decode(RS256_SIGNED_JWT))
+			.withMessageContaining("expired");
+	}
+
+	@Test
+	public void decodeWhenJwtCacheAndValidationFailsThenNotCached() throws Exception {
+		JWTProcessor<SecurityContext> jwtProcessor = mock(JWTProcessor.class);
+		given(jwtProcessor.process(any(JWT.class), any()))
+			.willReturn(new JWTClaimsSet.Builder().subject("test-subject").build());
+		NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+		decoder.setJwtCache(new DecodedJwtCache(10, Duration.ofMinutes(5)));
+		decoder.setJwtValidator((jwt) -> OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token")));
+		assertThatExceptionOfType(JwtValidationException.class).isThrownBy(() -> decoder.decode(SIGNED_JWT));
+		assertThatExceptionOfType(JwtValidationException.class).isThrownBy(() -> decoder.decode(SIGNED_JWT));
+		verify(jwtProcessor, times(2)).process(any(JWT.class), any());
+	}
+
+	@Test
+	public void jwtCacheWhenMaximumSizeNotPositiveThenThrowsException() throws Exception {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> NimbusJwtDecoder.withPublicKey(key()).jwtCache(0, Duration.ofMinutes(5)));
+	}
+
 	@Test
 	public void decodeWhenUsingPublicKeyWithRs512ThenSuccessfullyDecodes() throws Exception {
 		// @formatter:off
@@ -24,11 +24,14 @@ import java.security.spec.EncodedKeySpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import javax.crypto.SecretKey;
@@ -45,6 +48,7 @@ import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
 import com.nimbusds.jose.proc.JWKSecurityContext;
 import com.nimbusds.jose.proc.JWSKeySelector;
 import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
@@ -56,6 +60,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.convert.converter.Converter;
@@ -75,6 +80,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -424,6 +430,58 @@ public class NimbusReactiveJwtDecoderTests {
 		// @formatter:on
 	}
 
+	@Test
+	public void decodeWhenJwtCacheThenSameJwtAndValidatedEachTime() throws Exception {
+		OAuth2TokenValidator<Jwt> jwtValidator = mock(OAuth2TokenValidator.class);
+		given(jwtValidator.validate(any(Jwt.class))).willReturn(OAuth2TokenValidatorResult.success());
+		NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withPublicKey(key())
+			.jwtCache(10, Duration.ofMinutes(5))
+			.build();
+		decoder.setJwtValidator(jwtValidator);
+		Jwt jwt = decoder.decode(this.rsa256).block();
+		assertThat(decoder.decode(this.rsa256).block()).isSameAs(jwt);
+		verify(jwtValidator, times(2)).validate(jwt);
+	}
+
+	@Test
+	public void decodeWhenJwtCacheAndConcurrentDecodesThenVerifiedOnce() {
+		AtomicInteger verifications = new AtomicInteger();
+		Sinks.One<JWTClaimsSet> claims = Sinks.one();
+		Converter<JWT, Mono<JWTClaimsSet>> jwtProcessor = (jwt) -> {
+			verifications.incrementAndGet();
+			return claims.asMono();
+		};
+		NimbusReactiveJwtDecoder decoder = new NimbusReactiveJwtDecoder(jwtProcessor);
+		decoder.setJwtCache(new DecodedJwtCache(10, Duration.ofMinutes(5)));
+		decoder.setJwtValidator((jwt) -> OAuth2TokenValidatorResult.success());
+		CompletableFuture<Jwt> first = decoder.decode(this.rsa256).toFuture();
+		CompletableFuture<Jwt> second = decoder.decode(this.rsa256).toFuture();
+		claims.tryEmitValue(new JWTClaimsSet.Builder().subject("test-subject").build());
+		assertThat(first.join()).isSameAs(second.join());
+		assertThat(verifications).hasValue(1);
+	}
+
+	@Test
+	public void decodeWhenJwtCacheAndValidationFailsThenNotCached() {
+		AtomicInteger verifications = new AtomicInteger();
+		Converter<JWT, Mono<JWTClaimsSet>> jwtProcessor = (jwt) -> {
+			verifications.incrementAndGet();
+			return Mono.just(new JWTClaimsSet.Builder().subject("test-subject").build());
+		};
+		NimbusReactiveJwtDecoder decoder = new NimbusReactiveJwtDecoder(jwtProcessor);
+		decoder.setJwtCache(new DecodedJwtCache(10, Duration.ofMinutes(5)));
+		decoder.setJwtValidator((jwt) -> OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token")));
+		assertThatExceptionOfType(JwtValidationException.class).isThrownBy(() -> decoder.decode(this.rsa256).block());
+		assertThatExceptionOfType(JwtValidationException.class).isThrownBy(() -> decoder.decode(this.rsa256).block());
+		assertThat(verifications).hasValue(2);
+	}
+
+	@Test
+	public void jwtCacheWhenMaximumSizeNotPositiveThenThrowsException() throws Exception {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> NimbusReactiveJwtDecoder.withPublicKey(key()).jwtCache(0, Duration.ofMinutes(5)));
+	}
+
 	@Test
 	public void decodeWhenUsingPublicKeyWithRs512ThenSuccessfullyDecodes() throws Exception {
 		// @formatter:off
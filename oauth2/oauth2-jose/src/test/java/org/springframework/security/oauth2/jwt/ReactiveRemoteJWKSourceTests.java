@@ -18,6 +18,7 @@ package org.springframework.security.oauth2.jwt;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import com.nimbusds.jose.jwk.JWK;
@@ -116,6 +117,17 @@ public class ReactiveRemoteJWKSourceTests {
 		assertThat(this.server.getRequestCount()).isEqualTo(1);
 	}
 
+	@Test
+	public void getWhenConcurrentRequestsThenJwkSetRequestedOnce() throws Exception {
+		given(this.matcher.matches(any())).willReturn(true);
+		try (MockWebServer jwkSetServer = new MockWebServer()) {
+			jwkSetServer.enqueue(new MockResponse().setBody(this.keys).setHeadersDelay(200, TimeUnit.MILLISECONDS));
+			ReactiveRemoteJWKSource source = new ReactiveRemoteJWKSource(jwkSetServer.url("/").toString());
+			Mono.zip(source.get(this.selector), source.get(this.selector)).block();
+			assertThat(jwkSetServer.getRequestCount()).isEqualTo(1);
+		}
+	}
+
 	@Test
 	public void getWhenMatchThenCreatesKeys() {
 		given(this.matcher.matches(any())).willReturn(true);
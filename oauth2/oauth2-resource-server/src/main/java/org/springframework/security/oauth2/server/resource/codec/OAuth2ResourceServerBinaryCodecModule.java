@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.codec;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.security.codec.BinaryCodecModule;
+import org.springframework.security.codec.BinaryInput;
+import org.springframework.security.codec.BinaryOutput;
+import org.springframework.security.codec.BinaryTypeCodec;
+import org.springframework.security.codec.SecurityBinaryCodecModules;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The {@link BinaryCodecModule} for the types of
+ * {@code spring-security-oauth2-resource-server}, including {@link Jwt} when
+ * {@code spring-security-oauth2-jose} is on the classpath.
+ *
+ * @since 6.5
+ * @see SecurityBinaryCodecModules
+ */
+public final class OAuth2ResourceServerBinaryCodecModule implements BinaryCodecModule {
+
+	private static final boolean jwtPresent = ClassUtils.isPresent("org.springframework.security.oauth2.jwt.Jwt",
+			OAuth2ResourceServerBinaryCodecModule.class.getClassLoader());
+
+	@Override
+	public List<BinaryTypeCodec<?>> getTypeCodecs() {
+		List<BinaryTypeCodec<?>> typeCodecs = new ArrayList<>();
+		typeCodecs.add(BinaryTypeCodec.of(82, BearerTokenAuthentication.class,
+				OAuth2ResourceServerBinaryCodecModule::writeBearerTokenAuthentication,
+				OAuth2ResourceServerBinaryCodecModule::readBearerTokenAuthentication));
+		if (jwtPresent) {
+			typeCodecs.addAll(JwtTypeCodecs.getTypeCodecs());
+		}
+		return typeCodecs;
+	}
+
+	private static void writeBearerTokenAuthentication(BearerTokenAuthentication authentication, BinaryOutput output) {
+		output.writeObject(authentication.getPrincipal());
+		output.writeObject(authentication.getToken());
+		output.writeAuthorities(authentication.getAuthorities());
+		output.writeObject(authentication.getDetails());
+	}
+
+	private static BearerTokenAuthentication readBearerTokenAuthentication(BinaryInput input) {
+		OAuth2AuthenticatedPrincipal principal = input.readObject(OAuth2AuthenticatedPrincipal.class);
+		OAuth2AccessToken token = input.readObject(OAuth2AccessToken.class);
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		BearerTokenAuthentication authentication = new BearerTokenAuthentication(principal, token, authorities);
+		authentication.setDetails(input.readObject());
+		return authentication;
+	}
+
+	/**
+	 * Kept apart so that {@link Jwt} is only loaded when present.
+	 */
+	private static final class JwtTypeCodecs {
+
+		private static List<BinaryTypeCodec<?>> getTypeCodecs() {
+			return List.of(BinaryTypeCodec.of(80, Jwt.class, JwtTypeCodecs::writeJwt, JwtTypeCodecs::readJwt),
+					BinaryTypeCodec.of(81, JwtAuthenticationToken.class, JwtTypeCodecs::writeJwtAuthenticationToken,
+							JwtTypeCodecs::readJwtAuthenticationToken));
+		}
+
+		private static void writeJwt(Jwt jwt, BinaryOutput output) {
+			output.writeString(jwt.getTokenValue());
+			output.writeObject(jwt.getIssuedAt());
+			output.writeObject(jwt.getExpiresAt());
+			output.writeObject(jwt.getHeaders());
+			output.writeObject(jwt.getClaims());
+		}
+
+		private static Jwt readJwt(BinaryInput input) {
+			return new Jwt(input.readString(), input.readObject(Instant.class), input.readObject(Instant.class),
+					input.readAttributes(), input.readAttributes());
+		}
+
+		private static void writeJwtAuthenticationToken(JwtAuthenticationToken token, BinaryOutput output) {
+			output.writeObject(token.getToken());
+			output.writeAuthorities(token.getAuthorities());
+			output.writeString(token.getName());
+			output.writeObject(token.getDetails());
+		}
+
+		private static JwtAuthenticationToken readJwtAuthenticationToken(BinaryInput input) {
+			Jwt jwt = input.readObject(Jwt.class);
+			List<GrantedAuthority> authorities = input.readAuthorities();
+			JwtAuthenticationToken token = new JwtAuthenticationToken(jwt, authorities, input.readString());
+			token.setDetails(input.readObject());
+			return token;
+		}
+
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveOpaqueTokenIntrospector} that limits how many introspection requests
+ * another {@link ReactiveOpaqueTokenIntrospector} performs at the same time.
+ *
+ * <p>
+ * Tokens are collected for up to the batch window or until the maximum batch size is
+ * reached. Duplicate tokens within a batch share one introspection. The batches are then
+ * introspected with at most the configured number of concurrent calls to the delegate.
+ * Tokens that arrive while all calls are in use wait in a bounded queue. When the queue
+ * is full, introspection fails fast with an {@link OAuth2IntrospectionException} rather
+ * than opening more connections to the introspection endpoint.
+ *
+ * <p>
+ * The maximum concurrency should not exceed the connection pool of the
+ * {@link org.springframework.web.reactive.function.client.WebClient} used by the
+ * delegate.
+ *
+ * <p>
+ * The batching pipeline is started by the first introspection and runs until
+ * {@link #destroy()} is called, which happens automatically when the introspector is a
+ * bean.
+ *
+ * @since 6.5
+ */
+public final class BatchingReactiveOpaqueTokenIntrospector implements ReactiveOpaqueTokenIntrospector, DisposableBean {
+
+	private final ReactiveOpaqueTokenIntrospector delegate;
+
+	private Duration batchWindow = Duration.ofMillis(2);
+
+	private int maxBatchSize = 64;
+
+	private int maxConcurrency = 16;
+
+	private int maxPending = 1024;
+
+	private Sinks.Many<PendingIntrospection> pending;
+
+	private boolean destroyed;
+
+	/**
+	 * Constructs a {@code BatchingReactiveOpaqueTokenIntrospector} using the provided
+	 * parameters.
+	 * @param delegate the {@link ReactiveOpaqueTokenIntrospector} to limit
+	 */
+	public BatchingReactiveOpaqueTokenIntrospector(ReactiveOpaqueTokenIntrospector delegate) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Mono<OAuth2AuthenticatedPrincipal> introspect(String token) {
+		return Mono.defer(() -> {
+			PendingIntrospection introspection = new PendingIntrospection(token);
+			Sinks.EmitResult result = emit(introspection);
+			if (result == Sinks.EmitResult.FAIL_TERMINATED) {
+				return Mono
+					.error(new OAuth2IntrospectionException("Unable to introspect token, introspector destroyed"));
+			}
+			if (result.isFailure()) {
+				return Mono.error(new OAuth2IntrospectionException(
+						"Unable to introspect token, too many pending introspection requests"));
+			}
+			return introspection.result.asMono();
+		});
+	}
+
+	private synchronized Sinks.EmitResult emit(PendingIntrospection introspection) {
+		if (this.destroyed) {
+			return Sinks.EmitResult.FAIL_TERMINATED;
+		}
+		if (this.pending == null) {
+			this.pending = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(this.maxPending));
+			// @formatter:off
+			this.pending.asFlux()
+					.bufferTimeout(this.maxBatchSize, this.batchWindow, true)
+					.concatMapIterable(this::byToken, 1)
+					.flatMap(this::introspect, this.maxConcurrency)
+					.subscribe();
+			// @formatter:on
+		}
+		return this.pending.tryEmitNext(introspection);
+	}
+
+	private Collection<List<PendingIntrospection>> byToken(List<PendingIntrospection> batch) {
+		Map<String, List<PendingIntrospection>> byToken = new LinkedHashMap<>();
+		for (PendingIntrospection introspection : batch) {
+			byToken.computeIfAbsent(introspection.token, (token) -> new ArrayList<>(1)).add(introspection);
+		}
+		return byToken.values();
+	}
+
+	private Mono<Void> introspect(List<PendingIntrospection> introspections) {
+		// @formatter:off
+		return Mono.defer(() -> this.delegate.introspect(introspections.get(0).token))
+				.doOnNext((principal) -> introspections
+					.forEach((introspection) -> introspection.result.tryEmitValue(principal)))
+				.doOnError((ex) -> introspections
+					.forEach((introspection) -> introspection.result.tryEmitError(ex)))
+				.doOnSuccess((principal) -> {
+					if (principal == null) {
+						introspections.forEach((introspection) -> introspection.result.tryEmitEmpty());
+					}
+				})
+				.onErrorComplete()
+				.then();
+		// @formatter:on
+	}
+
+	/**
+	 * Sets the time to wait for more tokens before introspecting a batch. Defaults to 2
+	 * milliseconds.
+	 * @param batchWindow the time to wait for more tokens
+	 */
+	public void setBatchWindow(Duration batchWindow) {
+		Assert.notNull(batchWindow, "batchWindow cannot be null");
+		Assert.isTrue(!batchWindow.isNegative() && !batchWindow.isZero(), "batchWindow must be positive");
+		assertNotStarted();
+		this.batchWindow = batchWindow;
+	}
+
+	/**
+	 * Sets the number of tokens after which a batch is introspected without waiting for
+	 * the batch window to elapse. Defaults to 64.
+	 * @param maxBatchSize the maximum number of tokens in a batch
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be greater than 0");
+		assertNotStarted();
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Sets the maximum number of concurrent calls to the delegate. Defaults to 16.
+	 * @param maxConcurrency the maximum number of concurrent calls to the delegate
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be greater than 0");
+		assertNotStarted();
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Sets the maximum number of tokens waiting to be introspected, after which
+	 * introspection fails with an {@link OAuth2IntrospectionException}. Defaults to 1024.
+	 * @param maxPending the maximum number of tokens waiting to be introspected
+	 */
+	public void setMaxPending(int maxPending) {
+		Assert.isTrue(maxPending > 0, "maxPending must be greater than 0");
+		assertNotStarted();
+		this.maxPending = maxPending;
+	}
+
+	/**
+	 * Stops accepting tokens. Tokens already waiting are still introspected, after which
+	 * the batching pipeline completes and releases its subscription and timer.
+	 * Introspection after this fails with an {@link OAuth2IntrospectionException}.
+	 */
+	@Override
+	public synchronized void destroy() {
+		this.destroyed = true;
+		if (this.pending != null) {
+			this.pending.tryEmitComplete();
+		}
+	}
+
+	private synchronized void assertNotStarted() {
+		Assert.state(this.pending == null, "Cannot change the configuration after introspection has started");
+	}
+
+	private static final class PendingIntrospection {
+
+		private final String token;
+
+		private final Sinks.One<OAuth2AuthenticatedPrincipal> result = Sinks.one();
+
+		private PendingIntrospection(String token) {
+			this.token = token;
+		}
+
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.security.core.internal.InFlightCalls;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link OpaqueTokenIntrospector} that caches the results of another
+ * {@link OpaqueTokenIntrospector}, so that a token presented again is not sent to the
+ * introspection endpoint each time.
+ *
+ * <p>
+ * Active tokens are cached until the configured time to live passes or until their
+ * {@code exp} attribute, whichever comes first. Tokens reported as inactive, that is for
+ * which the delegate throws {@link BadOpaqueTokenException}, are cached for the shorter
+ * inactive time to live. Other errors are not cached. Concurrent introspection of the
+ * same token shares a single call to the delegate.
+ *
+ * <p>
+ * Each lookup is recorded as a {@code spring.security.opaque-token.cache}
+ * {@link io.micrometer.observation.Observation} with an {@code opaque-token.cache.result}
+ * key of {@code hit}, {@code inactive} or {@code miss}, and each call to the delegate as
+ * a {@code spring.security.opaque-token.introspection} Observation.
+ *
+ * @since 6.5
+ */
+public final class CachingOpaqueTokenIntrospector implements OpaqueTokenIntrospector {
+
+	private final OpaqueTokenIntrospector delegate;
+
+	private final OpaqueTokenIntrospectionCache cache = new OpaqueTokenIntrospectionCache();
+
+	private final InFlightCalls<String, OAuth2AuthenticatedPrincipal> introspections = new InFlightCalls<>();
+
+	/**
+	 * Constructs a {@code CachingOpaqueTokenIntrospector} using the provided parameters.
+	 * @param delegate the {@link OpaqueTokenIntrospector} whose results to cache
+	 */
+	public CachingOpaqueTokenIntrospector(OpaqueTokenIntrospector delegate) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public OAuth2AuthenticatedPrincipal introspect(String token) {
+		OAuth2AuthenticatedPrincipal cached = this.cache.get(token);
+		if (cached != null) {
+			return cached;
+		}
+		return this.introspections.share(token, () -> introspectAndCache(token));
+	}
+
+	private OAuth2AuthenticatedPrincipal introspectAndCache(String token) {
+		try {
+			OAuth2AuthenticatedPrincipal principal = this.cache.introspection()
+				.observe(() -> this.delegate.introspect(token));
+			this.cache.put(token, principal);
+			return principal;
+		}
+		catch (BadOpaqueTokenException ex) {
+			this.cache.putInactive(token);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of cached tokens. Defaults to 10000.
+	 * @param maximumSize the maximum number of cached tokens
+	 */
+	public void setMaximumSize(int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+	}
+
+	/**
+	 * Sets the maximum time an active token stays cached. A token with an earlier
+	 * {@code exp} attribute is removed at that time instead. Defaults to 5 minutes.
+	 * @param timeToLive the maximum time an active token stays cached
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		this.cache.setTimeToLive(timeToLive);
+	}
+
+	/**
+	 * Sets the time an inactive token stays cached. A {@link Duration#ZERO} disables
+	 * caching of inactive tokens. Defaults to 10 seconds.
+	 * @param inactiveTimeToLive the time an inactive token stays cached
+	 */
+	public void setInactiveTimeToLive(Duration inactiveTimeToLive) {
+		this.cache.setInactiveTimeToLive(inactiveTimeToLive);
+	}
+
+	/**
+	 * Sets the {@link Clock} used to expire cached tokens.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		this.cache.setClock(clock);
+	}
+
+	/**
+	 * Sets the {@link ObservationRegistry} used to record cache lookups and calls to the
+	 * delegate. Defaults to {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the {@link ObservationRegistry} to use
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		this.cache.setObservationRegistry(observationRegistry);
+	}
+
+}
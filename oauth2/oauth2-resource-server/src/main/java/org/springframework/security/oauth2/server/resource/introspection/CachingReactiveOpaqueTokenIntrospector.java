@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Mono;
+
+import org.springframework.security.core.internal.InFlightRequests;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveOpaqueTokenIntrospector} that caches the results of another
+ * {@link ReactiveOpaqueTokenIntrospector}, so that a token presented again is not sent to
+ * the introspection endpoint each time.
+ *
+ * <p>
+ * Active tokens are cached until the configured time to live passes or until their
+ * {@code exp} attribute, whichever comes first. Tokens reported as inactive, that is for
+ * which the delegate emits {@link BadOpaqueTokenException}, are cached for the shorter
+ * inactive time to live. Other errors are not cached. Concurrent introspection of the
+ * same token shares a single subscription to the delegate.
+ *
+ * <p>
+ * Lookups and calls to the delegate are recorded as described in
+ * {@link CachingOpaqueTokenIntrospector}.
+ *
+ * @since 6.5
+ * @see CachingOpaqueTokenIntrospector
+ */
+public final class CachingReactiveOpaqueTokenIntrospector implements ReactiveOpaqueTokenIntrospector {
+
+	private final ReactiveOpaqueTokenIntrospector delegate;
+
+	private final OpaqueTokenIntrospectionCache cache = new OpaqueTokenIntrospectionCache();
+
+	private final InFlightRequests<String, OAuth2AuthenticatedPrincipal> introspections = new InFlightRequests<>();
+
+	/**
+	 * Constructs a {@code CachingReactiveOpaqueTokenIntrospector} using the provided
+	 * parameters.
+	 * @param delegate the {@link ReactiveOpaqueTokenIntrospector} whose results to cache
+	 */
+	public CachingReactiveOpaqueTokenIntrospector(ReactiveOpaqueTokenIntrospector delegate) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Mono<OAuth2AuthenticatedPrincipal> introspect(String token) {
+		return Mono.fromCallable(() -> this.cache.get(token))
+			.switchIfEmpty(this.introspections.share(token, () -> introspectAndCache(token)));
+	}
+
+	private Mono<OAuth2AuthenticatedPrincipal> introspectAndCache(String token) {
+		// @formatter:off
+		return observe(this.delegate.introspect(token))
+				.doOnNext((principal) -> this.cache.put(token, principal))
+				.doOnError(BadOpaqueTokenException.class, (ex) -> this.cache.putInactive(token));
+		// @formatter:on
+	}
+
+	private Mono<OAuth2AuthenticatedPrincipal> observe(Mono<OAuth2AuthenticatedPrincipal> introspection) {
+		return Mono.defer(() -> {
+			Observation observation = this.cache.introspection().start();
+			return introspection.doOnSuccess((principal) -> observation.stop())
+				.doOnCancel(observation::stop)
+				.doOnError((ex) -> {
+					observation.error(ex);
+					observation.stop();
+				});
+		});
+	}
+
+	/**
+	 * Sets the maximum number of cached tokens. Defaults to 10000.
+	 * @param maximumSize the maximum number of cached tokens
+	 */
+	public void setMaximumSize(int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+	}
+
+	/**
+	 * Sets the maximum time an active token stays cached. A token with an earlier
+	 * {@code exp} attribute is removed at that time instead. Defaults to 5 minutes.
+	 * @param timeToLive the maximum time an active token stays cached
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		this.cache.setTimeToLive(timeToLive);
+	}
+
+	/**
+	 * Sets the time an inactive token stays cached. A {@link Duration#ZERO} disables
+	 * caching of inactive tokens. Defaults to 10 seconds.
+	 * @param inactiveTimeToLive the time an inactive token stays cached
+	 */
+	public void setInactiveTimeToLive(Duration inactiveTimeToLive) {
+		this.cache.setInactiveTimeToLive(inactiveTimeToLive);
+	}
+
+	/**
+	 * Sets the {@link Clock} used to expire cached tokens.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		this.cache.setClock(clock);
+	}
+
+	/**
+	 * Sets the {@link ObservationRegistry} used to record cache lookups and calls to the
+	 * delegate. Defaults to {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the {@link ObservationRegistry} to use
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		this.cache.setObservationRegistry(observationRegistry);
+	}
+
+}
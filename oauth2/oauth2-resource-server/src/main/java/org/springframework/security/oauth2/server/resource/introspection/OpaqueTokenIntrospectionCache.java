@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.core.internal.ExpiringTokenCache;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded cache of introspection results keyed by token value, shared by
+ * {@link CachingOpaqueTokenIntrospector} and
+ * {@link CachingReactiveOpaqueTokenIntrospector}. Active tokens expire after the time to
+ * live or at the token's {@code exp} attribute, whichever comes first. Inactive tokens
+ * expire after the inactive time to live. Entries are evicted as described in
+ * {@link ExpiringTokenCache}.
+ *
+ * @since 6.5
+ */
+final class OpaqueTokenIntrospectionCache {
+
+	static final String OBSERVATION_NAME = "spring.security.opaque-token.cache";
+
+	static final String RESULT_KEY = "opaque-token.cache.result";
+
+	static final String INTROSPECTION_OBSERVATION_NAME = "spring.security.opaque-token.introspection";
+
+	static final String INACTIVE_TOKEN = "Provided token isn't active";
+
+	private static final CachedIntrospection INACTIVE = new CachedIntrospection(null);
+
+	private final ExpiringTokenCache<CachedIntrospection> cache = new ExpiringTokenCache<>(10000, OBSERVATION_NAME,
+			RESULT_KEY);
+
+	private Duration timeToLive = Duration.ofMinutes(5);
+
+	private Duration inactiveTimeToLive = Duration.ofSeconds(10);
+
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	/**
+	 * Returns the cached principal for the token.
+	 * @param token the token value
+	 * @return the cached principal or {@code null} if there is none or it has expired
+	 * @throws BadOpaqueTokenException if the token is cached as inactive
+	 */
+	OAuth2AuthenticatedPrincipal get(String token) {
+		CachedIntrospection cached = this.cache.get(token);
+		if (cached == null) {
+			this.cache.record("miss");
+			return null;
+		}
+		if (cached.principal == null) {
+			this.cache.record("inactive");
+			throw new BadOpaqueTokenException(INACTIVE_TOKEN);
+		}
+		this.cache.record("hit");
+		return cached.principal;
+	}
+
+	/**
+	 * Caches the principal of an active token, unless it is already expired.
+	 * @param token the token value
+	 * @param principal the introspected principal
+	 */
+	void put(String token, OAuth2AuthenticatedPrincipal principal) {
+		this.cache.put(token, new CachedIntrospection(principal), this.timeToLive, getExpiresAt(principal));
+	}
+
+	/**
+	 * Caches the token as inactive.
+	 * @param token the token value
+	 */
+	void putInactive(String token) {
+		this.cache.put(token, INACTIVE, this.inactiveTimeToLive, null);
+	}
+
+	/**
+	 * Creates an {@link Observation} for a call to the introspection endpoint.
+	 * @return the {@link Observation}, not yet started
+	 */
+	Observation introspection() {
+		return Observation.createNotStarted(INTROSPECTION_OBSERVATION_NAME, this.observationRegistry);
+	}
+
+	void clear() {
+		this.cache.clear();
+	}
+
+	int size() {
+		return this.cache.size();
+	}
+
+	void setMaximumSize(int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+	}
+
+	void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		this.timeToLive = timeToLive;
+	}
+
+	void setInactiveTimeToLive(Duration inactiveTimeToLive) {
+		Assert.notNull(inactiveTimeToLive, "inactiveTimeToLive cannot be null");
+		Assert.isTrue(!inactiveTimeToLive.isNegative(), "inactiveTimeToLive cannot be negative");
+		this.inactiveTimeToLive = inactiveTimeToLive;
+	}
+
+	void setClock(Clock clock) {
+		this.cache.setClock(clock);
+	}
+
+	void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.cache.setObservationRegistry(observationRegistry);
+		this.observationRegistry = observationRegistry;
+	}
+
+	private static Instant getExpiresAt(OAuth2AuthenticatedPrincipal principal) {
+		Object exp = principal.getAttribute(OAuth2TokenIntrospectionClaimNames.EXP);
+		if (exp instanceof Instant instant) {
+			return instant;
+		}
+		if (exp instanceof Number number) {
+			return Instant.ofEpochSecond(number.longValue());
+		}
+		return null;
+	}
+
+	private static final class CachedIntrospection {
+
+		private final OAuth2AuthenticatedPrincipal principal;
+
+		private CachedIntrospection(OAuth2AuthenticatedPrincipal principal) {
+			this.principal = principal;
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.codec;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.codec.BinarySecurityCodec;
+import org.springframework.security.codec.CoreBinaryCodecModule;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.core.codec.OAuth2CoreBinaryCodecModule;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.TestJwts;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.TestBearerTokenAuthentications;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OAuth2ResourceServerBinaryCodecModule}
+ */
+public class OAuth2ResourceServerBinaryCodecModuleTests {
+
+	private final BinarySecurityCodec codec = new BinarySecurityCodec(List.of(new CoreBinaryCodecModule(),
+			new OAuth2CoreBinaryCodecModule(), new OAuth2ResourceServerBinaryCodecModule()));
+
+	@Test
+	void serializeWhenJwtAuthenticationTokenThenRoundTrips() throws Exception {
+		Jwt jwt = TestJwts.user();
+		JwtAuthenticationToken token = new JwtAuthenticationToken(jwt, AuthorityUtils.createAuthorityList("SCOPE_read"),
+				"user");
+		JwtAuthenticationToken deserialized = (JwtAuthenticationToken) this.codec
+			.deserializeFromByteArray(this.codec.serializeToByteArray(token));
+		assertThat(deserialized).isEqualTo(token);
+		assertThat(deserialized.getName()).isEqualTo("user");
+		assertThat(deserialized.getToken().getHeaders()).isEqualTo(jwt.getHeaders());
+		assertThat(deserialized.getToken().getClaims()).isEqualTo(jwt.getClaims());
+	}
+
+	@Test
+	void serializeWhenBearerTokenAuthenticationThenRoundTrips() throws Exception {
+		BearerTokenAuthentication authentication = TestBearerTokenAuthentications.bearer();
+		BearerTokenAuthentication deserialized = (BearerTokenAuthentication) this.codec
+			.deserializeFromByteArray(this.codec.serializeToByteArray(authentication));
+		assertThat(deserialized.getName()).isEqualTo("user");
+		assertThat(deserialized.getAuthorities()).hasSameElementsAs(authentication.getAuthorities());
+		assertThat(deserialized.getToken().getTokenValue()).isEqualTo("token");
+		assertThat(deserialized.getTokenAttributes()).isEqualTo(authentication.getTokenAttributes());
+		assertThat(deserialized.isAuthenticated()).isTrue();
+	}
+
+}
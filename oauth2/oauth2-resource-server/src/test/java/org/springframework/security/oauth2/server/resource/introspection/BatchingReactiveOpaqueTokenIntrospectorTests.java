@@ -0,0 +1,163 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link BatchingReactiveOpaqueTokenIntrospector}
+ */
+public class BatchingReactiveOpaqueTokenIntrospectorTests {
+
+	// @formatter:off
+	private static final String ACTIVE_RESPONSE = "{\n"
+			+ "      \"active\": true,\n"
+			+ "      \"client_id\": \"l238j323ds-23ij4\",\n"
+			+ "      \"username\": \"jdoe\",\n"
+			+ "      \"scope\": \"read write dolphin\",\n"
+			+ "      \"sub\": \"Z5O3upPC88QrAjx00dis\"\n"
+			+ "     }";
+	// @formatter:on
+
+	@Test
+	public void constructorWhenDelegateNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BatchingReactiveOpaqueTokenIntrospector(null))
+			.withMessage("delegate cannot be null");
+	}
+
+	@Test
+	public void introspectWhenManyTokensThenConcurrentRequestsBounded() throws Exception {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		try (MockWebServer server = new MockWebServer()) {
+			server.setDispatcher(new Dispatcher() {
+				@Override
+				public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+					maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+					Thread.sleep(20);
+					inFlight.decrementAndGet();
+					return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+						.setBody(ACTIVE_RESPONSE);
+				}
+			});
+			String introspectUri = server.url("/introspect").toString();
+			BatchingReactiveOpaqueTokenIntrospector introspector = new BatchingReactiveOpaqueTokenIntrospector(
+					new SpringReactiveOpaqueTokenIntrospector(introspectUri, "client", "secret"));
+			introspector.setMaxConcurrency(4);
+			List<OAuth2AuthenticatedPrincipal> principals = Flux.range(0, 40)
+				.flatMap((i) -> introspector.introspect("token-" + i))
+				.collectList()
+				.block(Duration.ofSeconds(30));
+			assertThat(principals).hasSize(40);
+			assertThat(server.getRequestCount()).isEqualTo(40);
+			assertThat(maxInFlight.get()).isBetween(1, 4);
+		}
+	}
+
+	@Test
+	public void introspectWhenSameTokenInBatchThenIntrospectedOnce() {
+		ReactiveOpaqueTokenIntrospector delegate = mock(ReactiveOpaqueTokenIntrospector.class);
+		OAuth2AuthenticatedPrincipal principal = mock(OAuth2AuthenticatedPrincipal.class);
+		given(delegate.introspect("token")).willReturn(Mono.just(principal));
+		BatchingReactiveOpaqueTokenIntrospector introspector = new BatchingReactiveOpaqueTokenIntrospector(delegate);
+		introspector.setBatchWindow(Duration.ofMillis(200));
+		List<OAuth2AuthenticatedPrincipal> principals = Flux
+			.merge(introspector.introspect("token"), introspector.introspect("token"))
+			.collectList()
+			.block(Duration.ofSeconds(5));
+		assertThat(principals).containsExactly(principal, principal);
+		verify(delegate).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenDelegateFailsThenError() {
+		ReactiveOpaqueTokenIntrospector delegate = (token) -> Mono
+			.error(new BadOpaqueTokenException("Provided token isn't active"));
+		BatchingReactiveOpaqueTokenIntrospector introspector = new BatchingReactiveOpaqueTokenIntrospector(delegate);
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+			.isThrownBy(() -> introspector.introspect("token").block(Duration.ofSeconds(5)));
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+			.isThrownBy(() -> introspector.introspect("token").block(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	public void introspectWhenTooManyPendingThenFailsFast() {
+		Sinks.One<OAuth2AuthenticatedPrincipal> blocked = Sinks.one();
+		BatchingReactiveOpaqueTokenIntrospector introspector = new BatchingReactiveOpaqueTokenIntrospector(
+				(token) -> blocked.asMono());
+		introspector.setMaxConcurrency(1);
+		introspector.setMaxBatchSize(1);
+		introspector.setMaxPending(1);
+		List<Mono<OAuth2AuthenticatedPrincipal>> introspections = Flux.range(0, 10)
+			.map((i) -> introspector.introspect("token-" + i).cache())
+			.collectList()
+			.block();
+		introspections.forEach((introspection) -> introspection.subscribe((principal) -> {
+		}, (ex) -> {
+		}));
+		assertThatExceptionOfType(OAuth2IntrospectionException.class)
+			.isThrownBy(() -> introspections.get(9).block(Duration.ofSeconds(5)))
+			.withMessageContaining("too many pending");
+	}
+
+	@Test
+	public void destroyWhenTokensPendingThenIntrospectedAndNewTokensRejected() {
+		OAuth2AuthenticatedPrincipal principal = mock(OAuth2AuthenticatedPrincipal.class);
+		BatchingReactiveOpaqueTokenIntrospector introspector = new BatchingReactiveOpaqueTokenIntrospector(
+				(token) -> Mono.just(principal));
+		introspector.setBatchWindow(Duration.ofMillis(200));
+		Mono<OAuth2AuthenticatedPrincipal> pending = introspector.introspect("token").cache();
+		pending.subscribe();
+		introspector.destroy();
+		assertThat(pending.block(Duration.ofSeconds(5))).isSameAs(principal);
+		assertThatExceptionOfType(OAuth2IntrospectionException.class)
+			.isThrownBy(() -> introspector.introspect("other").block(Duration.ofSeconds(5)))
+			.withMessageContaining("destroyed");
+	}
+
+	@Test
+	public void setMaxConcurrencyWhenStartedThenException() {
+		BatchingReactiveOpaqueTokenIntrospector introspector = new BatchingReactiveOpaqueTokenIntrospector(
+				(token) -> Mono.empty());
+		introspector.introspect("token").block(Duration.ofSeconds(5));
+		assertThatIllegalStateException().isThrownBy(() -> introspector.setMaxConcurrency(2));
+	}
+
+}
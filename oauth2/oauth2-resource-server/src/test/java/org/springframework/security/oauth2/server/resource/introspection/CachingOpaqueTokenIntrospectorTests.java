@@ -0,0 +1,220 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CachingOpaqueTokenIntrospector}
+ */
+public class CachingOpaqueTokenIntrospectorTests {
+
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+	private OpaqueTokenIntrospector delegate;
+
+	private CachingOpaqueTokenIntrospector introspector;
+
+	@BeforeEach
+	public void setup() {
+		this.delegate = mock(OpaqueTokenIntrospector.class);
+		this.introspector = new CachingOpaqueTokenIntrospector(this.delegate);
+		this.introspector.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+	}
+
+	@Test
+	public void constructorWhenDelegateNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CachingOpaqueTokenIntrospector(null))
+			.withMessage("delegate cannot be null");
+	}
+
+	@Test
+	public void introspectWhenCachedThenDelegateCalledOnce() {
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plus(Duration.ofHours(1)));
+		given(this.delegate.introspect("token")).willReturn(principal);
+		assertThat(this.introspector.introspect("token")).isSameAs(principal);
+		assertThat(this.introspector.introspect("token")).isSameAs(principal);
+		verify(this.delegate).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenExpiresBeforeTimeToLiveThenIntrospectsAgainAfterExpiry() {
+		given(this.delegate.introspect("token")).willReturn(principal(NOW.plus(Duration.ofMinutes(1))));
+		this.introspector.introspect("token");
+		this.introspector.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+		this.introspector.introspect("token");
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenTimeToLiveElapsedThenIntrospectsAgain() {
+		given(this.delegate.introspect("token")).willReturn(principal(NOW.plus(Duration.ofHours(1))));
+		this.introspector.setTimeToLive(Duration.ofMinutes(1));
+		this.introspector.introspect("token");
+		this.introspector.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+		this.introspector.introspect("token");
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenInactiveThenCachedForInactiveTimeToLive() {
+		given(this.delegate.introspect("token")).willThrow(new BadOpaqueTokenException("Provided token isn't active"));
+		this.introspector.setInactiveTimeToLive(Duration.ofSeconds(10));
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+			.isThrownBy(() -> this.introspector.introspect("token"));
+		assertThatExceptionOfType(BadOpaqueTokenException.class).isThrownBy(() -> this.introspector.introspect("token"))
+			.withMessage("Provided token isn't active");
+		verify(this.delegate).introspect("token");
+		this.introspector.setClock(Clock.fixed(NOW.plus(Duration.ofSeconds(11)), ZoneOffset.UTC));
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+			.isThrownBy(() -> this.introspector.introspect("token"));
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenIntrospectionFailsThenNotCached() {
+		given(this.delegate.introspect("token")).willThrow(new OAuth2IntrospectionException("unavailable"));
+		assertThatExceptionOfType(OAuth2IntrospectionException.class)
+			.isThrownBy(() -> this.introspector.introspect("token"));
+		assertThatExceptionOfType(OAuth2IntrospectionException.class)
+			.isThrownBy(() -> this.introspector.introspect("token"));
+		verify(this.delegate, times(2)).introspect("token");
+	}
+
+	@Test
+	public void introspectWhenConcurrentThenDelegateCalledOnce() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plus(Duration.ofHours(1)));
+		CachingOpaqueTokenIntrospector introspector = new CachingOpaqueTokenIntrospector((token) -> {
+			calls.incrementAndGet();
+			started.countDown();
+			await(release);
+			return principal;
+		});
+		CompletableFuture<OAuth2AuthenticatedPrincipal> first = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("token"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<OAuth2AuthenticatedPrincipal> second = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("token"));
+		Thread.sleep(100);
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(principal);
+		assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(principal);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	public void introspectWhenConcurrentAndDelegateThrowsErrorThenWaitingCallerFails() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CachingOpaqueTokenIntrospector introspector = new CachingOpaqueTokenIntrospector((token) -> {
+			started.countDown();
+			await(release);
+			throw new AssertionError("failed");
+		});
+		CompletableFuture<OAuth2AuthenticatedPrincipal> first = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("token"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<OAuth2AuthenticatedPrincipal> second = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("token"));
+		Thread.sleep(100);
+		release.countDown();
+		assertThat(first).failsWithin(5, TimeUnit.SECONDS)
+			.withThrowableOfType(Exception.class)
+			.withCauseInstanceOf(AssertionError.class);
+		assertThat(second).failsWithin(5, TimeUnit.SECONDS)
+			.withThrowableOfType(Exception.class)
+			.withCauseInstanceOf(AssertionError.class);
+	}
+
+	@Test
+	public void introspectWhenObservationRegistryThenRecordsLookupsAndIntrospection() {
+		ObservationHandler<Observation.Context> handler = mock(ObservationHandler.class);
+		given(handler.supportsContext(any())).willReturn(true);
+		ObservationRegistry registry = ObservationRegistry.create();
+		registry.observationConfig().observationHandler(handler);
+		this.introspector.setObservationRegistry(registry);
+		given(this.delegate.introspect("token")).willReturn(principal(NOW.plus(Duration.ofHours(1))));
+		this.introspector.introspect("token");
+		this.introspector.introspect("token");
+		ArgumentCaptor<Observation.Context> captor = ArgumentCaptor.forClass(Observation.Context.class);
+		verify(handler, times(3)).onStop(captor.capture());
+		assertThat(captor.getAllValues()).extracting(Observation.Context::getName)
+			.containsExactly(OpaqueTokenIntrospectionCache.OBSERVATION_NAME,
+					OpaqueTokenIntrospectionCache.INTROSPECTION_OBSERVATION_NAME,
+					OpaqueTokenIntrospectionCache.OBSERVATION_NAME);
+		assertThat(captor.getAllValues()
+			.get(0)
+			.getLowCardinalityKeyValue(OpaqueTokenIntrospectionCache.RESULT_KEY)
+			.getValue()).isEqualTo("miss");
+		assertThat(captor.getAllValues()
+			.get(2)
+			.getLowCardinalityKeyValue(OpaqueTokenIntrospectionCache.RESULT_KEY)
+			.getValue()).isEqualTo("hit");
+	}
+
+	@Test
+	public void setMaximumSizeWhenNotPositiveThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.introspector.setMaximumSize(0));
+	}
+
+	private static OAuth2AuthenticatedPrincipal principal(Instant expiresAt) {
+		Map<String, Object> attributes = Map.of(OAuth2TokenIntrospectionClaimNames.SUB, "user",
+				OAuth2TokenIntrospectionClaimNames.EXP, expiresAt);
+		return new OAuth2IntrospectionAuthenticatedPrincipal(attributes, AuthorityUtils.NO_AUTHORITIES);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.oauth2.server.resource.introspection;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CachingReactiveOpaqueTokenIntrospector}
+ */
+public class CachingReactiveOpaqueTokenIntrospectorTests {
+
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@Test
+	public void constructorWhenDelegateNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CachingReactiveOpaqueTokenIntrospector(null))
+			.withMessage("delegate cannot be null");
+	}
+
+	@Test
+	public void introspectWhenCachedThenDelegateCalledOnce() {
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plus(Duration.ofHours(1)));
+		CachingReactiveOpaqueTokenIntrospector introspector = introspector(Mono.just(principal));
+		assertThat(introspector.introspect("token").block()).isSameAs(principal);
+		assertThat(introspector.introspect("token").block()).isSameAs(principal);
+		assertThat(this.calls).hasValue(1);
+	}
+
+	@Test
+	public void introspectWhenExpiresBeforeTimeToLiveThenIntrospectsAgainAfterExpiry() {
+		CachingReactiveOpaqueTokenIntrospector introspector = introspector(
+				Mono.just(principal(NOW.plus(Duration.ofMinutes(1)))));
+		introspector.introspect("token").block();
+		introspector.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+		introspector.introspect("token").block();
+		assertThat(this.calls).hasValue(2);
+	}
+
+	@Test
+	public void introspectWhenInactiveThenCachedForInactiveTimeToLive() {
+		CachingReactiveOpaqueTokenIntrospector introspector = introspector(
+				Mono.error(new BadOpaqueTokenException("Provided token isn't active")));
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+			.isThrownBy(() -> introspector.introspect("token").block());
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+			.isThrownBy(() -> introspector.introspect("token").block());
+		assertThat(this.calls).hasValue(1);
+		introspector.setClock(Clock.fixed(NOW.plus(Duration.ofSeconds(11)), ZoneOffset.UTC));
+		assertThatExceptionOfType(BadOpaqueTokenException.class)
+			.isThrownBy(() -> introspector.introspect("token").block());
+		assertThat(this.calls).hasValue(2);
+	}
+
+	@Test
+	public void introspectWhenIntrospectionFailsThenNotCached() {
+		CachingReactiveOpaqueTokenIntrospector introspector = introspector(
+				Mono.error(new OAuth2IntrospectionException("unavailable")));
+		assertThatExceptionOfType(OAuth2IntrospectionException.class)
+			.isThrownBy(() -> introspector.introspect("token").block());
+		assertThatExceptionOfType(OAuth2IntrospectionException.class)
+			.isThrownBy(() -> introspector.introspect("token").block());
+		assertThat(this.calls).hasValue(2);
+	}
+
+	@Test
+	public void introspectWhenConcurrentThenDelegateSubscribedOnce() {
+		Sinks.One<OAuth2AuthenticatedPrincipal> result = Sinks.one();
+		CachingReactiveOpaqueTokenIntrospector introspector = introspector(result.asMono());
+		CompletableFuture<OAuth2AuthenticatedPrincipal> first = introspector.introspect("token").toFuture();
+		CompletableFuture<OAuth2AuthenticatedPrincipal> second = introspector.introspect("token").toFuture();
+		OAuth2AuthenticatedPrincipal principal = principal(NOW.plus(Duration.ofHours(1)));
+		result.tryEmitValue(principal);
+		assertThat(first.join()).isSameAs(principal);
+		assertThat(second.join()).isSameAs(principal);
+		assertThat(this.calls).hasValue(1);
+	}
+
+	private CachingReactiveOpaqueTokenIntrospector introspector(Mono<OAuth2AuthenticatedPrincipal> result) {
+		CachingReactiveOpaqueTokenIntrospector introspector = new CachingReactiveOpaqueTokenIntrospector(
+				(token) -> Mono.defer(() -> {
+					this.calls.incrementAndGet();
+					return result;
+				}));
+		introspector.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		return introspector;
+	}
+
+	private static OAuth2AuthenticatedPrincipal principal(Instant expiresAt) {
+		Map<String, Object> attributes = Map.of(OAuth2TokenIntrospectionClaimNames.SUB, "user",
+				OAuth2TokenIntrospectionClaimNames.EXP, expiresAt);
+		return new OAuth2IntrospectionAuthenticatedPrincipal(attributes, AuthorityUtils.NO_AUTHORITIES);
+	}
+
+}
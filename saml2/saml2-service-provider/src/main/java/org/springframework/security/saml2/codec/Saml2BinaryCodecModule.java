@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.saml2.codec;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.codec.BinaryCodecModule;
+import org.springframework.security.codec.BinaryInput;
+import org.springframework.security.codec.BinaryOutput;
+import org.springframework.security.codec.BinaryTypeCodec;
+import org.springframework.security.codec.SecurityBinaryCodecModules;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.saml2.provider.service.authentication.DefaultSaml2AuthenticatedPrincipal;
+import org.springframework.security.saml2.provider.service.authentication.Saml2Authentication;
+
+/**
+ * The {@link BinaryCodecModule} for the types of
+ * {@code spring-security-saml2-service-provider}.
+ *
+ * @since 6.5
+ * @see SecurityBinaryCodecModules
+ */
+public final class Saml2BinaryCodecModule implements BinaryCodecModule {
+
+	@Override
+	public List<BinaryTypeCodec<?>> getTypeCodecs() {
+		return List.of(
+				BinaryTypeCodec.of(96, DefaultSaml2AuthenticatedPrincipal.class, Saml2BinaryCodecModule::writePrincipal,
+						Saml2BinaryCodecModule::readPrincipal),
+				BinaryTypeCodec.of(97, Saml2Authentication.class, Saml2BinaryCodecModule::writeAuthentication,
+						Saml2BinaryCodecModule::readAuthentication));
+	}
+
+	private static void writePrincipal(DefaultSaml2AuthenticatedPrincipal principal, BinaryOutput output) {
+		output.writeString(principal.getName());
+		output.writeObject(principal.getAttributes());
+		output.writeObject(principal.getSessionIndexes());
+		output.writeString(principal.getRelyingPartyRegistrationId());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static DefaultSaml2AuthenticatedPrincipal readPrincipal(BinaryInput input) {
+		String name = input.readString();
+		Map<String, List<Object>> attributes = input.readObject(Map.class);
+		List<String> sessionIndexes = input.readObject(List.class);
+		DefaultSaml2AuthenticatedPrincipal principal = new DefaultSaml2AuthenticatedPrincipal(name, attributes,
+				sessionIndexes);
+		String registrationId = input.readString();
+		if (registrationId != null) {
+			principal.setRelyingPartyRegistrationId(registrationId);
+		}
+		return principal;
+	}
+
+	private static void writeAuthentication(Saml2Authentication authentication, BinaryOutput output) {
+		output.writeObject(authentication.getPrincipal());
+		output.writeString(authentication.getSaml2Response());
+		output.writeAuthorities(authentication.getAuthorities());
+		output.writeObject(authentication.getDetails());
+	}
+
+	private static Saml2Authentication readAuthentication(BinaryInput input) {
+		AuthenticatedPrincipal principal = input.readObject(AuthenticatedPrincipal.class);
+		String saml2Response = input.readString();
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		Saml2Authentication authentication = new Saml2Authentication(principal, saml2Response, authorities);
+		authentication.setDetails(input.readObject());
+		return authentication;
+	}
+
+}
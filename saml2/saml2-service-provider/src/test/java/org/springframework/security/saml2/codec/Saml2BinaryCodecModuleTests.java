@@ -0,0 +1,57 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.saml2.codec;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.codec.BinarySecurityCodec;
+import org.springframework.security.codec.CoreBinaryCodecModule;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.saml2.provider.service.authentication.DefaultSaml2AuthenticatedPrincipal;
+import org.springframework.security.saml2.provider.service.authentication.Saml2Authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Saml2BinaryCodecModule}
+ */
+public class Saml2BinaryCodecModuleTests {
+
+	private final BinarySecurityCodec codec = new BinarySecurityCodec(
+			List.of(new CoreBinaryCodecModule(), new Saml2BinaryCodecModule()));
+
+	@Test
+	void serializeWhenSaml2AuthenticationThenRoundTrips() throws Exception {
+		DefaultSaml2AuthenticatedPrincipal principal = new DefaultSaml2AuthenticatedPrincipal("user",
+				Map.of("email", List.of("user@example.org")), List.of("session-index"));
+		principal.setRelyingPartyRegistrationId("registration-id");
+		Saml2Authentication authentication = new Saml2Authentication(principal, "response",
+				AuthorityUtils.createAuthorityList("ROLE_USER"));
+		Saml2Authentication deserialized = (Saml2Authentication) this.codec
+			.deserializeFromByteArray(this.codec.serializeToByteArray(authentication));
+		assertThat(deserialized).isEqualTo(authentication);
+		DefaultSaml2AuthenticatedPrincipal deserializedPrincipal = (DefaultSaml2AuthenticatedPrincipal) deserialized
+			.getPrincipal();
+		assertThat(deserializedPrincipal.getAttributes()).isEqualTo(principal.getAttributes());
+		assertThat(deserializedPrincipal.getSessionIndexes()).containsExactly("session-index");
+		assertThat(deserializedPrincipal.getRelyingPartyRegistrationId()).isEqualTo("registration-id");
+	}
+
+}
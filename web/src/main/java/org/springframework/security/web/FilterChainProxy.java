@@ -43,6 +43,7 @@ import org.springframework.security.web.firewall.StrictHttpFirewall;
 import org.springframework.security.web.util.ThrowableAnalyzer;
 import org.springframework.security.web.util.UrlUtils;
 import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcherIndex;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.filter.GenericFilterBean;
@@ -152,6 +153,8 @@ public class FilterChainProxy extends GenericFilterBean {
 
 	private List<SecurityFilterChain> filterChains;
 
+	private RequestMatcherIndex<SecurityFilterChain> filterChainIndex;
+
 	private FilterChainValidator filterChainValidator = new NullFilterChainValidator();
 
 	private HttpFirewall firewall = new StrictHttpFirewall();
@@ -239,6 +242,10 @@ public class FilterChainProxy extends GenericFilterBean {
 	 * @return an ordered array of Filters defining the filter chain
 	 */
 	private List<Filter> getFilters(HttpServletRequest request) {
+		if (this.filterChainIndex != null) {
+			SecurityFilterChain chain = this.filterChainIndex.findFirst(request, this::matchingFilterChain);
+			return (chain != null) ? chain.getFilters() : null;
+		}
 		int count = 0;
 		for (SecurityFilterChain chain : this.filterChains) {
 			if (logger.isTraceEnabled()) {
@@ -252,6 +259,14 @@ public class FilterChainProxy extends GenericFilterBean {
 		return null;
 	}
 
+	private SecurityFilterChain matchingFilterChain(SecurityFilterChain chain, HttpServletRequest request) {
+		if (logger.isTraceEnabled()) {
+			logger.trace(LogMessage.format("Trying to match request against %s (%d/%d)", chain,
+					this.filterChains.indexOf(chain) + 1, this.filterChains.size()));
+		}
+		return chain.matches(request) ? chain : null;
+	}
+
 	/**
 	 * Convenience method, mainly for testing.
 	 * @param url the URL
@@ -269,6 +284,29 @@ public class FilterChainProxy extends GenericFilterBean {
 		return Collections.unmodifiableList(this.filterChains);
 	}
 
+	/**
+	 * Whether to compile the configured {@link SecurityFilterChain}s into a
+	 * {@link RequestMatcherIndex} that is used to select the chain for each request.
+	 *
+	 * <p>
+	 * This is useful when there are many chains, since path-only request matchers of each
+	 * {@link DefaultSecurityFilterChain} are then evaluated only when the request path
+	 * starts with their literal prefix. Other chains are still evaluated in order, so the
+	 * first matching chain is selected just as without the index. Defaults to
+	 * {@code false}.
+	 * @param indexFilterChains whether to index the filter chains
+	 * @since 6.5
+	 */
+	public void setIndexFilterChains(boolean indexFilterChains) {
+		Assert.state(!indexFilterChains || this.filterChains != null, "filterChains cannot be null");
+		this.filterChainIndex = indexFilterChains
+				? RequestMatcherIndex.compile(this.filterChains, FilterChainProxy::getRequestMatcher) : null;
+	}
+
+	private static RequestMatcher getRequestMatcher(SecurityFilterChain chain) {
+		return (chain instanceof DefaultSecurityFilterChain defaultChain) ? defaultChain.getRequestMatcher() : null;
+	}
+
 	/**
 	 * Sets the {@link SecurityContextHolderStrategy} to use. The default action is to use
 	 * the {@link SecurityContextHolderStrategy} stored in {@link SecurityContextHolder}.
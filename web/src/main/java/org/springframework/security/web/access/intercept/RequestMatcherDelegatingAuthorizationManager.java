@@ -36,6 +36,7 @@ import org.springframework.security.web.util.matcher.AnyRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher.MatchResult;
 import org.springframework.security.web.util.matcher.RequestMatcherEntry;
+import org.springframework.security.web.util.matcher.RequestMatcherIndex;
 import org.springframework.util.Assert;
 
 /**
@@ -54,10 +55,15 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 
 	private final List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings;
 
+	private final RequestMatcherIndex<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> index;
+
 	private RequestMatcherDelegatingAuthorizationManager(
-			List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings) {
+			List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings,
+			boolean indexRequestMatchers) {
 		Assert.notEmpty(mappings, "mappings cannot be empty");
 		this.mappings = mappings;
+		this.index = indexRequestMatchers
+				? RequestMatcherIndex.compile(mappings, RequestMatcherEntry::getRequestMatcher) : null;
 	}
 
 	/**
@@ -76,18 +82,20 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 		if (this.logger.isTraceEnabled()) {
 			this.logger.trace(LogMessage.format("Authorizing %s", requestLine(request)));
 		}
-		for (RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>> mapping : this.mappings) {
-
-			RequestMatcher matcher = mapping.getRequestMatcher();
-			MatchResult matchResult = matcher.matcher(request);
-			if (matchResult.isMatch()) {
-				AuthorizationManager<RequestAuthorizationContext> manager = mapping.getEntry();
-				if (this.logger.isTraceEnabled()) {
-					this.logger.trace(
-							LogMessage.format("Checking authorization on %s using %s", requestLine(request), manager));
+		if (this.index != null) {
+			RequestMatcherMatch match = this.index.findFirst(request, RequestMatcherMatch::of);
+			if (match != null) {
+				return check(authentication, request, match.manager, match.matchResult);
+			}
+		}
+		else {
+			for (RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>> mapping : this.mappings) {
+
+				RequestMatcher matcher = mapping.getRequestMatcher();
+				MatchResult matchResult = matcher.matcher(request);
+				if (matchResult.isMatch()) {
+					return check(authentication, request, mapping.getEntry(), matchResult);
 				}
-				return manager.check(authentication,
-						new RequestAuthorizationContext(request, matchResult.getVariables()));
 			}
 		}
 		if (this.logger.isTraceEnabled()) {
@@ -96,6 +104,15 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 		return DENY;
 	}
 
+	private AuthorizationDecision check(Supplier<Authentication> authentication, HttpServletRequest request,
+			AuthorizationManager<RequestAuthorizationContext> manager, MatchResult matchResult) {
+		if (this.logger.isTraceEnabled()) {
+			this.logger
+				.trace(LogMessage.format("Checking authorization on %s using %s", requestLine(request), manager));
+		}
+		return manager.check(authentication, new RequestAuthorizationContext(request, matchResult.getVariables()));
+	}
+
 	private static String requestLine(HttpServletRequest request) {
 		return request.getMethod() + " " + UrlUtils.buildRequestUrl(request);
 	}
@@ -115,6 +132,8 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 
 		private boolean anyRequestConfigured;
 
+		private boolean indexRequestMatchers;
+
 		private final List<RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>>> mappings = new ArrayList<>();
 
 		/**
@@ -169,12 +188,27 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 			return new AuthorizedUrl(matchers);
 		}
 
+		/**
+		 * Whether to compile the mappings into a {@link RequestMatcherIndex}, so that
+		 * path-based {@link RequestMatcher}s are only evaluated for requests whose path
+		 * starts with their literal prefix. Mappings are still evaluated in the order
+		 * they were added. This is useful for large numbers of mappings. Defaults to
+		 * {@code false}.
+		 * @param indexRequestMatchers whether to index the mappings
+		 * @return the {@link Builder} for further customizations
+		 * @since 6.5
+		 */
+		public Builder indexRequestMatchers(boolean indexRequestMatchers) {
+			this.indexRequestMatchers = indexRequestMatchers;
+			return this;
+		}
+
 		/**
 		 * Creates a {@link RequestMatcherDelegatingAuthorizationManager} instance.
 		 * @return the {@link RequestMatcherDelegatingAuthorizationManager} instance
 		 */
 		public RequestMatcherDelegatingAuthorizationManager build() {
-			return new RequestMatcherDelegatingAuthorizationManager(this.mappings);
+			return new RequestMatcherDelegatingAuthorizationManager(this.mappings, this.indexRequestMatchers);
 		}
 
 		/**
@@ -296,4 +330,25 @@ public final class RequestMatcherDelegatingAuthorizationManager implements Autho
 
 	}
 
+	private static final class RequestMatcherMatch {
+
+		private final AuthorizationManager<RequestAuthorizationContext> manager;
+
+		private final MatchResult matchResult;
+
+		private RequestMatcherMatch(AuthorizationManager<RequestAuthorizationContext> manager,
+				MatchResult matchResult) {
+			this.manager = manager;
+			this.matchResult = matchResult;
+		}
+
+		private static RequestMatcherMatch of(
+				RequestMatcherEntry<AuthorizationManager<RequestAuthorizationContext>> mapping,
+				HttpServletRequest request) {
+			MatchResult matchResult = mapping.getRequestMatcher().matcher(request);
+			return matchResult.isMatch() ? new RequestMatcherMatch(mapping.getEntry(), matchResult) : null;
+		}
+
+	}
+
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication.password;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A bounded, least recently used cache of Have I Been Pwned range responses keyed by hash
+ * prefix, shared by {@link HaveIBeenPwnedRestApiPasswordChecker} and
+ * {@link HaveIBeenPwnedRestApiReactivePasswordChecker}. Each range is stored as the set
+ * of hash suffixes it contains and expires after the time to live.
+ *
+ * @since 6.5
+ */
+final class HaveIBeenPwnedRangeCache {
+
+	private final Map<String, CachedRange> ranges = new LinkedHashMap<>(16, 0.75f, true);
+
+	private int maximumSize;
+
+	private Duration timeToLive = Duration.ofHours(1);
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Whether ranges are cached.
+	 * @return {@code true} if the maximum size is greater than 0
+	 */
+	boolean isEnabled() {
+		return this.maximumSize > 0;
+	}
+
+	/**
+	 * Returns the cached suffixes for the prefix.
+	 * @param prefix the hash prefix
+	 * @return the cached suffixes or {@code null} if there are none or they have expired
+	 */
+	synchronized Set<String> get(String prefix) {
+		CachedRange cached = this.ranges.get(prefix);
+		if (cached == null) {
+			return null;
+		}
+		if (!cached.expiresAt.isAfter(this.clock.instant())) {
+			this.ranges.remove(prefix);
+			return null;
+		}
+		return cached.suffixes;
+	}
+
+	/**
+	 * Caches the suffixes for the prefix, evicting the least recently used range if the
+	 * cache is full.
+	 * @param prefix the hash prefix
+	 * @param suffixes the hash suffixes of the range
+	 */
+	synchronized void put(String prefix, Set<String> suffixes) {
+		this.ranges.put(prefix, new CachedRange(suffixes, this.clock.instant().plus(this.timeToLive)));
+		while (this.ranges.size() > this.maximumSize) {
+			this.ranges.remove(this.ranges.keySet().iterator().next());
+		}
+	}
+
+	synchronized int size() {
+		return this.ranges.size();
+	}
+
+	synchronized void setMaximumSize(int maximumSize) {
+		Assert.isTrue(maximumSize >= 0, "maximumSize cannot be negative");
+		this.maximumSize = maximumSize;
+		while (this.ranges.size() > maximumSize) {
+			this.ranges.remove(this.ranges.keySet().iterator().next());
+		}
+	}
+
+	synchronized void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+		this.timeToLive = timeToLive;
+	}
+
+	synchronized void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Parses a range response into the set of hash suffixes it contains.
+	 * @param response the range response of {@code SUFFIX:COUNT} lines
+	 * @return the upper case hash suffixes
+	 */
+	static Set<String> parse(String response) {
+		if (!StringUtils.hasText(response)) {
+			return Collections.emptySet();
+		}
+		Set<String> suffixes = new HashSet<>();
+		response.lines().forEach((line) -> {
+			int separator = line.indexOf(':');
+			String suffix = ((separator != -1) ? line.substring(0, separator) : line).strip();
+			if (!suffix.isEmpty()) {
+				suffixes.add(suffix.toUpperCase(Locale.ROOT));
+			}
+		});
+		return Collections.unmodifiableSet(suffixes);
+	}
+
+	private static final class CachedRange {
+
+		private final Set<String> suffixes;
+
+		private final Instant expiresAt;
+
+		private CachedRange(Set<String> suffixes, Instant expiresAt) {
+			this.suffixes = suffixes;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
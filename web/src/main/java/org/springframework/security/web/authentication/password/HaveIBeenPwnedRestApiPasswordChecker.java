@@ -19,9 +19,12 @@ package org.springframework.security.web.authentication.password;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -29,6 +32,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.password.CompromisedPasswordChecker;
 import org.springframework.security.authentication.password.CompromisedPasswordDecision;
+import org.springframework.security.core.internal.InFlightCalls;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -41,6 +45,11 @@ import org.springframework.web.client.RestClientException;
  * API</a>. This implementation uses the Search by Range in order to protect the value of
  * the source password being searched for.
  *
+ * <p>
+ * Range responses can optionally be cached with {@link #setRangeCacheMaximumSize(int)},
+ * so that passwords whose hashes share a prefix are checked with a single request. While
+ * caching is enabled, concurrent checks of the same prefix also share a single request.
+ *
  * @author Marcus da Coregio
  * @since 6.3
  */
@@ -52,22 +61,23 @@ public final class HaveIBeenPwnedRestApiPasswordChecker implements CompromisedPa
 
 	private final Log logger = LogFactory.getLog(getClass());
 
-	private final MessageDigest sha1Digest;
-
 	private RestClient restClient = RestClient.builder().baseUrl(API_URL).build();
 
-	public HaveIBeenPwnedRestApiPasswordChecker() {
-		this.sha1Digest = getSha1Digest();
-	}
+	private final HaveIBeenPwnedRangeCache rangeCache = new HaveIBeenPwnedRangeCache();
+
+	private final InFlightCalls<String, Set<String>> rangeRequests = new InFlightCalls<>();
 
 	@Override
 	@NonNull
 	public CompromisedPasswordDecision check(String password) {
-		byte[] hash = this.sha1Digest.digest(password.getBytes(StandardCharsets.UTF_8));
+		byte[] hash = getSha1Digest().digest(password.getBytes(StandardCharsets.UTF_8));
 		String encoded = new String(Hex.encode(hash)).toUpperCase(Locale.ROOT);
 		String prefix = encoded.substring(0, PREFIX_LENGTH);
 		String suffix = encoded.substring(PREFIX_LENGTH);
 
+		if (this.rangeCache.isEnabled()) {
+			return new CompromisedPasswordDecision(getCachedLeakedPasswordsForPrefix(prefix).contains(suffix));
+		}
 		List<String> passwords = getLeakedPasswordsForPrefix(prefix);
 		boolean isLeaked = findLeakedPassword(passwords, suffix);
 		return new CompromisedPasswordDecision(isLeaked);
@@ -83,6 +93,29 @@ public final class HaveIBeenPwnedRestApiPasswordChecker implements CompromisedPa
 		this.restClient = restClient;
 	}
 
+	/**
+	 * Sets the maximum number of range responses to cache. Defaults to 0, which disables
+	 * caching.
+	 * @param maximumSize the maximum number of range responses to cache
+	 * @since 6.5
+	 */
+	public void setRangeCacheMaximumSize(int maximumSize) {
+		this.rangeCache.setMaximumSize(maximumSize);
+	}
+
+	/**
+	 * Sets the time a range response stays cached. Defaults to 1 hour.
+	 * @param timeToLive the time a range response stays cached
+	 * @since 6.5
+	 */
+	public void setRangeCacheTimeToLive(Duration timeToLive) {
+		this.rangeCache.setTimeToLive(timeToLive);
+	}
+
+	void setClock(Clock clock) {
+		this.rangeCache.setClock(clock);
+	}
+
 	private boolean findLeakedPassword(List<String> passwords, String suffix) {
 		for (String pw : passwords) {
 			if (pw.startsWith(suffix)) {
@@ -106,6 +139,27 @@ public final class HaveIBeenPwnedRestApiPasswordChecker implements CompromisedPa
 		}
 	}
 
+	private Set<String> getCachedLeakedPasswordsForPrefix(String prefix) {
+		Set<String> cached = this.rangeCache.get(prefix);
+		if (cached != null) {
+			return cached;
+		}
+		return this.rangeRequests.share(prefix, () -> requestAndCache(prefix));
+	}
+
+	private Set<String> requestAndCache(String prefix) {
+		try {
+			String response = this.restClient.get().uri(prefix).retrieve().body(String.class);
+			Set<String> passwords = HaveIBeenPwnedRangeCache.parse(response);
+			this.rangeCache.put(prefix, passwords);
+			return passwords;
+		}
+		catch (RestClientException ex) {
+			this.logger.error("Request for leaked passwords failed", ex);
+			return Collections.emptySet();
+		}
+	}
+
 	private static MessageDigest getSha1Digest() {
 		try {
 			return MessageDigest.getInstance("SHA-1");
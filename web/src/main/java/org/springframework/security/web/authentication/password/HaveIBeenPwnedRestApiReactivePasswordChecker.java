@@ -19,7 +19,11 @@ package org.springframework.security.web.authentication.password;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Locale;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -29,6 +33,7 @@ import reactor.core.scheduler.Schedulers;
 
 import org.springframework.security.authentication.password.CompromisedPasswordDecision;
 import org.springframework.security.authentication.password.ReactiveCompromisedPasswordChecker;
+import org.springframework.security.core.internal.InFlightRequests;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -41,6 +46,11 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
  * API</a>. This implementation uses the Search by Range in order to protect the value of
  * the source password being searched for.
  *
+ * <p>
+ * Range responses can optionally be cached with {@link #setRangeCacheMaximumSize(int)},
+ * so that passwords whose hashes share a prefix are checked with a single request. While
+ * caching is enabled, concurrent checks of the same prefix also share a single request.
+ *
  * @author Marcus da Coregio
  * @since 6.3
  */
@@ -54,11 +64,9 @@ public class HaveIBeenPwnedRestApiReactivePasswordChecker implements ReactiveCom
 
 	private WebClient webClient = WebClient.builder().baseUrl(API_URL).build();
 
-	private final MessageDigest sha1Digest;
+	private final HaveIBeenPwnedRangeCache rangeCache = new HaveIBeenPwnedRangeCache();
 
-	public HaveIBeenPwnedRestApiReactivePasswordChecker() {
-		this.sha1Digest = getSha1Digest();
-	}
+	private final InFlightRequests<String, Set<String>> rangeRequests = new InFlightRequests<>();
 
 	@Override
 	public Mono<CompromisedPasswordDecision> check(String password) {
@@ -70,6 +78,9 @@ public class HaveIBeenPwnedRestApiReactivePasswordChecker implements ReactiveCom
 	private Mono<Boolean> findLeakedPassword(String encodedPassword) {
 		String prefix = encodedPassword.substring(0, PREFIX_LENGTH).toUpperCase(Locale.ROOT);
 		String suffix = encodedPassword.substring(PREFIX_LENGTH).toUpperCase(Locale.ROOT);
+		if (this.rangeCache.isEnabled()) {
+			return getCachedLeakedPasswordsForPrefix(prefix).map((passwords) -> passwords.contains(suffix));
+		}
 		return getLeakedPasswordsForPrefix(prefix).any((leakedPw) -> leakedPw.startsWith(suffix));
 	}
 
@@ -84,6 +95,45 @@ public class HaveIBeenPwnedRestApiReactivePasswordChecker implements ReactiveCom
 			.onErrorResume(WebClientResponseException.class, (ex) -> Flux.empty());
 	}
 
+	private Mono<Set<String>> getCachedLeakedPasswordsForPrefix(String prefix) {
+		return Mono.fromSupplier(() -> this.rangeCache.get(prefix))
+			.switchIfEmpty(this.rangeRequests.share(prefix, () -> requestAndCache(prefix)));
+	}
+
+	private Mono<Set<String>> requestAndCache(String prefix) {
+		// @formatter:off
+		return this.webClient.get().uri(prefix).retrieve().bodyToMono(String.class)
+				.map(HaveIBeenPwnedRangeCache::parse)
+				.defaultIfEmpty(Collections.emptySet())
+				.doOnNext((suffixes) -> this.rangeCache.put(prefix, suffixes))
+				.doOnError((ex) -> this.logger.error("Request for leaked passwords failed", ex))
+				.onErrorResume(WebClientResponseException.class, (ex) -> Mono.just(Collections.emptySet()));
+		// @formatter:on
+	}
+
+	/**
+	 * Sets the maximum number of range responses to cache. Defaults to 0, which disables
+	 * caching.
+	 * @param maximumSize the maximum number of range responses to cache
+	 * @since 6.5
+	 */
+	public void setRangeCacheMaximumSize(int maximumSize) {
+		this.rangeCache.setMaximumSize(maximumSize);
+	}
+
+	/**
+	 * Sets the time a range response stays cached. Defaults to 1 hour.
+	 * @param timeToLive the time a range response stays cached
+	 * @since 6.5
+	 */
+	public void setRangeCacheTimeToLive(Duration timeToLive) {
+		this.rangeCache.setTimeToLive(timeToLive);
+	}
+
+	void setClock(Clock clock) {
+		this.rangeCache.setClock(clock);
+	}
+
 	/**
 	 * Sets the {@link WebClient} to use when making requests to Have I Been Pwned REST
 	 * API. By default, a {@link WebClient} with a base URL of {@link #API_URL} is used.
@@ -95,7 +145,7 @@ public class HaveIBeenPwnedRestApiReactivePasswordChecker implements ReactiveCom
 	}
 
 	private Mono<byte[]> getHash(String password) {
-		return Mono.fromSupplier(() -> this.sha1Digest.digest(password.getBytes(StandardCharsets.UTF_8)))
+		return Mono.fromSupplier(() -> getSha1Digest().digest(password.getBytes(StandardCharsets.UTF_8)))
 			.subscribeOn(Schedulers.boundedElastic())
 			.publishOn(Schedulers.parallel());
 	}
@@ -16,6 +16,7 @@
 
 package org.springframework.security.web.authentication.session;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -28,6 +29,7 @@ import org.springframework.context.MessageSourceAware;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.SpringSecurityMessageSource;
+import org.springframework.security.core.session.CountingSessionRegistry;
 import org.springframework.security.core.session.SessionInformation;
 import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
@@ -61,6 +63,11 @@ import org.springframework.util.Assert;
  * {@link RegisterSessionAuthenticationStrategy} using
  * {@link CompositeSessionAuthenticationStrategy}.
  * </p>
+ * <p>
+ * If the {@link SessionRegistry} is a {@link CountingSessionRegistry}, the sessions of
+ * the user are counted rather than listed, and only listed, from the least recently used,
+ * once the maximum is reached.
+ * </p>
  *
  * @author Luke Taylor
  * @author Rob Winch
@@ -99,6 +106,10 @@ public class ConcurrentSessionControlAuthenticationStrategy
 			// We permit unlimited logins
 			return;
 		}
+		if (this.sessionRegistry instanceof CountingSessionRegistry countingSessionRegistry) {
+			onAuthentication(authentication, request, allowedSessions, countingSessionRegistry);
+			return;
+		}
 		List<SessionInformation> sessions = this.sessionRegistry.getAllSessions(authentication.getPrincipal(), false);
 		int sessionCount = sessions.size();
 		if (sessionCount < allowedSessions) {
@@ -122,6 +133,28 @@ public class ConcurrentSessionControlAuthenticationStrategy
 		allowableSessionsExceeded(sessions, allowedSessions, this.sessionRegistry);
 	}
 
+	private void onAuthentication(Authentication authentication, HttpServletRequest request, int allowedSessions,
+			CountingSessionRegistry registry) {
+		Object principal = authentication.getPrincipal();
+		int sessionCount = registry.getSessionCount(principal);
+		if (sessionCount < allowedSessions) {
+			return;
+		}
+		if (sessionCount == allowedSessions) {
+			HttpSession session = request.getSession(false);
+			if (session != null && registry.isRegistered(principal, session.getId())) {
+				return;
+			}
+		}
+		List<SessionInformation> sessions = new ArrayList<>(
+				registry.getLeastRecentlyUsedSessions(principal, sessionCount));
+		if (sessions.size() < allowedSessions) {
+			// Sessions ended since they were counted
+			return;
+		}
+		allowableSessionsExceeded(sessions, allowedSessions, registry);
+	}
+
 	/**
 	 * Method intended for use by subclasses to override the maximum number of sessions
 	 * that are permitted for a particular authentication. The default implementation
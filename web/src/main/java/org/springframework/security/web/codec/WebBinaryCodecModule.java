@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.codec;
+
+import java.util.List;
+
+import org.springframework.security.codec.BinaryCodecModule;
+import org.springframework.security.codec.BinaryInput;
+import org.springframework.security.codec.BinaryOutput;
+import org.springframework.security.codec.BinaryTypeCodec;
+import org.springframework.security.codec.SecurityBinaryCodecModules;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.security.web.authentication.switchuser.SwitchUserGrantedAuthority;
+
+/**
+ * The {@link BinaryCodecModule} for the types of {@code spring-security-web}.
+ *
+ * @since 6.5
+ * @see SecurityBinaryCodecModules
+ */
+public final class WebBinaryCodecModule implements BinaryCodecModule {
+
+	@Override
+	public List<BinaryTypeCodec<?>> getTypeCodecs() {
+		return List.of(
+				BinaryTypeCodec.of(32, WebAuthenticationDetails.class, WebBinaryCodecModule::writeDetails,
+						WebBinaryCodecModule::readDetails),
+				BinaryTypeCodec.of(33, PreAuthenticatedAuthenticationToken.class,
+						WebBinaryCodecModule::writePreAuthenticatedAuthenticationToken,
+						WebBinaryCodecModule::readPreAuthenticatedAuthenticationToken),
+				BinaryTypeCodec.of(34, SwitchUserGrantedAuthority.class,
+						WebBinaryCodecModule::writeSwitchUserGrantedAuthority,
+						WebBinaryCodecModule::readSwitchUserGrantedAuthority));
+	}
+
+	private static void writeDetails(WebAuthenticationDetails details, BinaryOutput output) {
+		output.writeString(details.getRemoteAddress());
+		output.writeString(details.getSessionId());
+	}
+
+	private static WebAuthenticationDetails readDetails(BinaryInput input) {
+		return new WebAuthenticationDetails(input.readString(), input.readString());
+	}
+
+	private static void writePreAuthenticatedAuthenticationToken(PreAuthenticatedAuthenticationToken token,
+			BinaryOutput output) {
+		output.writeBoolean(token.isAuthenticated());
+		output.writeObject(token.getPrincipal());
+		output.writeObject(token.getCredentials());
+		output.writeAuthorities(token.getAuthorities());
+		output.writeObject(token.getDetails());
+	}
+
+	private static PreAuthenticatedAuthenticationToken readPreAuthenticatedAuthenticationToken(BinaryInput input) {
+		boolean authenticated = input.readBoolean();
+		Object principal = input.readObject();
+		Object credentials = input.readObject();
+		List<GrantedAuthority> authorities = input.readAuthorities();
+		PreAuthenticatedAuthenticationToken token = authenticated
+				? new PreAuthenticatedAuthenticationToken(principal, credentials, authorities)
+				: new PreAuthenticatedAuthenticationToken(principal, credentials);
+		token.setDetails(input.readObject());
+		return token;
+	}
+
+	private static void writeSwitchUserGrantedAuthority(SwitchUserGrantedAuthority authority, BinaryOutput output) {
+		output.writeString(authority.getAuthority());
+		output.writeObject(authority.getSource());
+	}
+
+	private static SwitchUserGrantedAuthority readSwitchUserGrantedAuthority(BinaryInput input) {
+		return new SwitchUserGrantedAuthority(input.readString(), input.readObject(Authentication.class));
+	}
+
+}
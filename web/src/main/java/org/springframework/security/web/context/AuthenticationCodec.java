@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * Encodes an {@link Authentication} to bytes and decodes it back, for example to store it
+ * in a cookie with {@link AuthenticationCookieSerializer}.
+ *
+ * @since 6.5
+ * @see CompactAuthenticationCodec
+ */
+public interface AuthenticationCodec {
+
+	/**
+	 * Encodes the {@link Authentication}.
+	 * @param authentication the {@link Authentication} to encode
+	 * @return the encoded {@link Authentication}
+	 * @throws IllegalArgumentException if the {@link Authentication} cannot be encoded
+	 */
+	byte[] encode(Authentication authentication);
+
+	/**
+	 * Decodes an {@link Authentication} encoded by {@link #encode(Authentication)}.
+	 * @param bytes the encoded {@link Authentication}
+	 * @return the decoded {@link Authentication}
+	 * @throws IllegalArgumentException if the bytes are not a valid encoding
+	 */
+	Authentication decode(byte[] bytes);
+
+}
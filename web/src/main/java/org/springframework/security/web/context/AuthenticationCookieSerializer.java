@@ -0,0 +1,264 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.Assert;
+
+/**
+ * Serializes an {@link Authentication} to an encrypted cookie value, and back, so that it
+ * can be restored without any server-side state. Used by
+ * {@link CookieSecurityContextRepository} and
+ * {@link org.springframework.security.web.server.context.CookieServerSecurityContextRepository}.
+ *
+ * <p>
+ * The value holds the time the {@link Authentication} expires at, followed by the
+ * {@link Authentication} encoded with the {@link AuthenticationCodec}. It is encrypted
+ * with AES in GCM mode, which authenticates it together with the name of the cookie, so
+ * that the value can neither be read nor forged by the client, nor replayed in a cookie
+ * with another name.
+ *
+ * <p>
+ * Values are encrypted with the first of the AES {@link SecretKey}s and decrypted with
+ * any of them. To rotate keys, add the new key first, and remove the old key once the
+ * values it encrypted have expired.
+ *
+ * @since 6.5
+ */
+public final class AuthenticationCookieSerializer {
+
+	private static final Log logger = LogFactory.getLog(AuthenticationCookieSerializer.class);
+
+	private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+	private static final int IV_LENGTH = 12;
+
+	private static final int TAG_LENGTH = 128;
+
+	private static final byte VERSION = 1;
+
+	private static final int HEADER_LENGTH = 1 + Long.BYTES;
+
+	private final List<SecretKey> keys;
+
+	private final SecureRandom random = new SecureRandom();
+
+	private AuthenticationCodec authenticationCodec = new CompactAuthenticationCodec();
+
+	private Duration timeToLive = Duration.ofMinutes(30);
+
+	private int maximumLength = 4000;
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Constructs an {@code AuthenticationCookieSerializer} using the provided parameters.
+	 * @param key the AES {@link SecretKey} to encrypt and decrypt values with
+	 */
+	public AuthenticationCookieSerializer(SecretKey key) {
+		this(List.of(key));
+	}
+
+	/**
+	 * Constructs an {@code AuthenticationCookieSerializer} using the provided parameters.
+	 * @param keys the AES {@link SecretKey}s to decrypt values with, the first of which
+	 * encrypts them
+	 */
+	public AuthenticationCookieSerializer(List<SecretKey> keys) {
+		Assert.notEmpty(keys, "keys cannot be empty");
+		Assert.noNullElements(keys, "keys cannot contain null elements");
+		for (SecretKey key : keys) {
+			Assert.isTrue("AES".equals(key.getAlgorithm()), "keys must be AES keys");
+		}
+		this.keys = List.copyOf(keys);
+	}
+
+	/**
+	 * Serializes the {@link Authentication}.
+	 * @param name the name of the cookie the value is for
+	 * @param authentication the {@link Authentication} to serialize
+	 * @return the cookie value, or {@code null} if it would be longer than the
+	 * {@link #setMaximumLength(int) maximum length}
+	 */
+	public String serialize(String name, Authentication authentication) {
+		Assert.hasText(name, "name cannot be empty");
+		Assert.notNull(authentication, "authentication cannot be null");
+		byte[] encoded = this.authenticationCodec.encode(authentication);
+		ByteBuffer plaintext = ByteBuffer.allocate(HEADER_LENGTH + encoded.length);
+		plaintext.put(VERSION);
+		plaintext.putLong(this.clock.instant().plus(this.timeToLive).getEpochSecond());
+		plaintext.put(encoded);
+		byte[] ciphertext = encrypt(name, plaintext.array());
+		String value = Base64.getUrlEncoder().withoutPadding().encodeToString(ciphertext);
+		if (value.length() > this.maximumLength) {
+			logger.debug(LogMessage.format("Did not serialize authentication for '%s' since it is %d characters long",
+					authentication.getName(), value.length()));
+			return null;
+		}
+		return value;
+	}
+
+	/**
+	 * Deserializes an {@link Authentication} serialized by
+	 * {@link #serialize(String, Authentication)}.
+	 * @param name the name of the cookie the value was read from
+	 * @param value the cookie value
+	 * @return the {@link Authentication}, or {@code null} if the value is invalid, was
+	 * serialized for another cookie, or has expired
+	 */
+	public Authentication deserialize(String name, String value) {
+		Assert.hasText(name, "name cannot be empty");
+		if (value == null || value.isEmpty() || value.length() > this.maximumLength) {
+			return null;
+		}
+		byte[] plaintext = decrypt(name, value);
+		if (plaintext == null || plaintext.length < HEADER_LENGTH || plaintext[0] != VERSION) {
+			logger.debug("Ignoring authentication cookie since it could not be decrypted");
+			return null;
+		}
+		Instant expiresAt = Instant.ofEpochSecond(ByteBuffer.wrap(plaintext, 1, Long.BYTES).getLong());
+		if (!this.clock.instant().isBefore(expiresAt)) {
+			logger.debug(LogMessage.format("Ignoring authentication cookie that expired at %s", expiresAt));
+			return null;
+		}
+		byte[] encoded = new byte[plaintext.length - HEADER_LENGTH];
+		System.arraycopy(plaintext, HEADER_LENGTH, encoded, 0, encoded.length);
+		try {
+			return this.authenticationCodec.decode(encoded);
+		}
+		catch (IllegalArgumentException ex) {
+			logger.debug("Ignoring authentication cookie since it could not be decoded", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Sets the {@link AuthenticationCodec} to encode the {@link Authentication} with.
+	 * Defaults to {@link CompactAuthenticationCodec}.
+	 * @param authenticationCodec the {@link AuthenticationCodec} to use
+	 */
+	public void setAuthenticationCodec(AuthenticationCodec authenticationCodec) {
+		Assert.notNull(authenticationCodec, "authenticationCodec cannot be null");
+		this.authenticationCodec = authenticationCodec;
+	}
+
+	/**
+	 * Sets how long a serialized {@link Authentication} is valid for. Defaults to 30
+	 * minutes.
+	 * @param timeToLive the time to live
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(timeToLive.getSeconds() > 0, "timeToLive must be at least one second");
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Returns how long a serialized {@link Authentication} is valid for.
+	 * @return the time to live
+	 */
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Sets the maximum length of a cookie value. Longer values are neither serialized nor
+	 * decrypted. Defaults to 4000, which keeps the cookie within the 4096 bytes browsers
+	 * are required to support.
+	 * @param maximumLength the maximum length
+	 */
+	public void setMaximumLength(int maximumLength) {
+		Assert.isTrue(maximumLength > 0, "maximumLength must be greater than 0");
+		this.maximumLength = maximumLength;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to issue and expire values.
+	 * @param clock the {@link Clock} to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	private byte[] encrypt(String name, byte[] plaintext) {
+		byte[] iv = new byte[IV_LENGTH];
+		this.random.nextBytes(iv);
+		try {
+			Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+			cipher.init(Cipher.ENCRYPT_MODE, this.keys.get(0), new GCMParameterSpec(TAG_LENGTH, iv));
+			cipher.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+			byte[] ciphertext = new byte[IV_LENGTH + cipher.getOutputSize(plaintext.length)];
+			System.arraycopy(iv, 0, ciphertext, 0, IV_LENGTH);
+			cipher.doFinal(plaintext, 0, plaintext.length, ciphertext, IV_LENGTH);
+			return ciphertext;
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Unable to encrypt authentication cookie", ex);
+		}
+	}
+
+	private byte[] decrypt(String name, String value) {
+		byte[] ciphertext;
+		try {
+			ciphertext = Base64.getUrlDecoder().decode(value);
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+		if (ciphertext.length < IV_LENGTH + TAG_LENGTH / Byte.SIZE) {
+			return null;
+		}
+		GCMParameterSpec parameters = new GCMParameterSpec(TAG_LENGTH, ciphertext, 0, IV_LENGTH);
+		byte[] aad = name.getBytes(StandardCharsets.UTF_8);
+		for (SecretKey key : this.keys) {
+			try {
+				Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+				cipher.init(Cipher.DECRYPT_MODE, key, parameters);
+				cipher.updateAAD(aad);
+				return cipher.doFinal(ciphertext, IV_LENGTH, ciphertext.length - IV_LENGTH);
+			}
+			catch (AEADBadTagException ex) {
+				// encrypted with another key, or tampered with, try the next key
+			}
+			catch (GeneralSecurityException ex) {
+				throw new IllegalStateException("Unable to decrypt authentication cookie", ex);
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link AuthenticationCodec} that only encodes the name and the authorities of an
+ * {@link Authentication}, which is what most authorization decisions need and keeps the
+ * encoding small enough for a cookie.
+ *
+ * <p>
+ * The {@link Authentication} is decoded as an authenticated
+ * {@link UsernamePasswordAuthenticationToken} whose principal is the name, without
+ * credentials or details, and whose authorities are {@link SimpleGrantedAuthority}
+ * instances. Authorities that cannot be represented as a {@link String} are not encoded.
+ *
+ * @since 6.5
+ */
+public final class CompactAuthenticationCodec implements AuthenticationCodec {
+
+	private static final int VERSION = 1;
+
+	private static final int MAX_AUTHORITIES = 0xffff;
+
+	@Override
+	public byte[] encode(Authentication authentication) {
+		Assert.notNull(authentication, "authentication cannot be null");
+		Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+		List<String> names = new ArrayList<>(authorities.size());
+		for (GrantedAuthority authority : authorities) {
+			if (authority.getAuthority() != null) {
+				names.add(authority.getAuthority());
+			}
+		}
+		Assert.isTrue(names.size() <= MAX_AUTHORITIES, "authentication has too many authorities to encode");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeByte(VERSION);
+			output.writeUTF(authentication.getName());
+			output.writeShort(names.size());
+			for (String name : names) {
+				output.writeUTF(name);
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Unable to encode " + authentication.getClass().getName(), ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public Authentication decode(byte[] bytes) {
+		Assert.notNull(bytes, "bytes cannot be null");
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			int version = input.readUnsignedByte();
+			Assert.isTrue(version == VERSION, () -> "Unsupported encoding version " + version);
+			String name = input.readUTF();
+			int count = input.readUnsignedShort();
+			List<GrantedAuthority> authorities = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				authorities.add(new SimpleGrantedAuthority(input.readUTF()));
+			}
+			Assert.isTrue(input.available() == 0, "Unexpected bytes after the encoded authentication");
+			return UsernamePasswordAuthenticationToken.authenticated(name, null, authorities);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Unable to decode authentication", ex);
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import java.util.function.Consumer;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.log.LogMessage;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.Transient;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * A {@link SecurityContextRepository} that stores the {@link Authentication} in an
+ * encrypted cookie, serialized with an {@link AuthenticationCookieSerializer}, so that
+ * the {@link SecurityContext} is restored without accessing the {@code HttpSession} or
+ * any other server-side store.
+ *
+ * <p>
+ * Only what the {@link AuthenticationCodec} encodes is restored, by default the name and
+ * the authorities. Anonymous and {@link Transient} authentications are not stored, and an
+ * {@link Authentication} whose cookie would exceed the maximum length of the
+ * {@link AuthenticationCookieSerializer} is not stored either. Since the cookie is only
+ * written when the context is saved, for example after a login, the
+ * {@link Authentication} expires after the time to live of the
+ * {@link AuthenticationCookieSerializer} unless it is saved again.
+ *
+ * @since 6.5
+ */
+public final class CookieSecurityContextRepository implements SecurityContextRepository {
+
+	/**
+	 * The default name of the cookie.
+	 */
+	public static final String DEFAULT_COOKIE_NAME = "SPRING_SECURITY_CONTEXT";
+
+	private static final Log logger = LogFactory.getLog(CookieSecurityContextRepository.class);
+
+	private final AuthenticationCookieSerializer serializer;
+
+	private String cookieName = DEFAULT_COOKIE_NAME;
+
+	private Consumer<ResponseCookie.ResponseCookieBuilder> cookieCustomizer = (builder) -> {
+	};
+
+	private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+	private SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
+		.getContextHolderStrategy();
+
+	/**
+	 * Constructs a {@code CookieSecurityContextRepository} using the provided parameters.
+	 * @param serializer the {@link AuthenticationCookieSerializer} to use
+	 */
+	public CookieSecurityContextRepository(AuthenticationCookieSerializer serializer) {
+		Assert.notNull(serializer, "serializer cannot be null");
+		this.serializer = serializer;
+	}
+
+	@Override
+	@Deprecated
+	public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+		return loadDeferredContext(requestResponseHolder.getRequest()).get();
+	}
+
+	@Override
+	public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+		return new SupplierDeferredSecurityContext(() -> readContext(request), this.securityContextHolderStrategy);
+	}
+
+	@Override
+	public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+		Authentication authentication = context.getAuthentication();
+		if (authentication == null || this.trustResolver.isAnonymous(authentication) || isTransient(context)
+				|| isTransient(authentication)) {
+			removeCookie(request, response);
+			return;
+		}
+		String value = this.serializer.serialize(this.cookieName, authentication);
+		if (value == null) {
+			logger.warn(LogMessage.format("Did not store authentication for '%s' since it does not fit in a cookie",
+					authentication.getName()));
+			removeCookie(request, response);
+			return;
+		}
+		addCookie(value, this.serializer.getTimeToLive().getSeconds(), request, response);
+	}
+
+	@Override
+	public boolean containsContext(HttpServletRequest request) {
+		Cookie cookie = WebUtils.getCookie(request, this.cookieName);
+		return cookie != null && StringUtils.hasLength(cookie.getValue());
+	}
+
+	/**
+	 * Sets the name of the cookie. Defaults to {@link #DEFAULT_COOKIE_NAME}.
+	 * @param cookieName the name of the cookie
+	 */
+	public void setCookieName(String cookieName) {
+		Assert.hasText(cookieName, "cookieName cannot be empty");
+		this.cookieName = cookieName;
+	}
+
+	/**
+	 * Sets a {@link Consumer} to customize the cookie, which is {@code HttpOnly},
+	 * {@code SameSite=Lax}, {@code Secure} if the request is, and scoped to the context
+	 * path by default.
+	 * @param cookieCustomizer the {@link Consumer} to use
+	 */
+	public void setCookieCustomizer(Consumer<ResponseCookie.ResponseCookieBuilder> cookieCustomizer) {
+		Assert.notNull(cookieCustomizer, "cookieCustomizer cannot be null");
+		this.cookieCustomizer = cookieCustomizer;
+	}
+
+	/**
+	 * Sets the {@link AuthenticationTrustResolver} used to skip storing anonymous
+	 * authentications.
+	 * @param trustResolver the {@link AuthenticationTrustResolver} to use
+	 */
+	public void setTrustResolver(AuthenticationTrustResolver trustResolver) {
+		Assert.notNull(trustResolver, "trustResolver cannot be null");
+		this.trustResolver = trustResolver;
+	}
+
+	/**
+	 * Sets the {@link SecurityContextHolderStrategy} to use. The default action is to use
+	 * the {@link SecurityContextHolderStrategy} stored in {@link SecurityContextHolder}.
+	 * @param securityContextHolderStrategy the {@link SecurityContextHolderStrategy} to
+	 * use
+	 */
+	public void setSecurityContextHolderStrategy(SecurityContextHolderStrategy securityContextHolderStrategy) {
+		Assert.notNull(securityContextHolderStrategy, "securityContextHolderStrategy cannot be null");
+		this.securityContextHolderStrategy = securityContextHolderStrategy;
+	}
+
+	private SecurityContext readContext(HttpServletRequest request) {
+		Cookie cookie = WebUtils.getCookie(request, this.cookieName);
+		if (cookie == null) {
+			return null;
+		}
+		Authentication authentication = this.serializer.deserialize(this.cookieName, cookie.getValue());
+		if (authentication == null) {
+			return null;
+		}
+		SecurityContext context = this.securityContextHolderStrategy.createEmptyContext();
+		context.setAuthentication(authentication);
+		return context;
+	}
+
+	private void removeCookie(HttpServletRequest request, HttpServletResponse response) {
+		if (containsContext(request)) {
+			addCookie("", 0, request, response);
+		}
+	}
+
+	private void addCookie(String value, long maxAge, HttpServletRequest request, HttpServletResponse response) {
+		String contextPath = request.getContextPath();
+		ResponseCookie.ResponseCookieBuilder builder = ResponseCookie.from(this.cookieName, value)
+			.httpOnly(true)
+			.secure(request.isSecure())
+			.sameSite("Lax")
+			.path(StringUtils.hasLength(contextPath) ? contextPath : "/")
+			.maxAge(maxAge);
+		this.cookieCustomizer.accept(builder);
+		ResponseCookie responseCookie = builder.build();
+		Cookie cookie = new Cookie(responseCookie.getName(), responseCookie.getValue());
+		cookie.setSecure(responseCookie.isSecure());
+		cookie.setPath(responseCookie.getPath());
+		cookie.setMaxAge((int) responseCookie.getMaxAge().getSeconds());
+		cookie.setHttpOnly(responseCookie.isHttpOnly());
+		if (StringUtils.hasLength(responseCookie.getDomain())) {
+			cookie.setDomain(responseCookie.getDomain());
+		}
+		if (StringUtils.hasText(responseCookie.getSameSite())) {
+			cookie.setAttribute("SameSite", responseCookie.getSameSite());
+		}
+		response.addCookie(cookie);
+	}
+
+	private boolean isTransient(Object object) {
+		return AnnotationUtils.getAnnotation(object.getClass(), Transient.class) != null;
+	}
+
+}
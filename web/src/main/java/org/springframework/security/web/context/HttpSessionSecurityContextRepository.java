@@ -16,6 +16,7 @@
 
 package org.springframework.security.web.context;
 
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 import jakarta.servlet.AsyncContext;
@@ -79,6 +80,12 @@ import org.springframework.web.util.WebUtils;
  * need to conserve server memory and ensure all classes using the
  * {@code SecurityContextHolder} are designed to have no persistence of the
  * {@code SecurityContext} between web requests.
+ * <p>
+ * With remote or replicated session stores, every {@code setAttribute} call stores the
+ * whole {@code SecurityContext} again. If {@link #setSkipUnchangedContextWrites(boolean)
+ * skipUnchangedContextWrites} is enabled, a hash of the contents of the context read from
+ * the session is remembered for the request, and a context whose contents hash the same
+ * is not stored again, even if it is a different instance.
  *
  * @author Luke Taylor
  * @since 3.0
@@ -90,6 +97,9 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 	 */
 	public static final String SPRING_SECURITY_CONTEXT_KEY = "SPRING_SECURITY_CONTEXT";
 
+	private static final String LOADED_CONTEXT_ATTR_NAME = HttpSessionSecurityContextRepository.class.getName()
+		.concat(".LOADED_CONTEXT");
+
 	protected final Log logger = LogFactory.getLog(this.getClass());
 
 	private SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
@@ -109,6 +119,12 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 
 	private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
 
+	private boolean skipUnchangedContextWrites;
+
+	private final LongAdder contextWrites = new LongAdder();
+
+	private final LongAdder skippedContextWrites = new LongAdder();
+
 	/**
 	 * Gets the security context for the current request (if available) and returns it.
 	 * <p>
@@ -122,6 +138,7 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		HttpServletResponse response = requestResponseHolder.getResponse();
 		HttpSession httpSession = request.getSession(false);
 		SecurityContext context = readSecurityContextFromSession(httpSession);
+		rememberLoadedContext(request, context);
 		if (context == null) {
 			context = generateNewContext();
 			if (this.logger.isTraceEnabled()) {
@@ -140,7 +157,11 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 
 	@Override
 	public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
-		Supplier<SecurityContext> supplier = () -> readSecurityContextFromSession(request.getSession(false));
+		Supplier<SecurityContext> supplier = () -> {
+			SecurityContext context = readSecurityContextFromSession(request.getSession(false));
+			rememberLoadedContext(request, context);
+			return context;
+		};
 		return new SupplierDeferredSecurityContext(supplier, this.securityContextHolderStrategy);
 	}
 
@@ -167,13 +188,22 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		else {
 			boolean createSession = this.allowSessionCreation;
 			HttpSession session = request.getSession(createSession);
-			setContextInSession(context, session);
+			setContextInSession(context, session, request);
 		}
 	}
 
-	private void setContextInSession(SecurityContext context, HttpSession session) {
+	private void setContextInSession(SecurityContext context, HttpSession session, HttpServletRequest request) {
 		if (session != null) {
+			if (isUnchangedSinceLoaded(context, session, request)) {
+				this.skippedContextWrites.increment();
+				if (this.logger.isTraceEnabled()) {
+					this.logger
+						.trace(LogMessage.format("Did not store unchanged %s to HttpSession [%s]", context, session));
+				}
+				return;
+			}
 			session.setAttribute(this.springSecurityContextKey, context);
+			this.contextWrites.increment();
 			if (this.logger.isDebugEnabled()) {
 				this.logger.debug(LogMessage.format("Stored %s to HttpSession [%s]", context, session));
 			}
@@ -189,6 +219,30 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		}
 	}
 
+	private void rememberLoadedContext(HttpServletRequest request, SecurityContext context) {
+		if (this.skipUnchangedContextWrites && context != null) {
+			request.setAttribute(LOADED_CONTEXT_ATTR_NAME,
+					new LoadedContext(context, SecurityContextFingerprint.of(context)));
+		}
+	}
+
+	/**
+	 * Whether the session still holds the context read from it during this request, and
+	 * neither that context nor the one to store changed from what was read.
+	 */
+	private boolean isUnchangedSinceLoaded(SecurityContext context, HttpSession session, HttpServletRequest request) {
+		if (!this.skipUnchangedContextWrites
+				|| !(request.getAttribute(LOADED_CONTEXT_ATTR_NAME) instanceof LoadedContext loaded)
+				|| session.getAttribute(this.springSecurityContextKey) != loaded.context) {
+			return false;
+		}
+		long fingerprint = SecurityContextFingerprint.of(context);
+		if (fingerprint != loaded.fingerprint) {
+			return false;
+		}
+		return context == loaded.context || SecurityContextFingerprint.of(loaded.context) == loaded.fingerprint;
+	}
+
 	@Override
 	public boolean containsContext(HttpServletRequest request) {
 		HttpSession session = request.getSession(false);
@@ -311,6 +365,39 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 		this.trustResolver = trustResolver;
 	}
 
+	/**
+	 * Sets whether a {@link SecurityContext} whose contents did not change since it was
+	 * read from the session during the request should not be stored again. The contents
+	 * compared are the types, the name, the authorities and the hash codes of the
+	 * principal and details, so principals that change without changing their hash code
+	 * should not be used with this option. Defaults to {@code false}.
+	 * @param skipUnchangedContextWrites whether to skip storing unchanged contexts
+	 * @since 6.5
+	 */
+	public void setSkipUnchangedContextWrites(boolean skipUnchangedContextWrites) {
+		this.skipUnchangedContextWrites = skipUnchangedContextWrites;
+	}
+
+	/**
+	 * Returns how many times a {@link SecurityContext} was stored in a session.
+	 * @return the number of times a {@link SecurityContext} was stored
+	 * @since 6.5
+	 */
+	public long getContextWriteCount() {
+		return this.contextWrites.sum();
+	}
+
+	/**
+	 * Returns how many times storing a {@link SecurityContext} was skipped because it did
+	 * not change.
+	 * @return the number of times storing a {@link SecurityContext} was skipped
+	 * @since 6.5
+	 * @see #setSkipUnchangedContextWrites(boolean)
+	 */
+	public long getSkippedContextWriteCount() {
+		return this.skippedContextWrites.sum();
+	}
+
 	private static class SaveToSessionRequestWrapper extends HttpServletRequestWrapper {
 
 		private final SaveContextOnUpdateOrErrorResponseWrapper response;
@@ -474,4 +561,17 @@ public class HttpSessionSecurityContextRepository implements SecurityContextRepo
 
 	}
 
+	private static final class LoadedContext {
+
+		private final SecurityContext context;
+
+		private final long fingerprint;
+
+		private LoadedContext(SecurityContext context, long fingerprint) {
+			this.context = context;
+			this.fingerprint = fingerprint;
+		}
+
+	}
+
 }
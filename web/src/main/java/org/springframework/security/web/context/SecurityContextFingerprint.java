@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import java.util.Objects;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+
+/**
+ * Computes a 64-bit hash of the contents of a {@link SecurityContext} that change when it
+ * needs to be stored again: the type of the {@link SecurityContext} and
+ * {@link Authentication}, the name, whether it is authenticated, the authorities and the
+ * hash codes of the principal and details. Credentials are ignored since they are usually
+ * erased after authentication.
+ *
+ * <p>
+ * Strings are hashed character by character with 64-bit FNV-1a rather than through
+ * {@link String#hashCode()}, whose collisions are easy to construct. This makes
+ * collisions unlikely but not impossible, and the principal and details still only
+ * contribute their 32-bit {@link Object#hashCode()}. A collision, or a principal or
+ * details mutated in place without changing its hash code, yields the same fingerprint,
+ * in which case the repository skips a write that was needed.
+ *
+ * @since 6.5
+ */
+final class SecurityContextFingerprint {
+
+	private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long PRIME = 0x100000001b3L;
+
+	private SecurityContextFingerprint() {
+	}
+
+	static long of(SecurityContext context) {
+		long hash = hash(OFFSET_BASIS, context.getClass().getName());
+		Authentication authentication = context.getAuthentication();
+		if (authentication == null) {
+			return hash;
+		}
+		hash = hash(hash, authentication.getClass().getName());
+		hash = hash(hash, authentication.getName());
+		hash = hash(hash, authentication.isAuthenticated() ? 1 : 0);
+		hash = hash(hash, Objects.hashCode(authentication.getPrincipal()));
+		hash = hash(hash, Objects.hashCode(authentication.getDetails()));
+		int authorities = 0;
+		for (GrantedAuthority authority : authentication.getAuthorities()) {
+			hash = hash(hash, authority.getAuthority());
+			authorities++;
+		}
+		return hash(hash, authorities);
+	}
+
+	private static long hash(long hash, String value) {
+		if (value == null) {
+			return hash(hash, -1);
+		}
+		for (int i = 0; i < value.length(); i++) {
+			hash = (hash ^ value.charAt(i)) * PRIME;
+		}
+		return hash(hash, value.length());
+	}
+
+	private static long hash(long hash, int value) {
+		return (hash ^ value) * PRIME;
+	}
+
+}
@@ -25,12 +25,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.http.HttpMethod;
+import org.springframework.security.web.firewall.internal.UrlBlocklist;
 import org.springframework.util.Assert;
 
 /**
@@ -117,23 +117,18 @@ public class StrictHttpFirewall implements HttpFirewall {
 	private static final List<String> FORBIDDEN_PARAGRAPH_SEPARATOR = Collections
 		.unmodifiableList(Arrays.asList("\u2029"));
 
-	private Set<String> encodedUrlBlocklist = new HashSet<>();
+	private UrlBlocklist encodedUrlBlocklist = new UrlBlocklist();
 
-	private Set<String> decodedUrlBlocklist = new HashSet<>();
+	private UrlBlocklist decodedUrlBlocklist = new UrlBlocklist();
 
 	private Set<String> allowedHttpMethods = createDefaultAllowedHttpMethods();
 
 	private Predicate<String> allowedHostnames = (hostname) -> true;
 
-	private static final Pattern ASSIGNED_AND_NOT_ISO_CONTROL_PATTERN = Pattern
-		.compile("[\\p{IsAssigned}&&[^\\p{IsControl}]]*");
+	private static final Predicate<String> ASSIGNED_AND_NOT_ISO_CONTROL_PREDICATE = (s) -> isAssignedAndNotIsoControl(s,
+			false);
 
-	private static final Predicate<String> ASSIGNED_AND_NOT_ISO_CONTROL_PREDICATE = (
-			s) -> ASSIGNED_AND_NOT_ISO_CONTROL_PATTERN.matcher(s).matches();
-
-	private static final Pattern HEADER_VALUE_PATTERN = Pattern.compile("[\\p{IsAssigned}&&[[^\\p{IsControl}]||\\t]]*");
-
-	private static final Predicate<String> HEADER_VALUE_PREDICATE = (s) -> HEADER_VALUE_PATTERN.matcher(s).matches();
+	private static final Predicate<String> HEADER_VALUE_PREDICATE = (s) -> isAssignedAndNotIsoControl(s, true);
 
 	private Predicate<String> allowedHeaderNames = ALLOWED_HEADER_NAMES;
 
@@ -515,20 +510,22 @@ public class StrictHttpFirewall implements HttpFirewall {
 	@Override
 	public FirewalledRequest getFirewalledRequest(HttpServletRequest request) throws RequestRejectedException {
 		rejectForbiddenHttpMethod(request);
-		rejectedBlocklistedUrls(request);
+		UrlBlocklist.Scanner encoded = this.encodedUrlBlocklist.scanner();
+		int contextPath = rejectBlocklisted(encoded, encoded.scan(request.getContextPath(), false));
+		int requestUri = rejectBlocklisted(encoded, encoded.scan(request.getRequestURI(), true));
+		UrlBlocklist.Scanner decoded = this.decodedUrlBlocklist.scanner();
+		int servletPath = rejectBlocklisted(decoded, decoded.scan(request.getServletPath(), false));
+		int pathInfo = rejectBlocklisted(decoded, decoded.scan(request.getPathInfo(), false));
 		rejectedUntrustedHosts(request);
-		if (!isNormalized(request)) {
+		if (UrlBlocklist.Scanner.hasFlag(contextPath | requestUri | servletPath | pathInfo,
+				UrlBlocklist.NOT_NORMALIZED)) {
 			throw new RequestRejectedException("The request was rejected because the URL was not normalized.");
 		}
-		rejectNonPrintableAsciiCharactersInFieldName(request.getRequestURI(), "requestURI");
-		return new StrictFirewalledRequest(request);
-	}
-
-	private void rejectNonPrintableAsciiCharactersInFieldName(String toCheck, String propertyName) {
-		if (!containsOnlyPrintableAsciiCharacters(toCheck)) {
-			throw new RequestRejectedException(String
-				.format("The %s was rejected because it can only contain printable ASCII characters.", propertyName));
+		if (UrlBlocklist.Scanner.hasFlag(requestUri, UrlBlocklist.NOT_PRINTABLE_ASCII)) {
+			throw new RequestRejectedException(
+					"The requestURI was rejected because it can only contain printable ASCII characters.");
 		}
+		return new StrictFirewalledRequest(request);
 	}
 
 	private void rejectForbiddenHttpMethod(HttpServletRequest request) {
@@ -542,21 +539,14 @@ public class StrictHttpFirewall implements HttpFirewall {
 		}
 	}
 
-	private void rejectedBlocklistedUrls(HttpServletRequest request) {
-		for (String forbidden : this.encodedUrlBlocklist) {
-			if (encodedUrlContains(request, forbidden)) {
-				throw new RequestRejectedException(
-						"The request was rejected because the URL contained a potentially malicious String \""
-								+ forbidden + "\"");
-			}
-		}
-		for (String forbidden : this.decodedUrlBlocklist) {
-			if (decodedUrlContains(request, forbidden)) {
-				throw new RequestRejectedException(
-						"The request was rejected because the URL contained a potentially malicious String \""
-								+ forbidden + "\"");
-			}
+	private static int rejectBlocklisted(UrlBlocklist.Scanner scanner, int result) {
+		String forbidden = scanner.getBlocklisted(result);
+		if (forbidden != null) {
+			throw new RequestRejectedException(
+					"The request was rejected because the URL contained a potentially malicious String \"" + forbidden
+							+ "\"");
 		}
+		return result;
 	}
 
 	private void rejectedUntrustedHosts(HttpServletRequest request) {
@@ -584,74 +574,17 @@ public class StrictHttpFirewall implements HttpFirewall {
 		return result;
 	}
 
-	private static boolean isNormalized(HttpServletRequest request) {
-		if (!isNormalized(request.getRequestURI())) {
-			return false;
-		}
-		if (!isNormalized(request.getContextPath())) {
-			return false;
-		}
-		if (!isNormalized(request.getServletPath())) {
-			return false;
-		}
-		if (!isNormalized(request.getPathInfo())) {
-			return false;
-		}
-		return true;
-	}
-
-	private static boolean encodedUrlContains(HttpServletRequest request, String value) {
-		if (valueContains(request.getContextPath(), value)) {
-			return true;
-		}
-		return valueContains(request.getRequestURI(), value);
-	}
-
-	private static boolean decodedUrlContains(HttpServletRequest request, String value) {
-		if (valueContains(request.getServletPath(), value)) {
-			return true;
-		}
-		return valueContains(request.getPathInfo(), value);
-	}
-
-	private static boolean containsOnlyPrintableAsciiCharacters(String uri) {
-		if (uri == null) {
-			return true;
-		}
-		int length = uri.length();
-		for (int i = 0; i < length; i++) {
-			char ch = uri.charAt(i);
-			if (ch < '\u0020' || ch > '\u007e') {
-				return false;
-			}
-		}
-		return true;
-	}
-
-	private static boolean valueContains(String value, String contains) {
-		return value != null && value.contains(contains);
-	}
-
-	/**
-	 * Checks whether a path is normalized (doesn't contain path traversal sequences like
-	 * "./", "/../" or "/.")
-	 * @param path the path to test
-	 * @return true if the path doesn't contain any path-traversal character sequences.
-	 */
-	private static boolean isNormalized(String path) {
-		if (path == null) {
-			return true;
-		}
-		for (int i = path.length(); i > 0;) {
-			int slashIndex = path.lastIndexOf('/', i - 1);
-			int gap = i - slashIndex;
-			if (gap == 2 && path.charAt(slashIndex + 1) == '.') {
-				return false; // ".", "/./" or "/."
-			}
-			if (gap == 3 && path.charAt(slashIndex + 1) == '.' && path.charAt(slashIndex + 2) == '.') {
-				return false;
+	private static boolean isAssignedAndNotIsoControl(String value, boolean allowTab) {
+		int length = value.length();
+		for (int i = 0; i < length;) {
+			int codePoint = value.codePointAt(i);
+			if (codePoint < ' ' || codePoint > '~') {
+				int type = Character.getType(codePoint);
+				if (type == Character.UNASSIGNED || (type == Character.CONTROL && !(allowTab && codePoint == '\t'))) {
+					return false;
+				}
 			}
-			i = slashIndex;
+			i += Character.charCount(codePoint);
 		}
 		return true;
 	}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.firewall.internal;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A mutable set of blocklisted URL strings that is compiled into a table indexed by the
+ * first character of each entry, so that a URL component can be checked for all entries,
+ * for path traversal segments and for non-printable characters in a single pass without
+ * creating intermediate strings.
+ *
+ * <p>
+ * The compiled table is discarded whenever the set is modified and rebuilt on the next
+ * scan.
+ *
+ * <p>
+ * Shared by {@link org.springframework.security.web.firewall.StrictHttpFirewall} and
+ * {@link org.springframework.security.web.server.firewall.StrictServerWebExchangeFirewall}.
+ * For internal use only.
+ *
+ * @since 6.5
+ */
+public final class UrlBlocklist extends AbstractSet<String> {
+
+	/**
+	 * Flag set in the result of {@link Scanner#scan(String, boolean)} when the value
+	 * contains a {@code "."} or {@code ".."} path segment.
+	 */
+	public static final int NOT_NORMALIZED = 1;
+
+	/**
+	 * Flag set in the result of {@link Scanner#scan(String, boolean)} when the value
+	 * contains a character outside of the printable ASCII range.
+	 */
+	public static final int NOT_PRINTABLE_ASCII = 2;
+
+	private static final int FLAG_BITS = 2;
+
+	private final Set<String> values = new HashSet<>();
+
+	private volatile Scanner scanner;
+
+	/**
+	 * Returns a {@link Scanner} for the current entries of this set.
+	 * @return the {@link Scanner}
+	 */
+	public Scanner scanner() {
+		Scanner scanner = this.scanner;
+		if (scanner == null) {
+			scanner = new Scanner(this.values.toArray(new String[0]));
+			this.scanner = scanner;
+		}
+		return scanner;
+	}
+
+	@Override
+	public boolean add(String value) {
+		boolean added = this.values.add(value);
+		if (added) {
+			this.scanner = null;
+		}
+		return added;
+	}
+
+	@Override
+	public boolean remove(Object value) {
+		boolean removed = this.values.remove(value);
+		if (removed) {
+			this.scanner = null;
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		this.values.clear();
+		this.scanner = null;
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		return this.values.contains(value);
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		Iterator<String> iterator = this.values.iterator();
+		return new Iterator<>() {
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+				UrlBlocklist.this.scanner = null;
+			}
+
+		};
+	}
+
+	@Override
+	public int size() {
+		return this.values.size();
+	}
+
+	/**
+	 * Scans URL components against an immutable snapshot of a {@link UrlBlocklist}.
+	 */
+	public static final class Scanner {
+
+		private static final int ASCII = 128;
+
+		private final String[] blocklist;
+
+		private final int[][] candidates = new int[ASCII + 1][];
+
+		private final int empty;
+
+		private Scanner(String[] blocklist) {
+			this.blocklist = blocklist;
+			int empty = -1;
+			for (int i = 0; i < blocklist.length; i++) {
+				String forbidden = blocklist[i];
+				if (forbidden == null) {
+					continue;
+				}
+				if (forbidden.isEmpty()) {
+					empty = i;
+					continue;
+				}
+				char first = forbidden.charAt(0);
+				int bucket = (first < ASCII) ? first : ASCII;
+				int[] existing = this.candidates[bucket];
+				int[] candidates = (existing != null) ? Arrays.copyOf(existing, existing.length + 1) : new int[1];
+				candidates[candidates.length - 1] = i;
+				this.candidates[bucket] = candidates;
+			}
+			this.empty = empty;
+		}
+
+		/**
+		 * Scans the value once for blocklisted strings, for {@code "."} and {@code ".."}
+		 * path segments and optionally for characters that are not printable ASCII.
+		 * Scanning stops at the first blocklisted string.
+		 * @param value the URL component to scan, may be {@code null}
+		 * @param printableAscii whether to flag characters that are not printable ASCII
+		 * @return the scan result to be interpreted with {@link #getBlocklisted(int)} and
+		 * {@link #hasFlag(int, int)}
+		 */
+		public int scan(String value, boolean printableAscii) {
+			if (value == null) {
+				return 0;
+			}
+			if (this.empty != -1) {
+				return blocklisted(this.empty, 0);
+			}
+			int flags = 0;
+			int segmentStart = 0;
+			int length = value.length();
+			for (int i = 0; i < length; i++) {
+				char ch = value.charAt(i);
+				if (ch == '/') {
+					if (isDotSegment(value, segmentStart, i)) {
+						flags |= NOT_NORMALIZED;
+					}
+					segmentStart = i + 1;
+				}
+				if (printableAscii && (ch < ' ' || ch > '~')) {
+					flags |= NOT_PRINTABLE_ASCII;
+				}
+				int[] candidates = this.candidates[(ch < ASCII) ? ch : ASCII];
+				if (candidates != null) {
+					for (int candidate : candidates) {
+						if (value.startsWith(this.blocklist[candidate], i)) {
+							return blocklisted(candidate, flags);
+						}
+					}
+				}
+			}
+			if (isDotSegment(value, segmentStart, length)) {
+				flags |= NOT_NORMALIZED;
+			}
+			return flags;
+		}
+
+		/**
+		 * Returns the blocklisted string found by {@link #scan(String, boolean)}.
+		 * @param result the scan result
+		 * @return the blocklisted string or {@code null} if none was found
+		 */
+		public String getBlocklisted(int result) {
+			int index = (result >>> FLAG_BITS) - 1;
+			return (index != -1) ? this.blocklist[index] : null;
+		}
+
+		/**
+		 * Determines if the scan result has the given flag set.
+		 * @param result the scan result
+		 * @param flag {@link #NOT_NORMALIZED} or {@link #NOT_PRINTABLE_ASCII}
+		 * @return true if the flag is set
+		 */
+		public static boolean hasFlag(int result, int flag) {
+			return (result & flag) != 0;
+		}
+
+		private static int blocklisted(int index, int flags) {
+			return ((index + 1) << FLAG_BITS) | flags;
+		}
+
+		private static boolean isDotSegment(String value, int start, int end) {
+			int length = end - start;
+			if (length == 1) {
+				return value.charAt(start) == '.';
+			}
+			return length == 2 && value.charAt(start) == '.' && value.charAt(start + 1) == '.';
+		}
+
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.context;
+
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.log.LogMessage;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.Transient;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.AuthenticationCookieSerializer;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * A {@link ServerSecurityContextRepository} that stores the {@link Authentication} in an
+ * encrypted cookie, serialized with an {@link AuthenticationCookieSerializer}, so that
+ * the {@link SecurityContext} is restored without accessing the {@code WebSession} or any
+ * other server-side store.
+ *
+ * <p>
+ * Only what the {@link org.springframework.security.web.context.AuthenticationCodec}
+ * encodes is restored, by default the name and the authorities. Anonymous and
+ * {@link Transient} authentications are not stored, and an {@link Authentication} whose
+ * cookie would exceed the maximum length of the {@link AuthenticationCookieSerializer} is
+ * not stored either.
+ *
+ * @since 6.5
+ * @see org.springframework.security.web.context.CookieSecurityContextRepository
+ */
+public final class CookieServerSecurityContextRepository implements ServerSecurityContextRepository {
+
+	/**
+	 * The default name of the cookie.
+	 */
+	public static final String DEFAULT_COOKIE_NAME = "SPRING_SECURITY_CONTEXT";
+
+	private static final Log logger = LogFactory.getLog(CookieServerSecurityContextRepository.class);
+
+	private final AuthenticationCookieSerializer serializer;
+
+	private String cookieName = DEFAULT_COOKIE_NAME;
+
+	private Consumer<ResponseCookie.ResponseCookieBuilder> cookieCustomizer = (builder) -> {
+	};
+
+	private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+	/**
+	 * Constructs a {@code CookieServerSecurityContextRepository} using the provided
+	 * parameters.
+	 * @param serializer the {@link AuthenticationCookieSerializer} to use
+	 */
+	public CookieServerSecurityContextRepository(AuthenticationCookieSerializer serializer) {
+		Assert.notNull(serializer, "serializer cannot be null");
+		this.serializer = serializer;
+	}
+
+	@Override
+	public Mono<Void> save(ServerWebExchange exchange, SecurityContext context) {
+		return Mono.fromRunnable(() -> {
+			Authentication authentication = (context != null) ? context.getAuthentication() : null;
+			if (authentication == null || this.trustResolver.isAnonymous(authentication) || isTransient(context)
+					|| isTransient(authentication)) {
+				removeCookie(exchange);
+				return;
+			}
+			String value = this.serializer.serialize(this.cookieName, authentication);
+			if (value == null) {
+				logger.warn(LogMessage.format("Did not store authentication for '%s' since it does not fit in a cookie",
+						authentication.getName()));
+				removeCookie(exchange);
+				return;
+			}
+			addCookie(exchange, value, this.serializer.getTimeToLive().getSeconds());
+		});
+	}
+
+	@Override
+	public Mono<SecurityContext> load(ServerWebExchange exchange) {
+		return Mono.fromSupplier(() -> {
+			HttpCookie cookie = exchange.getRequest().getCookies().getFirst(this.cookieName);
+			if (cookie == null) {
+				return null;
+			}
+			Authentication authentication = this.serializer.deserialize(this.cookieName, cookie.getValue());
+			return (authentication != null) ? new SecurityContextImpl(authentication) : null;
+		});
+	}
+
+	/**
+	 * Sets the name of the cookie. Defaults to {@link #DEFAULT_COOKIE_NAME}.
+	 * @param cookieName the name of the cookie
+	 */
+	public void setCookieName(String cookieName) {
+		Assert.hasText(cookieName, "cookieName cannot be empty");
+		this.cookieName = cookieName;
+	}
+
+	/**
+	 * Sets a {@link Consumer} to customize the cookie, which is {@code HttpOnly},
+	 * {@code SameSite=Lax}, {@code Secure} if the request is, and scoped to the context
+	 * path by default.
+	 * @param cookieCustomizer the {@link Consumer} to use
+	 */
+	public void setCookieCustomizer(Consumer<ResponseCookie.ResponseCookieBuilder> cookieCustomizer) {
+		Assert.notNull(cookieCustomizer, "cookieCustomizer cannot be null");
+		this.cookieCustomizer = cookieCustomizer;
+	}
+
+	/**
+	 * Sets the {@link AuthenticationTrustResolver} used to skip storing anonymous
+	 * authentications.
+	 * @param trustResolver the {@link AuthenticationTrustResolver} to use
+	 */
+	public void setTrustResolver(AuthenticationTrustResolver trustResolver) {
+		Assert.notNull(trustResolver, "trustResolver cannot be null");
+		this.trustResolver = trustResolver;
+	}
+
+	private void removeCookie(ServerWebExchange exchange) {
+		if (exchange.getRequest().getCookies().containsKey(this.cookieName)) {
+			addCookie(exchange, "", 0);
+		}
+	}
+
+	private void addCookie(ServerWebExchange exchange, String value, long maxAge) {
+		ServerHttpRequest request = exchange.getRequest();
+		String contextPath = request.getPath().contextPath().value();
+		ResponseCookie.ResponseCookieBuilder builder = ResponseCookie.from(this.cookieName, value)
+			.httpOnly(true)
+			.secure(request.getSslInfo() != null)
+			.sameSite("Lax")
+			.path(StringUtils.hasLength(contextPath) ? contextPath : "/")
+			.maxAge(maxAge);
+		this.cookieCustomizer.accept(builder);
+		exchange.getResponse().addCookie(builder.build());
+	}
+
+	private boolean isTransient(Object object) {
+		return AnnotationUtils.getAnnotation(object.getClass(), Transient.class) != null;
+	}
+
+}
@@ -27,7 +27,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 import reactor.core.publisher.Mono;
 
@@ -37,6 +36,8 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.SslInfo;
+import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.security.web.firewall.internal.UrlBlocklist;
 import org.springframework.util.Assert;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.server.ServerWebExchange;
@@ -124,24 +125,18 @@ public class StrictServerWebExchangeFirewall implements ServerWebExchangeFirewal
 	private static final List<String> FORBIDDEN_PARAGRAPH_SEPARATOR = Collections
 		.unmodifiableList(Arrays.asList("\u2029"));
 
-	private Set<String> encodedUrlBlocklist = new HashSet<>();
+	private UrlBlocklist encodedUrlBlocklist = new UrlBlocklist();
 
-	private Set<String> decodedUrlBlocklist = new HashSet<>();
+	private UrlBlocklist decodedUrlBlocklist = new UrlBlocklist();
 
 	private Set<HttpMethod> allowedHttpMethods = createDefaultAllowedHttpMethods();
 
 	private Predicate<String> allowedHostnames = (hostname) -> true;
 
-	private static final Pattern ASSIGNED_AND_NOT_ISO_CONTROL_PATTERN = Pattern
-		.compile("[\\p{IsAssigned}&&[^\\p{IsControl}]]*");
-
-	private static final Predicate<String> ASSIGNED_AND_NOT_ISO_CONTROL_PREDICATE = (
-			s) -> ASSIGNED_AND_NOT_ISO_CONTROL_PATTERN.matcher(s).matches();
-
-	private static final Pattern HEADER_VALUE_PATTERN = Pattern.compile("[\\p{IsAssigned}&&[[^\\p{IsControl}]||\\t]]*");
+	private static final Predicate<String> ASSIGNED_AND_NOT_ISO_CONTROL_PREDICATE = StrictHttpFirewall.ALLOWED_HEADER_NAMES;
 
 	private static final Predicate<String> HEADER_VALUE_PREDICATE = (s) -> s == null
-			|| HEADER_VALUE_PATTERN.matcher(s).matches();
+			|| StrictHttpFirewall.ALLOWED_HEADER_VALUES.test(s);
 
 	private Predicate<String> allowedHeaderNames = ALLOWED_HEADER_NAMES;
 
@@ -188,9 +183,18 @@ public class StrictServerWebExchangeFirewall implements ServerWebExchangeFirewal
 		return Mono.fromCallable(() -> {
 			ServerHttpRequest request = exchange.getRequest();
 			rejectForbiddenHttpMethod(request);
-			rejectedBlocklistedUrls(request);
+			URI uri = request.getURI();
+			String path = request.getPath().value();
+			String rawPath = uri.getRawPath();
+			UrlBlocklist.Scanner encoded = this.encodedUrlBlocklist.scanner();
+			int pathResult = rejectBlocklisted(encoded, encoded.scan(path, false));
+			int rawPathResult = path.equals(rawPath) ? pathResult
+					: rejectBlocklisted(encoded, encoded.scan(rawPath, false));
+			UrlBlocklist.Scanner decoded = this.decodedUrlBlocklist.scanner();
+			int decodedPathResult = rejectBlocklisted(decoded, decoded.scan(uri.getPath(), false));
 			rejectedUntrustedHosts(request);
-			if (!isNormalized(request)) {
+			if (UrlBlocklist.Scanner.hasFlag(pathResult | rawPathResult | decodedPathResult,
+					UrlBlocklist.NOT_NORMALIZED)) {
 				throw new ServerExchangeRejectedException(
 						"The request was rejected because the URL was not normalized");
 			}
@@ -563,13 +567,6 @@ public class StrictServerWebExchangeFirewall implements ServerWebExchangeFirewal
 		this.decodedUrlBlocklist.removeAll(values);
 	}
 
-	private void rejectNonPrintableAsciiCharactersInFieldName(String toCheck, String propertyName) {
-		if (!containsOnlyPrintableAsciiCharacters(toCheck)) {
-			throw new ServerExchangeRejectedException(String
-				.format("The %s was rejected because it can only contain printable ASCII characters.", propertyName));
-		}
-	}
-
 	private void rejectForbiddenHttpMethod(ServerHttpRequest request) {
 		if (this.allowedHttpMethods == ALLOW_ANY_HTTP_METHOD) {
 			return;
@@ -581,21 +578,14 @@ public class StrictServerWebExchangeFirewall implements ServerWebExchangeFirewal
 		}
 	}
 
-	private void rejectedBlocklistedUrls(ServerHttpRequest request) {
-		for (String forbidden : this.encodedUrlBlocklist) {
-			if (encodedUrlContains(request, forbidden)) {
-				throw new ServerExchangeRejectedException(
-						"The request was rejected because the URL contained a potentially malicious String \""
-								+ forbidden + "\"");
-			}
-		}
-		for (String forbidden : this.decodedUrlBlocklist) {
-			if (decodedUrlContains(request, forbidden)) {
-				throw new ServerExchangeRejectedException(
-						"The request was rejected because the URL contained a potentially malicious String \""
-								+ forbidden + "\"");
-			}
+	private static int rejectBlocklisted(UrlBlocklist.Scanner scanner, int result) {
+		String forbidden = scanner.getBlocklisted(result);
+		if (forbidden != null) {
+			throw new ServerExchangeRejectedException(
+					"The request was rejected because the URL contained a potentially malicious String \"" + forbidden
+							+ "\"");
 		}
+		return result;
 	}
 
 	private void rejectedUntrustedHosts(ServerHttpRequest request) {
@@ -618,19 +608,6 @@ public class StrictServerWebExchangeFirewall implements ServerWebExchangeFirewal
 		return result;
 	}
 
-	private boolean isNormalized(ServerHttpRequest request) {
-		if (!isNormalized(request.getPath().value())) {
-			return false;
-		}
-		if (!isNormalized(request.getURI().getRawPath())) {
-			return false;
-		}
-		if (!isNormalized(request.getURI().getPath())) {
-			return false;
-		}
-		return true;
-	}
-
 	private void validateAllowedHeaderName(String headerNames) {
 		if (!StrictServerWebExchangeFirewall.this.allowedHeaderNames.test(headerNames)) {
 			throw new ServerExchangeRejectedException(
@@ -659,59 +636,6 @@ public class StrictServerWebExchangeFirewall implements ServerWebExchangeFirewal
 		}
 	}
 
-	private static boolean encodedUrlContains(ServerHttpRequest request, String value) {
-		if (valueContains(request.getPath().value(), value)) {
-			return true;
-		}
-		return valueContains(request.getURI().getRawPath(), value);
-	}
-
-	private static boolean decodedUrlContains(ServerHttpRequest request, String value) {
-		return valueContains(request.getURI().getPath(), value);
-	}
-
-	private static boolean containsOnlyPrintableAsciiCharacters(String uri) {
-		if (uri == null) {
-			return true;
-		}
-		int length = uri.length();
-		for (int i = 0; i < length; i++) {
-			char ch = uri.charAt(i);
-			if (ch < '\u0020' || ch > '\u007e') {
-				return false;
-			}
-		}
-		return true;
-	}
-
-	private static boolean valueContains(String value, String contains) {
-		return value != null && value.contains(contains);
-	}
-
-	/**
-	 * Checks whether a path is normalized (doesn't contain path traversal sequences like
-	 * "./", "/../" or "/.")
-	 * @param path the path to test
-	 * @return true if the path doesn't contain any path-traversal character sequences.
-	 */
-	private static boolean isNormalized(String path) {
-		if (path == null) {
-			return true;
-		}
-		for (int i = path.length(); i > 0;) {
-			int slashIndex = path.lastIndexOf('/', i - 1);
-			int gap = i - slashIndex;
-			if (gap == 2 && path.charAt(slashIndex + 1) == '.') {
-				return false; // ".", "/./" or "/."
-			}
-			if (gap == 3 && path.charAt(slashIndex + 1) == '.' && path.charAt(slashIndex + 2) == '.') {
-				return false;
-			}
-			i = slashIndex;
-		}
-		return true;
-	}
-
 	private final class StrictFirewallServerWebExchange extends ServerWebExchangeDecorator {
 
 		private StrictFirewallServerWebExchange(ServerWebExchange delegate) {
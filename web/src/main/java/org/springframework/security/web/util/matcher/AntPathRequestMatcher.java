@@ -225,6 +225,18 @@ public final class AntPathRequestMatcher implements RequestMatcher, RequestVaria
 		return this.pattern;
 	}
 
+	HttpMethod getHttpMethod() {
+		return this.httpMethod;
+	}
+
+	boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+
+	UrlPathHelper getUrlPathHelper() {
+		return this.urlPathHelper;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (!(obj instanceof AntPathRequestMatcher other)) {
@@ -82,6 +82,10 @@ public final class OrRequestMatcher implements RequestMatcher {
 		return MatchResult.notMatch();
 	}
 
+	List<RequestMatcher> getRequestMatchers() {
+		return this.requestMatchers;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
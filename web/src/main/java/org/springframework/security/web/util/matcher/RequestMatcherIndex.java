@@ -0,0 +1,298 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * An index over an ordered list of entries, each guarded by a {@link RequestMatcher},
+ * that narrows down which entries need to be evaluated for a given request.
+ *
+ * <p>
+ * Path-only matchers, that is case-sensitive {@link AntPathRequestMatcher}s that resolve
+ * the path from {@code servletPath + pathInfo} and {@link OrRequestMatcher}s composed of
+ * them, are analyzed when the index is compiled and stored in a trie keyed by the literal
+ * path segments that lead their pattern. Every other matcher is considered opaque and is
+ * a candidate for every request.
+ *
+ * <p>
+ * For a given request, only the entries found along the request's path in the trie are
+ * evaluated, and always in declaration order using the original {@link RequestMatcher}.
+ * This means that the index selects the same entry as a linear scan would, at a cost
+ * roughly proportional to the depth of the request path instead of the number of entries.
+ *
+ * @param <T> the type of the indexed entries
+ * @since 6.5
+ */
+public final class RequestMatcherIndex<T> {
+
+	private static final int[] NO_ENTRIES = new int[0];
+
+	private final List<T> entries;
+
+	private final HttpMethod[] methods;
+
+	private final Node root = new Node();
+
+	private RequestMatcherIndex(List<T> entries) {
+		this.entries = entries;
+		this.methods = new HttpMethod[entries.size()];
+	}
+
+	/**
+	 * Compiles an index over the provided entries.
+	 * @param entries the entries to index, in declaration order
+	 * @param requestMatcher resolves the {@link RequestMatcher} guarding an entry. If it
+	 * returns {@code null}, the entry is considered opaque and is evaluated for every
+	 * request
+	 * @param <T> the type of the indexed entries
+	 * @return the compiled {@link RequestMatcherIndex}
+	 */
+	public static <T> RequestMatcherIndex<T> compile(List<? extends T> entries,
+			Function<? super T, RequestMatcher> requestMatcher) {
+		Assert.notNull(entries, "entries cannot be null");
+		Assert.notNull(requestMatcher, "requestMatcher cannot be null");
+		RequestMatcherIndex<T> index = new RequestMatcherIndex<>(new ArrayList<>(entries));
+		for (int i = 0; i < index.entries.size(); i++) {
+			RequestMatcher matcher = requestMatcher.apply(index.entries.get(i));
+			List<String[]> prefixes = (matcher != null) ? literalPrefixes(matcher) : null;
+			if (prefixes == null) {
+				index.root.add(i);
+				continue;
+			}
+			if (matcher instanceof AntPathRequestMatcher antPath) {
+				index.methods[i] = antPath.getHttpMethod();
+			}
+			for (String[] prefix : prefixes) {
+				Node node = index.root;
+				for (String segment : prefix) {
+					node = node.getOrCreateChild(segment);
+				}
+				node.add(i);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Evaluates the candidate entries for the provided request in declaration order,
+	 * returning the first non-{@code null} result of the {@code evaluator}.
+	 * @param request the request
+	 * @param evaluator evaluates a candidate entry against the request, returning
+	 * {@code null} if the entry does not apply
+	 * @param <R> the type of the result
+	 * @return the first non-{@code null} result, or {@code null} if no entry applies
+	 */
+	public <R> R findFirst(HttpServletRequest request, BiFunction<? super T, HttpServletRequest, R> evaluator) {
+		String path = getRequestPath(request);
+		HttpMethod method = StringUtils.hasText(request.getMethod()) ? HttpMethod.valueOf(request.getMethod()) : null;
+		int[][] candidates = candidates(path);
+		int[] cursors = new int[candidates.length];
+		int last = -1;
+		while (true) {
+			int next = Integer.MAX_VALUE;
+			int from = -1;
+			for (int i = 0; i < candidates.length; i++) {
+				if (candidates[i] != null && cursors[i] < candidates[i].length && candidates[i][cursors[i]] < next) {
+					next = candidates[i][cursors[i]];
+					from = i;
+				}
+			}
+			if (from == -1) {
+				return null;
+			}
+			cursors[from]++;
+			if (next == last || (this.methods[next] != null && method != null && this.methods[next] != method)) {
+				continue;
+			}
+			last = next;
+			R result = evaluator.apply(this.entries.get(next), request);
+			if (result != null) {
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * Returns the indexed entries, in declaration order.
+	 * @return the indexed entries
+	 */
+	public List<T> getEntries() {
+		return Collections.unmodifiableList(this.entries);
+	}
+
+	private int[][] candidates(String path) {
+		int length = (path != null) ? path.length() : 0;
+		int[][] candidates = new int[segmentCount(path, length) + 1][];
+		candidates[0] = this.root.entries;
+		Node node = this.root;
+		int depth = 1;
+		int start = 0;
+		while (node != null && start < length) {
+			if (path.charAt(start) == '/') {
+				start++;
+				continue;
+			}
+			int end = path.indexOf('/', start);
+			end = (end != -1) ? end : length;
+			node = node.getChild(path, start, end);
+			if (node != null) {
+				candidates[depth++] = node.entries;
+			}
+			start = end;
+		}
+		return candidates;
+	}
+
+	private static int segmentCount(String path, int length) {
+		int count = 0;
+		boolean inSegment = false;
+		for (int i = 0; i < length; i++) {
+			boolean separator = path.charAt(i) == '/';
+			if (!separator && !inSegment) {
+				count++;
+			}
+			inSegment = !separator;
+		}
+		return count;
+	}
+
+	private static String getRequestPath(HttpServletRequest request) {
+		String url = request.getServletPath();
+		String pathInfo = request.getPathInfo();
+		if (pathInfo != null) {
+			url = StringUtils.hasLength(url) ? url + pathInfo : pathInfo;
+		}
+		return url;
+	}
+
+	/**
+	 * Returns the literal segment prefixes that any path matched by the provided
+	 * {@link RequestMatcher} starts with, or {@code null} if the matcher cannot be
+	 * analyzed.
+	 */
+	private static List<String[]> literalPrefixes(RequestMatcher matcher) {
+		if (matcher instanceof AntPathRequestMatcher antPath) {
+			if (!antPath.isCaseSensitive() || antPath.getUrlPathHelper() != null) {
+				return null;
+			}
+			return Collections.singletonList(literalPrefix(antPath.getPattern()));
+		}
+		if (matcher instanceof OrRequestMatcher or) {
+			List<String[]> prefixes = new ArrayList<>();
+			for (RequestMatcher delegate : or.getRequestMatchers()) {
+				List<String[]> delegatePrefixes = literalPrefixes(delegate);
+				if (delegatePrefixes == null) {
+					return null;
+				}
+				prefixes.addAll(delegatePrefixes);
+			}
+			return prefixes;
+		}
+		return null;
+	}
+
+	private static String[] literalPrefix(String pattern) {
+		List<String> prefix = new ArrayList<>();
+		for (String segment : StringUtils.tokenizeToStringArray(pattern, "/", false, true)) {
+			if (!isLiteral(segment)) {
+				break;
+			}
+			prefix.add(segment);
+		}
+		return StringUtils.toStringArray(prefix);
+	}
+
+	private static boolean isLiteral(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int hash(String value, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + value.charAt(i);
+		}
+		return hash;
+	}
+
+	private static final class Node {
+
+		private String[] keys = new String[0];
+
+		private int[] hashes = new int[0];
+
+		private Node[] children = new Node[0];
+
+		private int[] entries = NO_ENTRIES;
+
+		private Node getChild(String path, int start, int end) {
+			int hash = hash(path, start, end);
+			int length = end - start;
+			for (int i = 0; i < this.hashes.length; i++) {
+				if (this.hashes[i] == hash && this.keys[i].length() == length
+						&& path.regionMatches(start, this.keys[i], 0, length)) {
+					return this.children[i];
+				}
+			}
+			return null;
+		}
+
+		private Node getOrCreateChild(String segment) {
+			Node child = getChild(segment, 0, segment.length());
+			if (child != null) {
+				return child;
+			}
+			child = new Node();
+			int size = this.keys.length;
+			this.keys = Arrays.copyOf(this.keys, size + 1);
+			this.hashes = Arrays.copyOf(this.hashes, size + 1);
+			this.children = Arrays.copyOf(this.children, size + 1);
+			this.keys[size] = segment;
+			this.hashes[size] = segment.hashCode();
+			this.children[size] = child;
+			return child;
+		}
+
+		private void add(int entry) {
+			int size = this.entries.length;
+			if (size > 0 && this.entries[size - 1] == entry) {
+				return;
+			}
+			this.entries = Arrays.copyOf(this.entries, size + 1);
+			this.entries[size] = entry;
+		}
+
+	}
+
+}
@@ -48,11 +48,13 @@ import org.springframework.security.web.firewall.FirewalledRequest;
 import org.springframework.security.web.firewall.HttpFirewall;
 import org.springframework.security.web.firewall.RequestRejectedException;
 import org.springframework.security.web.firewall.RequestRejectedHandler;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
@@ -286,6 +288,29 @@ public class FilterChainProxyTests {
 		verify(rjh).handle(eq(this.request), eq(this.response), eq((requestRejectedException)));
 	}
 
+	@Test
+	public void doFilterWhenIndexFilterChainsThenFirstMatchingChainInvoked() throws Exception {
+		Filter orders = mock(Filter.class);
+		Filter fallback = mock(Filter.class);
+		List<SecurityFilterChain> chains = List.of(
+				new DefaultSecurityFilterChain(new AntPathRequestMatcher("/customers/**"), mock(Filter.class)),
+				new DefaultSecurityFilterChain(new AntPathRequestMatcher("/orders/**"), orders),
+				new DefaultSecurityFilterChain(this.matcher, fallback));
+		given(this.matcher.matches(any())).willReturn(true);
+		FilterChainProxy fcp = new FilterChainProxy(chains);
+		fcp.setIndexFilterChains(true);
+		this.request.setServletPath("/orders/1");
+		fcp.doFilter(this.request, this.response, this.chain);
+		verify(orders).doFilter(any(), any(), any());
+		verifyNoMoreInteractions(fallback, this.matcher);
+		assertThat(fcp.getFilters("/products/1")).containsExactly(fallback);
+	}
+
+	@Test
+	public void setIndexFilterChainsWhenNoFilterChainsThenException() {
+		assertThatIllegalStateException().isThrownBy(() -> new FilterChainProxy().setIndexFilterChains(true));
+	}
+
 	@Test
 	public void doFilterWhenMatchesThenObservationRegistryObserves() throws Exception {
 		ObservationHandler<Observation.Context> handler = mock(ObservationHandler.class);
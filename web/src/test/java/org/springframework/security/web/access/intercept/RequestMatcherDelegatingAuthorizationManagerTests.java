@@ -121,6 +121,48 @@ public class RequestMatcherDelegatingAuthorizationManagerTests {
 		assertThat(unmapped.isGranted()).isFalse();
 	}
 
+	@Test
+	public void checkWhenIndexRequestMatchersThenDelegatesFirstMatchingManager() {
+		RequestMatcherDelegatingAuthorizationManager manager = RequestMatcherDelegatingAuthorizationManager.builder()
+			.indexRequestMatchers(true)
+			.add(new AntPathRequestMatcher("/api/admin/**"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+			.add(new AntPathRequestMatcher("/api/users/{username}"),
+					(a, context) -> new AuthorizationDecision(
+							a.get().getName().equals(context.getVariables().get("username"))))
+			.add(new AntPathRequestMatcher("/api/**", "GET"), (a, o) -> new AuthorizationDecision(true))
+			.add(AnyRequestMatcher.INSTANCE, (a, o) -> null)
+			.build();
+
+		Supplier<Authentication> authentication = () -> new TestingAuthenticationToken("user", "password", "ROLE_USER");
+
+		AuthorizationDecision admin = manager.check(authentication, request("GET", "/api/admin/users"));
+		assertThat(admin).isNotNull();
+		assertThat(admin.isGranted()).isFalse();
+
+		AuthorizationDecision self = manager.check(authentication, request("POST", "/api/users/user"));
+		assertThat(self).isNotNull();
+		assertThat(self.isGranted()).isTrue();
+
+		AuthorizationDecision read = manager.check(authentication, request("GET", "/api/orders"));
+		assertThat(read).isNotNull();
+		assertThat(read.isGranted()).isTrue();
+
+		AuthorizationDecision abstain = manager.check(authentication, request("POST", "/api/orders"));
+		assertThat(abstain).isNull();
+	}
+
+	@Test
+	public void checkWhenIndexRequestMatchersAndNoMatchThenDeniedDecision() {
+		RequestMatcherDelegatingAuthorizationManager manager = RequestMatcherDelegatingAuthorizationManager.builder()
+			.indexRequestMatchers(true)
+			.add(new AntPathRequestMatcher("/grant/**"), (a, o) -> new AuthorizationDecision(true))
+			.build();
+
+		AuthorizationDecision decision = manager.check(TestAuthentication::authenticatedUser, request("GET", "/deny"));
+		assertThat(decision).isNotNull();
+		assertThat(decision.isGranted()).isFalse();
+	}
+
 	@Test
 	public void addWhenMappingsConsumerNullThenException() {
 		assertThatIllegalArgumentException()
@@ -404,4 +446,10 @@ public class RequestMatcherDelegatingAuthorizationManagerTests {
 		assertThat(decision.isGranted()).isFalse();
 	}
 
+	private static MockHttpServletRequest request(String method, String servletPath) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, servletPath);
+		request.setServletPath(servletPath);
+		return request;
+	}
+
 }
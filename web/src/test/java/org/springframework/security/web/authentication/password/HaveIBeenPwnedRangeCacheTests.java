@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.authentication.password;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link HaveIBeenPwnedRangeCache}
+ */
+class HaveIBeenPwnedRangeCacheTests {
+
+	private final HaveIBeenPwnedRangeCache cache = new HaveIBeenPwnedRangeCache();
+
+	@Test
+	void isEnabledWhenDefaultThenFalse() {
+		assertThat(this.cache.isEnabled()).isFalse();
+	}
+
+	@Test
+	void setMaximumSizeWhenNegativeThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cache.setMaximumSize(-1));
+	}
+
+	@Test
+	void setTimeToLiveWhenZeroThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cache.setTimeToLive(Duration.ZERO));
+	}
+
+	@Test
+	void putWhenFullThenLeastRecentlyUsedEvicted() {
+		this.cache.setMaximumSize(2);
+		this.cache.put("AAAAA", Set.of("A"));
+		this.cache.put("BBBBB", Set.of("B"));
+		this.cache.get("AAAAA");
+		this.cache.put("CCCCC", Set.of("C"));
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.get("AAAAA")).containsExactly("A");
+		assertThat(this.cache.get("BBBBB")).isNull();
+		assertThat(this.cache.get("CCCCC")).containsExactly("C");
+	}
+
+	@Test
+	void getWhenExpiredThenNull() {
+		Instant now = Instant.now();
+		this.cache.setMaximumSize(2);
+		this.cache.setTimeToLive(Duration.ofMinutes(1));
+		this.cache.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		this.cache.put("AAAAA", Set.of("A"));
+		assertThat(this.cache.get("AAAAA")).containsExactly("A");
+		this.cache.setClock(Clock.fixed(now.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+		assertThat(this.cache.get("AAAAA")).isNull();
+		assertThat(this.cache.size()).isZero();
+	}
+
+	@Test
+	void parseWhenRangeResponseThenSuffixes() {
+		Set<String> suffixes = HaveIBeenPwnedRangeCache.parse("""
+				2CDE4CDCFA5AD7D223BD1800338FBEAA04E:1\r
+				2DC183F740EE76F27B78EB39C8AD972A757:300185\r
+				""");
+		assertThat(suffixes).containsExactlyInAnyOrder("2CDE4CDCFA5AD7D223BD1800338FBEAA04E",
+				"2DC183F740EE76F27B78EB39C8AD972A757");
+	}
+
+	@Test
+	void parseWhenLowerCaseSuffixesThenUpperCase() {
+		Set<String> suffixes = HaveIBeenPwnedRangeCache.parse("2cde4cdcfa5ad7d223bd1800338fbeaa04e:1");
+		assertThat(suffixes).containsExactly("2CDE4CDCFA5AD7D223BD1800338FBEAA04E");
+	}
+
+	@Test
+	void parseWhenEmptyThenEmpty() {
+		assertThat(HaveIBeenPwnedRangeCache.parse("")).isEmpty();
+		assertThat(HaveIBeenPwnedRangeCache.parse(null)).isEmpty();
+	}
+
+}
@@ -17,6 +17,15 @@
 package org.springframework.security.web.authentication.password;
 
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.HttpUrl;
 import okhttp3.mockwebserver.MockResponse;
@@ -29,6 +38,7 @@ import org.springframework.security.authentication.password.CompromisedPasswordD
 import org.springframework.web.client.RestClient;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 
 class HaveIBeenPwnedRestApiPasswordCheckerTests {
@@ -96,4 +106,79 @@ class HaveIBeenPwnedRestApiPasswordCheckerTests {
 		assertThatNoException().isThrownBy(() -> this.passwordChecker.check("123456"));
 	}
 
+	@Test
+	void checkWhenRangeCachedThenPrefixRequestedOnce() {
+		this.passwordChecker.setRangeCacheMaximumSize(10);
+		this.server.enqueue(new MockResponse().setBody(this.pwnedPasswords).setResponseCode(200));
+		assertThat(this.passwordChecker.check("P@ssw0rd").isCompromised()).isTrue();
+		assertThat(this.passwordChecker.check("P@ssw0rd").isCompromised()).isTrue();
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	void checkWhenRangeCacheExpiredThenPrefixRequestedAgain() {
+		Instant now = Instant.now();
+		this.passwordChecker.setRangeCacheMaximumSize(10);
+		this.passwordChecker.setRangeCacheTimeToLive(Duration.ofMinutes(1));
+		this.passwordChecker.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		this.server.enqueue(new MockResponse().setBody(this.pwnedPasswords).setResponseCode(200));
+		this.server.enqueue(new MockResponse().setResponseCode(200));
+		assertThat(this.passwordChecker.check("P@ssw0rd").isCompromised()).isTrue();
+		this.passwordChecker.setClock(Clock.fixed(now.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+		assertThat(this.passwordChecker.check("P@ssw0rd").isCompromised()).isFalse();
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void checkWhenRangeRequestFailsThenNotCached() {
+		this.passwordChecker.setRangeCacheMaximumSize(10);
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		this.server.enqueue(new MockResponse().setBody(this.pwnedPasswords).setResponseCode(200));
+		assertThat(this.passwordChecker.check("P@ssw0rd").isCompromised()).isFalse();
+		assertThat(this.passwordChecker.check("P@ssw0rd").isCompromised()).isTrue();
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void checkWhenConcurrentChecksOfSamePrefixThenOneRequest() {
+		this.passwordChecker.setRangeCacheMaximumSize(10);
+		this.server.enqueue(new MockResponse().setBody(this.pwnedPasswords)
+			.setResponseCode(200)
+			.setHeadersDelay(200, TimeUnit.MILLISECONDS));
+		List<CompletableFuture<CompromisedPasswordDecision>> checks = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			checks.add(CompletableFuture.supplyAsync(() -> this.passwordChecker.check("P@ssw0rd")));
+		}
+		checks.forEach((check) -> assertThat(check.join().isCompromised()).isTrue());
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	void checkWhenConcurrentChecksOfSamePrefixAndRequestThrowsErrorThenWaitingChecksFail() {
+		this.passwordChecker.setRangeCacheMaximumSize(10);
+		this.passwordChecker.setRestClient(RestClient.builder()
+			.baseUrl(this.server.url("/range/").toString())
+			.requestInterceptor((request, body, execution) -> {
+				sleep(200);
+				throw new OutOfMemoryError("range request");
+			})
+			.build());
+		List<CompletableFuture<CompromisedPasswordDecision>> checks = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			checks.add(CompletableFuture.supplyAsync(() -> this.passwordChecker.check("P@ssw0rd")));
+		}
+		checks.forEach((check) -> assertThatExceptionOfType(CompletionException.class)
+			.isThrownBy(() -> check.orTimeout(5, TimeUnit.SECONDS).join())
+			.withCauseInstanceOf(OutOfMemoryError.class));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 }
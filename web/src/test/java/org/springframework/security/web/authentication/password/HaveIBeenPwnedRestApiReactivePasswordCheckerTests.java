@@ -17,6 +17,9 @@
 package org.springframework.security.web.authentication.password;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.HttpUrl;
 import okhttp3.mockwebserver.MockResponse;
@@ -24,8 +27,10 @@ import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import org.springframework.security.authentication.password.CompromisedPasswordDecision;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -102,4 +107,45 @@ class HaveIBeenPwnedRestApiReactivePasswordCheckerTests {
 			.verifyComplete();
 	}
 
+	@Test
+	void checkWhenRangeCachedThenPrefixRequestedOnce() {
+		this.passwordChecker.setRangeCacheMaximumSize(10);
+		this.server.enqueue(new MockResponse().setBody(this.pwnedPasswords).setResponseCode(200));
+		StepVerifier.create(this.passwordChecker.check("P@ssw0rd"))
+			.assertNext((check) -> assertThat(check.isCompromised()).isTrue())
+			.verifyComplete();
+		StepVerifier.create(this.passwordChecker.check("P@ssw0rd"))
+			.assertNext((check) -> assertThat(check.isCompromised()).isTrue())
+			.verifyComplete();
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	void checkWhenRangeRequestFailsThenNotCached() {
+		this.passwordChecker.setRangeCacheMaximumSize(10);
+		this.server.enqueue(new MockResponse().setResponseCode(503));
+		this.server.enqueue(new MockResponse().setBody(this.pwnedPasswords).setResponseCode(200));
+		StepVerifier.create(this.passwordChecker.check("P@ssw0rd"))
+			.assertNext((check) -> assertThat(check.isCompromised()).isFalse())
+			.verifyComplete();
+		StepVerifier.create(this.passwordChecker.check("P@ssw0rd"))
+			.assertNext((check) -> assertThat(check.isCompromised()).isTrue())
+			.verifyComplete();
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void checkWhenConcurrentChecksOfSamePrefixThenOneRequest() {
+		this.passwordChecker.setRangeCacheMaximumSize(10);
+		this.server.enqueue(new MockResponse().setBody(this.pwnedPasswords)
+			.setResponseCode(200)
+			.setHeadersDelay(200, TimeUnit.MILLISECONDS));
+		List<CompromisedPasswordDecision> checks = Flux.range(0, 4)
+			.flatMap((i) -> this.passwordChecker.check("P@ssw0rd"))
+			.collectList()
+			.block(Duration.ofSeconds(5));
+		assertThat(checks).hasSize(4).allMatch(CompromisedPasswordDecision::isCompromised);
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+	}
+
 }
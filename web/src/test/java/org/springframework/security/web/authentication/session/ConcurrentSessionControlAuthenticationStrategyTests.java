@@ -16,9 +16,11 @@
 
 package org.springframework.security.web.authentication.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,14 +28,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.mock.web.MockServletContext;
 import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.session.JdbcSessionRegistry;
 import org.springframework.security.core.session.SessionInformation;
 import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.ShardedSessionRegistry;
+import org.springframework.security.core.userdetails.User;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -226,9 +237,153 @@ public class ConcurrentSessionControlAuthenticationStrategyTests {
 		verifyNoInteractions(this.sessionRegistry);
 	}
 
+	@Test
+	public void onAuthenticationWhenCountingSessionRegistryUnderLimitThenNoSessionExpired() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry);
+		strategy.setMaximumSessions(2);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+	}
+
+	@Test
+	public void onAuthenticationWhenCountingSessionRegistryAtLimitWithSameSessionThenNoSessionExpired() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		this.request.setSession(new MockHttpSession(new MockServletContext(), "1"));
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry);
+		strategy.setExceptionIfMaximumExceeded(true);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+	}
+
+	@Test
+	public void onAuthenticationWhenCountingSessionRegistryAtLimitWithSessionOfOtherPrincipalThenSessionAuthenticationException() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		registry.registerNewSession("2", "other");
+		this.request.setSession(new MockHttpSession(new MockServletContext(), "2"));
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry);
+		strategy.setExceptionIfMaximumExceeded(true);
+		assertThatExceptionOfType(SessionAuthenticationException.class)
+			.isThrownBy(() -> strategy.onAuthentication(this.authentication, this.request, this.response));
+		assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+	}
+
+	@Test
+	public void onAuthenticationWhenCountingSessionRegistryExceededThenLeastRecentlyUsedExpired() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		registry.registerNewSession("2", this.authentication.getPrincipal());
+		registry.registerNewSession("3", this.authentication.getPrincipal());
+		registry.refreshLastRequest("1");
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry);
+		strategy.setMaximumSessions(2);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(registry.getSessionInformation("2").isExpired()).isTrue();
+		assertThat(registry.getSessionInformation("3").isExpired()).isTrue();
+		assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+		assertThat(registry.getSessionCount(this.authentication.getPrincipal())).isEqualTo(1);
+	}
+
+	@Test
+	public void onAuthenticationWhenCountingSessionRegistryExceededWithExceptionThenSessionAuthenticationException() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry);
+		strategy.setExceptionIfMaximumExceeded(true);
+		assertThatExceptionOfType(SessionAuthenticationException.class)
+			.isThrownBy(() -> strategy.onAuthentication(this.authentication, this.request, this.response));
+		assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+	}
+
+	@Test
+	public void onAuthenticationWhenJdbcSessionRegistryAtLimitWithSameSessionThenNoSessionExpired() {
+		EmbeddedDatabase db = createDb();
+		JdbcSessionRegistry registry = new JdbcSessionRegistry(new JdbcTemplate(db));
+		try {
+			Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+					User.withUsername("user").password("password").roles("USER").build(), null,
+					AuthorityUtils.createAuthorityList("ROLE_USER"));
+			registry.registerNewSession("1", authentication.getPrincipal());
+			this.request.setSession(new MockHttpSession(new MockServletContext(), "1"));
+			ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+					registry);
+			strategy.setExceptionIfMaximumExceeded(true);
+			strategy.onAuthentication(authentication, this.request, this.response);
+			assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+		}
+		finally {
+			registry.destroy();
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void onAuthenticationWhenJdbcSessionRegistryAtLimitWithSessionOfOtherPrincipalThenSessionAuthenticationException() {
+		EmbeddedDatabase db = createDb();
+		JdbcSessionRegistry registry = new JdbcSessionRegistry(new JdbcTemplate(db));
+		try {
+			Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+					User.withUsername("user").password("password").roles("USER").build(), null,
+					AuthorityUtils.createAuthorityList("ROLE_USER"));
+			registry.registerNewSession("1", authentication.getPrincipal());
+			registry.registerNewSession("2", "other");
+			this.request.setSession(new MockHttpSession(new MockServletContext(), "2"));
+			ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+					registry);
+			strategy.setExceptionIfMaximumExceeded(true);
+			assertThatExceptionOfType(SessionAuthenticationException.class)
+				.isThrownBy(() -> strategy.onAuthentication(authentication, this.request, this.response));
+			assertThat(registry.getSessionInformation("1").isExpired()).isFalse();
+		}
+		finally {
+			registry.destroy();
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void onAuthenticationWhenCountingSessionRegistryExceededThenAllowableSessionsExceededWithSessions() {
+		ShardedSessionRegistry registry = new ShardedSessionRegistry();
+		registry.registerNewSession("1", this.authentication.getPrincipal());
+		registry.registerNewSession("2", this.authentication.getPrincipal());
+		registry.refreshLastRequest("1");
+		List<String> exceeded = new ArrayList<>();
+		ConcurrentSessionControlAuthenticationStrategy strategy = new ConcurrentSessionControlAuthenticationStrategy(
+				registry) {
+			@Override
+			protected void allowableSessionsExceeded(List<SessionInformation> sessions, int allowableSessions,
+					SessionRegistry registry) {
+				sessions.forEach((session) -> exceeded.add(session.getSessionId()));
+			}
+		};
+		strategy.setMaximumSessions(2);
+		strategy.onAuthentication(this.authentication, this.request, this.response);
+		assertThat(exceeded).containsExactly("2", "1");
+		assertThat(registry.getSessionCount(this.authentication.getPrincipal())).isEqualTo(2);
+	}
+
 	@Test
 	public void setMessageSourceNull() {
 		assertThatIllegalArgumentException().isThrownBy(() -> this.strategy.setMessageSource(null));
 	}
 
+	private static EmbeddedDatabase createDb() {
+		// @formatter:off
+		return new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.HSQL)
+				.setScriptEncoding("UTF-8")
+				.addScript("org/springframework/security/core/session/jdbc/session-registry-schema.sql")
+				.build();
+		// @formatter:on
+	}
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.codec;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.codec.BinarySecurityCodec;
+import org.springframework.security.codec.CoreBinaryCodecModule;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.security.web.authentication.switchuser.SwitchUserGrantedAuthority;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link WebBinaryCodecModule}
+ */
+public class WebBinaryCodecModuleTests {
+
+	private final BinarySecurityCodec codec = new BinarySecurityCodec(
+			List.of(new CoreBinaryCodecModule(), new WebBinaryCodecModule()));
+
+	@Test
+	void serializeWhenPreAuthenticatedAuthenticationTokenThenRoundTrips() throws Exception {
+		PreAuthenticatedAuthenticationToken token = new PreAuthenticatedAuthenticationToken("user", "N/A",
+				AuthorityUtils.createAuthorityList("ROLE_USER"));
+		token.setDetails(new WebAuthenticationDetails("127.0.0.1", "session"));
+		SecurityContextImpl context = new SecurityContextImpl(token);
+		Object deserialized = this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(context));
+		assertThat(deserialized).isEqualTo(context);
+		assertThat(((SecurityContextImpl) deserialized).getAuthentication().getDetails())
+			.isInstanceOf(WebAuthenticationDetails.class);
+	}
+
+	@Test
+	void serializeWhenSwitchUserGrantedAuthorityThenRoundTrips() throws Exception {
+		UsernamePasswordAuthenticationToken source = UsernamePasswordAuthenticationToken.authenticated("admin", null,
+				AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.authenticated("user", null,
+				List.of(new SwitchUserGrantedAuthority("ROLE_PREVIOUS_ADMINISTRATOR", source)));
+		Object deserialized = this.codec.deserializeFromByteArray(this.codec.serializeToByteArray(token));
+		assertThat(deserialized).isEqualTo(token);
+		SwitchUserGrantedAuthority authority = (SwitchUserGrantedAuthority) ((UsernamePasswordAuthenticationToken) deserialized)
+			.getAuthorities()
+			.iterator()
+			.next();
+		assertThat(authority.getSource()).isEqualTo(source);
+	}
+
+}
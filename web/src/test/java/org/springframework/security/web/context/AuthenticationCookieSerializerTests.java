@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link AuthenticationCookieSerializer}
+ */
+public class AuthenticationCookieSerializerTests {
+
+	private final Authentication authentication = new TestingAuthenticationToken("user", "password", "ROLE_USER",
+			"ROLE_ADMIN");
+
+	private final SecretKey key = key();
+
+	private final AuthenticationCookieSerializer serializer = new AuthenticationCookieSerializer(this.key);
+
+	@Test
+	public void constructorWhenKeysEmptyThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new AuthenticationCookieSerializer(List.of()));
+	}
+
+	@Test
+	public void constructorWhenNotAesKeyThenIllegalArgumentException() {
+		SecretKey key = new SecretKeySpec(KeyGenerators.secureRandom(32).generateKey(), "HmacSHA256");
+		assertThatIllegalArgumentException().isThrownBy(() -> new AuthenticationCookieSerializer(key))
+			.withMessage("keys must be AES keys");
+	}
+
+	@Test
+	public void deserializeWhenSerializedThenNameAndAuthoritiesRestored() {
+		Authentication deserialized = this.serializer.deserialize("SESSION",
+				this.serializer.serialize("SESSION", this.authentication));
+		assertThat(deserialized.isAuthenticated()).isTrue();
+		assertThat(deserialized.getName()).isEqualTo("user");
+		assertThat(deserialized.getCredentials()).isNull();
+		assertThat(AuthorityUtils.authorityListToSet(deserialized.getAuthorities()))
+			.containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+	}
+
+	@Test
+	public void deserializeWhenTamperedThenNull() {
+		char[] value = this.serializer.serialize("SESSION", this.authentication).toCharArray();
+		value[value.length / 2] = (value[value.length / 2] != 'A') ? 'A' : 'B';
+		assertThat(this.serializer.deserialize("SESSION", new String(value))).isNull();
+	}
+
+	@Test
+	public void deserializeWhenSerializedForOtherCookieThenNull() {
+		String value = this.serializer.serialize("REMEMBER", this.authentication);
+		assertThat(this.serializer.deserialize("SESSION", value)).isNull();
+		assertThat(this.serializer.deserialize("REMEMBER", value).getName()).isEqualTo("user");
+	}
+
+	@Test
+	public void deserializeWhenTruncatedThenNull() {
+		assertThat(this.serializer.deserialize("SESSION", "AAAA")).isNull();
+	}
+
+	@Test
+	public void deserializeWhenNotBase64ThenNull() {
+		assertThat(this.serializer.deserialize("SESSION", "not base64!")).isNull();
+	}
+
+	@Test
+	public void deserializeWhenExpiredThenNull() {
+		Instant now = Instant.now();
+		this.serializer.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		this.serializer.setTimeToLive(Duration.ofMinutes(5));
+		String value = this.serializer.serialize("SESSION", this.authentication);
+		this.serializer.setClock(Clock.fixed(now.plusSeconds(299), ZoneOffset.UTC));
+		assertThat(this.serializer.deserialize("SESSION", value)).isNotNull();
+		this.serializer.setClock(Clock.fixed(now.plusSeconds(300), ZoneOffset.UTC));
+		assertThat(this.serializer.deserialize("SESSION", value)).isNull();
+	}
+
+	@Test
+	public void deserializeWhenEncryptedWithPreviousKeyThenRestored() {
+		String value = this.serializer.serialize("SESSION", this.authentication);
+		AuthenticationCookieSerializer rotated = new AuthenticationCookieSerializer(List.of(key(), this.key));
+		assertThat(rotated.deserialize("SESSION", value).getName()).isEqualTo("user");
+		assertThat(new AuthenticationCookieSerializer(key()).deserialize("SESSION", value)).isNull();
+	}
+
+	@Test
+	public void serializeWhenLongerThanMaximumLengthThenNull() {
+		String value = this.serializer.serialize("SESSION", this.authentication);
+		this.serializer.setMaximumLength(value.length() - 1);
+		assertThat(this.serializer.serialize("SESSION", this.authentication)).isNull();
+		assertThat(this.serializer.deserialize("SESSION", value)).isNull();
+	}
+
+	private static SecretKey key() {
+		return new SecretKeySpec(KeyGenerators.secureRandom(32).generateKey(), "AES");
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.context;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CookieSecurityContextRepository}
+ */
+public class CookieSecurityContextRepositoryTests {
+
+	private final CookieSecurityContextRepository repository = new CookieSecurityContextRepository(
+			new AuthenticationCookieSerializer(new SecretKeySpec(KeyGenerators.secureRandom(32).generateKey(), "AES")));
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Test
+	public void constructorWhenSerializerNullThenIllegalArgumentException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CookieSecurityContextRepository(null))
+			.withMessage("serializer cannot be null");
+	}
+
+	@Test
+	public void saveContextWhenAuthenticatedThenWritesCookie() {
+		this.repository.saveContext(authenticated(), this.request, this.response);
+		Cookie cookie = this.response.getCookie(CookieSecurityContextRepository.DEFAULT_COOKIE_NAME);
+		assertThat(cookie).isNotNull();
+		assertThat(cookie.isHttpOnly()).isTrue();
+		assertThat(cookie.getPath()).isEqualTo("/");
+		assertThat(cookie.getMaxAge()).isEqualTo(1800);
+		assertThat(cookie.getAttribute("SameSite")).isEqualTo("Lax");
+	}
+
+	@Test
+	public void loadDeferredContextWhenCookieThenRestoresAuthentication() {
+		this.repository.saveContext(authenticated(), this.request, this.response);
+		this.request.setCookies(this.response.getCookies());
+		assertThat(this.repository.containsContext(this.request)).isTrue();
+		DeferredSecurityContext context = this.repository.loadDeferredContext(this.request);
+		assertThat(context.isGenerated()).isFalse();
+		assertThat(context.get().getAuthentication().getName()).isEqualTo("user");
+		assertThat(AuthorityUtils.authorityListToSet(context.get().getAuthentication().getAuthorities()))
+			.containsExactly("ROLE_USER");
+	}
+
+	@Test
+	public void loadDeferredContextWhenNoCookieThenGenerated() {
+		DeferredSecurityContext context = this.repository.loadDeferredContext(this.request);
+		assertThat(context.isGenerated()).isTrue();
+		assertThat(context.get().getAuthentication()).isNull();
+		assertThat(this.repository.containsContext(this.request)).isFalse();
+	}
+
+	@Test
+	public void loadDeferredContextWhenInvalidCookieThenGenerated() {
+		this.request.setCookies(new Cookie(CookieSecurityContextRepository.DEFAULT_COOKIE_NAME, "invalid"));
+		assertThat(this.repository.loadDeferredContext(this.request).isGenerated()).isTrue();
+	}
+
+	@Test
+	public void saveContextWhenAnonymousAndCookieThenRemovesCookie() {
+		this.request.setCookies(new Cookie(CookieSecurityContextRepository.DEFAULT_COOKIE_NAME, "value"));
+		SecurityContext context = new SecurityContextImpl(new AnonymousAuthenticationToken("key", "anonymous",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+		this.repository.saveContext(context, this.request, this.response);
+		Cookie cookie = this.response.getCookie(CookieSecurityContextRepository.DEFAULT_COOKIE_NAME);
+		assertThat(cookie.getValue()).isEmpty();
+		assertThat(cookie.getMaxAge()).isZero();
+	}
+
+	@Test
+	public void saveContextWhenEmptyAndNoCookieThenNoCookie() {
+		this.repository.saveContext(new SecurityContextImpl(), this.request, this.response);
+		assertThat(this.response.getCookies()).isEmpty();
+	}
+
+	@Test
+	public void saveContextWhenCookieCustomizerThenCustomized() {
+		this.repository.setCookieName("context");
+		this.repository.setCookieCustomizer((cookie) -> cookie.sameSite("Strict").secure(true));
+		this.repository.saveContext(authenticated(), this.request, this.response);
+		Cookie cookie = this.response.getCookie("context");
+		assertThat(cookie.getSecure()).isTrue();
+		assertThat(cookie.getAttribute("SameSite")).isEqualTo("Strict");
+	}
+
+	private static SecurityContext authenticated() {
+		return new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_USER"));
+	}
+
+}
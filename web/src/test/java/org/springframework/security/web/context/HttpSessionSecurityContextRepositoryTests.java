@@ -58,11 +58,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
@@ -109,6 +112,88 @@ public class HttpSessionSecurityContextRepositoryTests {
 		verify(request, never()).getSession();
 	}
 
+	@Test
+	public void saveContextWhenSkipUnchangedContextWritesAndContextUnchangedThenNotStored() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setSkipUnchangedContextWrites(true);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		HttpSession session = spy(new MockHttpSession());
+		session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+				new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_A")));
+		request.setSession(session);
+		reset(session);
+		repo.loadDeferredContext(request).get();
+		SecurityContext context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_A"));
+		repo.saveContext(context, request, new MockHttpServletResponse());
+		verify(session, never()).setAttribute(any(), any());
+		assertThat(repo.getSkippedContextWriteCount()).isOne();
+		assertThat(repo.getContextWriteCount()).isZero();
+	}
+
+	@Test
+	public void saveContextWhenSkipUnchangedContextWritesAndAuthoritiesChangedThenStored() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setSkipUnchangedContextWrites(true);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession()
+			.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+					new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "Aa")));
+		repo.loadDeferredContext(request).get();
+		// "Aa" and "BB" have the same String hash code
+		SecurityContext context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "BB"));
+		repo.saveContext(context, request, new MockHttpServletResponse());
+		assertThat(request.getSession().getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY))
+			.isSameAs(context);
+		assertThat(repo.getContextWriteCount()).isOne();
+	}
+
+	@Test
+	public void saveContextWhenSkipUnchangedContextWritesAndLoadedContextModifiedThenStored() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setSkipUnchangedContextWrites(true);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		HttpSession session = spy(new MockHttpSession());
+		session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+				new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_A")));
+		request.setSession(session);
+		SecurityContext context = repo.loadDeferredContext(request).get();
+		context.setAuthentication(new TestingAuthenticationToken("admin", "password", "ROLE_A"));
+		repo.saveContext(context, request, new MockHttpServletResponse());
+		verify(session, times(2)).setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+				context);
+		assertThat(repo.getSkippedContextWriteCount()).isZero();
+	}
+
+	@Test
+	public void saveContextWhenSkipUnchangedContextWritesAndResponseWrapperThenNotStored() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		repo.setSkipUnchangedContextWrites(true);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession()
+			.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+					new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_A")));
+		HttpRequestResponseHolder holder = new HttpRequestResponseHolder(request, new MockHttpServletResponse());
+		repo.loadContext(holder);
+		SecurityContext context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_A"));
+		repo.saveContext(context, holder.getRequest(), holder.getResponse());
+		assertThat(repo.getSkippedContextWriteCount()).isOne();
+		assertThat(repo.getContextWriteCount()).isZero();
+	}
+
+	@Test
+	public void saveContextWhenSkipUnchangedContextWritesDisabledThenStored() {
+		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession()
+			.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+					new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_A")));
+		repo.loadDeferredContext(request).get();
+		repo.saveContext(new SecurityContextImpl(new TestingAuthenticationToken("user", "password", "ROLE_A")), request,
+				new MockHttpServletResponse());
+		assertThat(repo.getContextWriteCount()).isOne();
+		assertThat(repo.getSkippedContextWriteCount()).isZero();
+	}
+
 	@Test
 	public void sessionIsntCreatedIfContextDoesntChange() {
 		HttpSessionSecurityContextRepository repo = new HttpSessionSecurityContextRepository();
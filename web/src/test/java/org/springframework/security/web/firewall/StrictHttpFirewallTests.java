@@ -702,6 +702,26 @@ public class StrictHttpFirewallTests {
 		this.firewall.getFirewalledRequest(request);
 	}
 
+	@Test
+	public void getFirewalledRequestWhenAddToDecodedUrlBlocklistAfterRequestThenThrowsRequestRejectedException() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "");
+		request.setPathInfo("/a/admin/c");
+		this.firewall.getFirewalledRequest(request);
+		this.firewall.getDecodedUrlBlocklist().add("admin");
+		assertThatExceptionOfType(RequestRejectedException.class)
+			.isThrownBy(() -> this.firewall.getFirewalledRequest(request))
+			.withMessageContaining("\"admin\"");
+	}
+
+	@Test
+	public void getFirewalledRequestWhenBlocklistedAndNotNormalizedThenRejectedAsBlocklisted() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "");
+		request.setRequestURI("/a/../b;c");
+		assertThatExceptionOfType(RequestRejectedException.class)
+			.isThrownBy(() -> this.firewall.getFirewalledRequest(request))
+			.withMessageContaining("\";\"");
+	}
+
 	@Test
 	public void getFirewalledRequestWhenTrustedDomainThenNoException() {
 		this.request.addHeader("Host", "example.org");
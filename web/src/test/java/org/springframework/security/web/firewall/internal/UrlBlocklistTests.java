@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.firewall.internal;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link UrlBlocklist}.
+ */
+public class UrlBlocklistTests {
+
+	private final UrlBlocklist blocklist = new UrlBlocklist();
+
+	@Test
+	public void scanWhenNullThenNoResult() {
+		this.blocklist.add(";");
+		assertThat(this.blocklist.scanner().scan(null, true)).isZero();
+	}
+
+	@Test
+	public void scanWhenContainsBlocklistedThenReturnsBlocklisted() {
+		this.blocklist.addAll(Arrays.asList(";", "%2f", "%2F", "//", " "));
+		UrlBlocklist.Scanner scanner = this.blocklist.scanner();
+		assertThat(scanner.getBlocklisted(scanner.scan("/a/b%2Fc", false))).isEqualTo("%2F");
+		assertThat(scanner.getBlocklisted(scanner.scan("/a//b", false))).isEqualTo("//");
+		assertThat(scanner.getBlocklisted(scanner.scan("/a b", false))).isEqualTo(" ");
+		assertThat(scanner.getBlocklisted(scanner.scan("/a/b;c%2fd", false))).isEqualTo(";");
+		assertThat(scanner.getBlocklisted(scanner.scan("/a/b/c", false))).isNull();
+	}
+
+	@Test
+	public void scanWhenEmptyStringBlocklistedThenEveryValueBlocklisted() {
+		this.blocklist.add("");
+		UrlBlocklist.Scanner scanner = this.blocklist.scanner();
+		assertThat(scanner.getBlocklisted(scanner.scan("", false))).isEmpty();
+		assertThat(scanner.getBlocklisted(scanner.scan("/a", false))).isEmpty();
+	}
+
+	@Test
+	public void scanWhenDotSegmentsThenNotNormalized() {
+		UrlBlocklist.Scanner scanner = this.blocklist.scanner();
+		for (String path : new String[] { ".", "..", "./a", "../a", "/a/.", "/a/..", "/a/./b", "/a/../b" }) {
+			assertThat(UrlBlocklist.Scanner.hasFlag(scanner.scan(path, false), UrlBlocklist.NOT_NORMALIZED)).as(path)
+				.isTrue();
+		}
+		for (String path : new String[] { "", "/", "/a", "/.a", "/a.", "/...", "/a/..b", "/a/b../" }) {
+			assertThat(UrlBlocklist.Scanner.hasFlag(scanner.scan(path, false), UrlBlocklist.NOT_NORMALIZED)).as(path)
+				.isFalse();
+		}
+	}
+
+	@Test
+	public void scanWhenNotPrintableAsciiThenFlaggedOnlyWhenRequested() {
+		UrlBlocklist.Scanner scanner = this.blocklist.scanner();
+		assertThat(UrlBlocklist.Scanner.hasFlag(scanner.scan("/a\u00e4", true), UrlBlocklist.NOT_PRINTABLE_ASCII))
+			.isTrue();
+		assertThat(UrlBlocklist.Scanner.hasFlag(scanner.scan("/a\u00e4", false), UrlBlocklist.NOT_PRINTABLE_ASCII))
+			.isFalse();
+		assertThat(UrlBlocklist.Scanner.hasFlag(scanner.scan("/a~b", true), UrlBlocklist.NOT_PRINTABLE_ASCII))
+			.isFalse();
+	}
+
+	@Test
+	public void scannerWhenModifiedThenRecompiled() {
+		this.blocklist.add(";");
+		UrlBlocklist.Scanner scanner = this.blocklist.scanner();
+		assertThat(this.blocklist.scanner()).isSameAs(scanner);
+		this.blocklist.removeIf(";"::equals);
+		assertThat(this.blocklist.scanner()).isNotSameAs(scanner);
+		assertThat(this.blocklist.scanner().getBlocklisted(this.blocklist.scanner().scan("/a;b", false))).isNull();
+		this.blocklist.add("%25");
+		assertThat(this.blocklist.scanner().getBlocklisted(this.blocklist.scanner().scan("/a%25", false)))
+			.isEqualTo("%25");
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.server.context;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.crypto.keygen.KeyGenerators;
+import org.springframework.security.web.context.AuthenticationCookieSerializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CookieServerSecurityContextRepository}
+ */
+public class CookieServerSecurityContextRepositoryTests {
+
+	private final CookieServerSecurityContextRepository repository = new CookieServerSecurityContextRepository(
+			new AuthenticationCookieSerializer(new SecretKeySpec(KeyGenerators.secureRandom(32).generateKey(), "AES")));
+
+	@Test
+	public void loadWhenSavedThenRestoresAuthentication() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		SecurityContext context = new SecurityContextImpl(
+				new TestingAuthenticationToken("user", "password", "ROLE_USER"));
+		this.repository.save(exchange, context).block();
+		ResponseCookie cookie = exchange.getResponse()
+			.getCookies()
+			.getFirst(CookieServerSecurityContextRepository.DEFAULT_COOKIE_NAME);
+		assertThat(cookie.isHttpOnly()).isTrue();
+		assertThat(cookie.getSameSite()).isEqualTo("Lax");
+		MockServerWebExchange next = MockServerWebExchange
+			.from(MockServerHttpRequest.get("/").cookie(new HttpCookie(cookie.getName(), cookie.getValue())));
+		SecurityContext loaded = this.repository.load(next).block();
+		assertThat(loaded.getAuthentication().getName()).isEqualTo("user");
+	}
+
+	@Test
+	public void loadWhenNoCookieThenEmpty() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		assertThat(this.repository.load(exchange).block()).isNull();
+	}
+
+	@Test
+	public void loadWhenInvalidCookieThenEmpty() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/")
+			.cookie(new HttpCookie(CookieServerSecurityContextRepository.DEFAULT_COOKIE_NAME, "invalid")));
+		assertThat(this.repository.load(exchange).block()).isNull();
+	}
+
+	@Test
+	public void saveWhenNullAndCookieThenRemovesCookie() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/")
+			.cookie(new HttpCookie(CookieServerSecurityContextRepository.DEFAULT_COOKIE_NAME, "value")));
+		this.repository.save(exchange, null).block();
+		ResponseCookie cookie = exchange.getResponse()
+			.getCookies()
+			.getFirst(CookieServerSecurityContextRepository.DEFAULT_COOKIE_NAME);
+		assertThat(cookie.getValue()).isEmpty();
+		assertThat(cookie.getMaxAge()).isZero();
+	}
+
+}
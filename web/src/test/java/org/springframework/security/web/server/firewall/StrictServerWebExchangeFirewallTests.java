@@ -364,6 +364,15 @@ class StrictServerWebExchangeFirewallTests {
 		getFirewalledExchange();
 	}
 
+	@Test
+	void getFirewalledExchangeWhenAddToDecodedUrlBlocklistAfterRequestThenException() {
+		this.request = get("/a/admin/c");
+		getFirewalledExchange();
+		this.firewall.getDecodedUrlBlocklist().add("admin");
+		assertThatExceptionOfType(ServerExchangeRejectedException.class).isThrownBy(this::getFirewalledExchange)
+			.withMessageContaining("\"admin\"");
+	}
+
 	@Test
 	void getFirewalledExchangeWhenTrustedDomainThenNoException() {
 		this.request.header("Host", "example.org");
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2002-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.security.web.util.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RequestMatcherIndex}
+ */
+public class RequestMatcherIndexTests {
+
+	@Test
+	public void compileWhenEntriesNullThenException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> RequestMatcherIndex.compile(null, Function.<RequestMatcher>identity()));
+	}
+
+	@Test
+	public void findFirstWhenLiteralPrefixThenMatches() {
+		RequestMatcherIndex<RequestMatcher> index = index(new AntPathRequestMatcher("/api/orders/**"),
+				new AntPathRequestMatcher("/api/customers/**"), new AntPathRequestMatcher("/**"));
+		assertThat(findFirst(index, "GET", "/api/customers/1"))
+			.isEqualTo(new AntPathRequestMatcher("/api/customers/**"));
+		assertThat(findFirst(index, "GET", "/api/orders")).isEqualTo(new AntPathRequestMatcher("/api/orders/**"));
+		assertThat(findFirst(index, "GET", "/api/ordersx")).isEqualTo(new AntPathRequestMatcher("/**"));
+	}
+
+	@Test
+	public void findFirstWhenEarlierCatchAllThenPreservesDeclarationOrder() {
+		RequestMatcherIndex<RequestMatcher> index = index(new AntPathRequestMatcher("/api/**"),
+				new AntPathRequestMatcher("/api/orders/**"));
+		assertThat(findFirst(index, "GET", "/api/orders/1")).isEqualTo(new AntPathRequestMatcher("/api/**"));
+	}
+
+	@Test
+	public void findFirstWhenWildcardSegmentThenEvaluatesPattern() {
+		RequestMatcherIndex<RequestMatcher> index = index(new AntPathRequestMatcher("/api/*/items/{id}"),
+				new AntPathRequestMatcher("/api/**/admin"));
+		assertThat(findFirst(index, "GET", "/api/orders/items/1"))
+			.isEqualTo(new AntPathRequestMatcher("/api/*/items/{id}"));
+		assertThat(findFirst(index, "GET", "/api/a/b/admin")).isEqualTo(new AntPathRequestMatcher("/api/**/admin"));
+		assertThat(findFirst(index, "GET", "/other/admin")).isNull();
+	}
+
+	@Test
+	public void findFirstWhenEmptySegmentsThenMatchesLikeAntPathMatcher() {
+		AntPathRequestMatcher matcher = new AntPathRequestMatcher("/api/orders/{id}");
+		RequestMatcherIndex<RequestMatcher> index = index(matcher);
+		MockHttpServletRequest request = request("GET", "//api///orders/1");
+		assertThat(matcher.matches(request)).isTrue();
+		assertThat(index.findFirst(request, RequestMatcherIndexTests::matching)).isSameAs(matcher);
+	}
+
+	@Test
+	public void findFirstWhenHttpMethodDoesNotMatchThenSkips() {
+		RequestMatcherIndex<RequestMatcher> index = index(new AntPathRequestMatcher("/api/**", "POST"),
+				new AntPathRequestMatcher("/api/**", "GET"));
+		assertThat(findFirst(index, "GET", "/api/orders")).isEqualTo(new AntPathRequestMatcher("/api/**", "GET"));
+		assertThat(findFirst(index, "DELETE", "/api/orders")).isNull();
+	}
+
+	@Test
+	public void findFirstWhenPathInfoThenUsesServletPathAndPathInfo() {
+		RequestMatcherIndex<RequestMatcher> index = index(new AntPathRequestMatcher("/spring/api/**"));
+		MockHttpServletRequest request = request("GET", "/spring");
+		request.setPathInfo("/api/orders");
+		assertThat(index.findFirst(request, RequestMatcherIndexTests::matching)).isNotNull();
+	}
+
+	@Test
+	public void findFirstWhenOrRequestMatcherThenIndexesEachDelegate() {
+		OrRequestMatcher or = new OrRequestMatcher(new AntPathRequestMatcher("/orders/**"),
+				new AntPathRequestMatcher("/customers/**"));
+		RequestMatcherIndex<RequestMatcher> index = index(new AntPathRequestMatcher("/admin/**"), or);
+		assertThat(findFirst(index, "GET", "/orders/1")).isSameAs(or);
+		assertThat(findFirst(index, "GET", "/customers/1")).isSameAs(or);
+		assertThat(findFirst(index, "GET", "/products/1")).isNull();
+	}
+
+	@Test
+	public void findFirstWhenOpaqueMatcherThenAlwaysEvaluatedInOrder() {
+		RequestMatcher opaque = mock(RequestMatcher.class);
+		given(opaque.matches(any())).willReturn(true);
+		RequestMatcherIndex<RequestMatcher> index = index(new AntPathRequestMatcher("/orders/**"), opaque,
+				new AntPathRequestMatcher("/customers/**"));
+		assertThat(findFirst(index, "GET", "/orders/1")).isEqualTo(new AntPathRequestMatcher("/orders/**"));
+		assertThat(findFirst(index, "GET", "/customers/1")).isSameAs(opaque);
+	}
+
+	@Test
+	public void findFirstWhenCaseInsensitiveThenOpaque() {
+		AntPathRequestMatcher matcher = new AntPathRequestMatcher("/orders/**", null, false);
+		RequestMatcherIndex<RequestMatcher> index = index(matcher);
+		assertThat(findFirst(index, "GET", "/ORDERS/1")).isSameAs(matcher);
+	}
+
+	@Test
+	public void findFirstWhenPathDoesNotShareLiteralPrefixThenMatcherNotEvaluated() {
+		AntPathRequestMatcher matcher = spy(new AntPathRequestMatcher("/orders/**"));
+		RequestMatcherIndex<RequestMatcher> index = index(matcher);
+		assertThat(findFirst(index, "GET", "/customers/1")).isNull();
+		verify(matcher, never()).matches(any());
+	}
+
+	@Test
+	public void findFirstWhenResolverReturnsNullThenOpaque() {
+		List<String> entries = List.of("first", "second");
+		RequestMatcherIndex<String> index = RequestMatcherIndex.compile(entries, (entry) -> null);
+		String first = index.findFirst(request("GET", "/any"),
+				(entry, request) -> entry.equals("second") ? entry : null);
+		assertThat(first).isEqualTo("second");
+		assertThat(index.getEntries()).containsExactly("first", "second");
+	}
+
+	@Test
+	public void findFirstWhenManyEntriesThenSameAsLinearScan() {
+		List<RequestMatcher> matchers = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			matchers.add(new AntPathRequestMatcher("/product" + i + "/v" + (i % 3) + "/**"));
+			matchers.add(new AntPathRequestMatcher("/product" + i + "/*/items/{id}", (i % 2 == 0) ? "GET" : null));
+		}
+		matchers.add(new AntPathRequestMatcher("/**"));
+		RequestMatcherIndex<RequestMatcher> index = RequestMatcherIndex.compile(matchers, Function.identity());
+		String[] paths = { "/product7/v1/orders", "/product8/v2/items/3", "/product8/v1/items/3", "/product9/x",
+				"/product49", "/", "" };
+		for (String path : paths) {
+			for (String method : new String[] { "GET", "POST" }) {
+				MockHttpServletRequest request = request(method, path);
+				RequestMatcher expected = matchers.stream().filter((m) -> m.matches(request)).findFirst().orElse(null);
+				assertThat(index.findFirst(request, RequestMatcherIndexTests::matching)).isSameAs(expected);
+			}
+		}
+	}
+
+	private static RequestMatcherIndex<RequestMatcher> index(RequestMatcher... matchers) {
+		return RequestMatcherIndex.compile(List.of(matchers), Function.identity());
+	}
+
+	private static RequestMatcher findFirst(RequestMatcherIndex<RequestMatcher> index, String method, String path) {
+		return index.findFirst(request(method, path), RequestMatcherIndexTests::matching);
+	}
+
+	private static RequestMatcher matching(RequestMatcher matcher, HttpServletRequest request) {
+		return matcher.matches(request) ? matcher : null;
+	}
+
+	private static MockHttpServletRequest request(String method, String servletPath) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, servletPath);
+		request.setServletPath(servletPath);
+		return request;
+	}
+
+}